@@ -0,0 +1,493 @@
+package control;
+
+
+import model.QuestionResults;
+import model.RowBitmap;
+import model.Tree;
+import model.TreeTable;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsIO;
+import utility.constants.ConstantsMath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+
+/**
+ * The AggregateEngine class answers all questions of the menu in one pass over a TreeTable.
+ * Every count, distinct count, average, CO2 sum and maximum the questions need is accumulated per row at once, instead
+ * of scanning and grouping the datasets again for each question.
+ * The answers are the same as the ones of the single question methods in {@link IOController}, ties included.
+ * The table is split into segments of a fixed amount of rows, which are aggregated on a fork-join pool and merged in
+ * the order of the table. The segments do not depend on the parallelism, so every parallelism gives the same answers.
+ * The questions can be restricted to the rows of a {@link RowBitmap}, then only these rows are visited and the answers
+ * are the same as for a list of just these trees.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class AggregateEngine
+{
+    MapOperations mapOperations = new MapOperations();
+    private final int parallelism;
+
+
+    /**
+     * Constructs an AggregateEngine using {@link ConstantsDatasets#AGGREGATION_PARALLELISM} threads.
+     */
+    public AggregateEngine ()
+    {
+        this(ConstantsDatasets.AGGREGATION_PARALLELISM);
+    }
+
+
+    /**
+     * Constructs an AggregateEngine using a given amount of threads.
+     *
+     * @param parallelism The amount of threads, 1 aggregates all segments on the calling thread.
+     *                    ({@code parallelism} > 0)
+     */
+    public AggregateEngine (int parallelism)
+    {
+        this.parallelism = parallelism;
+    }
+
+
+    /**
+     * Computes the answers to all questions in one pass over the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The answers to all questions.
+     */
+    public QuestionResults getQuestionResults (TreeTable treeTable)
+    {
+        return getQuestionResults(treeTable, null);
+    }
+
+
+    /**
+     * Computes the answers to all questions in one pass over the rows of a filter.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @param rowBitmap The rows to answer the questions for, {@code null} for all rows of the table.
+     * @return The answers to all questions for the trees of the filter.
+     */
+    public QuestionResults getQuestionResults (TreeTable treeTable, RowBitmap rowBitmap)
+    {
+        Aggregates aggregates = aggregate(treeTable, rowBitmap);
+
+        int district = ConstantsDatasets.INDEX_District;
+        int species = ConstantsDatasets.INDEX_SpeciesBotanical;
+
+        // Values without trees in the filter are left out, like in a list without these trees
+        int[] districtCodes = getCodesInOrder(aggregates.treesPerDistrict, aggregates.firstRowPerDistrict);
+        int[] speciesCodes = getCodesInOrder(aggregates.treesPerSpecies, aggregates.firstRowPerSpecies);
+
+        Map<String, Integer> speciesPerDistrict = new HashMap<>();
+        Map<String, Double> averageHeightPerSpecies = new HashMap<>();
+        Map<String, Double> averageCircumferencePerSpecies = new HashMap<>();
+        for (int code : districtCodes) speciesPerDistrict.put(treeTable.getValue(district, code), aggregates.speciesPerDistrict[code].cardinality());
+        for (int code : speciesCodes)
+        {
+            String value = treeTable.getValue(species, code);
+            averageHeightPerSpecies.put(value, Mathematics.division(aggregates.heightSumPerSpecies[code], aggregates.heightCounterPerSpecies[code]));
+            averageCircumferencePerSpecies.put(value, Mathematics.division(aggregates.circumferenceSumPerSpecies[code], aggregates.circumferenceCounterPerSpecies[code]));
+        }
+
+        List<Tree> tallestTrees = new ArrayList<>();
+        for (int i = (int) ConstantsMath.ZERO; i < aggregates.amountOfTallestRows; i++) tallestTrees.add(treeTable.getTree(aggregates.tallestRows[i]));
+
+        return new QuestionResults(
+                getMaximumKey(getOccurrenceMap(treeTable, district, districtCodes, aggregates.treesPerDistrict)),
+                aggregates.tallestRow == ConstantsCSV.NUMBER_DEFAULT_VALUE ? null : treeTable.getDistrict(aggregates.tallestRow),
+                getTree(treeTable, aggregates.highestCircumferenceRow),
+                getTree(treeTable, aggregates.biggestCroneRow),
+                getTree(treeTable, aggregates.mostAgeRow),
+                getAmountOfCodes(aggregates.treesPerType),
+                speciesCodes.length,
+                getMaximumKey(getOccurrenceMap(treeTable, species, speciesCodes, aggregates.treesPerSpecies)),
+                getMaximumKey(speciesPerDistrict),
+                getMaximumKey(averageHeightPerSpecies),
+                getMaximumKey(averageCircumferencePerSpecies),
+                (int) Math.round(aggregates.totalCO2),
+                getMaximumKey(getSumMap(treeTable, district, districtCodes, aggregates.co2PerDistrict)),
+                getMaximumKey(getSumMap(treeTable, species, speciesCodes, aggregates.co2PerSpecies)),
+                tallestTrees);
+    }
+
+
+    /**
+     * Aggregates all segments of the table and merges them in the order of the table.
+     *
+     * @param treeTable The table of trees to process.
+     * @param rowBitmap The rows to aggregate, {@code null} for all rows.
+     * @return The aggregates of the rows.
+     */
+    private Aggregates aggregate (TreeTable treeTable, RowBitmap rowBitmap)
+    {
+        int segmentRows = ConstantsDatasets.AGGREGATION_SEGMENT_ROWS;
+        int amountOfSegments = Math.max((int) ConstantsMath.ONE, (treeTable.size() + segmentRows - (int) ConstantsMath.ONE) / segmentRows);
+
+        // Splits the table into row ranges
+        List<SegmentTask> segmentTasks = new ArrayList<>();
+        for (int i = (int) ConstantsMath.ZERO; i < amountOfSegments; i++)
+        {
+            int start = i * segmentRows;
+            segmentTasks.add(new SegmentTask(treeTable, rowBitmap, start, Math.min(treeTable.size(), start + segmentRows)));
+        }
+
+        if (parallelism <= ConstantsMath.ONE || amountOfSegments == ConstantsMath.ONE)
+        {
+            for (SegmentTask segmentTask : segmentTasks) segmentTask.invoke(); // Runs on the calling thread
+        } else
+        {
+            ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+            try
+            {
+                forkJoinPool.submit(() -> ForkJoinTask.invokeAll(segmentTasks)).join();
+            } finally
+            {
+                forkJoinPool.shutdown();
+            }
+        }
+
+        // Always merged in the same order, so sums are added up the same way for every parallelism
+        Aggregates aggregates = segmentTasks.get((int) ConstantsMath.ZERO).join();
+        for (int i = (int) ConstantsMath.ONE; i < amountOfSegments; i++) aggregates.merge(segmentTasks.get(i).join());
+        return aggregates;
+    }
+
+
+    /**
+     * Retrieves the key with the maximum value like the single question methods do, so ties are broken the same way.
+     *
+     * @param map The map of values per type.
+     * @param <V> The type of the values.
+     * @return The key with the maximum value, or {@code null} if the map is empty.
+     */
+    private <V extends Comparable<V>> String getMaximumKey (Map<String, V> map)
+    {
+        return mapOperations.getLastKey(mapOperations.getMaximumEntry(map));
+    }
+
+
+    /**
+     * Counts the codes that occur at least once.
+     *
+     * @param amountPerCode The occurrences per code.
+     * @return The amount of different values.
+     */
+    private static int getAmountOfCodes (int[] amountPerCode)
+    {
+        int amountOfCodes = (int) ConstantsMath.ZERO;
+        for (int amount : amountPerCode) if (amount > ConstantsMath.ZERO) amountOfCodes++;
+        return amountOfCodes;
+    }
+
+
+    /**
+     * Retrieves the codes that occur, in the order of their first row.
+     * For all rows this is the order of the codes in the table. For a filter it is the order of first occurrence in a
+     * list of just these trees, so maps filled in this order break ties like the single question methods do.
+     *
+     * @param amountPerCode   The occurrences per code.
+     * @param firstRowPerCode The first row per code that occurs.
+     * @return The codes that occur, ordered by their first row.
+     */
+    private static int[] getCodesInOrder (int[] amountPerCode, int[] firstRowPerCode)
+    {
+        // The first row goes into the upper half, so sorting the numbers sorts the codes by their first row
+        long[] rowsAndCodes = new long[amountPerCode.length];
+        int amountOfCodes = (int) ConstantsMath.ZERO;
+        for (int code = (int) ConstantsMath.ZERO; code < amountPerCode.length; code++)
+        {
+            if (amountPerCode[code] > ConstantsMath.ZERO) rowsAndCodes[amountOfCodes++] = (long) firstRowPerCode[code] << Integer.SIZE | code;
+        }
+        Arrays.sort(rowsAndCodes, (int) ConstantsMath.ZERO, amountOfCodes);
+
+        int[] codes = new int[amountOfCodes];
+        for (int i = (int) ConstantsMath.ZERO; i < amountOfCodes; i++) codes[i] = (int) rowsAndCodes[i];
+        return codes;
+    }
+
+
+    /**
+     * Creates a map of the occurrences per type of a trait, inserted in the order of the given codes.
+     *
+     * @param treeTable     The table the codes belong to.
+     * @param traitIndex    The index of the string trait.
+     * @param codes         The codes to insert, in order.
+     * @param amountPerCode The occurrences per code.
+     * @return A map from the types to their occurrences.
+     */
+    private static Map<String, Integer> getOccurrenceMap (TreeTable treeTable, int traitIndex, int[] codes, int[] amountPerCode)
+    {
+        Map<String, Integer> occurrenceMap = new HashMap<>();
+        for (int code : codes) occurrenceMap.put(treeTable.getValue(traitIndex, code), amountPerCode[code]);
+        return occurrenceMap;
+    }
+
+
+    /**
+     * Creates a map of the sums per type of a trait, inserted in the order of the given codes.
+     *
+     * @param treeTable  The table the codes belong to.
+     * @param traitIndex The index of the string trait.
+     * @param codes      The codes to insert, in order.
+     * @param sumPerCode The sums per code.
+     * @return A map from the types to their sums.
+     */
+    private static Map<String, Double> getSumMap (TreeTable treeTable, int traitIndex, int[] codes, double[] sumPerCode)
+    {
+        Map<String, Double> sumMap = new HashMap<>();
+        for (int code : codes) sumMap.put(treeTable.getValue(traitIndex, code), sumPerCode[code]);
+        return sumMap;
+    }
+
+
+    /**
+     * Creates the tree of a row.
+     *
+     * @param treeTable The table of trees.
+     * @param row       The row, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if there is none.
+     * @return The tree of the row, or {@code null} if there is no row.
+     */
+    private static Tree getTree (TreeTable treeTable, int row)
+    {
+        return row == ConstantsCSV.NUMBER_DEFAULT_VALUE ? null : treeTable.getTree(row);
+    }
+
+
+    /**
+     * The SegmentTask class aggregates one row range of the table on the fork-join pool.
+     */
+    private static class SegmentTask extends RecursiveTask<Aggregates>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final TreeTable treeTable;
+        private final RowBitmap rowBitmap; // null for all rows
+        private final int start;
+        private final int end;
+
+
+        /**
+         * Constructs a SegmentTask for a row range.
+         *
+         * @param treeTable The table of trees.
+         * @param rowBitmap The rows to aggregate, {@code null} for all rows.
+         * @param start     The first row of the range.
+         * @param end       The row after the range.
+         */
+        SegmentTask (TreeTable treeTable, RowBitmap rowBitmap, int start, int end)
+        {
+            this.treeTable = treeTable;
+            this.rowBitmap = rowBitmap;
+            this.start = start;
+            this.end = end;
+        }
+
+
+        @Override
+        protected Aggregates compute ()
+        {
+            Aggregates aggregates = new Aggregates(treeTable);
+            if (rowBitmap == null)
+            {
+                for (int row = start; row < end; row++) aggregates.add(row);
+            } else
+            {
+                // Skips the rows outside the filter instead of checking each of them
+                for (int row = rowBitmap.getNextRow(start); row != ConstantsCSV.NUMBER_DEFAULT_VALUE && row < end; row = rowBitmap.getNextRow(row + (int) ConstantsMath.ONE))
+                {
+                    aggregates.add(row);
+                }
+            }
+            return aggregates;
+        }
+    }
+
+
+    /**
+     * The Aggregates class accumulates the values all questions need while the rows are added one after another.
+     * Groups are addressed by the codes of the table, so every accumulator is a primitive array indexed by code, and
+     * the aggregates of two row ranges can be merged array by array.
+     */
+    private static class Aggregates
+    {
+        private final TreeTable treeTable;
+
+        private final int[] treesPerDistrict;
+        private final int[] treesPerSpecies;
+        private final int[] treesPerType;
+        private final int[] firstRowPerDistrict; // Only set for districts that occur
+        private final int[] firstRowPerSpecies;
+        private final BitSet[] speciesPerDistrict;
+        private final double[] heightSumPerSpecies;
+        private final double[] heightCounterPerSpecies;
+        private final double[] circumferenceSumPerSpecies;
+        private final double[] circumferenceCounterPerSpecies;
+        private final double[] co2PerDistrict;
+        private final double[] co2PerSpecies;
+        private double totalCO2;
+
+        private int tallestRow = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        private int highestCircumferenceRow = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        private int biggestCroneRow = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        private int mostAgeRow = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        private final int[] tallestRows = new int[Math.max((int) ConstantsMath.ZERO, ConstantsIO.amountOfTopTrees)]; // Highest first
+        private int amountOfTallestRows;
+
+
+        private Aggregates (TreeTable treeTable)
+        {
+            this.treeTable = treeTable;
+            int amountOfDistricts = treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_District);
+            int amountOfSpecies = treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_SpeciesBotanical);
+            int amountOfTypes = treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_TypeBotanical);
+
+            treesPerDistrict = new int[amountOfDistricts];
+            treesPerSpecies = new int[amountOfSpecies];
+            treesPerType = new int[amountOfTypes];
+            firstRowPerDistrict = new int[amountOfDistricts];
+            firstRowPerSpecies = new int[amountOfSpecies];
+            speciesPerDistrict = new BitSet[amountOfDistricts];
+            for (int code = (int) ConstantsMath.ZERO; code < amountOfDistricts; code++) speciesPerDistrict[code] = new BitSet(amountOfSpecies);
+            heightSumPerSpecies = new double[amountOfSpecies];
+            heightCounterPerSpecies = new double[amountOfSpecies];
+            circumferenceSumPerSpecies = new double[amountOfSpecies];
+            circumferenceCounterPerSpecies = new double[amountOfSpecies];
+            co2PerDistrict = new double[amountOfDistricts];
+            co2PerSpecies = new double[amountOfSpecies];
+        }
+
+
+        /**
+         * Adds the values of a row to every accumulator.
+         *
+         * @param row The row of the tree.
+         */
+        private void add (int row)
+        {
+            int district = treeTable.getCode(row, ConstantsDatasets.INDEX_District);
+            int species = treeTable.getCode(row, ConstantsDatasets.INDEX_SpeciesBotanical);
+            float heightM = treeTable.getHeightM(row);
+            int circumferenceCM = treeTable.getCircumferenceCM(row);
+
+            // Occurrences and different species, rows are added in ascending order
+            if (treesPerDistrict[district]++ == ConstantsMath.ZERO) firstRowPerDistrict[district] = row;
+            if (treesPerSpecies[species]++ == ConstantsMath.ZERO) firstRowPerSpecies[species] = row;
+            treesPerType[treeTable.getCode(row, ConstantsDatasets.INDEX_TypeBotanical)]++;
+            speciesPerDistrict[district].set(species);
+
+            // Averages ignore default values
+            if (heightM != ConstantsCSV.NUMBER_DEFAULT_VALUE)
+            {
+                heightSumPerSpecies[species] += heightM;
+                heightCounterPerSpecies[species]++;
+            }
+            if (circumferenceCM != ConstantsCSV.NUMBER_DEFAULT_VALUE)
+            {
+                circumferenceSumPerSpecies[species] += circumferenceCM;
+                circumferenceCounterPerSpecies[species]++;
+            }
+
+            // Carbon, trees outside the look-up table are not counted in
+            int co2OfTree = treeTable.getCO2(row);
+            if (co2OfTree != ConstantsCSV.NUMBER_DEFAULT_VALUE)
+            {
+                totalCO2 += co2OfTree;
+                co2PerDistrict[district] += co2OfTree;
+                co2PerSpecies[species] += co2OfTree;
+            }
+
+            // Maxima, on equal values the first row wins
+            if (tallestRow == ConstantsCSV.NUMBER_DEFAULT_VALUE || heightM > treeTable.getHeightM(tallestRow)) tallestRow = row;
+            if (highestCircumferenceRow == ConstantsCSV.NUMBER_DEFAULT_VALUE || circumferenceCM > treeTable.getCircumferenceCM(highestCircumferenceRow))
+                highestCircumferenceRow = row;
+            if (biggestCroneRow == ConstantsCSV.NUMBER_DEFAULT_VALUE || treeTable.getCroneDiameterM(row) > treeTable.getCroneDiameterM(biggestCroneRow))
+                biggestCroneRow = row;
+            if (mostAgeRow == ConstantsCSV.NUMBER_DEFAULT_VALUE || treeTable.getAge(row) > treeTable.getAge(mostAgeRow)) mostAgeRow = row;
+
+            addToTallestRows(row, heightM);
+        }
+
+
+        /**
+         * Merges the aggregates of the row range that directly follows the range of these aggregates.
+         * On equal maxima the row of this range wins, because it comes first in the table.
+         *
+         * @param next The aggregates of the following range.
+         */
+        private void merge (Aggregates next)
+        {
+            for (int code = (int) ConstantsMath.ZERO; code < treesPerDistrict.length; code++)
+            {
+                if (treesPerDistrict[code] == ConstantsMath.ZERO) firstRowPerDistrict[code] = next.firstRowPerDistrict[code];
+                treesPerDistrict[code] += next.treesPerDistrict[code];
+                speciesPerDistrict[code].or(next.speciesPerDistrict[code]);
+                co2PerDistrict[code] += next.co2PerDistrict[code];
+            }
+            for (int code = (int) ConstantsMath.ZERO; code < treesPerSpecies.length; code++)
+            {
+                if (treesPerSpecies[code] == ConstantsMath.ZERO) firstRowPerSpecies[code] = next.firstRowPerSpecies[code];
+                treesPerSpecies[code] += next.treesPerSpecies[code];
+                heightSumPerSpecies[code] += next.heightSumPerSpecies[code];
+                heightCounterPerSpecies[code] += next.heightCounterPerSpecies[code];
+                circumferenceSumPerSpecies[code] += next.circumferenceSumPerSpecies[code];
+                circumferenceCounterPerSpecies[code] += next.circumferenceCounterPerSpecies[code];
+                co2PerSpecies[code] += next.co2PerSpecies[code];
+            }
+            for (int code = (int) ConstantsMath.ZERO; code < treesPerType.length; code++) treesPerType[code] += next.treesPerType[code];
+            totalCO2 += next.totalCO2;
+
+            if (next.tallestRow != ConstantsCSV.NUMBER_DEFAULT_VALUE)
+            {
+                if (tallestRow == ConstantsCSV.NUMBER_DEFAULT_VALUE || treeTable.getHeightM(next.tallestRow) > treeTable.getHeightM(tallestRow))
+                    tallestRow = next.tallestRow;
+                if (highestCircumferenceRow == ConstantsCSV.NUMBER_DEFAULT_VALUE || treeTable.getCircumferenceCM(next.highestCircumferenceRow) > treeTable.getCircumferenceCM(highestCircumferenceRow))
+                    highestCircumferenceRow = next.highestCircumferenceRow;
+                if (biggestCroneRow == ConstantsCSV.NUMBER_DEFAULT_VALUE || treeTable.getCroneDiameterM(next.biggestCroneRow) > treeTable.getCroneDiameterM(biggestCroneRow))
+                    biggestCroneRow = next.biggestCroneRow;
+                if (mostAgeRow == ConstantsCSV.NUMBER_DEFAULT_VALUE || treeTable.getAge(next.mostAgeRow) > treeTable.getAge(mostAgeRow))
+                    mostAgeRow = next.mostAgeRow;
+            }
+
+            // The rows of the following range go behind rows of equal height
+            for (int i = (int) ConstantsMath.ZERO; i < next.amountOfTallestRows; i++)
+            {
+                addToTallestRows(next.tallestRows[i], treeTable.getHeightM(next.tallestRows[i]));
+            }
+        }
+
+
+        /**
+         * Inserts a row into the tallest rows if it is higher than the lowest of them.
+         * A row goes behind rows of equal height, which keeps ties in the order of the table.
+         *
+         * @param row     The row of the tree.
+         * @param heightM The height of the tree.
+         */
+        private void addToTallestRows (int row, float heightM)
+        {
+            int position = amountOfTallestRows;
+            while (position > ConstantsMath.ZERO && heightM > treeTable.getHeightM(tallestRows[position - (int) ConstantsMath.ONE])) position--;
+            if (position >= tallestRows.length) return; // Not among the tallest
+
+            int last = Math.min(amountOfTallestRows, tallestRows.length - (int) ConstantsMath.ONE);
+            System.arraycopy(tallestRows, position, tallestRows, position + (int) ConstantsMath.ONE, last - position);
+            tallestRows[position] = row;
+            if (amountOfTallestRows < tallestRows.length) amountOfTallestRows++;
+        }
+    }
+}
@@ -2,9 +2,10 @@ package control;
 
 
 import model.Tree;
+import model.TreeTable;
 import model.exceptions.LookUpTableException;
-import resources.TreeCarbonData;
-import utility.constants.ConstantsCO2;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
 import utility.constants.ConstantsMath;
 
 import java.util.HashMap;
@@ -32,15 +33,9 @@ public class CO2
         Map<Tree, Double> treeAndCarbonMap = new HashMap<>();
         for (Tree tree : treeList) // Iterate through treeList
         {
-            double co2;
-            try
-            {
-                co2 = getAdjustedCO2FromTree(tree); // Calculate CO2 storage
-            } catch (LookUpTableException ignored)
-            {
-                continue;
-            }
-            treeAndCarbonMap.put(tree, co2); // Put the tree and its carbon storage into the map
+            int co2 = getCO2(tree); // Calculate CO2 storage
+            if (co2 == ConstantsCSV.NUMBER_DEFAULT_VALUE) continue; // Not in the look-up table
+            treeAndCarbonMap.put(tree, (double) co2); // Put the tree and its carbon storage into the map
         }
         return treeAndCarbonMap;
     }
@@ -58,19 +53,61 @@ public class CO2
         double totalCO2 = (int) ConstantsMath.ZERO;
         for (Tree tree : treeList)
         {
-            try
-            {
-                // Adds the CO2 values from current tree to previous values
-                totalCO2 = Mathematics.sum(totalCO2, getAdjustedCO2FromTree(tree));
-            } catch (LookUpTableException ignored)
-            {
-
-            }
+            int co2 = getCO2(tree);
+            // Adds the CO2 values from current tree to previous values, trees outside the look-up table are left out
+            if (co2 != ConstantsCSV.NUMBER_DEFAULT_VALUE) totalCO2 = Mathematics.sum(totalCO2, co2);
         }
         return totalCO2;
     }
 
 
+    /**
+     * Computes the total carbon dioxide stored by the trees of a table.
+     *
+     * @param treeTable The table of trees for which total carbon dioxide storage is calculated.
+     *                  ({@code treeTable} != {@code null})
+     * @return The total carbon dioxide stored by the trees.
+     */
+    public Double sumOfCO2StoredByTrees (TreeTable treeTable)
+    {
+        double totalCO2 = (int) ConstantsMath.ZERO;
+        for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++)
+        {
+            int co2 = treeTable.getCO2(row); // Computed when the table was built
+            // Adds the CO2 values from current tree to previous values, trees outside the look-up table are left out
+            if (co2 != ConstantsCSV.NUMBER_DEFAULT_VALUE) totalCO2 += co2;
+        }
+        return totalCO2;
+    }
+
+
+    /**
+     * Computes the total carbon dioxide stored by the trees of each type of a trait in one pass over the table.
+     *
+     * @param treeTable  The table of trees for which carbon dioxide storage is calculated.
+     *                   ({@code treeTable} != {@code null})
+     * @param traitIndex The index of the string trait the trees are grouped by.
+     * @return A map where each key represents a type of trait and its value the carbon dioxide stored by its trees.
+     */
+    public Map<String, Double> sumOfCO2StoredByTreesPerType (TreeTable treeTable, int traitIndex)
+    {
+        double[] totalCO2PerCode = new double[treeTable.getAmountOfCodes(traitIndex)];
+        for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++)
+        {
+            int co2 = treeTable.getCO2(row); // Computed when the table was built
+            // Adds the CO2 values from current tree to previous values of its type, trees outside the look-up table are left out
+            if (co2 != ConstantsCSV.NUMBER_DEFAULT_VALUE) totalCO2PerCode[treeTable.getCode(row, traitIndex)] += co2;
+        }
+
+        Map<String, Double> totalCO2PerType = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : treeTable.getCodes(traitIndex).entrySet())
+        {
+            totalCO2PerType.put(entry.getKey(), totalCO2PerCode[entry.getValue()]);
+        }
+        return totalCO2PerType;
+    }
+
+
     /**
      * Calculates the adjusted carbon dioxide storage from a single tree based on its characteristics.
      *
@@ -81,65 +118,54 @@ public class CO2
      */
     public Integer getAdjustedCO2FromTree (Tree tree) throws LookUpTableException
     {
-        // Variable too big for look-up table, but will still be counted in using the nearest available value
-        double heightM = (Mathematics.upperLimit(Math.round(tree.getHeightM()), ConstantsCO2.maximumHeightM));
-        double logDiameterCM = (Mathematics.upperLimit(Math.round((Mathematics.getDiameterFromPerimeter(tree.getCircumferenceCM()))), ConstantsCO2.maximumLogDiameterCM));
-
-        // Adjusts height value to index value to fit for look-up table
-        int heightIndex = (int) (Mathematics.subtraction(heightM, ConstantsCO2.subtrahendLookUpTableHeight));
-        int logDiameterIndex = (int) (Mathematics.subtraction(logDiameterCM, ConstantsCO2.subtrahendLookUpTableLogDiameter));
-
-        // Index below zero (tree too small to be counted in)
-        if (heightIndex < ConstantsMath.ZERO) throw new LookUpTableException();
-        if (logDiameterIndex < ConstantsMath.ZERO) throw new LookUpTableException();
-
-        double co2 = getCO2FromTree(tree, logDiameterIndex, heightIndex);
+        int co2 = getCO2(tree);
+        if (co2 == ConstantsCSV.NUMBER_DEFAULT_VALUE) throw new LookUpTableException(); // Not in the look-up table
+        return co2;
+    }
 
-        // Hinders 0 value from getting counted in, which throws off average values
-        if (co2 == ConstantsMath.ZERO) throw new LookUpTableException();
 
-        return (int) Math.round(co2);
+    /**
+     * Calculates the adjusted carbon dioxide storage from a single tree, without throwing for trees outside the look-up table.
+     *
+     * @param tree The tree for which adjusted carbon dioxide storage is calculated.
+     *             ({@code tree} != {@code null})
+     * @return The adjusted carbon dioxide storage value for the tree, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if
+     * the tree is not in the look-up table.
+     */
+    public double getAdjustedCO2OrDefault (Tree tree)
+    {
+        return getCO2(tree);
     }
 
 
     /**
-     * Computes the carbon dioxide storage from a single tree based on its characteristics and indices.
+     * Calculates the adjusted carbon dioxide storage of a tree from its measurements.
      *
-     * @param tree             The tree for which carbon dioxide storage is calculated.
-     *                         ({@code tree} != {@code null})
-     * @param logDiameterIndex The index of the log diameter in the lookup table.
-     *                         ({@code logDiameterIndex} valid index for lookup table)
-     * @param heightIndex      The index of the height in the lookup table.
-     *                         ({@code heightIndex} valid index for lookup table)
-     * @return The carbon dioxide storage value for the tree.
+     * @param heightM         The height of the tree in meters.
+     * @param circumferenceCM The circumference of the tree in centimeters.
+     * @param isDeciduous     Whether the tree is deciduous.
+     * @return The adjusted carbon dioxide storage value for the tree.
      * @throws LookUpTableException If an error occurs while looking up carbon storage values.
      */
-    private static double getCO2FromTree (Tree tree, int logDiameterIndex, int heightIndex) throws LookUpTableException
+    public int getAdjustedCO2 (float heightM, int circumferenceCM, boolean isDeciduous) throws LookUpTableException
     {
-        double co2;
-        if (tree.getIsDeciduous())
-        {
-            // Index out of bounds of look-up table
-            if (logDiameterIndex >= TreeCarbonData.pineCarbonByHeightAndCircumference[heightIndex].length)
-                throw new LookUpTableException();
-            if (logDiameterIndex >= TreeCarbonData.spruceCarbonByHeightAndCircumference[heightIndex].length)
-                throw new LookUpTableException();
-
-            // Value is equal to the average of the deciduous values from the look-up tables
-            co2 = (Mathematics.average(TreeCarbonData.pineCarbonByHeightAndCircumference[heightIndex][logDiameterIndex],
-                    TreeCarbonData.spruceCarbonByHeightAndCircumference[heightIndex][logDiameterIndex]));
-        } else
-        {
-            // Index out of bounds of look-up table
-            if (logDiameterIndex >= TreeCarbonData.beechCarbonByHeightAndCircumference[heightIndex].length)
-                throw new LookUpTableException();
-            if (logDiameterIndex >= TreeCarbonData.oakCarbonByHeightAndCircumference[heightIndex].length)
-                throw new LookUpTableException();
-
-            // Value is equal to the average of the coniferous values from the look-up tables
-            co2 = (Mathematics.average(TreeCarbonData.beechCarbonByHeightAndCircumference[heightIndex][logDiameterIndex],
-                    TreeCarbonData.oakCarbonByHeightAndCircumference[heightIndex][logDiameterIndex]));
-        }
+        int co2 = CO2Kernel.getCO2(heightM, circumferenceCM, isDeciduous);
+        if (co2 == ConstantsCSV.NUMBER_DEFAULT_VALUE) throw new LookUpTableException(); // Not in the look-up table
         return co2;
     }
+
+
+    /**
+     * Looks up the adjusted carbon dioxide storage of a tree, using the carbon model of its species if it has one.
+     *
+     * @param tree The tree.
+     *             ({@code tree} != {@code null})
+     * @return The adjusted carbon dioxide storage value for the tree, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if
+     * the tree is not in the look-up table.
+     */
+    private static int getCO2 (Tree tree)
+    {
+        int model = CarbonModelRegistry.getModel(tree.getCode(ConstantsDatasets.INDEX_SpeciesBotanical));
+        return CO2Kernel.getCO2(tree.getHeightM(), tree.getCircumferenceCM(), tree.getIsDeciduous(), model);
+    }
 }
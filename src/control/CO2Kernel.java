@@ -0,0 +1,319 @@
+package control;
+
+
+import resources.TreeCarbonData;
+import utility.constants.ConstantsCO2;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsMath;
+
+import java.util.BitSet;
+
+
+/**
+ * The CO2Kernel class computes the adjusted carbon dioxide storage of trees from dense look-up tables.
+ * When the class is loaded, the two jagged look-up tables of each class of trees are averaged and rounded into one
+ * rectangular table, and missing cells are marked with {@link ConstantsCSV#NUMBER_DEFAULT_VALUE}.
+ * The log diameter index of every circumference is computed beforehand as well, so looking up a tree is only array
+ * access: no allocation, no floating point formula and no exception.
+ * Trees whose species has its own model in the {@link CarbonModelRegistry} use the table of that model instead.
+ * The tables of both classes, of all models and one cell for trees outside of them are stored in one flat array.
+ * Every tree is mapped to its cell without branches, which lets the batch methods compute the cells of a whole block
+ * first and gather the values afterwards.
+ * The values are the same as the ones of {@link CO2#getAdjustedCO2(float, int, boolean)}.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class CO2Kernel
+{
+    private static final int AMOUNT_OF_HEIGHTS = (int) (ConstantsCO2.maximumHeightM - ConstantsCO2.subtrahendLookUpTableHeight) + (int) ConstantsMath.ONE;
+    private static final int AMOUNT_OF_LOG_DIAMETERS = (int) (ConstantsCO2.maximumLogDiameterCM - ConstantsCO2.subtrahendLookUpTableLogDiameter) + (int) ConstantsMath.ONE;
+
+    private static final int TABLE_SIZE = AMOUNT_OF_HEIGHTS * AMOUNT_OF_LOG_DIAMETERS;
+    private static final int CONIFEROUS_OFFSET = TABLE_SIZE; // Deciduous table first, coniferous table second
+    private static final int MODELS_OFFSET = TABLE_SIZE * (int) ConstantsMath.TWO; // Tables of the models follow
+    private static final int MISSING_CELL = MODELS_OFFSET + TABLE_SIZE * CarbonModelRegistry.getAmountOfModels(); // Holds NUMBER_DEFAULT_VALUE
+    private static final int BLOCK_SIZE = 1024; // Trees whose cells are computed before their values are gathered
+
+    private static final int[] CO2_BY_CELL = getCells();
+    private static final int[] LOG_DIAMETER_INDEX_BY_CIRCUMFERENCE = getLogDiameterIndices(); // Last entry for all bigger circumferences
+
+
+    /**
+     * Calculates the adjusted carbon dioxide storage of a tree from its measurements.
+     *
+     * @param heightM         The height of the tree in meters.
+     * @param circumferenceCM The circumference of the tree in centimeters.
+     * @param isDeciduous     Whether the tree is deciduous.
+     * @return The adjusted carbon dioxide storage value for the tree, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the
+     * tree is not in the look-up table.
+     */
+    public static int getCO2 (float heightM, int circumferenceCM, boolean isDeciduous)
+    {
+        return CO2_BY_CELL[getCell(heightM, circumferenceCM, getTableOffset(isDeciduous, ConstantsCSV.NUMBER_DEFAULT_VALUE))];
+    }
+
+
+    /**
+     * Calculates the adjusted carbon dioxide storage of a tree from its measurements and the carbon model of its species.
+     *
+     * @param heightM         The height of the tree in meters.
+     * @param circumferenceCM The circumference of the tree in centimeters.
+     * @param isDeciduous     Whether the tree is deciduous.
+     * @param model           The carbon model of the species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} to use the
+     *                        look-up tables of the class of the tree.
+     * @return The adjusted carbon dioxide storage value for the tree, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the
+     * tree is not in the look-up table.
+     */
+    public static int getCO2 (float heightM, int circumferenceCM, boolean isDeciduous, int model)
+    {
+        return CO2_BY_CELL[getCell(heightM, circumferenceCM, getTableOffset(isDeciduous, model))];
+    }
+
+
+    /**
+     * Calculates the adjusted carbon dioxide storage of a range of trees given as columns.
+     *
+     * @param heightsM         The heights of the trees in meters.
+     *                         ({@code heightsM} != {@code null})
+     * @param circumferencesCM The circumferences of the trees in centimeters.
+     *                         ({@code circumferencesCM} != {@code null})
+     * @param isDeciduous      The positions of the deciduous trees.
+     *                         ({@code isDeciduous} != {@code null})
+     * @param co2              Receives the value of each tree, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the tree
+     *                         is not in the look-up table.
+     *                         ({@code co2} != {@code null})
+     * @param start            The position of the first tree.
+     * @param end              The position after the last tree.
+     */
+    public static void getCO2 (float[] heightsM, int[] circumferencesCM, BitSet isDeciduous, int[] co2, int start, int end)
+    {
+        getCO2(heightsM, circumferencesCM, isDeciduous, null, co2, start, end);
+    }
+
+
+    /**
+     * Calculates the adjusted carbon dioxide storage of a range of trees given as columns, using the carbon model of
+     * each tree.
+     *
+     * @param heightsM         The heights of the trees in meters.
+     *                         ({@code heightsM} != {@code null})
+     * @param circumferencesCM The circumferences of the trees in centimeters.
+     *                         ({@code circumferencesCM} != {@code null})
+     * @param isDeciduous      The positions of the deciduous trees.
+     *                         ({@code isDeciduous} != {@code null})
+     * @param models           The carbon model of each tree, see {@link #getCO2(float, int, boolean, int)}, or
+     *                         {@code null} if all trees use the look-up tables of their class.
+     * @param co2              Receives the value of each tree, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the tree
+     *                         is not in the look-up table.
+     *                         ({@code co2} != {@code null})
+     * @param start            The position of the first tree.
+     * @param end              The position after the last tree.
+     */
+    public static void getCO2 (float[] heightsM, int[] circumferencesCM, BitSet isDeciduous, int[] models, int[] co2, int start, int end)
+    {
+        int[] cells = new int[Math.min(BLOCK_SIZE, Math.max((int) ConstantsMath.ZERO, end - start))];
+        for (int blockStart = start; blockStart < end; blockStart += BLOCK_SIZE)
+        {
+            int blockSize = Math.min(BLOCK_SIZE, end - blockStart);
+            getCells(heightsM, circumferencesCM, isDeciduous, models, cells, blockStart, blockSize);
+            for (int i = (int) ConstantsMath.ZERO; i < blockSize; i++) co2[blockStart + i] = CO2_BY_CELL[cells[i]]; // Gathers the values
+        }
+    }
+
+
+    /**
+     * Calculates the adjusted carbon dioxide storage of a range of trees given as columns, as floating point numbers
+     * for further computations. The values are the same as the ones of {@link #getCO2(float, int, boolean)}.
+     *
+     * @param heightsM         The heights of the trees in meters.
+     *                         ({@code heightsM} != {@code null})
+     * @param circumferencesCM The circumferences of the trees in centimeters.
+     *                         ({@code circumferencesCM} != {@code null})
+     * @param isDeciduous      The positions of the deciduous trees.
+     *                         ({@code isDeciduous} != {@code null})
+     * @param co2              Receives the value of each tree, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the tree
+     *                         is not in the look-up table.
+     *                         ({@code co2} != {@code null})
+     * @param start            The position of the first tree.
+     * @param end              The position after the last tree.
+     */
+    public static void getCO2 (float[] heightsM, int[] circumferencesCM, BitSet isDeciduous, double[] co2, int start, int end)
+    {
+        getCO2(heightsM, circumferencesCM, isDeciduous, null, co2, start, end);
+    }
+
+
+    /**
+     * Calculates the adjusted carbon dioxide storage of a range of trees given as columns as floating point numbers,
+     * using the carbon model of each tree.
+     *
+     * @param heightsM         The heights of the trees in meters.
+     *                         ({@code heightsM} != {@code null})
+     * @param circumferencesCM The circumferences of the trees in centimeters.
+     *                         ({@code circumferencesCM} != {@code null})
+     * @param isDeciduous      The positions of the deciduous trees.
+     *                         ({@code isDeciduous} != {@code null})
+     * @param models           The carbon model of each tree, see {@link #getCO2(float, int, boolean, int)}, or
+     *                         {@code null} if all trees use the look-up tables of their class.
+     * @param co2              Receives the value of each tree, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the tree
+     *                         is not in the look-up table.
+     *                         ({@code co2} != {@code null})
+     * @param start            The position of the first tree.
+     * @param end              The position after the last tree.
+     */
+    public static void getCO2 (float[] heightsM, int[] circumferencesCM, BitSet isDeciduous, int[] models, double[] co2, int start, int end)
+    {
+        int[] cells = new int[Math.min(BLOCK_SIZE, Math.max((int) ConstantsMath.ZERO, end - start))];
+        for (int blockStart = start; blockStart < end; blockStart += BLOCK_SIZE)
+        {
+            int blockSize = Math.min(BLOCK_SIZE, end - blockStart);
+            getCells(heightsM, circumferencesCM, isDeciduous, models, cells, blockStart, blockSize);
+            for (int i = (int) ConstantsMath.ZERO; i < blockSize; i++) co2[blockStart + i] = CO2_BY_CELL[cells[i]]; // Gathers the values
+        }
+    }
+
+
+    /**
+     * Computes the cells of a block of trees.
+     *
+     * @param heightsM         The heights of the trees in meters.
+     * @param circumferencesCM The circumferences of the trees in centimeters.
+     * @param isDeciduous      The positions of the deciduous trees.
+     * @param models           The carbon model of each tree, or {@code null} if all trees use the tables of their class.
+     * @param cells            Receives the cell of each tree of the block.
+     * @param blockStart       The position of the first tree of the block.
+     * @param blockSize        The amount of trees of the block.
+     */
+    private static void getCells (float[] heightsM, int[] circumferencesCM, BitSet isDeciduous, int[] models, int[] cells, int blockStart, int blockSize)
+    {
+        if (models == null) // Keeps the loop without models free of the extra array
+        {
+            for (int i = (int) ConstantsMath.ZERO; i < blockSize; i++)
+            {
+                cells[i] = getCell(heightsM[blockStart + i], circumferencesCM[blockStart + i],
+                        getTableOffset(isDeciduous.get(blockStart + i), ConstantsCSV.NUMBER_DEFAULT_VALUE));
+            }
+            return;
+        }
+        for (int i = (int) ConstantsMath.ZERO; i < blockSize; i++)
+        {
+            cells[i] = getCell(heightsM[blockStart + i], circumferencesCM[blockStart + i],
+                    getTableOffset(isDeciduous.get(blockStart + i), models[blockStart + i]));
+        }
+    }
+
+
+    /**
+     * Computes the position of the table of a tree in the flat array.
+     *
+     * @param isDeciduous Whether the tree is deciduous.
+     * @param model       The carbon model of the species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if it has none.
+     * @return The position of the first cell of the table.
+     */
+    private static int getTableOffset (boolean isDeciduous, int model)
+    {
+        if (model != ConstantsCSV.NUMBER_DEFAULT_VALUE) return MODELS_OFFSET + model * TABLE_SIZE;
+        return isDeciduous ? (int) ConstantsMath.ZERO : CONIFEROUS_OFFSET;
+    }
+
+
+    /**
+     * Computes the cell of a tree in the flat table without branching on its measurements.
+     * Heights above the look-up table are counted in using the highest available value, as are circumferences.
+     * Trees too small for the look-up table get the missing cell.
+     *
+     * @param heightM         The height of the tree in meters.
+     * @param circumferenceCM The circumference of the tree in centimeters.
+     * @param tableOffset     The position of the table of the tree, see {@link #getTableOffset(boolean, int)}.
+     * @return The cell of the tree.
+     */
+    private static int getCell (float heightM, int circumferenceCM, int tableOffset)
+    {
+        // Clamped from below as well, so the subtraction cannot overflow
+        int roundedHeightM = Math.min(Math.max(Math.round(heightM), (int) ConstantsMath.ZERO), (int) ConstantsCO2.maximumHeightM);
+        int heightIndex = roundedHeightM - (int) ConstantsCO2.subtrahendLookUpTableHeight;
+        int logDiameterIndex = LOG_DIAMETER_INDEX_BY_CIRCUMFERENCE[Math.min(Math.max(circumferenceCM, (int) ConstantsMath.ZERO),
+                LOG_DIAMETER_INDEX_BY_CIRCUMFERENCE.length - (int) ConstantsMath.ONE)];
+
+        int cell = tableOffset + heightIndex * AMOUNT_OF_LOG_DIAMETERS + logDiameterIndex;
+        int isMissing = (heightIndex | logDiameterIndex | circumferenceCM) >> 31; // All bits set if one of them is negative
+        return (cell & ~isMissing) | (MISSING_CELL & isMissing);
+    }
+
+
+    /**
+     * Creates the flat table of both classes of trees and all carbon models, followed by the missing cell.
+     *
+     * @return The value per cell.
+     */
+    private static int[] getCells ()
+    {
+        int[] cells = new int[MISSING_CELL + (int) ConstantsMath.ONE];
+        System.arraycopy(getDenseTable(TreeCarbonData.pineCarbonByHeightAndCircumference,
+                TreeCarbonData.spruceCarbonByHeightAndCircumference), (int) ConstantsMath.ZERO, cells, (int) ConstantsMath.ZERO, TABLE_SIZE);
+        System.arraycopy(getDenseTable(TreeCarbonData.beechCarbonByHeightAndCircumference,
+                TreeCarbonData.oakCarbonByHeightAndCircumference), (int) ConstantsMath.ZERO, cells, CONIFEROUS_OFFSET, TABLE_SIZE);
+        for (int model = (int) ConstantsMath.ZERO; model < CarbonModelRegistry.getAmountOfModels(); model++)
+        {
+            System.arraycopy(getDenseTable(CarbonModelRegistry.getCarbonTables(model)), (int) ConstantsMath.ZERO, cells,
+                    MODELS_OFFSET + model * TABLE_SIZE, TABLE_SIZE);
+        }
+        cells[MISSING_CELL] = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        return cells;
+    }
+
+
+    /**
+     * Averages jagged look-up tables into one rectangular table of rounded values.
+     * A cell is missing if one of the tables has no value for it or the average is 0, which would throw off averages.
+     *
+     * @param tables The look-up tables, in the layout of {@link TreeCarbonData}.
+     * @return The dense table, row by row of heights.
+     */
+    private static int[] getDenseTable (int[][]... tables)
+    {
+        int[] denseTable = new int[TABLE_SIZE];
+        double[] values = new double[tables.length];
+        for (int heightIndex = (int) ConstantsMath.ZERO; heightIndex < AMOUNT_OF_HEIGHTS; heightIndex++)
+        {
+            for (int logDiameterIndex = (int) ConstantsMath.ZERO; logDiameterIndex < AMOUNT_OF_LOG_DIAMETERS; logDiameterIndex++)
+            {
+                int co2 = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+                boolean isInAllTables = ConstantsMath.bTrue;
+                for (int i = (int) ConstantsMath.ZERO; i < tables.length; i++)
+                {
+                    if (heightIndex >= tables[i].length || logDiameterIndex >= tables[i][heightIndex].length) isInAllTables = ConstantsMath.bFalse;
+                    else values[i] = tables[i][heightIndex][logDiameterIndex];
+                }
+                if (isInAllTables)
+                {
+                    double average = Mathematics.average(values);
+                    if (average != ConstantsMath.ZERO) co2 = (int) Math.round(average);
+                }
+                denseTable[heightIndex * AMOUNT_OF_LOG_DIAMETERS + logDiameterIndex] = co2;
+            }
+        }
+        return denseTable;
+    }
+
+
+    /**
+     * Computes the log diameter index of every circumference up to the first one reaching the biggest log diameter of
+     * the look-up tables, which is used for all bigger circumferences.
+     *
+     * @return The log diameter index per circumference, negative if the tree is too small.
+     */
+    private static int[] getLogDiameterIndices ()
+    {
+        int maximumIndex = AMOUNT_OF_LOG_DIAMETERS - (int) ConstantsMath.ONE;
+        int[] indices = new int[(int) (ConstantsCO2.maximumLogDiameterCM * ConstantsMath.PI) + (int) ConstantsMath.TWO];
+        for (int circumferenceCM = (int) ConstantsMath.ZERO; circumferenceCM < indices.length; circumferenceCM++)
+        {
+            double logDiameterCM = Mathematics.upperLimit(Math.round(Mathematics.getDiameterFromPerimeter(circumferenceCM)), ConstantsCO2.maximumLogDiameterCM);
+            indices[circumferenceCM] = (int) (logDiameterCM - ConstantsCO2.subtrahendLookUpTableLogDiameter);
+        }
+        if (indices[indices.length - (int) ConstantsMath.ONE] != maximumIndex) throw new IllegalStateException(); // Table too short
+        return indices;
+    }
+}
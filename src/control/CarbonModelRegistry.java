@@ -0,0 +1,110 @@
+package control;
+
+
+import model.TraitDictionary;
+import resources.CarbonModelData;
+import utility.constants.ConstantsCO2;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * The CarbonModelRegistry class assigns the carbon models of {@link CarbonModelData} to the botanical species.
+ * A species uses the model of its genus, species of other genera keep the look-up tables of their class of trees.
+ * The model of every species code of the {@link TraitDictionary} is resolved once and kept in an array, so the model of
+ * a tree is found with one array access.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class CarbonModelRegistry
+{
+    private static final Map<String, Integer> MODEL_OF_GENUS = new HashMap<>();
+
+    static
+    {
+        for (int model = (int) ConstantsMath.ZERO; model < CarbonModelData.genera.length; model++)
+        {
+            MODEL_OF_GENUS.put(CarbonModelData.genera[model], model);
+        }
+    }
+
+    private static volatile int[] modelOfCode = new int[(int) ConstantsMath.ZERO]; // Per species code, resolved on first use
+
+
+    /**
+     * Retrieves the amount of carbon models.
+     *
+     * @return The amount of models, models are numbered from 0 on.
+     */
+    public static int getAmountOfModels ()
+    {
+        return CarbonModelData.genera.length;
+    }
+
+
+    /**
+     * Retrieves the look-up tables of a carbon model.
+     *
+     * @param model The number of the model.
+     * @return The look-up tables whose values are averaged.
+     */
+    public static int[][][] getCarbonTables (int model)
+    {
+        return CarbonModelData.carbonTablesByGenus[model];
+    }
+
+
+    /**
+     * Retrieves the carbon model of a botanical species by its code.
+     *
+     * @param speciesCode The code of the botanical species in the {@link TraitDictionary}.
+     * @return The number of the model, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the species has no model.
+     */
+    public static int getModel (int speciesCode)
+    {
+        if (!ConstantsCO2.speciesCarbonModels || speciesCode == ConstantsCSV.NUMBER_DEFAULT_VALUE) return ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        int[] models = modelOfCode;
+        return speciesCode < models.length ? models[speciesCode] : resolve(speciesCode);
+    }
+
+
+    /**
+     * Retrieves the carbon model of a botanical species.
+     *
+     * @param speciesBotanical The botanical species.
+     * @return The number of the model, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the species has no model.
+     */
+    public static int getModel (String speciesBotanical)
+    {
+        if (!ConstantsCO2.speciesCarbonModels || speciesBotanical == null) return ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        return MODEL_OF_GENUS.getOrDefault(new TreeController().getGenus(speciesBotanical), ConstantsCSV.NUMBER_DEFAULT_VALUE);
+    }
+
+
+    /**
+     * Resolves the models of all species codes added to the dictionary since the last call.
+     * The array is replaced only after it is filled, so readers never see an unresolved code.
+     *
+     * @param speciesCode The code that is not resolved yet.
+     * @return The number of the model of the code.
+     */
+    private static synchronized int resolve (int speciesCode)
+    {
+        int[] models = modelOfCode;
+        if (speciesCode >= models.length) // Not resolved by another thread in the meantime
+        {
+            TraitDictionary dictionary = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_SpeciesBotanical);
+            int resolved = models.length;
+            models = Arrays.copyOf(models, Math.max(speciesCode + (int) ConstantsMath.ONE, dictionary.size()));
+            for (int code = resolved; code < models.length; code++) models[code] = getModel(dictionary.getValue(code));
+            modelOfCode = models;
+        }
+        return models[speciesCode];
+    }
+}
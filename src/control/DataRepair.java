@@ -1,9 +1,11 @@
 package control;
 
 
+import model.Age;
+import model.RepairReport;
+import model.TraitDictionary;
 import model.Tree;
-import model.exceptions.InvalidTraitException;
-import model.exceptions.IrreparableDatasetException;
+import model.TreeTraits;
 import utility.constants.ConstantsCSV;
 import utility.constants.ConstantsDatasets;
 import utility.constants.ConstantsMath;
@@ -11,17 +13,27 @@ import utility.constants.ConstantsTreeRestrictions;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
 
 
 /**
  * The DataHandling class provides methods for fixing and handling data in an ArrayList.
+ * Datasets are repaired in two stages: the statistics the repair depends on (the clusters of the names and the means
+ * and medians of the measurements per species) are gathered over all datasets first, then every dataset is filtered
+ * and repaired on its parsed values and emitted as a tree once.
  *
  * @author Michael Markov
  * @version 1
  */
 public class DataRepair
 {
+    private static final String DEFAULT_VALUE = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
+    private static final String DEFAULT_DECIMAL_VALUE = String.valueOf((float) ConstantsCSV.NUMBER_DEFAULT_VALUE); // Float value contains a dot
+
+    // Summed over all runs of fixData, a run of repairData reports its own counters
     private static int corruptCounter = (int) ConstantsMath.ZERO;
     private static int repairedCounter = (int) ConstantsMath.ZERO;
     private static int deletedCounter = (int) ConstantsMath.ZERO;
@@ -29,216 +41,326 @@ public class DataRepair
 
     /**
      * Fixes the data of trees by repairing missing attributes.
+     * The counters of the run are added to the counters of this class.
      *
      * @param oldTrees The list of trees with potentially missing or corrupt data.
      *                 ({@code oldTrees} != {@code null})
      * @return A list of trees with fixed attributes. The returned list contains trees with repaired attributes.
      */
     public List<Tree> fixData (List<Tree> oldTrees)
+    {
+        RepairReport repairReport = repairData(oldTrees);
+        addCounters(repairReport);
+        return new ArrayList<>(repairReport.getTrees());
+    }
+
+
+    /**
+     * Fixes the data of trees by repairing missing attributes, using {@link ConstantsDatasets#REPAIR_PARALLELISM}
+     * threads if {@link ConstantsDatasets#PARALLEL_REPAIR} is set.
+     *
+     * @param oldTrees The list of trees with potentially missing or corrupt data.
+     *                 ({@code oldTrees} != {@code null})
+     * @return The report of this run, holding the fixed trees in their input order and the counters of the run.
+     */
+    public RepairReport repairData (List<Tree> oldTrees)
+    {
+        return repairData(oldTrees, getParallelism());
+    }
+
+
+    /**
+     * Fixes the data of trees by repairing missing attributes on a given amount of threads.
+     * The list is split into segments of a fixed amount of trees, which are repaired on a fork-join pool and joined in
+     * the order of the list. Nothing is shared between the segments but read-only data, so several runs, for example for
+     * several cities, may take place at the same time.
+     *
+     * @param oldTrees    The list of trees with potentially missing or corrupt data.
+     *                    ({@code oldTrees} != {@code null})
+     * @param parallelism The amount of threads, 1 repairs all segments on the calling thread.
+     *                    ({@code parallelism} > 0)
+     * @return The report of this run, holding the fixed trees in their input order and the counters of the run.
+     */
+    public RepairReport repairData (List<Tree> oldTrees, int parallelism)
     {
         TreeController treeController = new TreeController();
 
-        // List will collect repaired trees
-        List<Tree> fixedTrees = new ArrayList<>();
-        // List will be used to translate tree type from one to another (if one is missing)
-        List<Map<String, Integer>> clusteredListByType = treeController.clusterCorrelatingVariables(
+        // Clusters will be used to translate tree type from one to another (if one is missing)
+        TraitClusters clustersByType = treeController.clusterCorrelatingVariables(
                 oldTrees, ConstantsDatasets.INDEX_TypeGerman, ConstantsDatasets.INDEX_TypeBotanical);
-        // List will be used to translate tree species from one to another (if one is missing)
-        List<Map<String, Integer>> clusteredListBySpecies = treeController.clusterCorrelatingVariables(
+        // Clusters will be used to translate tree species from one to another (if one is missing)
+        TraitClusters clustersBySpecies = treeController.clusterCorrelatingVariables(
                 oldTrees, ConstantsDatasets.INDEX_SpeciesGerman, ConstantsDatasets.INDEX_SpeciesBotanical);
-        // Gets default tree from original values, that are available and not default
-        Tree defaultTree = treeController.getAverageTree(oldTrees);
+        // Gets means and medians per species from original values, that are available and not default
+        ImputationStatistics imputationStatistics = treeController.getImputationStatistics(oldTrees);
+
+        return repairSegments(oldTrees, TreeRecord::load, clustersByType, clustersBySpecies, imputationStatistics, parallelism);
+    }
 
-        for (Tree tree : oldTrees) // Iterates through each individual tree
+
+    /**
+     * Fixes parsed datasets by repairing missing attributes, using {@link ConstantsDatasets#REPAIR_PARALLELISM}
+     * threads if {@link ConstantsDatasets#PARALLEL_REPAIR} is set.
+     *
+     * @param traitsList The list of parsed datasets with potentially missing or corrupt data, see
+     *                   {@link utility.CSVReader#getTreeTraits(String[])}.
+     *                   ({@code traitsList} != {@code null})
+     * @return The report of this run, holding the fixed trees in their input order and the counters of the run.
+     */
+    public RepairReport repairParsedData (List<TreeTraits> traitsList)
+    {
+        return repairParsedData(traitsList, getParallelism());
+    }
+
+
+    /**
+     * Fixes parsed datasets by repairing missing attributes on a given amount of threads.
+     * The statistics of the repair are gathered from the parsed values, so every tree is only created once, after it
+     * was repaired. The result equals {@link #repairData(List, int)} of the trees created from the datasets.
+     *
+     * @param traitsList  The list of parsed datasets with potentially missing or corrupt data, see
+     *                    {@link utility.CSVReader#getTreeTraits(String[])}.
+     *                    ({@code traitsList} != {@code null})
+     * @param parallelism The amount of threads, 1 repairs all segments on the calling thread.
+     *                    ({@code parallelism} > 0)
+     * @return The report of this run, holding the fixed trees in their input order and the counters of the run.
+     */
+    public RepairReport repairParsedData (List<TreeTraits> traitsList, int parallelism)
+    {
+        TreeController treeController = new TreeController();
+
+        // Clusters will be used to translate tree type from one to another (if one is missing)
+        TraitClusters clustersByType = treeController.clusterCorrelatingTraits(
+                traitsList, ConstantsDatasets.INDEX_TypeGerman, ConstantsDatasets.INDEX_TypeBotanical);
+        // Clusters will be used to translate tree species from one to another (if one is missing)
+        TraitClusters clustersBySpecies = treeController.clusterCorrelatingTraits(
+                traitsList, ConstantsDatasets.INDEX_SpeciesGerman, ConstantsDatasets.INDEX_SpeciesBotanical);
+        // Gets means and medians per species from original values, that are available and not default
+        ImputationStatistics imputationStatistics = treeController.getImputationStatisticsFromTraits(traitsList);
+
+        return repairSegments(traitsList, TreeRecord::load, clustersByType, clustersBySpecies, imputationStatistics, parallelism);
+    }
+
+
+    /**
+     * Retrieves the amount of threads the repair runs on by default.
+     *
+     * @return {@link ConstantsDatasets#REPAIR_PARALLELISM} if {@link ConstantsDatasets#PARALLEL_REPAIR} is set, otherwise 1.
+     */
+    private static int getParallelism ()
+    {
+        return ConstantsDatasets.PARALLEL_REPAIR ? ConstantsDatasets.REPAIR_PARALLELISM : (int) ConstantsMath.ONE;
+    }
+
+
+    /**
+     * Splits a list of datasets into segments of a fixed amount of datasets, repairs them on a fork-join pool and joins
+     * them in the order of the list.
+     *
+     * @param oldTrees             The list of datasets.
+     * @param loader               Loads the values of one dataset into a record.
+     * @param clustersByType       The clusters of the German and botanical types.
+     * @param clustersBySpecies    The clusters of the German and botanical species.
+     * @param imputationStatistics The statistics to fill missing measurements with.
+     * @param parallelism          The amount of threads.
+     * @param <T>                  The type of the datasets.
+     * @return The report of this run.
+     */
+    private <T> RepairReport repairSegments (List<T> oldTrees, BiConsumer<TreeRecord, T> loader,
+                                             TraitClusters clustersByType, TraitClusters clustersBySpecies,
+                                             ImputationStatistics imputationStatistics, int parallelism)
+    {
+        // Splits the list into ranges
+        int segmentTrees = ConstantsDatasets.REPAIR_SEGMENT_TREES;
+        List<SegmentTask<T>> segmentTasks = new ArrayList<>();
+        for (int start = (int) ConstantsMath.ZERO; start < oldTrees.size(); start += segmentTrees)
+        {
+            segmentTasks.add(new SegmentTask<>(oldTrees.subList(start, Math.min(oldTrees.size(), start + segmentTrees)),
+                    loader, clustersByType, clustersBySpecies, imputationStatistics));
+        }
+
+        if (parallelism <= ConstantsMath.ONE || segmentTasks.size() <= ConstantsMath.ONE)
         {
+            for (SegmentTask<T> segmentTask : segmentTasks) segmentTask.invoke(); // Runs on the calling thread
+        } else
+        {
+            ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
             try
             {
-                String[] traits = filterStrings(tree.getTraits()); // Filters Strings, setting unwanted values to default
+                forkJoinPool.submit(() -> ForkJoinTask.invokeAll(segmentTasks)).join();
+            } finally
+            {
+                forkJoinPool.shutdown();
+            }
+        }
+
+        // Joins the segments in the order of the list
+        List<Tree> fixedTrees = new ArrayList<>(oldTrees.size());
+        int corruptTrees = (int) ConstantsMath.ZERO;
+        int repairedTrees = (int) ConstantsMath.ZERO;
+        int deletedTrees = (int) ConstantsMath.ZERO;
+        for (SegmentTask<T> segmentTask : segmentTasks)
+        {
+            Segment segment = segmentTask.join();
+            fixedTrees.addAll(segment.fixedTrees);
+            corruptTrees += segment.corruptCounter;
+            repairedTrees += segment.repairedCounter;
+            deletedTrees += segment.deletedCounter;
+        }
+        return new RepairReport(fixedTrees, corruptTrees, repairedTrees, deletedTrees);
+    }
+
+
+    /**
+     * Fixes the datasets of one segment. The values of each dataset are loaded into one reused record, filtered and
+     * repaired there, and the tree is created from the record once.
+     *
+     * @param oldTrees             The datasets of the segment.
+     * @param loader               Loads the values of one dataset into a record.
+     * @param clustersByType       The clusters of the German and botanical types.
+     * @param clustersBySpecies    The clusters of the German and botanical species.
+     * @param imputationStatistics The statistics to fill missing measurements with.
+     * @param <T>                  The type of the datasets.
+     * @return The fixed trees and the counters of the segment.
+     */
+    private <T> Segment repairSegment (List<T> oldTrees, BiConsumer<TreeRecord, T> loader, TraitClusters clustersByType,
+                                       TraitClusters clustersBySpecies, ImputationStatistics imputationStatistics)
+    {
+        TreeController treeController = new TreeController();
+        Segment segment = new Segment(oldTrees.size());
+        TreeRecord treeRecord = new TreeRecord();
 
-                if (needsRepairing(traits))
+        for (T oldTree : oldTrees) // Iterates through each individual tree
+        {
+            loader.accept(treeRecord, oldTree);
+            // Determines whether tree is deciduous or coniferous, from the values as they were read
+            boolean isDeciduous = treeController.isDeciduous(treeRecord.speciesBotanical, treeRecord.heightM,
+                    treeRecord.croneDiameterM, treeRecord.circumferenceCM);
+            treeRecord.filterStrings(); // Filters Strings, setting unwanted values to default
+            int defaultTraits = treeRecord.getDefaultTraits();
+            int repairedTraits = (int) ConstantsMath.ZERO;
+
+            if (defaultTraits != ConstantsMath.ZERO) // Needs repairing
+            {
+                segment.corruptCounter++;
+                if (!isRepairable(defaultTraits))
                 {
-                    corruptCounter++;
-                    if (!isRepairable(traits)) throw new IrreparableDatasetException(); // Cannot be repaired
-                    traits = repair(traits, clusteredListByType, clusteredListBySpecies, defaultTree);
-                    repairedCounter++;
+                    segment.deletedCounter++; // Counts "ignored" trees that cannot be repaired
+                    continue;
                 }
-                boolean isDeciduous = treeController.isDeciduous(tree); // Determines whether tree is deciduous or coniferous
-                fixedTrees.add(new Tree(traits, isDeciduous)); // Adds to new list
-            } catch (IrreparableDatasetException e)
-            {
-                deletedCounter++; // Counts "ignored" trees that cannot be repaired
-            } catch (InvalidTraitException e)
-            {
-                throw new RuntimeException(e.getMessage());
+                repair(treeRecord, defaultTraits, clustersByType, clustersBySpecies, imputationStatistics);
+                repairedTraits = defaultTraits & ~treeRecord.getDefaultTraits(); // Remembers which values are estimates
+                segment.repairedCounter++;
             }
+            segment.fixedTrees.add(treeRecord.getTree(isDeciduous, repairedTraits)); // Adds to new list
         }
-        return fixedTrees;
+        return segment;
+    }
+
+
+    /**
+     * Adds the counters of a run to the counters of this class.
+     *
+     * @param repairReport The report of the run.
+     */
+    private static synchronized void addCounters (RepairReport repairReport)
+    {
+        corruptCounter += repairReport.getCorruptCounter();
+        repairedCounter += repairReport.getRepairedCounter();
+        deletedCounter += repairReport.getDeletedCounter();
     }
 
 
     /**
      * Repairs the attributes of a tree based on available data and default values.
      *
-     * @param traits                 The array of traits representing a tree.
-     *                               ({@code traits} != {@code null})
-     * @param clusteredListByType    The list of maps for clustering types.
-     *                               ({@code clusteredListByType} != {@code null})
-     * @param clusteredListBySpecies The list of maps for clustering species.
-     *                               ({@code clusteredListBySpecies} != {@code null})
-     * @param defaultTree            The default tree to fill missing attributes.
-     *                               ({@code defaultTree} != {@code null})
-     * @return An array of traits with repaired values. The returned array contains repaired traits for a tree.
+     * @param treeRecord           The values of the tree, repaired in place.
+     *                             ({@code treeRecord} != {@code null})
+     * @param defaultTraits        The default traits of the tree, bit {@code 1 << index} per trait.
+     * @param clustersByType       The clusters of the German and botanical types.
+     *                             ({@code clustersByType} != {@code null})
+     * @param clustersBySpecies    The clusters of the German and botanical species.
+     *                             ({@code clustersBySpecies} != {@code null})
+     * @param imputationStatistics The statistics to fill missing measurements with.
+     *                             ({@code imputationStatistics} != {@code null})
      */
-    private String[] repair (String[] traits, List<Map<String, Integer>> clusteredListByType,
-                             List<Map<String, Integer>> clusteredListBySpecies, Tree defaultTree)
+    private void repair (TreeRecord treeRecord, int defaultTraits, TraitClusters clustersByType,
+                         TraitClusters clustersBySpecies, ImputationStatistics imputationStatistics)
     {
         TreeController treeController = new TreeController();
-        boolean[] traitIsDefault = checkWhetherTraitsDefault(traits);
 
         // Translate type
-        if (traitIsDefault[ConstantsDatasets.INDEX_TypeGerman] && !traitIsDefault[ConstantsDatasets.INDEX_TypeBotanical])
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_TypeGerman) && !isSet(defaultTraits, ConstantsDatasets.INDEX_TypeBotanical))
         {
             // Botanical type available, but not German
-            traits[ConstantsDatasets.INDEX_TypeGerman] = treeController.findCorrelatingVariable(clusteredListByType,
-                    traits[ConstantsDatasets.INDEX_TypeBotanical], ConstantsDatasets.INDEX_TypeBotanical,
-                    ConstantsDatasets.INDEX_TypeGerman); // Finds correlating value using the available one
-        } else if (!traitIsDefault[ConstantsDatasets.INDEX_TypeGerman] && traitIsDefault[ConstantsDatasets.INDEX_TypeBotanical])
+            treeRecord.typeGerman = treeController.findCorrelatingVariable(clustersByType, treeRecord.typeBotanical,
+                    ConstantsDatasets.INDEX_TypeBotanical, ConstantsDatasets.INDEX_TypeGerman); // Finds correlating value using the available one
+        } else if (!isSet(defaultTraits, ConstantsDatasets.INDEX_TypeGerman) && isSet(defaultTraits, ConstantsDatasets.INDEX_TypeBotanical))
         {
             // German type available, but not Botanical
-            traits[ConstantsDatasets.INDEX_TypeBotanical] = treeController.findCorrelatingVariable(clusteredListByType,
-                    traits[ConstantsDatasets.INDEX_TypeGerman], ConstantsDatasets.INDEX_TypeGerman,
-                    ConstantsDatasets.INDEX_TypeBotanical); // Finds correlating value using the available one
+            treeRecord.typeBotanical = treeController.findCorrelatingVariable(clustersByType, treeRecord.typeGerman,
+                    ConstantsDatasets.INDEX_TypeGerman, ConstantsDatasets.INDEX_TypeBotanical); // Finds correlating value using the available one
         }
 
         // Translate species
-        if (traitIsDefault[ConstantsDatasets.INDEX_SpeciesGerman] && !traitIsDefault[ConstantsDatasets.INDEX_SpeciesBotanical])
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_SpeciesGerman) && !isSet(defaultTraits, ConstantsDatasets.INDEX_SpeciesBotanical))
         {
             // Botanical species available, but not German
-            traits[ConstantsDatasets.INDEX_SpeciesGerman] = treeController.findCorrelatingVariable(clusteredListBySpecies,
-                    traits[ConstantsDatasets.INDEX_SpeciesBotanical], ConstantsDatasets.INDEX_SpeciesBotanical,
-                    ConstantsDatasets.INDEX_SpeciesGerman); // Finds correlating value using the available one
-        } else if (!traitIsDefault[ConstantsDatasets.INDEX_SpeciesGerman] && traitIsDefault[ConstantsDatasets.INDEX_SpeciesBotanical])
+            treeRecord.speciesGerman = treeController.findCorrelatingVariable(clustersBySpecies, treeRecord.speciesBotanical,
+                    ConstantsDatasets.INDEX_SpeciesBotanical, ConstantsDatasets.INDEX_SpeciesGerman); // Finds correlating value using the available one
+        } else if (!isSet(defaultTraits, ConstantsDatasets.INDEX_SpeciesGerman) && isSet(defaultTraits, ConstantsDatasets.INDEX_SpeciesBotanical))
         {
             // German species available, but not Botanical
-            traits[ConstantsDatasets.INDEX_SpeciesBotanical] = treeController.findCorrelatingVariable(clusteredListBySpecies,
-                    traits[ConstantsDatasets.INDEX_SpeciesGerman], ConstantsDatasets.INDEX_SpeciesGerman,
-                    ConstantsDatasets.INDEX_SpeciesBotanical); // Finds correlating value using the available one
+            treeRecord.speciesBotanical = treeController.findCorrelatingVariable(clustersBySpecies, treeRecord.speciesGerman,
+                    ConstantsDatasets.INDEX_SpeciesGerman, ConstantsDatasets.INDEX_SpeciesBotanical); // Finds correlating value using the available one
         }
 
         // Mitchell Formula
-        if (traitIsDefault[ConstantsDatasets.INDEX_Age] && !traitIsDefault[ConstantsDatasets.INDEX_CircumferenceCM])
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_Age) && !isSet(defaultTraits, ConstantsDatasets.INDEX_CircumferenceCM))
         {
             // Age missing, but circumference available
-            traits[ConstantsDatasets.INDEX_Age] = String.valueOf(
-                    Mathematics.mitchellFormulaGetAge(Integer.parseInt(traits[ConstantsDatasets.INDEX_CircumferenceCM]))
-            );// Mitchell formula application using circumference
-        } else if (!traitIsDefault[ConstantsDatasets.INDEX_Age] && traitIsDefault[ConstantsDatasets.INDEX_CircumferenceCM])
+            treeRecord.age = Mathematics.mitchellFormulaGetAge(treeRecord.circumferenceCM); // Mitchell formula application using circumference
+        } else if (!isSet(defaultTraits, ConstantsDatasets.INDEX_Age) && isSet(defaultTraits, ConstantsDatasets.INDEX_CircumferenceCM))
         {
             // Circumference missing, but age available
-            traits[ConstantsDatasets.INDEX_CircumferenceCM] = String.valueOf(
-                    Mathematics.mitchellFormulaGetGirthCM(Integer.parseInt(traits[ConstantsDatasets.INDEX_Age]))
-            );// Mitchell formula application using age
-        } else if (!traitIsDefault[ConstantsDatasets.INDEX_YearOfPlantation] && traitIsDefault[ConstantsDatasets.INDEX_CircumferenceCM])
+            treeRecord.circumferenceCM = Mathematics.mitchellFormulaGetGirthCM(treeRecord.age); // Mitchell formula application using age
+        } else if (!isSet(defaultTraits, ConstantsDatasets.INDEX_YearOfPlantation) && isSet(defaultTraits, ConstantsDatasets.INDEX_CircumferenceCM))
         {
             // Circumference missing, but year of plantation available
-            traits[ConstantsDatasets.INDEX_Age] = String.valueOf(
-                    Mathematics.subtraction(
-                            ConstantsCSV.DATASET_YEAR, Integer.parseInt(traits[ConstantsDatasets.INDEX_YearOfPlantation])
-                    )
-            ); // Determines age
-            traits[ConstantsDatasets.INDEX_CircumferenceCM] = String.valueOf(
-                    Mathematics.mitchellFormulaGetGirthCM(Integer.parseInt(traits[ConstantsDatasets.INDEX_Age]))
-            ); // Mitchell formula application using age
+            treeRecord.age = (int) Mathematics.subtraction(ConstantsCSV.DATASET_YEAR, treeRecord.yearOfPlantation); // Determines age
+            treeRecord.circumferenceCM = Mathematics.mitchellFormulaGetGirthCM(treeRecord.age); // Mitchell formula application using age
         }
 
-        // Default tree (last option)
-        // If any trait is still default, it gets the default tree's traits
-        traitIsDefault = checkWhetherTraitsDefault(traits);
-        if (traitIsDefault[ConstantsDatasets.INDEX_YearOfPlantation]) traits[ConstantsDatasets.INDEX_YearOfPlantation] =
-                defaultTree.getTrait(ConstantsDatasets.INDEX_YearOfPlantation);
-        if (traitIsDefault[ConstantsDatasets.INDEX_Age]) traits[ConstantsDatasets.INDEX_Age] =
-                defaultTree.getTrait(ConstantsDatasets.INDEX_Age);
-        if (traitIsDefault[ConstantsDatasets.INDEX_CroneDiameterM]) traits[ConstantsDatasets.INDEX_CroneDiameterM] =
-                defaultTree.getTrait(ConstantsDatasets.INDEX_CroneDiameterM);
-        if (traitIsDefault[ConstantsDatasets.INDEX_CircumferenceCM]) traits[ConstantsDatasets.INDEX_CircumferenceCM] =
-                defaultTree.getTrait(ConstantsDatasets.INDEX_CircumferenceCM);
-        if (traitIsDefault[ConstantsDatasets.INDEX_HeightM]) traits[ConstantsDatasets.INDEX_HeightM] =
-                defaultTree.getTrait(ConstantsDatasets.INDEX_HeightM);
-
-        return traits;
+        // Statistics of the species (last option)
+        // If any measurement is still default, it gets the one of the species, of its genus or of all trees
+        defaultTraits = treeRecord.getDefaultTraits();
+        int speciesCode = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_SpeciesBotanical).findCode(treeRecord.speciesBotanical);
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_YearOfPlantation)) treeRecord.yearOfPlantation = (int)
+                Mathematics.subtraction(ConstantsCSV.DATASET_YEAR, imputationStatistics.getAge(speciesCode)); // Reconciled with the age by the tree
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_Age)) treeRecord.age = imputationStatistics.getAge(speciesCode);
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_CroneDiameterM)) treeRecord.croneDiameterM = imputationStatistics.getCroneDiameterM(speciesCode);
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_CircumferenceCM)) treeRecord.circumferenceCM = imputationStatistics.getCircumferenceCM(speciesCode);
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_HeightM)) treeRecord.heightM = imputationStatistics.getHeightM(speciesCode);
     }
 
 
     /**
-     * Filters out forbidden values from the traits array and replaces them with default values.
+     * Determines whether a tree with the given default traits is repairable.
      *
-     * @param traits The array of traits to be filtered.
-     *               ({@code traits} != {@code null})
-     * @return The returned array contains no forbidden values as specified by ConstantsTreeRestrictions.
+     * @param defaultTraits The default traits of the tree, bit {@code 1 << index} per trait.
+     * @return {@code true} if the tree is repairable; {@code false} otherwise.
      */
-    private String[] filterStrings (String[] traits)
+    private boolean isRepairable (int defaultTraits)
     {
-        // Checks whether any value in traits array equals to a "forbidden" value
-        for (int i = (int) ConstantsMath.ZERO; i < ConstantsTreeRestrictions.excludeValues.length; i++)
-        {
-            if (traits[ConstantsDatasets.INDEX_Name].equalsIgnoreCase(ConstantsTreeRestrictions.excludeValues[i]))
-                traits[ConstantsDatasets.INDEX_Name] = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-            if (traits[ConstantsDatasets.INDEX_TypeGerman].equalsIgnoreCase(ConstantsTreeRestrictions.excludeValues[i]))
-                traits[ConstantsDatasets.INDEX_TypeGerman] = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-            if (traits[ConstantsDatasets.INDEX_TypeBotanical].equalsIgnoreCase(ConstantsTreeRestrictions.excludeValues[i]))
-                traits[ConstantsDatasets.INDEX_TypeBotanical] = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-            if (traits[ConstantsDatasets.INDEX_SpeciesGerman].equalsIgnoreCase(ConstantsTreeRestrictions.excludeValues[i]))
-                traits[ConstantsDatasets.INDEX_SpeciesGerman] = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-            if (traits[ConstantsDatasets.INDEX_SpeciesBotanical].equalsIgnoreCase(ConstantsTreeRestrictions.excludeValues[i]))
-                traits[ConstantsDatasets.INDEX_SpeciesBotanical] = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-            if (traits[ConstantsDatasets.INDEX_District].equalsIgnoreCase(ConstantsTreeRestrictions.excludeValues[i]))
-                traits[ConstantsDatasets.INDEX_District] = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-        }
-
-        return traits;
-    }
-
-
-    /**
-     * Determines whether the given traits array needs repairing.
-     *
-     * @param traits The array of traits to be checked.
-     *               ({@code traits} != {@code null})
-     * @return {@code true} if any value in the traits array is a default value; {@code false} otherwise.
-     */
-    private boolean needsRepairing (String[] traits)
-    {
-        boolean[] traitIsDefault = checkWhetherTraitsDefault(traits);
-
-        // If any value in traits array is default, then repairing is needed
-        for (int i = (int) ConstantsMath.ZERO; i < ConstantsDatasets.AMOUNT_OF_ATTRIBUTES; i++)
-        {
-            if (traitIsDefault[i]) return ConstantsMath.bTrue;
-        }
-        return ConstantsMath.bFalse;
-    }
-
-
-    /**
-     * Determines whether the given traits array is repairable.
-     *
-     * @param traits The array of traits to be checked.
-     *               ({@code traits} != {@code null})
-     * @return {@code true} if the traits array is repairable; {@code false} otherwise.
-     */
-    private boolean isRepairable (String[] traits)
-    {
-        boolean[] traitIsDefault = checkWhetherTraitsDefault(traits);
-
         // Is irrepairable if:
         // Cannot be translated
-        if (traitIsDefault[ConstantsDatasets.INDEX_TypeGerman] && traitIsDefault[ConstantsDatasets.INDEX_TypeBotanical])
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_TypeGerman) && isSet(defaultTraits, ConstantsDatasets.INDEX_TypeBotanical))
             return ConstantsMath.bFalse;
         // Cannot be translated
-        if (traitIsDefault[ConstantsDatasets.INDEX_SpeciesGerman] && traitIsDefault[ConstantsDatasets.INDEX_SpeciesBotanical])
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_SpeciesGerman) && isSet(defaultTraits, ConstantsDatasets.INDEX_SpeciesBotanical))
             return ConstantsMath.bFalse;
         // Name or location missing
-        if (traitIsDefault[ConstantsDatasets.INDEX_Name] || traitIsDefault[ConstantsDatasets.INDEX_District])
+        if (isSet(defaultTraits, ConstantsDatasets.INDEX_Name) || isSet(defaultTraits, ConstantsDatasets.INDEX_District))
             return ConstantsMath.bFalse;
 
         // Otherwise repairable
@@ -247,33 +369,15 @@ public class DataRepair
 
 
     /**
-     * Checks whether each trait in the given traits array is default.
+     * Checks whether the bit of a trait is set.
      *
-     * @param traits The array of traits to be checked.
-     *               ({@code traits} != {@code null})
-     * @return The returned array contains {@code true} at index i if the corresponding trait is default, otherwise {@code false}.
+     * @param traits The traits, bit {@code 1 << index} per trait.
+     * @param index  The index of the trait.
+     * @return {@code true} if the bit of the trait is set; {@code false} otherwise.
      */
-    private boolean[] checkWhetherTraitsDefault (String[] traits)
+    private static boolean isSet (int traits, int index)
     {
-        boolean[] traitIsDefault = new boolean[ConstantsDatasets.AMOUNT_OF_ATTRIBUTES];
-
-        // Determines whether String array has default values
-        for (int i = (int) ConstantsMath.ZERO; i < ConstantsDatasets.AMOUNT_OF_ATTRIBUTES; i++)
-        {
-            if (traits[i].equals(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE)))
-            {
-                // True if current trait equals default value
-                traitIsDefault[i] = ConstantsMath.bTrue;
-            } else if (traits[i].equals(String.valueOf((float) ConstantsCSV.NUMBER_DEFAULT_VALUE)))
-            {
-                // Float value contains a dot, thus needs its own case
-                traitIsDefault[i] = ConstantsMath.bTrue;
-            } else
-            {
-                traitIsDefault[i] = ConstantsMath.bFalse;
-            }
-        }
-        return traitIsDefault;
+        return (traits & ((int) ConstantsMath.ONE << index)) != ConstantsMath.ZERO;
     }
 
 
@@ -282,7 +386,7 @@ public class DataRepair
      *
      * @return The count of deleted items.
      */
-    public static int getDeletedCounter ()
+    public static synchronized int getDeletedCounter ()
     {
         return deletedCounter;
     }
@@ -293,7 +397,7 @@ public class DataRepair
      *
      * @return The count of corrupt items.
      */
-    public static int getCorruptCounter ()
+    public static synchronized int getCorruptCounter ()
     {
         return corruptCounter;
     }
@@ -304,8 +408,214 @@ public class DataRepair
      *
      * @return The count of repaired items.
      */
-    public static int getRepairedCounter ()
+    public static synchronized int getRepairedCounter ()
     {
         return repairedCounter;
     }
-}
\ No newline at end of file
+
+
+    /**
+     * The SegmentTask class repairs one range of the list on the fork-join pool.
+     */
+    private class SegmentTask<T> extends RecursiveTask<Segment>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> oldTrees;
+        private final BiConsumer<TreeRecord, T> loader;
+        private final TraitClusters clustersByType;
+        private final TraitClusters clustersBySpecies;
+        private final ImputationStatistics imputationStatistics;
+
+
+        /**
+         * Constructs a SegmentTask for a range of the list.
+         *
+         * @param oldTrees             The datasets of the range.
+         * @param loader               Loads the values of one dataset into a record.
+         * @param clustersByType       The clusters of the German and botanical types.
+         * @param clustersBySpecies    The clusters of the German and botanical species.
+         * @param imputationStatistics The statistics to fill missing measurements with.
+         */
+        SegmentTask (List<T> oldTrees, BiConsumer<TreeRecord, T> loader, TraitClusters clustersByType,
+                     TraitClusters clustersBySpecies, ImputationStatistics imputationStatistics)
+        {
+            this.oldTrees = oldTrees;
+            this.loader = loader;
+            this.clustersByType = clustersByType;
+            this.clustersBySpecies = clustersBySpecies;
+            this.imputationStatistics = imputationStatistics;
+        }
+
+
+        @Override
+        protected Segment compute ()
+        {
+            return repairSegment(oldTrees, loader, clustersByType, clustersBySpecies, imputationStatistics);
+        }
+    }
+
+
+    /**
+     * The Segment class collects the fixed trees and the counters of one range of the list.
+     */
+    private static class Segment
+    {
+        private final List<Tree> fixedTrees;
+        private int corruptCounter;
+        private int repairedCounter;
+        private int deletedCounter;
+
+
+        private Segment (int amountOfTrees)
+        {
+            fixedTrees = new ArrayList<>(amountOfTrees);
+        }
+    }
+
+
+    /**
+     * The TreeRecord class holds the values of one dataset while it is filtered and repaired. One record is reused for
+     * all datasets of a segment, numeric values are kept as numbers.
+     */
+    private static class TreeRecord
+    {
+        private int id;
+        private String name;
+        private String typeGerman;
+        private String typeBotanical;
+        private String speciesGerman;
+        private String speciesBotanical;
+        private int yearOfPlantation;
+        private int age;
+        private double croneDiameterM;
+        private int circumferenceCM;
+        private float heightM;
+        private String district;
+
+
+        /**
+         * Loads the values of a tree.
+         *
+         * @param tree The tree.
+         */
+        private void load (Tree tree)
+        {
+            id = tree.getID();
+            name = tree.getName();
+            typeGerman = tree.getTypeGerman();
+            typeBotanical = tree.getTypeBotanical();
+            speciesGerman = tree.getSpeciesGerman();
+            speciesBotanical = tree.getSpeciesBotanical();
+            yearOfPlantation = tree.getYearOfPlantation();
+            age = tree.getAge();
+            croneDiameterM = tree.getCroneDiameterM();
+            circumferenceCM = tree.getCircumferenceCM();
+            heightM = tree.getHeightM();
+            district = tree.getDistrict();
+        }
+
+
+        /**
+         * Loads the values of a parsed dataset, reconciling the age with the year of plantation as a tree would do.
+         *
+         * @param treeTraits The parsed dataset, invalid traits already set to default.
+         */
+        private void load (TreeTraits treeTraits)
+        {
+            id = treeTraits.getID();
+            name = treeTraits.getTrait(ConstantsDatasets.INDEX_Name);
+            typeGerman = treeTraits.getTrait(ConstantsDatasets.INDEX_TypeGerman);
+            typeBotanical = treeTraits.getTrait(ConstantsDatasets.INDEX_TypeBotanical);
+            speciesGerman = treeTraits.getTrait(ConstantsDatasets.INDEX_SpeciesGerman);
+            speciesBotanical = treeTraits.getTrait(ConstantsDatasets.INDEX_SpeciesBotanical);
+            yearOfPlantation = Age.getReconciledYearOfPlantation(treeTraits.getYearOfPlantation(), treeTraits.getAge());
+            age = Age.getReconciledAge(treeTraits.getYearOfPlantation(), treeTraits.getAge());
+            croneDiameterM = treeTraits.getCroneDiameterM();
+            circumferenceCM = treeTraits.getCircumferenceCM();
+            heightM = treeTraits.getHeightM();
+            district = treeTraits.getTrait(ConstantsDatasets.INDEX_District);
+        }
+
+
+        /**
+         * Sets forbidden values of the string traits to default, as specified by ConstantsTreeRestrictions.
+         */
+        private void filterStrings ()
+        {
+            name = filterString(name);
+            typeGerman = filterString(typeGerman);
+            typeBotanical = filterString(typeBotanical);
+            speciesGerman = filterString(speciesGerman);
+            speciesBotanical = filterString(speciesBotanical);
+            district = filterString(district);
+        }
+
+
+        /**
+         * Determines which traits are default.
+         *
+         * @return Bit {@code 1 << index} is set for every trait that is default.
+         */
+        private int getDefaultTraits ()
+        {
+            int defaultTraits = (int) ConstantsMath.ZERO;
+            if (id == ConstantsCSV.NUMBER_DEFAULT_VALUE) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_ID;
+            if (isDefault(name)) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_Name;
+            if (isDefault(typeGerman)) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_TypeGerman;
+            if (isDefault(typeBotanical)) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_TypeBotanical;
+            if (isDefault(speciesGerman)) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_SpeciesGerman;
+            if (isDefault(speciesBotanical)) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_SpeciesBotanical;
+            if (yearOfPlantation == ConstantsCSV.NUMBER_DEFAULT_VALUE) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_YearOfPlantation;
+            if (age == ConstantsCSV.NUMBER_DEFAULT_VALUE) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_Age;
+            if (croneDiameterM == ConstantsCSV.NUMBER_DEFAULT_VALUE) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_CroneDiameterM;
+            if (circumferenceCM == ConstantsCSV.NUMBER_DEFAULT_VALUE) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_CircumferenceCM;
+            if (heightM == ConstantsCSV.NUMBER_DEFAULT_VALUE) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_HeightM;
+            if (isDefault(district)) defaultTraits |= (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_District;
+            return defaultTraits;
+        }
+
+
+        /**
+         * Creates the tree from the values of the record.
+         *
+         * @param isDeciduous    A boolean indicating whether the tree is deciduous.
+         * @param repairedTraits The traits that were filled in by the data repair, bit {@code 1 << index} per trait.
+         * @return The tree.
+         */
+        private Tree getTree (boolean isDeciduous, int repairedTraits)
+        {
+            return new Tree(id, name, typeGerman, typeBotanical, speciesGerman, speciesBotanical, yearOfPlantation, age,
+                    croneDiameterM, circumferenceCM, heightM, district, isDeciduous, repairedTraits);
+        }
+
+
+        /**
+         * Replaces a forbidden value with the default value.
+         *
+         * @param value The value of a string trait.
+         * @return The default value if the value is forbidden, otherwise the value itself.
+         */
+        private static String filterString (String value)
+        {
+            // Checks whether the value equals to a "forbidden" value
+            for (String excludeValue : ConstantsTreeRestrictions.excludeValues)
+            {
+                if (value.equalsIgnoreCase(excludeValue)) return DEFAULT_VALUE;
+            }
+            return value;
+        }
+
+
+        /**
+         * Checks whether the value of a string trait is default.
+         *
+         * @param value The value of a string trait.
+         * @return {@code true} if the value is the default value, written as a whole or as a decimal number.
+         */
+        private static boolean isDefault (String value)
+        {
+            return value.equals(DEFAULT_VALUE) || value.equals(DEFAULT_DECIMAL_VALUE);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package control;
+
+
+import model.Tree;
+import model.TraitDictionary;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsMath;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+
+/**
+ * The GroupBy class groups trees by the dictionary code of a string trait and accumulates per group the amount of
+ * trees, the sum of a value and the different values of another string trait.
+ * Trees are added one after another and only primitive accumulators are kept per group, no list of trees, so the
+ * memory needed depends on the amount of groups instead of the amount of trees.
+ * Groups are numbered in the order they first occur, so every map returned is filled in the same order as a map that
+ * was built by iterating through the list of trees.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class GroupBy
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int groupIndex;
+    private final TraitDictionary groupDictionary;
+    private final ToDoubleFunction<Tree> valueFunction; // null if no value is accumulated
+    private final int distinctIndex; // NUMBER_DEFAULT_VALUE if no different values are counted
+
+    private int[] groupOfCode; // Group + 1 per dictionary code, 0 if the code has not occurred yet
+    private int[] codeOfGroup = new int[INITIAL_CAPACITY];
+    private int amountOfGroups;
+
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int[] valueCounts = new int[INITIAL_CAPACITY];
+    private double[] sums = new double[INITIAL_CAPACITY];
+    private BitSet[] distinctValues = new BitSet[INITIAL_CAPACITY];
+
+
+    /**
+     * Constructs a GroupBy that only counts the trees per group.
+     *
+     * @param groupIndex The index of the string trait the trees are grouped by.
+     * @throws IllegalArgumentException if the trait is not a string trait.
+     */
+    public GroupBy (int groupIndex)
+    {
+        this(groupIndex, null, ConstantsCSV.NUMBER_DEFAULT_VALUE);
+    }
+
+
+    /**
+     * Constructs a GroupBy that accumulates a value of every tree per group.
+     * Values equal to {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} are missing, the tree is counted but its value is not.
+     *
+     * @param groupIndex    The index of the string trait the trees are grouped by.
+     * @param valueFunction Computes the value of a tree.
+     *                      ({@code valueFunction} != {@code null})
+     * @throws IllegalArgumentException if the trait is not a string trait.
+     */
+    public GroupBy (int groupIndex, ToDoubleFunction<Tree> valueFunction)
+    {
+        this(groupIndex, valueFunction, ConstantsCSV.NUMBER_DEFAULT_VALUE);
+    }
+
+
+    /**
+     * Constructs a GroupBy that counts the different values of a string trait per group.
+     *
+     * @param groupIndex    The index of the string trait the trees are grouped by.
+     * @param distinctIndex The index of the string trait whose different values are counted.
+     * @throws IllegalArgumentException if one of the traits is not a string trait.
+     */
+    public GroupBy (int groupIndex, int distinctIndex)
+    {
+        this(groupIndex, null, distinctIndex);
+    }
+
+
+    /**
+     * Constructs a GroupBy.
+     *
+     * @param groupIndex    The index of the string trait the trees are grouped by.
+     * @param valueFunction Computes the value of a tree, or {@code null} if no value is accumulated.
+     * @param distinctIndex The index of the string trait whose different values are counted, or
+     *                      {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if none are counted.
+     * @throws IllegalArgumentException if one of the traits is not a string trait.
+     */
+    private GroupBy (int groupIndex, ToDoubleFunction<Tree> valueFunction, int distinctIndex)
+    {
+        if (distinctIndex != ConstantsCSV.NUMBER_DEFAULT_VALUE && !TraitDictionary.isEncoded(distinctIndex))
+            throw new IllegalArgumentException(String.valueOf(distinctIndex));
+
+        this.groupIndex = groupIndex;
+        this.groupDictionary = TraitDictionary.getDictionary(groupIndex);
+        this.valueFunction = valueFunction;
+        this.distinctIndex = distinctIndex;
+        this.groupOfCode = new int[groupDictionary.size()];
+    }
+
+
+    /**
+     * Adds all trees of a list.
+     *
+     * @param treeList The list of trees.
+     *                 ({@code treeList} != {@code null})
+     * @return This GroupBy, for chaining.
+     */
+    public GroupBy addAll (List<Tree> treeList)
+    {
+        for (Tree tree : treeList) add(tree); // Iterates through treeList
+        return this;
+    }
+
+
+    /**
+     * Adds a tree to the accumulators of its group.
+     *
+     * @param tree The tree.
+     *             ({@code tree} != {@code null})
+     */
+    public void add (Tree tree)
+    {
+        int group = getGroup(tree.getCode(groupIndex));
+        counts[group]++;
+
+        if (valueFunction != null)
+        {
+            double value = valueFunction.applyAsDouble(tree);
+            if (value != ConstantsCSV.NUMBER_DEFAULT_VALUE) // Ignores missing values
+            {
+                sums[group] += value;
+                valueCounts[group]++;
+            }
+        }
+
+        if (distinctIndex != ConstantsCSV.NUMBER_DEFAULT_VALUE)
+        {
+            if (distinctValues[group] == null) distinctValues[group] = new BitSet();
+            distinctValues[group].set(tree.getCode(distinctIndex)); // Marks the value as present in the group
+        }
+    }
+
+
+    /**
+     * Retrieves the amount of trees per group.
+     *
+     * @return A map from the types of the group trait to the amount of their trees.
+     */
+    public HashMap<String, Integer> getCounts ()
+    {
+        HashMap<String, Integer> countMap = new HashMap<>();
+        for (int group = (int) ConstantsMath.ZERO; group < amountOfGroups; group++) countMap.put(getType(group), counts[group]);
+        return countMap;
+    }
+
+
+    /**
+     * Retrieves the sum of the values per group.
+     *
+     * @return A map from the types of the group trait to the sum of their values.
+     */
+    public HashMap<String, Double> getSums ()
+    {
+        return getValueMap(sums);
+    }
+
+
+    /**
+     * Retrieves the average of the values per group, missing values are not counted in.
+     *
+     * @return A map from the types of the group trait to the average of their values.
+     */
+    public HashMap<String, Double> getAverages ()
+    {
+        HashMap<String, Double> averageMap = new HashMap<>();
+        for (int group = (int) ConstantsMath.ZERO; group < amountOfGroups; group++)
+        {
+            averageMap.put(getType(group), Mathematics.division(sums[group], valueCounts[group]));
+        }
+        return averageMap;
+    }
+
+
+    /**
+     * Retrieves the amount of different values of the distinct trait per group.
+     *
+     * @return A map from the types of the group trait to the amount of different values among their trees.
+     */
+    public HashMap<String, Integer> getAmountsOfDistinctValues ()
+    {
+        HashMap<String, Integer> distinctMap = new HashMap<>();
+        for (int group = (int) ConstantsMath.ZERO; group < amountOfGroups; group++)
+        {
+            distinctMap.put(getType(group), distinctValues[group] == null ? (int) ConstantsMath.ZERO : distinctValues[group].cardinality());
+        }
+        return distinctMap;
+    }
+
+
+    /**
+     * Creates a map from the types of the groups to a value per group.
+     *
+     * @param valuePerGroup The value per group.
+     * @return A map from the types of the group trait to their value.
+     */
+    private HashMap<String, Double> getValueMap (double[] valuePerGroup)
+    {
+        HashMap<String, Double> valueMap = new HashMap<>();
+        for (int group = (int) ConstantsMath.ZERO; group < amountOfGroups; group++) valueMap.put(getType(group), valuePerGroup[group]);
+        return valueMap;
+    }
+
+
+    /**
+     * Retrieves the type of the group trait a group stands for.
+     *
+     * @param group The group.
+     * @return The value of the group trait.
+     */
+    private String getType (int group)
+    {
+        return groupDictionary.getValue(codeOfGroup[group]);
+    }
+
+
+    /**
+     * Retrieves the group of a dictionary code, adding a new group if the code occurs for the first time.
+     *
+     * @param code The code of the group trait.
+     * @return The group of the code.
+     */
+    private int getGroup (int code)
+    {
+        if (code >= groupOfCode.length) // Code added to the dictionary in the meantime
+            groupOfCode = Arrays.copyOf(groupOfCode, Math.max(code + (int) ConstantsMath.ONE, groupDictionary.size()));
+
+        if (groupOfCode[code] == ConstantsMath.ZERO) // New group
+        {
+            if (amountOfGroups == codeOfGroup.length) grow();
+            codeOfGroup[amountOfGroups] = code;
+            groupOfCode[code] = ++amountOfGroups;
+        }
+        return groupOfCode[code] - (int) ConstantsMath.ONE;
+    }
+
+
+    /**
+     * Doubles the capacity of the accumulators.
+     */
+    private void grow ()
+    {
+        int capacity = codeOfGroup.length * (int) ConstantsMath.TWO;
+        codeOfGroup = Arrays.copyOf(codeOfGroup, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        valueCounts = Arrays.copyOf(valueCounts, capacity);
+        sums = Arrays.copyOf(sums, capacity);
+        distinctValues = Arrays.copyOf(distinctValues, capacity);
+    }
+}
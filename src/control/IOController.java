@@ -1,7 +1,13 @@
 package control;
 
 
+import model.CarbonProjection;
+import model.CarbonUncertainty;
+import model.QuestionResults;
+import model.RowBitmap;
+import model.Trait;
 import model.Tree;
+import model.TreeTable;
 import model.exceptions.IllegalInputException;
 import utility.constants.ConstantsDatasets;
 import utility.constants.ConstantsIO;
@@ -9,7 +15,7 @@ import utility.constants.ConstantsMath;
 import view.PrintConsole;
 import view.PrintTree;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -85,6 +91,232 @@ public class IOController
             case ConstantsIO.questionNumber13:
                 answer += printConsole.getAnswer(ConstantsIO.answer13, speciesWithMostCarbonSaved(treeList));
                 break;
+            case ConstantsIO.questionNumber14:
+                answer += printConsole.getAnswer(ConstantsIO.answer14, PrintTree.getTrees(tallestTrees(treeList)));
+                break;
+            case ConstantsIO.questionNumber15:
+                answer += printConsole.getAnswer(ConstantsIO.answer15, printConsole.getCarbonProjection(carbonProjection(new TreeTable(treeList))));
+                break;
+            case ConstantsIO.questionNumber16:
+                answer += printConsole.getAnswer(ConstantsIO.answer16, printConsole.getCarbonUncertainty(carbonUncertainty(new TreeTable(treeList))));
+                break;
+            default:
+                // Any other input will cause an exception
+                throw new IllegalInputException(printConsole.getInputErrorMessage(menuInput));
+        }
+        return answer;
+    }
+
+
+    /**
+     * Retrieves an answer based on the provided menu input and table of trees.
+     *
+     * @param menuInput The menu input indicating the type of information requested.
+     *                  ({@code menuInput} != {@code null})
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned string contains information based on the menu input and tree table.
+     * @throws IllegalInputException If the menu input is invalid.
+     */
+    public String getAnswer (String menuInput, TreeTable treeTable) throws IllegalInputException
+    {
+        PrintConsole printConsole = new PrintConsole();
+        String answer = ConstantsMath.emptyString;
+        switch (menuInput)
+        {
+            case ConstantsIO.questionNumber0:
+                answer += printConsole.getAnswer(ConstantsIO.answer0, districtWithMostTrees(treeTable));
+                break;
+            case ConstantsIO.questionNumber1:
+                answer += printConsole.getAnswer(ConstantsIO.answer1, districtWithTallestTree(treeTable));
+                break;
+            case ConstantsIO.questionNumber2:
+                answer += printConsole.getAnswer(ConstantsIO.answer2, PrintTree.getTree(treeTable.getTree(treeWithHighestCircumference(treeTable))));
+                break;
+            case ConstantsIO.questionNumber3:
+                answer += printConsole.getAnswer(ConstantsIO.answer3, PrintTree.getTree(treeTable.getTree(treeWithBiggestCrone(treeTable))));
+                break;
+            case ConstantsIO.questionNumber4:
+                answer += printConsole.getAnswer(ConstantsIO.answer4, PrintTree.getTree(treeTable.getTree(treeWithMostAge(treeTable))));
+                break;
+            case ConstantsIO.questionNumber5:
+                answer += printConsole.getAnswer(ConstantsIO.answer5, String.valueOf(amountOfTypesOfTrees(treeTable)));
+                break;
+            case ConstantsIO.questionNumber6:
+                answer += printConsole.getAnswer(ConstantsIO.answer6, String.valueOf(amountOfSpeciesOfTrees(treeTable)));
+                break;
+            case ConstantsIO.questionNumber7:
+                answer += printConsole.getAnswer(ConstantsIO.answer7, mostOccurringSpeciesOfTrees(treeTable));
+                break;
+            case ConstantsIO.questionNumber8:
+                answer += printConsole.getAnswer(ConstantsIO.answer8, mostSpeciesDiverseDistrict(treeTable));
+                break;
+            case ConstantsIO.questionNumber9:
+                answer += printConsole.getAnswer(ConstantsIO.answer9, averageTallestSpecies(treeTable));
+                break;
+            case ConstantsIO.questionNumber10:
+                answer += printConsole.getAnswer(ConstantsIO.answer10, averageHighestCircumferenceSpecies(treeTable));
+                break;
+            case ConstantsIO.questionNumber11:
+                answer += printConsole.getAnswer(ConstantsIO.answer11, String.valueOf(totalCarbonSaved(treeTable)));
+                break;
+            case ConstantsIO.questionNumber12:
+                answer += printConsole.getAnswer(ConstantsIO.answer12, districtWithMostCarbonSaved(treeTable));
+                break;
+            case ConstantsIO.questionNumber13:
+                answer += printConsole.getAnswer(ConstantsIO.answer13, speciesWithMostCarbonSaved(treeTable));
+                break;
+            case ConstantsIO.questionNumber14:
+                answer += printConsole.getAnswer(ConstantsIO.answer14, PrintTree.getTrees(tallestTrees(treeTable)));
+                break;
+            case ConstantsIO.questionNumber15:
+                answer += printConsole.getAnswer(ConstantsIO.answer15, printConsole.getCarbonProjection(carbonProjection(treeTable)));
+                break;
+            case ConstantsIO.questionNumber16:
+                answer += printConsole.getAnswer(ConstantsIO.answer16, printConsole.getCarbonUncertainty(carbonUncertainty(treeTable)));
+                break;
+            default:
+                // Any other input will cause an exception
+                throw new IllegalInputException(printConsole.getInputErrorMessage(menuInput));
+        }
+        return answer;
+    }
+
+
+    /**
+     * Retrieves an answer based on the provided menu input for the trees of a filter, for example all trees of a
+     * species in one district, see {@link TreeTable#getRows(int, String)}.
+     * The answer is the same as for a list of just these trees, but the trees are neither filtered nor copied.
+     * The carbon projection and the uncertainty of the stored carbon look at the whole table and are not answered for a
+     * filter.
+     *
+     * @param menuInput The menu input indicating the type of information requested.
+     *                  ({@code menuInput} != {@code null})
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @param rowBitmap The rows of the trees to process.
+     *                  ({@code rowBitmap} != {@code null})
+     * @return The returned string contains information based on the menu input and the filtered trees, or a note that
+     * no trees match where an answer needs a tree and the filter is empty.
+     * @throws IllegalInputException If the menu input is invalid.
+     */
+    public String getAnswer (String menuInput, TreeTable treeTable, RowBitmap rowBitmap) throws IllegalInputException
+    {
+        return getAnswer(menuInput, new AggregateEngine().getQuestionResults(treeTable, rowBitmap));
+    }
+
+
+    /**
+     * Retrieves an answer based on the provided menu input for the trees whose numeric trait lies in a range, for
+     * example the tallest tree among the trees planted before 1900. Segments of the table outside the range are
+     * skipped, see {@link TreeTable#getRows(Trait, double, double)}.
+     *
+     * @param menuInput The menu input indicating the type of information requested.
+     *                  ({@code menuInput} != {@code null})
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @param trait     The numeric trait of the range.
+     *                  ({@code trait} != {@code null} && {@code trait.isNumeric()})
+     * @param minimum   The smallest value of the range, included.
+     * @param maximum   The largest value of the range, included.
+     * @return The returned string contains information based on the menu input and the trees in the range, or a note
+     * that no trees match where an answer needs a tree and the range is empty.
+     * @throws IllegalInputException If the menu input is invalid.
+     */
+    public String getAnswer (String menuInput, TreeTable treeTable, Trait trait, double minimum, double maximum) throws IllegalInputException
+    {
+        return getAnswer(menuInput, treeTable, treeTable.getRows(trait, minimum, maximum));
+    }
+
+
+    /**
+     * Retrieves an answer based on the provided menu input from the answers computed beforehand, or from the table for
+     * the questions that look ahead or sample and are therefore only computed when they are asked, like the carbon
+     * projection and the uncertainty of the stored carbon.
+     *
+     * @param menuInput       The menu input indicating the type of information requested.
+     *                        ({@code menuInput} != {@code null})
+     * @param questionResults The answers computed beforehand from the table, see {@link AggregateEngine}.
+     *                        ({@code questionResults} != {@code null})
+     * @param treeTable       The table of trees the answers were computed from.
+     *                        ({@code treeTable} != {@code null})
+     * @return The returned string contains information based on the menu input.
+     * @throws IllegalInputException If the menu input is invalid.
+     */
+    public String getAnswer (String menuInput, QuestionResults questionResults, TreeTable treeTable) throws IllegalInputException
+    {
+        switch (menuInput)
+        {
+            case ConstantsIO.questionNumber15:
+            case ConstantsIO.questionNumber16:
+                return getAnswer(menuInput, treeTable);
+            default:
+                return getAnswer(menuInput, questionResults);
+        }
+    }
+
+
+    /**
+     * Retrieves an answer based on the provided menu input from the answers computed beforehand.
+     *
+     * @param menuInput       The menu input indicating the type of information requested.
+     *                        ({@code menuInput} != {@code null})
+     * @param questionResults The answers to all questions, see {@link AggregateEngine}.
+     *                        ({@code questionResults} != {@code null})
+     * @return The returned string contains information based on the menu input.
+     * @throws IllegalInputException If the menu input is invalid.
+     */
+    public String getAnswer (String menuInput, QuestionResults questionResults) throws IllegalInputException
+    {
+        PrintConsole printConsole = new PrintConsole();
+        String answer = ConstantsMath.emptyString;
+        switch (menuInput)
+        {
+            case ConstantsIO.questionNumber0:
+                answer += printConsole.getAnswer(ConstantsIO.answer0, getValue(questionResults.getDistrictWithMostTrees()));
+                break;
+            case ConstantsIO.questionNumber1:
+                answer += printConsole.getAnswer(ConstantsIO.answer1, getValue(questionResults.getDistrictWithTallestTree()));
+                break;
+            case ConstantsIO.questionNumber2:
+                answer += printConsole.getAnswer(ConstantsIO.answer2, getTree(questionResults.getTreeWithHighestCircumference()));
+                break;
+            case ConstantsIO.questionNumber3:
+                answer += printConsole.getAnswer(ConstantsIO.answer3, getTree(questionResults.getTreeWithBiggestCrone()));
+                break;
+            case ConstantsIO.questionNumber4:
+                answer += printConsole.getAnswer(ConstantsIO.answer4, getTree(questionResults.getTreeWithMostAge()));
+                break;
+            case ConstantsIO.questionNumber5:
+                answer += printConsole.getAnswer(ConstantsIO.answer5, String.valueOf(questionResults.getAmountOfTypesOfTrees()));
+                break;
+            case ConstantsIO.questionNumber6:
+                answer += printConsole.getAnswer(ConstantsIO.answer6, String.valueOf(questionResults.getAmountOfSpeciesOfTrees()));
+                break;
+            case ConstantsIO.questionNumber7:
+                answer += printConsole.getAnswer(ConstantsIO.answer7, getValue(questionResults.getMostOccurringSpeciesOfTrees()));
+                break;
+            case ConstantsIO.questionNumber8:
+                answer += printConsole.getAnswer(ConstantsIO.answer8, getValue(questionResults.getMostSpeciesDiverseDistrict()));
+                break;
+            case ConstantsIO.questionNumber9:
+                answer += printConsole.getAnswer(ConstantsIO.answer9, getValue(questionResults.getAverageTallestSpecies()));
+                break;
+            case ConstantsIO.questionNumber10:
+                answer += printConsole.getAnswer(ConstantsIO.answer10, getValue(questionResults.getAverageHighestCircumferenceSpecies()));
+                break;
+            case ConstantsIO.questionNumber11:
+                answer += printConsole.getAnswer(ConstantsIO.answer11, String.valueOf(questionResults.getTotalCarbonSaved()));
+                break;
+            case ConstantsIO.questionNumber12:
+                answer += printConsole.getAnswer(ConstantsIO.answer12, getValue(questionResults.getDistrictWithMostCarbonSaved()));
+                break;
+            case ConstantsIO.questionNumber13:
+                answer += printConsole.getAnswer(ConstantsIO.answer13, getValue(questionResults.getSpeciesWithMostCarbonSaved()));
+                break;
+            case ConstantsIO.questionNumber14:
+                answer += printConsole.getAnswer(ConstantsIO.answer14, getTrees(questionResults.getTallestTrees()));
+                break;
             default:
                 // Any other input will cause an exception
                 throw new IllegalInputException(printConsole.getInputErrorMessage(menuInput));
@@ -93,6 +325,43 @@ public class IOController
     }
 
 
+    /**
+     * Formats a tree of the answers computed beforehand.
+     *
+     * @param tree The tree, or {@code null} if no tree was processed.
+     * @return The formatted tree, or a note that no trees match.
+     */
+    private String getTree (Tree tree)
+    {
+        return tree == null ? ConstantsIO.noTreesMatch : PrintTree.getTree(tree);
+    }
+
+
+    /**
+     * Formats trees of the answers computed beforehand.
+     *
+     * @param treeList The trees.
+     *                 ({@code treeList} != {@code null})
+     * @return The formatted trees, or a note that no trees match if there are none.
+     */
+    private String getTrees (List<Tree> treeList)
+    {
+        return treeList.isEmpty() ? ConstantsIO.noTreesMatch : PrintTree.getTrees(treeList);
+    }
+
+
+    /**
+     * Formats a value of the answers computed beforehand.
+     *
+     * @param value The value, or {@code null} if no tree was processed.
+     * @return The value, or a note that no trees match.
+     */
+    private String getValue (String value)
+    {
+        return value == null ? ConstantsIO.noTreesMatch : value;
+    }
+
+
     /**
      * Retrieves the district with the most trees in the list.
      *
@@ -165,6 +434,19 @@ public class IOController
     }
 
 
+    /**
+     * Retrieves the tallest trees in the list, the tallest first.
+     *
+     * @param treeList The list of trees to process.
+     *                 ({@code treeList} != {@code null})
+     * @return The returned list holds the {@link ConstantsIO#amountOfTopTrees} tallest trees.
+     */
+    public List<Tree> tallestTrees (List<Tree> treeList)
+    {
+        return treeController.getTreesWithMaximumValues(treeList, ConstantsDatasets.INDEX_HeightM, ConstantsIO.amountOfTopTrees);
+    }
+
+
     /**
      * Retrieves the amount of Botanical types the list has.
      *
@@ -221,18 +503,9 @@ public class IOController
      */
     public String mostSpeciesDiverseDistrict (List<Tree> treeList)
     {
-        // Splits up treeList in multiple treeLists sorted by districts
-        Map<String, List<Tree>> treesSeparatedByType = treeController.getMapOfTypesOfTraitsAndAllTheCorrelatingTrees(
-                treeList, ConstantsDatasets.INDEX_District);
-        Map<String, Integer> amountOfSpeciesDividedByDistrict = new HashMap<>();
-
-
-        // Counts the occurrence of species' in each list and assigns it to the key value (district)
-        for (Map.Entry<String, List<Tree>> entry : treesSeparatedByType.entrySet())
-        {
-            amountOfSpeciesDividedByDistrict.put(entry.getKey(), treeController.getTypesOfTraitsAndTheAmountOfOccurrences(
-                    entry.getValue(), ConstantsDatasets.INDEX_SpeciesBotanical).size());
-        }
+        // Marks the species' of each district, without splitting up treeList
+        Map<String, Integer> amountOfSpeciesDividedByDistrict = new GroupBy(ConstantsDatasets.INDEX_District,
+                ConstantsDatasets.INDEX_SpeciesBotanical).addAll(treeList).getAmountsOfDistinctValues();
 
         // Map contains one pair with the maximum value
         Map<String, Integer> maximumValueMap = mapOperations.getMaximumEntry(amountOfSpeciesDividedByDistrict);
@@ -249,17 +522,9 @@ public class IOController
      */
     public String averageTallestSpecies (List<Tree> treeList)
     {
-        // Splits up treeList in multiple treeLists sorted by species'
-        Map<String, List<Tree>> treesSeparatedBySpecies = treeController.getMapOfTypesOfTraitsAndAllTheCorrelatingTrees(
-                treeList, ConstantsDatasets.INDEX_SpeciesBotanical);
-        Map<String, Double> averageHeightDividedBySpecies = new HashMap<>();
-
-        // Determines the average height while iterating through each species and assigning the average to each species
-        for (Map.Entry<String, List<Tree>> entry : treesSeparatedBySpecies.entrySet())
-        {
-            averageHeightDividedBySpecies.put(entry.getKey(), treeController.getAverageNumberFromTreeList(
-                    entry.getValue(), ConstantsDatasets.INDEX_HeightM));
-        }
+        // Sums up the heights of each species, without splitting up treeList
+        Map<String, Double> averageHeightDividedBySpecies = new GroupBy(ConstantsDatasets.INDEX_SpeciesBotanical,
+                tree -> Trait.HEIGHT_M.getDouble(tree)).addAll(treeList).getAverages();
 
         // Map contains one pair with the maximum value
         Map<String, Double> maximumValueMap = mapOperations.getMaximumEntry(averageHeightDividedBySpecies);
@@ -276,17 +541,9 @@ public class IOController
      */
     public String averageHighestCircumferenceSpecies (List<Tree> treeList)
     {
-        // Splits up treeList in multiple treeLists sorted by species'
-        Map<String, List<Tree>> treesSeparatedBySpecies = treeController.getMapOfTypesOfTraitsAndAllTheCorrelatingTrees(
-                treeList, ConstantsDatasets.INDEX_SpeciesBotanical);
-        Map<String, Double> averageCircumferenceDividedBySpecies = new HashMap<>();
-
-        // Determines the average circumference while iterating through each species and assigning the average to each species
-        for (Map.Entry<String, List<Tree>> entry : treesSeparatedBySpecies.entrySet())
-        {
-            averageCircumferenceDividedBySpecies.put(entry.getKey(), treeController.getAverageNumberFromTreeList(
-                    entry.getValue(), ConstantsDatasets.INDEX_CircumferenceCM));
-        }
+        // Sums up the circumferences of each species, without splitting up treeList
+        Map<String, Double> averageCircumferenceDividedBySpecies = new GroupBy(ConstantsDatasets.INDEX_SpeciesBotanical,
+                tree -> Trait.CIRCUMFERENCE_CM.getDouble(tree)).addAll(treeList).getAverages();
 
         // Map contains one pair with the maximum value
         Map<String, Double> maximumValueMap = mapOperations.getMaximumEntry(averageCircumferenceDividedBySpecies);
@@ -304,10 +561,8 @@ public class IOController
     public int totalCarbonSaved (List<Tree> treeList)
     {
         CO2 co2 = new CO2();
-        // Map contains each tree paired with its carbon values
-        Map<Tree, Double> treeAndCarbonMap = co2.getMapOfTreeAndCarbon(treeList);
-        // Sum of values in the map returned
-        return (int) Math.round(mapOperations.getSumOfValuesFromMap(treeAndCarbonMap));
+        // Sums up the carbon values directly, without pairing each tree with its value first
+        return (int) Math.round(co2.sumOfCO2StoredByTrees(treeList));
     }
 
 
@@ -320,17 +575,9 @@ public class IOController
      */
     public String districtWithMostCarbonSaved (List<Tree> treeList)
     {
-        CO2 co2 = new CO2();
-        // Splits up treeList in multiple treeLists sorted by districts
-        Map<String, List<Tree>> treesSeparatedByDistrict = treeController.getMapOfTypesOfTraitsAndAllTheCorrelatingTrees(
-                treeList, ConstantsDatasets.INDEX_District);
-        Map<String, Double> totalCO2DividedByDistrict = new HashMap<>();
-
-        // Determines the total co2 saved while iterating through each species and assigning the sum to each district
-        for (Map.Entry<String, List<Tree>> entry : treesSeparatedByDistrict.entrySet())
-        {
-            totalCO2DividedByDistrict.put(entry.getKey(), co2.sumOfCO2StoredByTrees(entry.getValue()));
-        }
+        // Sums up the co2 saved in each district, without splitting up treeList
+        Map<String, Double> totalCO2DividedByDistrict = new GroupBy(ConstantsDatasets.INDEX_District,
+                new CO2()::getAdjustedCO2OrDefault).addAll(treeList).getSums();
 
         // Map contains one pair with the maximum value
         Map<String, Double> maxMap = mapOperations.getMaximumEntry(totalCO2DividedByDistrict);
@@ -347,21 +594,275 @@ public class IOController
      */
     public String speciesWithMostCarbonSaved (List<Tree> treeList)
     {
-        CO2 co2 = new CO2();
+        // Sums up the co2 saved by each species, without splitting up treeList
+        Map<String, Double> totalCO2DividedBySpecies = new GroupBy(ConstantsDatasets.INDEX_SpeciesBotanical,
+                new CO2()::getAdjustedCO2OrDefault).addAll(treeList).getSums();
+
+        // Map contains one pair with the maximum value
+        Map<String, Double> maxMap = mapOperations.getMaximumEntry(totalCO2DividedBySpecies);
+        return mapOperations.getLastKey(maxMap);
+    }
+
+
+    /**
+     * Retrieves the district with the most trees in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned string represents the district with the most trees.
+     */
+    public String districtWithMostTrees (TreeTable treeTable)
+    {
+        Map<String, Integer> occurrenceAtDistrict = treeController.getTypesOfTraitsAndTheAmountOfOccurrences(
+                treeTable, ConstantsDatasets.INDEX_District);
+
+        // Map with only one value (the maximum number)
+        Map<String, Integer> maxMap = mapOperations.getMaximumEntry(occurrenceAtDistrict);
+        return mapOperations.getLastKey(maxMap);
+    }
+
+
+    /**
+     * Retrieves the district with the tallest tree in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned string represents the district with the highest tree.
+     */
+    public String districtWithTallestTree (TreeTable treeTable)
+    {
+        int tallestTree = treeController.getRowWithMaximumValue(treeTable, ConstantsDatasets.INDEX_HeightM);
+        return treeTable.getDistrict(tallestTree);
+    }
+
+
+    /**
+     * Retrieves the row of the tree with the highest circumference in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned row has the highest circumference in the table.
+     */
+    public int treeWithHighestCircumference (TreeTable treeTable)
+    {
+        return treeController.getRowWithMaximumValue(treeTable, ConstantsDatasets.INDEX_CircumferenceCM);
+    }
 
-        // Splits up treeList in multiple treeLists sorted by species'
-        Map<String, List<Tree>> treesSeparatedByDistrict = treeController.getMapOfTypesOfTraitsAndAllTheCorrelatingTrees(
-                treeList, ConstantsDatasets.INDEX_SpeciesBotanical);
-        Map<String, Double> totalCO2DividedBySpecies = new HashMap<>();
 
-        // Determines the total co2 saved while iterating through each species and assigning the sum to each species
-        for (Map.Entry<String, List<Tree>> entry : treesSeparatedByDistrict.entrySet())
+    /**
+     * Retrieves the row of the tree with the biggest crone diameter in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned row has the biggest crone in the table.
+     */
+    public int treeWithBiggestCrone (TreeTable treeTable)
+    {
+        return treeController.getRowWithMaximumValue(treeTable, ConstantsDatasets.INDEX_CroneDiameterM);
+    }
+
+
+    /**
+     * Retrieves the row of the tree with the highest age number in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned row has the most age in the table.
+     */
+    public int treeWithMostAge (TreeTable treeTable)
+    {
+        return treeController.getRowWithMaximumValue(treeTable, ConstantsDatasets.INDEX_Age);
+    }
+
+
+    /**
+     * Retrieves the tallest trees in the table, the tallest first.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned list holds the {@link ConstantsIO#amountOfTopTrees} tallest trees.
+     */
+    public List<Tree> tallestTrees (TreeTable treeTable)
+    {
+        List<Tree> tallestTrees = new ArrayList<>();
+        for (int row : treeController.getRowsWithMaximumValues(treeTable, ConstantsDatasets.INDEX_HeightM, ConstantsIO.amountOfTopTrees))
         {
-            totalCO2DividedBySpecies.put(entry.getKey(), co2.sumOfCO2StoredByTrees(entry.getValue()));
+            tallestTrees.add(treeTable.getTree(row));
         }
+        return tallestTrees;
+    }
+
+
+    /**
+     * Retrieves the amount of Botanical types the table has.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned integer represents the amount of types of trees.
+     */
+    public int amountOfTypesOfTrees (TreeTable treeTable)
+    {
+        return treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_TypeBotanical);
+    }
+
+
+    /**
+     * Retrieves the amount of Botanical species' the table has.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned integer represents the amount of species of trees.
+     */
+    public int amountOfSpeciesOfTrees (TreeTable treeTable)
+    {
+        return treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_SpeciesBotanical);
+    }
+
+
+    /**
+     * Retrieves the Botanical species that occurs the highest amount of times in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned string represents the most occurring species of trees.
+     */
+    public String mostOccurringSpeciesOfTrees (TreeTable treeTable)
+    {
+        Map<String, Integer> occurrenceOfSpecies = treeController.getTypesOfTraitsAndTheAmountOfOccurrences(
+                treeTable, ConstantsDatasets.INDEX_SpeciesBotanical);
+
+        // Map with only one value (the maximum number)
+        Map<String, Integer> maxMap = mapOperations.getMaximumEntry(occurrenceOfSpecies);
+        return mapOperations.getLastKey(maxMap);
+    }
+
+
+    /**
+     * Retrieves the district that contains as many different tree species' in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned string represents the district with the most diverse species.
+     */
+    public String mostSpeciesDiverseDistrict (TreeTable treeTable)
+    {
+        Map<String, Integer> amountOfSpeciesDividedByDistrict = treeController.getAmountOfTypesOfTraitsPerType(
+                treeTable, ConstantsDatasets.INDEX_District, ConstantsDatasets.INDEX_SpeciesBotanical);
+
+        // Map contains one pair with the maximum value
+        Map<String, Integer> maximumValueMap = mapOperations.getMaximumEntry(amountOfSpeciesDividedByDistrict);
+        return mapOperations.getLastKey(maximumValueMap);
+    }
+
+
+    /**
+     * Retrieves Botanical species that has overall the highest average height in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned string represents the average tallest species.
+     */
+    public String averageTallestSpecies (TreeTable treeTable)
+    {
+        Map<String, Double> averageHeightDividedBySpecies = treeController.getAverageNumberPerType(
+                treeTable, ConstantsDatasets.INDEX_SpeciesBotanical, ConstantsDatasets.INDEX_HeightM);
+
+        // Map contains one pair with the maximum value
+        Map<String, Double> maximumValueMap = mapOperations.getMaximumEntry(averageHeightDividedBySpecies);
+        return mapOperations.getLastKey(maximumValueMap);
+    }
+
+
+    /**
+     * Retrieves Botanical species that has overall the highest average circumference in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned string represents the average highest circumference species.
+     */
+    public String averageHighestCircumferenceSpecies (TreeTable treeTable)
+    {
+        Map<String, Double> averageCircumferenceDividedBySpecies = treeController.getAverageNumberPerType(
+                treeTable, ConstantsDatasets.INDEX_SpeciesBotanical, ConstantsDatasets.INDEX_CircumferenceCM);
+
+        // Map contains one pair with the maximum value
+        Map<String, Double> maximumValueMap = mapOperations.getMaximumEntry(averageCircumferenceDividedBySpecies);
+        return mapOperations.getLastKey(maximumValueMap);
+    }
+
+
+    /**
+     * Retrieves the total amount of carbon saved by all trees in the table.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned integer represents the total carbon saved.
+     */
+    public int totalCarbonSaved (TreeTable treeTable)
+    {
+        CO2 co2 = new CO2();
+        return (int) Math.round(co2.sumOfCO2StoredByTrees(treeTable));
+    }
+
+
+    /**
+     * Retrieves the district in the table which saved the most carbon.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned string represents the district with the most carbon saved.
+     */
+    public String districtWithMostCarbonSaved (TreeTable treeTable)
+    {
+        CO2 co2 = new CO2();
+        Map<String, Double> totalCO2DividedByDistrict = co2.sumOfCO2StoredByTreesPerType(treeTable, ConstantsDatasets.INDEX_District);
+
+        // Map contains one pair with the maximum value
+        Map<String, Double> maxMap = mapOperations.getMaximumEntry(totalCO2DividedByDistrict);
+        return mapOperations.getLastKey(maxMap);
+    }
+
+
+    /**
+     * Retrieves the species in the table that in total saved the most carbon.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The returned string represents the species with the most carbon saved.
+     */
+    public String speciesWithMostCarbonSaved (TreeTable treeTable)
+    {
+        CO2 co2 = new CO2();
+        Map<String, Double> totalCO2DividedBySpecies = co2.sumOfCO2StoredByTreesPerType(treeTable, ConstantsDatasets.INDEX_SpeciesBotanical);
 
         // Map contains one pair with the maximum value
         Map<String, Double> maxMap = mapOperations.getMaximumEntry(totalCO2DividedBySpecies);
         return mapOperations.getLastKey(maxMap);
     }
+
+
+    /**
+     * Projects the carbon stored by the trees of the table for the coming years.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The projection over {@link ConstantsIO#amountOfProjectedYears} years, see {@link ProjectionEngine}.
+     */
+    public CarbonProjection carbonProjection (TreeTable treeTable)
+    {
+        return new ProjectionEngine().getCarbonProjection(treeTable, ConstantsIO.amountOfProjectedYears);
+    }
+
+
+    /**
+     * Estimates how much the carbon stored by the trees of the table depends on their repaired measurements.
+     *
+     * @param treeTable The table of trees to process.
+     *                  ({@code treeTable} != {@code null})
+     * @return The estimates of all trees and of each district, see {@link UncertaintyEngine}.
+     */
+    public CarbonUncertainty carbonUncertainty (TreeTable treeTable)
+    {
+        return new UncertaintyEngine().getCarbonUncertainty(treeTable);
+    }
 }
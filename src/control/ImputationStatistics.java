@@ -0,0 +1,357 @@
+package control;
+
+
+import model.TraitDictionary;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+import utility.constants.ConstantsTreeRestrictions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * The ImputationStatistics class holds the values the data repair fills missing measurements with: the mean and the
+ * median of the age, the crone diameter, the circumference and the height per botanical species, per genus and of all
+ * trees. The statistics are gathered in a single pass over the datasets, the medians come from {@link QuantileSketch}es,
+ * so the memory does not grow with the amount of datasets.
+ * A species with fewer than {@link ConstantsDatasets#IMPUTATION_MINIMUM_TREES} values of a measurement uses the
+ * statistics of its genus, a genus with too few values those of all trees. The fallbacks are resolved once per species
+ * code, so the value of a species is found with one array access.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class ImputationStatistics
+{
+    // Positions of the measurements in the arrays of this class
+    private static final int AGE = 0;
+    private static final int CRONE_DIAMETER = 1;
+    private static final int CIRCUMFERENCE = 2;
+    private static final int HEIGHT = 3;
+    private static final int[] MEASUREMENTS = {ConstantsDatasets.INDEX_Age, ConstantsDatasets.INDEX_CroneDiameterM,
+            ConstantsDatasets.INDEX_CircumferenceCM, ConstantsDatasets.INDEX_HeightM}; // Trait index per position
+    private static final double[] MAXIMUM_OF_MEASUREMENT = {ConstantsTreeRestrictions.MAX_age,
+            ConstantsTreeRestrictions.MAX_croneDiameterM, ConstantsTreeRestrictions.MAX_circumferenceCM,
+            ConstantsTreeRestrictions.MAX_heightM};
+
+    private final TraitDictionary speciesDictionary = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_SpeciesBotanical);
+
+    // While gathering
+    private Measurements[] measurementsOfSpecies = new Measurements[(int) ConstantsMath.ZERO];
+    private Measurements measurementsOfAll = new Measurements();
+
+    // After resolving, per measurement
+    private final double[][] meanOfSpecies = new double[MEASUREMENTS.length][];
+    private final double[][] medianOfSpecies = new double[MEASUREMENTS.length][];
+    private final double[] meanOfAll = new double[MEASUREMENTS.length];
+    private final double[] medianOfAll = new double[MEASUREMENTS.length];
+
+
+    /**
+     * Adds the measurements of one tree. Default values are left out.
+     *
+     * @param speciesCode     The code of the botanical species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if there is none.
+     * @param age             The age of the tree.
+     * @param croneDiameterM  The diameter of the tree's crone in meters.
+     * @param circumferenceCM The circumference of the tree in centimeters.
+     * @param heightM         The height of the tree in meters.
+     */
+    void add (int speciesCode, int age, double croneDiameterM, int circumferenceCM, float heightM)
+    {
+        measurementsOfAll.add(age, croneDiameterM, circumferenceCM, heightM);
+        if (speciesCode == ConstantsCSV.NUMBER_DEFAULT_VALUE) return;
+
+        if (speciesCode >= measurementsOfSpecies.length)
+            measurementsOfSpecies = Arrays.copyOf(measurementsOfSpecies, Math.max(speciesCode + (int) ConstantsMath.ONE,
+                    measurementsOfSpecies.length * (int) ConstantsMath.TWO));
+        if (measurementsOfSpecies[speciesCode] == null) measurementsOfSpecies[speciesCode] = new Measurements();
+        measurementsOfSpecies[speciesCode].add(age, croneDiameterM, circumferenceCM, heightM);
+    }
+
+
+    /**
+     * Resolves the statistics of every species code, falling back to the genus and to all trees, and releases the
+     * sketches. Nothing can be added afterwards.
+     */
+    void resolve ()
+    {
+        // Genera are merged from their species
+        Map<String, Measurements> measurementsOfGenus = new HashMap<>();
+        TreeController treeController = new TreeController();
+        for (int code = (int) ConstantsMath.ZERO; code < measurementsOfSpecies.length; code++)
+        {
+            if (measurementsOfSpecies[code] == null || isIgnored(speciesDictionary.getValue(code))) continue;
+            measurementsOfGenus.computeIfAbsent(treeController.getGenus(speciesDictionary.getValue(code)),
+                    genus -> new Measurements()).addAll(measurementsOfSpecies[code]);
+        }
+
+        for (int measurement = (int) ConstantsMath.ZERO; measurement < MEASUREMENTS.length; measurement++)
+        {
+            meanOfAll[measurement] = measurementsOfAll.getMean(measurement);
+            medianOfAll[measurement] = measurementsOfAll.getMedian(measurement);
+            meanOfSpecies[measurement] = new double[measurementsOfSpecies.length];
+            medianOfSpecies[measurement] = new double[measurementsOfSpecies.length];
+
+            for (int code = (int) ConstantsMath.ZERO; code < measurementsOfSpecies.length; code++)
+            {
+                Measurements measurements = measurementsOfSpecies[code];
+                String species = measurements == null ? null : speciesDictionary.getValue(code);
+                if (species == null || isIgnored(species))
+                {
+                    meanOfSpecies[measurement][code] = meanOfAll[measurement];
+                    medianOfSpecies[measurement][code] = medianOfAll[measurement];
+                    continue;
+                }
+                if (!measurements.hasEnoughValues(measurement)) // Falls back to the genus
+                    measurements = measurementsOfGenus.get(treeController.getGenus(species));
+                if (!measurements.hasEnoughValues(measurement)) measurements = measurementsOfAll; // Falls back to all trees
+                meanOfSpecies[measurement][code] = measurements.getMean(measurement);
+                medianOfSpecies[measurement][code] = measurements.getMedian(measurement);
+            }
+        }
+        measurementsOfSpecies = null;
+        measurementsOfAll = null;
+    }
+
+
+    /**
+     * Retrieves the mean of a measurement of a species.
+     *
+     * @param speciesCode The code of the botanical species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} for all trees.
+     * @param traitIndex  The index of the measurement, the age, the crone diameter, the circumference or the height.
+     * @return The mean of the species, of its genus or of all trees, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if no
+     * tree has a value of the measurement.
+     * @throws IllegalArgumentException if the trait is no measurement.
+     */
+    public double getMean (int speciesCode, int traitIndex)
+    {
+        int measurement = getMeasurement(traitIndex);
+        double[] means = meanOfSpecies[measurement];
+        return speciesCode >= ConstantsMath.ZERO && speciesCode < means.length ? means[speciesCode] : meanOfAll[measurement];
+    }
+
+
+    /**
+     * Retrieves the median of a measurement of a species.
+     *
+     * @param speciesCode The code of the botanical species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} for all trees.
+     * @param traitIndex  The index of the measurement, the age, the crone diameter, the circumference or the height.
+     * @return The median of the species, of its genus or of all trees, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if no
+     * tree has a value of the measurement.
+     * @throws IllegalArgumentException if the trait is no measurement.
+     */
+    public double getMedian (int speciesCode, int traitIndex)
+    {
+        int measurement = getMeasurement(traitIndex);
+        double[] medians = medianOfSpecies[measurement];
+        return speciesCode >= ConstantsMath.ZERO && speciesCode < medians.length ? medians[speciesCode] : medianOfAll[measurement];
+    }
+
+
+    /**
+     * Retrieves the value a missing measurement of a species is filled with, the median if
+     * {@link ConstantsDatasets#IMPUTE_MEDIAN} is set, otherwise the mean.
+     *
+     * @param speciesCode The code of the botanical species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} for all trees.
+     * @param traitIndex  The index of the measurement, the age, the crone diameter, the circumference or the height.
+     * @return The value of the measurement.
+     * @throws IllegalArgumentException if the trait is no measurement.
+     */
+    public double getImputedValue (int speciesCode, int traitIndex)
+    {
+        return ConstantsDatasets.IMPUTE_MEDIAN ? getMedian(speciesCode, traitIndex) : getMean(speciesCode, traitIndex);
+    }
+
+
+    /**
+     * Retrieves the age a tree of a species with a missing age gets.
+     *
+     * @param speciesCode The code of the botanical species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} for all trees.
+     * @return The age in years.
+     */
+    public int getAge (int speciesCode)
+    {
+        return (int) Math.round(getImputedValue(speciesCode, ConstantsDatasets.INDEX_Age));
+    }
+
+
+    /**
+     * Retrieves the crone diameter a tree of a species with a missing crone diameter gets.
+     *
+     * @param speciesCode The code of the botanical species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} for all trees.
+     * @return The diameter of the crone in meters.
+     */
+    public double getCroneDiameterM (int speciesCode)
+    {
+        return getImputedValue(speciesCode, ConstantsDatasets.INDEX_CroneDiameterM);
+    }
+
+
+    /**
+     * Retrieves the circumference a tree of a species with a missing circumference gets.
+     *
+     * @param speciesCode The code of the botanical species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} for all trees.
+     * @return The circumference in centimeters.
+     */
+    public int getCircumferenceCM (int speciesCode)
+    {
+        return (int) Math.round(getImputedValue(speciesCode, ConstantsDatasets.INDEX_CircumferenceCM));
+    }
+
+
+    /**
+     * Retrieves the height a tree of a species with a missing height gets.
+     *
+     * @param speciesCode The code of the botanical species, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} for all trees.
+     * @return The height in meters.
+     */
+    public float getHeightM (int speciesCode)
+    {
+        return (float) getImputedValue(speciesCode, ConstantsDatasets.INDEX_HeightM);
+    }
+
+
+    /**
+     * Retrieves the position of a measurement in the arrays of this class.
+     *
+     * @param traitIndex The index of the measurement.
+     * @return The position of the measurement.
+     * @throws IllegalArgumentException if the trait is no measurement.
+     */
+    private static int getMeasurement (int traitIndex)
+    {
+        for (int measurement = (int) ConstantsMath.ZERO; measurement < MEASUREMENTS.length; measurement++)
+        {
+            if (MEASUREMENTS[measurement] == traitIndex) return measurement;
+        }
+        throw new IllegalArgumentException(String.valueOf(traitIndex));
+    }
+
+
+    /**
+     * Determines whether a species counts as missing, see {@link ConstantsTreeRestrictions#excludeValues}.
+     *
+     * @param species The botanical species.
+     * @return {@code true} if the species is the default value or excluded.
+     */
+    private static boolean isIgnored (String species)
+    {
+        if (species.equals(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE))) return ConstantsMath.bTrue;
+        for (String excludeValue : ConstantsTreeRestrictions.excludeValues)
+        {
+            if (species.equalsIgnoreCase(excludeValue)) return ConstantsMath.bTrue;
+        }
+        return ConstantsMath.bFalse;
+    }
+
+
+    /**
+     * The Measurements class sums up the measurements of a group of trees and sketches their distributions.
+     */
+    private static class Measurements
+    {
+        private final double[] sums = new double[MEASUREMENTS.length];
+        private final int[] counts = new int[MEASUREMENTS.length];
+        private final QuantileSketch[] quantileSketches = new QuantileSketch[MEASUREMENTS.length];
+
+
+        /**
+         * Constructs an empty group with one sketch per measurement.
+         */
+        private Measurements ()
+        {
+            for (int measurement = (int) ConstantsMath.ZERO; measurement < MEASUREMENTS.length; measurement++)
+            {
+                quantileSketches[measurement] = new QuantileSketch(ConstantsTreeRestrictions.MIN_MEASUREMENT_VALUE,
+                        MAXIMUM_OF_MEASUREMENT[measurement], ConstantsDatasets.QUANTILE_SKETCH_BINS);
+            }
+        }
+
+
+        /**
+         * Adds the measurements of one tree that are not default.
+         *
+         * @param age             The age of the tree.
+         * @param croneDiameterM  The diameter of the tree's crone in meters.
+         * @param circumferenceCM The circumference of the tree in centimeters.
+         * @param heightM         The height of the tree in meters.
+         */
+        private void add (int age, double croneDiameterM, int circumferenceCM, float heightM)
+        {
+            add(AGE, age);
+            add(CRONE_DIAMETER, croneDiameterM);
+            add(CIRCUMFERENCE, circumferenceCM);
+            add(HEIGHT, heightM);
+        }
+
+
+        /**
+         * Adds one measurement if it is not default.
+         *
+         * @param measurement The position of the measurement.
+         * @param value       The value of the measurement.
+         */
+        private void add (int measurement, double value)
+        {
+            if (value == ConstantsCSV.NUMBER_DEFAULT_VALUE) return; // Default
+            sums[measurement] += value;
+            counts[measurement]++;
+            quantileSketches[measurement].add(value);
+        }
+
+
+        /**
+         * Adds all measurements of another group.
+         *
+         * @param measurements The other group.
+         */
+        private void addAll (Measurements measurements)
+        {
+            for (int measurement = (int) ConstantsMath.ZERO; measurement < MEASUREMENTS.length; measurement++)
+            {
+                sums[measurement] += measurements.sums[measurement];
+                counts[measurement] += measurements.counts[measurement];
+                quantileSketches[measurement].addAll(measurements.quantileSketches[measurement]);
+            }
+        }
+
+
+        /**
+         * Determines whether the group has enough values of a measurement for statistics of its own.
+         *
+         * @param measurement The position of the measurement.
+         * @return {@code true} if the group has at least {@link ConstantsDatasets#IMPUTATION_MINIMUM_TREES} values.
+         */
+        private boolean hasEnoughValues (int measurement)
+        {
+            return counts[measurement] >= ConstantsDatasets.IMPUTATION_MINIMUM_TREES;
+        }
+
+
+        /**
+         * Retrieves the mean of a measurement.
+         *
+         * @param measurement The position of the measurement.
+         * @return The mean, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the group has no value of the measurement.
+         */
+        private double getMean (int measurement)
+        {
+            return counts[measurement] == ConstantsMath.ZERO ? ConstantsCSV.NUMBER_DEFAULT_VALUE : sums[measurement] / counts[measurement];
+        }
+
+
+        /**
+         * Retrieves the median of a measurement, estimated by its sketch.
+         *
+         * @param measurement The position of the measurement.
+         * @return The median, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the group has no value of the measurement.
+         */
+        private double getMedian (int measurement)
+        {
+            return quantileSketches[measurement].getMedian();
+        }
+    }
+}
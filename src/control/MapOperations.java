@@ -1,7 +1,6 @@
 package control;
 
 
-import utility.constants.ConstantsCSV;
 import utility.constants.ConstantsMath;
 
 import java.util.*;
@@ -43,25 +42,6 @@ public class MapOperations
     }
 
 
-    /**
-     * Retrieves the key associated with a specified value from a map.
-     *
-     * @param map   The map from which to retrieve the key.
-     *              ({@code map} != {@code null})
-     * @param value The value for which to find the key.
-     * @return Returns the key associated with the specified value from the map, or a default value string if not found.
-     */
-    public String getStringKey (Map<String, Integer> map, int value)
-    {
-        for (Map.Entry<String, Integer> entry : map.entrySet()) // Iterate through map entries
-        {
-            // If current entry value, the value looked for, then return key
-            if (entry.getValue() == value) return entry.getKey();
-        }
-        return String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE); // If no entry with that value
-    }
-
-
     /**
      * Retrieves the last key from a map.
      *
@@ -0,0 +1,376 @@
+package control;
+
+
+import model.CarbonProjection;
+import model.TreeTable;
+import utility.constants.ConstantsCO2;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+
+/**
+ * The ProjectionEngine class projects the carbon dioxide stored by the trees of a TreeTable over the coming years.
+ * Every year the circumference of a tree grows as given by Mitchell's formula and its height follows the height curve
+ * of its species, which is averaged from the circumferences and heights of all trees of that species in the table.
+ * The carbon of every tree is then looked up again in the {@link CO2Kernel}.
+ * The table is split into segments of a fixed amount of rows like in the {@link AggregateEngine}. Each segment projects
+ * all years of its rows in the same scratch buffers, so no trees are created, and the sums of the segments are merged.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class ProjectionEngine
+{
+    private final int parallelism;
+
+
+    /**
+     * Constructs a ProjectionEngine using {@link ConstantsDatasets#AGGREGATION_PARALLELISM} threads.
+     */
+    public ProjectionEngine ()
+    {
+        this(ConstantsDatasets.AGGREGATION_PARALLELISM);
+    }
+
+
+    /**
+     * Constructs a ProjectionEngine using a given amount of threads.
+     *
+     * @param parallelism The amount of threads, 1 projects all segments on the calling thread.
+     *                    ({@code parallelism} > 0)
+     */
+    public ProjectionEngine (int parallelism)
+    {
+        this.parallelism = parallelism;
+    }
+
+
+    /**
+     * Projects the carbon stored by the trees of a table for a given amount of years.
+     * Year 0 is the current state of the table, so its values are the ones the table holds.
+     *
+     * @param treeTable     The table of trees to project.
+     *                      ({@code treeTable} != {@code null})
+     * @param amountOfYears The amount of years projected beyond the current year.
+     *                      ({@code amountOfYears} >= 0)
+     * @return The carbon per year of all trees, of each district and of each botanical species.
+     * @throws IllegalArgumentException if the amount of years is negative.
+     */
+    public CarbonProjection getCarbonProjection (TreeTable treeTable, int amountOfYears)
+    {
+        if (amountOfYears < ConstantsMath.ZERO) throw new IllegalArgumentException(String.valueOf(amountOfYears));
+
+        HeightCurves heightCurves = new HeightCurves(treeTable);
+        int[] modelOfSpecies = new int[treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_SpeciesBotanical)];
+        for (int code = (int) ConstantsMath.ZERO; code < modelOfSpecies.length; code++)
+        {
+            modelOfSpecies[code] = CarbonModelRegistry.getModel(treeTable.getValue(ConstantsDatasets.INDEX_SpeciesBotanical, code));
+        }
+
+        int segmentRows = ConstantsDatasets.AGGREGATION_SEGMENT_ROWS;
+        int amountOfSegments = Math.max((int) ConstantsMath.ONE, (treeTable.size() + segmentRows - (int) ConstantsMath.ONE) / segmentRows);
+
+        // Splits the table into row ranges
+        List<SegmentTask> segmentTasks = new ArrayList<>();
+        for (int i = (int) ConstantsMath.ZERO; i < amountOfSegments; i++)
+        {
+            int start = i * segmentRows;
+            segmentTasks.add(new SegmentTask(treeTable, heightCurves, modelOfSpecies, amountOfYears, start,
+                    Math.min(treeTable.size(), start + segmentRows)));
+        }
+
+        if (parallelism <= ConstantsMath.ONE || amountOfSegments == ConstantsMath.ONE)
+        {
+            for (SegmentTask segmentTask : segmentTasks) segmentTask.invoke(); // Runs on the calling thread
+        } else
+        {
+            ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+            try
+            {
+                forkJoinPool.submit(() -> ForkJoinTask.invokeAll(segmentTasks)).join();
+            } finally
+            {
+                forkJoinPool.shutdown();
+            }
+        }
+
+        // Sums of whole kilograms, so the order of the merge does not change them
+        Sums sums = segmentTasks.get((int) ConstantsMath.ZERO).join();
+        for (int i = (int) ConstantsMath.ONE; i < amountOfSegments; i++) sums.merge(segmentTasks.get(i).join());
+
+        return new CarbonProjection(amountOfYears, sums.totalCO2PerYear,
+                getCurves(treeTable, ConstantsDatasets.INDEX_District, sums.co2PerYearPerDistrict),
+                getCurves(treeTable, ConstantsDatasets.INDEX_SpeciesBotanical, sums.co2PerYearPerSpecies));
+    }
+
+
+    /**
+     * Creates a map of the curve per type of a trait, inserted in order of first occurrence.
+     *
+     * @param treeTable         The table the codes belong to.
+     * @param traitIndex        The index of the string trait.
+     * @param co2PerYearPerCode The carbon per code, year by year.
+     * @return A map from the types to their carbon per year.
+     */
+    private static Map<String, double[]> getCurves (TreeTable treeTable, int traitIndex, double[][] co2PerYearPerCode)
+    {
+        Map<String, double[]> curves = new HashMap<>();
+        for (int code = (int) ConstantsMath.ZERO; code < treeTable.getAmountOfCodes(traitIndex); code++)
+        {
+            double[] curve = new double[co2PerYearPerCode.length];
+            for (int year = (int) ConstantsMath.ZERO; year < curve.length; year++) curve[year] = co2PerYearPerCode[year][code];
+            curves.put(treeTable.getValue(traitIndex, code), curve);
+        }
+        return curves;
+    }
+
+
+    /**
+     * The HeightCurves class holds the average height of each species per range of circumferences.
+     * Ranges without trees are interpolated between their neighbours and every curve is made non-decreasing, so a
+     * growing tree never shrinks.
+     */
+    private static class HeightCurves
+    {
+        private final int amountOfRanges;
+        private final double[][] heightsPerSpecies; // Average height per range, for each species code
+
+
+        private HeightCurves (TreeTable treeTable)
+        {
+            amountOfRanges = ConstantsCO2.projectionMaximumCircumferenceCM / ConstantsCO2.projectionCircumferenceBinCM + (int) ConstantsMath.ONE;
+            int amountOfSpecies = treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_SpeciesBotanical);
+            heightsPerSpecies = new double[amountOfSpecies][amountOfRanges];
+            int[][] countsPerSpecies = new int[amountOfSpecies][amountOfRanges];
+
+            for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++)
+            {
+                float heightM = treeTable.getHeightM(row);
+                int circumferenceCM = treeTable.getCircumferenceCM(row);
+                if (heightM == ConstantsCSV.NUMBER_DEFAULT_VALUE || circumferenceCM == ConstantsCSV.NUMBER_DEFAULT_VALUE) continue;
+
+                int species = treeTable.getCode(row, ConstantsDatasets.INDEX_SpeciesBotanical);
+                int range = Math.min(circumferenceCM / ConstantsCO2.projectionCircumferenceBinCM, amountOfRanges - (int) ConstantsMath.ONE);
+                heightsPerSpecies[species][range] += heightM;
+                countsPerSpecies[species][range]++;
+            }
+
+            for (int species = (int) ConstantsMath.ZERO; species < amountOfSpecies; species++)
+            {
+                fillCurve(heightsPerSpecies[species], countsPerSpecies[species]);
+            }
+        }
+
+
+        /**
+         * Turns the sums of a species into averages, fills the ranges without trees and removes every decrease.
+         *
+         * @param heights The sums of the heights per range, replaced by the curve.
+         * @param counts  The amount of trees per range.
+         */
+        private static void fillCurve (double[] heights, int[] counts)
+        {
+            int previous = ConstantsCSV.NUMBER_DEFAULT_VALUE; // Last range with trees
+            for (int range = (int) ConstantsMath.ZERO; range < heights.length; range++)
+            {
+                if (counts[range] == ConstantsMath.ZERO) continue;
+                heights[range] = Mathematics.division(heights[range], counts[range]);
+
+                if (previous == ConstantsCSV.NUMBER_DEFAULT_VALUE) // Ranges before the first one take its height
+                {
+                    for (int i = (int) ConstantsMath.ZERO; i < range; i++) heights[i] = heights[range];
+                } else // Ranges in between are interpolated
+                {
+                    for (int i = previous + (int) ConstantsMath.ONE; i < range; i++)
+                    {
+                        double fraction = (double) (i - previous) / (range - previous);
+                        heights[i] = heights[previous] + fraction * (heights[range] - heights[previous]);
+                    }
+                }
+                previous = range;
+            }
+            // Ranges after the last one take its height, a species without trees keeps a flat curve of 0
+            if (previous != ConstantsCSV.NUMBER_DEFAULT_VALUE)
+            {
+                for (int i = previous + (int) ConstantsMath.ONE; i < heights.length; i++) heights[i] = heights[previous];
+            }
+
+            for (int range = (int) ConstantsMath.ONE; range < heights.length; range++)
+            {
+                heights[range] = Math.max(heights[range], heights[range - (int) ConstantsMath.ONE]);
+            }
+        }
+
+
+        /**
+         * Computes the height of the curve of a species at a circumference, linearly between the middles of the ranges.
+         *
+         * @param species         The code of the species.
+         * @param circumferenceCM The circumference in centimeters.
+         * @return The height of the curve in meters.
+         */
+        private double getHeightM (int species, int circumferenceCM)
+        {
+            double[] heights = heightsPerSpecies[species];
+            double position = (circumferenceCM - ConstantsMath.ZERO_POINT_FIVE * ConstantsCO2.projectionCircumferenceBinCM)
+                    / ConstantsCO2.projectionCircumferenceBinCM;
+            if (position <= ConstantsMath.ZERO) return heights[(int) ConstantsMath.ZERO];
+            if (position >= amountOfRanges - (int) ConstantsMath.ONE) return heights[amountOfRanges - (int) ConstantsMath.ONE];
+
+            int range = (int) position;
+            double fraction = position - range;
+            return heights[range] + fraction * (heights[range + (int) ConstantsMath.ONE] - heights[range]);
+        }
+    }
+
+
+    /**
+     * The SegmentTask class projects one row range of the table on the fork-join pool.
+     */
+    private static class SegmentTask extends RecursiveTask<Sums>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final TreeTable treeTable;
+        private final HeightCurves heightCurves;
+        private final int[] modelOfSpecies;
+        private final int amountOfYears;
+        private final int start;
+        private final int end;
+
+
+        /**
+         * Constructs a SegmentTask for a row range.
+         *
+         * @param treeTable      The table of trees.
+         * @param heightCurves   The height curves of the species.
+         * @param modelOfSpecies The carbon model per species code.
+         * @param amountOfYears  The amount of years projected beyond the current year.
+         * @param start          The first row of the range.
+         * @param end            The row after the range.
+         */
+        SegmentTask (TreeTable treeTable, HeightCurves heightCurves, int[] modelOfSpecies, int amountOfYears, int start, int end)
+        {
+            this.treeTable = treeTable;
+            this.heightCurves = heightCurves;
+            this.modelOfSpecies = modelOfSpecies;
+            this.amountOfYears = amountOfYears;
+            this.start = start;
+            this.end = end;
+        }
+
+
+        @Override
+        protected Sums compute ()
+        {
+            Sums sums = new Sums(treeTable, amountOfYears);
+            int length = end - start;
+
+            // Current state of the rows
+            int[] districts = new int[length];
+            int[] species = new int[length];
+            float[] currentHeightsM = new float[length];
+            int[] currentCircumferencesCM = new int[length];
+            double[] currentCurveHeightsM = new double[length];
+            BitSet isDeciduous = new BitSet(length);
+            int[] models = new int[length];
+            for (int i = (int) ConstantsMath.ZERO; i < length; i++)
+            {
+                int row = start + i;
+                districts[i] = treeTable.getCode(row, ConstantsDatasets.INDEX_District);
+                species[i] = treeTable.getCode(row, ConstantsDatasets.INDEX_SpeciesBotanical);
+                currentHeightsM[i] = treeTable.getHeightM(row);
+                currentCircumferencesCM[i] = treeTable.getCircumferenceCM(row);
+                currentCurveHeightsM[i] = heightCurves.getHeightM(species[i], currentCircumferencesCM[i]);
+                if (treeTable.getIsDeciduous(row)) isDeciduous.set(i);
+                models[i] = modelOfSpecies[species[i]];
+            }
+
+            // Scratch buffers, overwritten every year
+            float[] heightsM = new float[length];
+            int[] circumferencesCM = new int[length];
+            int[] co2 = new int[length];
+
+            for (int year = (int) ConstantsMath.ZERO; year <= amountOfYears; year++)
+            {
+                int growthCM = Mathematics.mitchellFormulaGetGirthCM(year);
+                for (int i = (int) ConstantsMath.ZERO; i < length; i++)
+                {
+                    if (currentHeightsM[i] == ConstantsCSV.NUMBER_DEFAULT_VALUE || currentCircumferencesCM[i] == ConstantsCSV.NUMBER_DEFAULT_VALUE)
+                    {
+                        // Trees with missing measurements stay outside the look-up table
+                        heightsM[i] = currentHeightsM[i];
+                        circumferencesCM[i] = currentCircumferencesCM[i];
+                        continue;
+                    }
+                    circumferencesCM[i] = currentCircumferencesCM[i] + growthCM;
+                    // The tree keeps its distance to the curve of its species
+                    heightsM[i] = (float) (currentHeightsM[i]
+                            + heightCurves.getHeightM(species[i], circumferencesCM[i]) - currentCurveHeightsM[i]);
+                }
+
+                CO2Kernel.getCO2(heightsM, circumferencesCM, isDeciduous, models, co2, (int) ConstantsMath.ZERO, length);
+                for (int i = (int) ConstantsMath.ZERO; i < length; i++)
+                {
+                    if (co2[i] == ConstantsCSV.NUMBER_DEFAULT_VALUE) continue; // Not in the look-up table
+                    sums.totalCO2PerYear[year] += co2[i];
+                    sums.co2PerYearPerDistrict[year][districts[i]] += co2[i];
+                    sums.co2PerYearPerSpecies[year][species[i]] += co2[i];
+                }
+            }
+            return sums;
+        }
+    }
+
+
+    /**
+     * The Sums class accumulates the carbon per year of a row range, addressed by the codes of the table.
+     */
+    private static class Sums
+    {
+        private final double[] totalCO2PerYear;
+        private final double[][] co2PerYearPerDistrict;
+        private final double[][] co2PerYearPerSpecies;
+
+
+        private Sums (TreeTable treeTable, int amountOfYears)
+        {
+            int amountOfCurvePoints = amountOfYears + (int) ConstantsMath.ONE;
+            totalCO2PerYear = new double[amountOfCurvePoints];
+            co2PerYearPerDistrict = new double[amountOfCurvePoints][treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_District)];
+            co2PerYearPerSpecies = new double[amountOfCurvePoints][treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_SpeciesBotanical)];
+        }
+
+
+        /**
+         * Adds the sums of another row range.
+         *
+         * @param next The sums of the following row range.
+         */
+        private void merge (Sums next)
+        {
+            for (int year = (int) ConstantsMath.ZERO; year < totalCO2PerYear.length; year++)
+            {
+                totalCO2PerYear[year] += next.totalCO2PerYear[year];
+                for (int code = (int) ConstantsMath.ZERO; code < co2PerYearPerDistrict[year].length; code++)
+                {
+                    co2PerYearPerDistrict[year][code] += next.co2PerYearPerDistrict[year][code];
+                }
+                for (int code = (int) ConstantsMath.ZERO; code < co2PerYearPerSpecies[year].length; code++)
+                {
+                    co2PerYearPerSpecies[year][code] += next.co2PerYearPerSpecies[year][code];
+                }
+            }
+        }
+    }
+}
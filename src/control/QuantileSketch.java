@@ -0,0 +1,119 @@
+package control;
+
+
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsMath;
+
+
+/**
+ * The QuantileSketch class estimates the quantiles of a stream of values in bounded memory.
+ * The range of the values is split into a fixed amount of bins of equal width, and only the amount of values per bin
+ * is kept. A quantile is interpolated linearly inside its bin, so it is off by at most the width of one bin, no matter
+ * how many values were added. Values outside the range are counted in the first or the last bin.
+ * Sketches of the same range can be merged, the result equals one sketch of all values.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class QuantileSketch
+{
+    private final double minimum;
+    private final double binWidth;
+    private final int[] counts;
+    private int amountOfValues;
+
+
+    /**
+     * Constructs an empty QuantileSketch for a range of values.
+     *
+     * @param minimum      The smallest expected value.
+     * @param maximum      The largest expected value.
+     *                     ({@code maximum} > {@code minimum})
+     * @param amountOfBins The amount of bins the range is split into.
+     *                     ({@code amountOfBins} > 0)
+     */
+    public QuantileSketch (double minimum, double maximum, int amountOfBins)
+    {
+        this.minimum = minimum;
+        this.binWidth = (maximum - minimum) / amountOfBins;
+        this.counts = new int[amountOfBins];
+    }
+
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value The value.
+     */
+    public void add (double value)
+    {
+        int bin = (int) ((value - minimum) / binWidth);
+        counts[Math.max((int) ConstantsMath.ZERO, Math.min(counts.length - (int) ConstantsMath.ONE, bin))]++;
+        amountOfValues++;
+    }
+
+
+    /**
+     * Adds all values of another sketch to this sketch.
+     *
+     * @param quantileSketch The other sketch, covering the same range with the same amount of bins.
+     *                       ({@code quantileSketch} != {@code null})
+     */
+    public void addAll (QuantileSketch quantileSketch)
+    {
+        for (int bin = (int) ConstantsMath.ZERO; bin < counts.length; bin++)
+        {
+            counts[bin] += quantileSketch.counts[bin];
+        }
+        amountOfValues += quantileSketch.amountOfValues;
+    }
+
+
+    /**
+     * Estimates a quantile of the added values.
+     *
+     * @param quantile The share of values below the quantile.
+     *                 (0 <= {@code quantile} <= 1)
+     * @return The estimated quantile, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if no value was added.
+     */
+    public double getQuantile (double quantile)
+    {
+        if (amountOfValues == ConstantsMath.ZERO) return ConstantsCSV.NUMBER_DEFAULT_VALUE;
+
+        double rank = quantile * amountOfValues;
+        int valuesBelow = (int) ConstantsMath.ZERO;
+        for (int bin = (int) ConstantsMath.ZERO; bin < counts.length; bin++)
+        {
+            if (counts[bin] > ConstantsMath.ZERO && valuesBelow + counts[bin] >= rank)
+            {
+                // Values are assumed to be spread evenly over the bin
+                double shareOfBin = Math.max(ConstantsMath.ZERO, rank - valuesBelow) / counts[bin];
+                return minimum + (bin + shareOfBin) * binWidth;
+            }
+            valuesBelow += counts[bin];
+        }
+        return minimum + counts.length * binWidth; // Not reached, the last filled bin always covers the rank
+    }
+
+
+    /**
+     * Estimates the median of the added values.
+     *
+     * @return The estimated median, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if no value was added.
+     */
+    public double getMedian ()
+    {
+        return getQuantile(ConstantsMath.ONE / ConstantsMath.TWO);
+    }
+
+
+    /**
+     * Getter for the amount of values.
+     *
+     * @return The amount of values added to the sketch.
+     */
+    public int getAmountOfValues ()
+    {
+        return amountOfValues;
+    }
+}
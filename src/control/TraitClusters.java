@@ -0,0 +1,457 @@
+package control;
+
+
+import model.TraitDictionary;
+import model.Tree;
+import model.TreeTraits;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsMath;
+import utility.constants.ConstantsTreeRestrictions;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * The TraitClusters class groups the values of two string traits that name the same thing, for example the German
+ * and the botanical species, so a missing value of one trait can be translated from the other one.
+ * Two values are in the same cluster if a tree has both of them, or if they are linked through other trees. The
+ * clusters are kept in a disjoint-set forest over the dictionary codes of both traits, with path compression and union
+ * by rank, so they do not depend on the order of the trees.
+ * Every cluster has a canonical value of each trait: the value that occurs in most of its trees, on equal occurrences
+ * the alphabetically first one. A value translates to the canonical value of the other trait in its cluster.
+ * The clusters can be kept as a service, trees read later are added without building the clusters again.
+ * Lookups read a translation index from the codes of both traits to dense cluster ids and from every cluster id to its
+ * canonical values. The index is replaced after every change, so lookups take no lock and are safe on many threads.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class TraitClusters
+{
+    private final int firstIndex;
+    private final int secondIndex;
+    private final TraitDictionary firstDictionary;
+    private final TraitDictionary secondDictionary;
+
+    // Disjoint-set forest, node 2 * code for the first trait and 2 * code + 1 for the second, changed under the lock
+    private int amountOfNodes;
+    private int amountOfFirstCodes; // Codes whose nodes are initialized
+    private int amountOfSecondCodes;
+    private int[] parents = new int[(int) ConstantsMath.ZERO];
+    private byte[] ranks = new byte[(int) ConstantsMath.ZERO];
+    private int[] occurrences = new int[(int) ConstantsMath.ZERO]; // 0 for values that are not clustered
+    private boolean[] isIgnored = new boolean[(int) ConstantsMath.ZERO];
+    private int[] bestFirstOfRoot = new int[(int) ConstantsMath.ZERO]; // Codes of the canonical values, kept at the roots
+    private int[] bestSecondOfRoot = new int[(int) ConstantsMath.ZERO];
+
+    private volatile TranslationIndex translationIndex;
+
+
+    /**
+     * Constructs the clusters of two string traits from a list of trees.
+     *
+     * @param treeList    The list of trees.
+     *                    ({@code treeList} != {@code null})
+     * @param firstIndex  The index of the first string trait.
+     * @param secondIndex The index of the second string trait.
+     * @throws IllegalArgumentException if one of the traits is not a string trait.
+     */
+    public TraitClusters (List<Tree> treeList, int firstIndex, int secondIndex)
+    {
+        this(firstIndex, secondIndex);
+        addAll(treeList);
+    }
+
+
+    /**
+     * Constructs empty clusters of two string traits, values are added with {@link #addAll(List)} or
+     * {@link #addAllTraits(List)}.
+     *
+     * @param firstIndex  The index of the first string trait.
+     * @param secondIndex The index of the second string trait.
+     * @throws IllegalArgumentException if one of the traits is not a string trait.
+     */
+    public TraitClusters (int firstIndex, int secondIndex)
+    {
+        this.firstIndex = firstIndex;
+        this.secondIndex = secondIndex;
+        this.firstDictionary = TraitDictionary.getDictionary(firstIndex);
+        this.secondDictionary = TraitDictionary.getDictionary(secondIndex);
+        translationIndex = new TranslationIndex();
+    }
+
+
+    /**
+     * Adds the values of trees to the clusters, merging the clusters the trees link.
+     * Values added before keep their clusters, only the canonical values of merged clusters may change.
+     *
+     * @param treeList The list of trees.
+     *                 ({@code treeList} != {@code null})
+     */
+    public synchronized void addAll (List<Tree> treeList)
+    {
+        grow();
+        for (Tree tree : treeList) // Iterates through treeList
+        {
+            add(tree.getCode(firstIndex), tree.getCode(secondIndex));
+        }
+        translationIndex = new TranslationIndex(); // Publishes all changes at once
+    }
+
+
+    /**
+     * Adds the values of parsed datasets to the clusters, before any tree is created from them.
+     * Values that are new to the dictionaries get their codes here.
+     *
+     * @param traitsList The list of parsed datasets.
+     *                   ({@code traitsList} != {@code null})
+     */
+    public synchronized void addAllTraits (List<TreeTraits> traitsList)
+    {
+        grow();
+        for (TreeTraits treeTraits : traitsList) // Iterates through traitsList
+        {
+            add(firstDictionary.getCode(treeTraits.getTrait(firstIndex)), secondDictionary.getCode(treeTraits.getTrait(secondIndex)));
+        }
+        translationIndex = new TranslationIndex(); // Publishes all changes at once
+    }
+
+
+    /**
+     * Adds the values of one tree, linking them if both are present.
+     *
+     * @param firstCode  The code of the value of the first trait.
+     * @param secondCode The code of the value of the second trait.
+     */
+    private void add (int firstCode, int secondCode)
+    {
+        if (firstCode >= amountOfFirstCodes || secondCode >= amountOfSecondCodes) grow(); // Codes added in the meantime
+
+        int firstNode = getFirstNode(firstCode);
+        int secondNode = getSecondNode(secondCode);
+        boolean hasFirst = firstCode != ConstantsCSV.NUMBER_DEFAULT_VALUE && !isIgnored[firstNode];
+        boolean hasSecond = secondCode != ConstantsCSV.NUMBER_DEFAULT_VALUE && !isIgnored[secondNode];
+        if (hasFirst) addOccurrence(firstNode, firstCode, bestFirstOfRoot, firstDictionary);
+        if (hasSecond) addOccurrence(secondNode, secondCode, bestSecondOfRoot, secondDictionary);
+        if (hasFirst && hasSecond) union(firstNode, secondNode); // Both values name the same
+    }
+
+
+    /**
+     * Translates a value of one trait to the correlating value of the other trait.
+     *
+     * @param originValue The available value.
+     * @param originIndex The index of the trait of the available value, one of the two clustered traits.
+     * @return The canonical value of the other trait in the cluster of the value, or the default value if the value
+     * never occurred together with the other trait.
+     * @throws IllegalArgumentException if the trait is not one of the two clustered traits.
+     */
+    public String getCorrelatingValue (String originValue, int originIndex)
+    {
+        int cluster = getCluster(originValue, originIndex);
+        if (cluster == ConstantsCSV.NUMBER_DEFAULT_VALUE) return String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
+        return getCanonicalValue(cluster, getOtherIndex(originIndex));
+    }
+
+
+    /**
+     * Retrieves the index of the clustered trait that a value of the given trait translates to.
+     *
+     * @param index The index of one of the two clustered traits.
+     * @return The index of the other clustered trait.
+     * @throws IllegalArgumentException if the trait is not one of the two clustered traits.
+     */
+    public int getOtherIndex (int index)
+    {
+        if (index == firstIndex) return secondIndex;
+        if (index == secondIndex) return firstIndex;
+        throw new IllegalArgumentException(String.valueOf(index));
+    }
+
+
+    /**
+     * Retrieves the cluster of a value.
+     *
+     * @param value The value.
+     * @param index The index of the trait of the value, one of the two clustered traits.
+     * @return The id of the cluster, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the value is not clustered.
+     * Ids are dense and stay valid until trees are added.
+     * @throws IllegalArgumentException if the trait is not one of the two clustered traits.
+     */
+    public int getCluster (String value, int index)
+    {
+        TranslationIndex currentIndex = translationIndex;
+        int[] clusterOfCode;
+        int code;
+        if (index == firstIndex)
+        {
+            clusterOfCode = currentIndex.clusterOfFirstCode;
+            code = firstDictionary.findCode(value);
+        } else if (index == secondIndex)
+        {
+            clusterOfCode = currentIndex.clusterOfSecondCode;
+            code = secondDictionary.findCode(value);
+        } else throw new IllegalArgumentException(String.valueOf(index));
+
+        if (code == ConstantsCSV.NUMBER_DEFAULT_VALUE || code >= clusterOfCode.length) return ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        return clusterOfCode[code];
+    }
+
+
+    /**
+     * Retrieves the canonical value of a trait in a cluster.
+     *
+     * @param cluster The id of the cluster.
+     * @param index   The index of one of the two clustered traits.
+     * @return The canonical value, or the default value if no tree of the cluster has a value of the trait.
+     * @throws IllegalArgumentException if the trait is not one of the two clustered traits.
+     */
+    public String getCanonicalValue (int cluster, int index)
+    {
+        TranslationIndex currentIndex = translationIndex;
+        String value;
+        if (index == firstIndex) value = currentIndex.canonicalFirstOfCluster[cluster];
+        else if (index == secondIndex) value = currentIndex.canonicalSecondOfCluster[cluster];
+        else throw new IllegalArgumentException(String.valueOf(index));
+        return value == null ? String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE) : value;
+    }
+
+
+    /**
+     * Retrieves the amount of clusters.
+     *
+     * @return The amount of clusters, ids are numbered from 0 on.
+     */
+    public int getAmountOfClusters ()
+    {
+        return translationIndex.canonicalFirstOfCluster.length;
+    }
+
+
+    /**
+     * Counts one more occurrence of a value and makes it the canonical value of its cluster if it now comes first.
+     * Occurrences only grow, so the canonical value of a cluster is either the one before or the counted value.
+     *
+     * @param node       The node of the value.
+     * @param code       The code of the value.
+     * @param bestOfRoot The canonical values of the trait of the value per root.
+     * @param dictionary The dictionary of the trait of the value.
+     */
+    private void addOccurrence (int node, int code, int[] bestOfRoot, TraitDictionary dictionary)
+    {
+        occurrences[node]++;
+        int root = find(node);
+        if (isBetter(code, bestOfRoot[root], dictionary)) bestOfRoot[root] = code;
+    }
+
+
+    /**
+     * Finds the root of the cluster of a node, pointing every node on the way directly to the root.
+     *
+     * @param node The node.
+     * @return The root of its cluster.
+     */
+    private int find (int node)
+    {
+        int root = node;
+        while (parents[root] != root) root = parents[root];
+        while (parents[node] != root) // Path compression
+        {
+            int parent = parents[node];
+            parents[node] = root;
+            node = parent;
+        }
+        return root;
+    }
+
+
+    /**
+     * Merges the clusters of two nodes, attaching the lower tree to the higher one.
+     * The canonical values of the merged cluster are the better ones of both clusters.
+     *
+     * @param first  The first node.
+     * @param second The second node.
+     */
+    private void union (int first, int second)
+    {
+        int root = find(first);
+        int child = find(second);
+        if (root == child) return; // Already in the same cluster
+
+        if (ranks[root] < ranks[child]) // Attaches the lower tree
+        {
+            int higher = child;
+            child = root;
+            root = higher;
+        } else if (ranks[root] == ranks[child]) ranks[root]++;
+        parents[child] = root;
+
+        if (isBetter(bestFirstOfRoot[child], bestFirstOfRoot[root], firstDictionary)) bestFirstOfRoot[root] = bestFirstOfRoot[child];
+        if (isBetter(bestSecondOfRoot[child], bestSecondOfRoot[root], secondDictionary)) bestSecondOfRoot[root] = bestSecondOfRoot[child];
+    }
+
+
+    /**
+     * Determines whether a value should be the canonical value of its cluster instead of the best value so far.
+     *
+     * @param code       The code of the value, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if there is none.
+     * @param bestCode   The code of the best value so far, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if there is none.
+     * @param dictionary The dictionary of the trait of both values, which also tells the trait.
+     * @return {@code true} if the value occurs more often, or as often and comes first alphabetically.
+     */
+    private boolean isBetter (int code, int bestCode, TraitDictionary dictionary)
+    {
+        if (code == ConstantsCSV.NUMBER_DEFAULT_VALUE || code == bestCode) return ConstantsMath.bFalse;
+        if (bestCode == ConstantsCSV.NUMBER_DEFAULT_VALUE) return ConstantsMath.bTrue;
+
+        boolean isFirst = dictionary == firstDictionary;
+        int occurrencesOfCode = occurrences[isFirst ? getFirstNode(code) : getSecondNode(code)];
+        int occurrencesOfBestCode = occurrences[isFirst ? getFirstNode(bestCode) : getSecondNode(bestCode)];
+        if (occurrencesOfCode != occurrencesOfBestCode) return occurrencesOfCode > occurrencesOfBestCode;
+        return dictionary.getValue(code).compareTo(dictionary.getValue(bestCode)) < ConstantsMath.ZERO;
+    }
+
+
+    /**
+     * Makes room for the codes added to the dictionaries since the last call, every new code is a cluster of its own.
+     */
+    private void grow ()
+    {
+        int newAmountOfFirstCodes = firstDictionary.size();
+        int newAmountOfSecondCodes = secondDictionary.size();
+        int newAmountOfNodes = getFirstNode(Math.max(newAmountOfFirstCodes, newAmountOfSecondCodes));
+        if (newAmountOfNodes > amountOfNodes)
+        {
+            parents = Arrays.copyOf(parents, newAmountOfNodes);
+            ranks = Arrays.copyOf(ranks, newAmountOfNodes);
+            occurrences = Arrays.copyOf(occurrences, newAmountOfNodes);
+            isIgnored = Arrays.copyOf(isIgnored, newAmountOfNodes);
+            bestFirstOfRoot = Arrays.copyOf(bestFirstOfRoot, newAmountOfNodes);
+            bestSecondOfRoot = Arrays.copyOf(bestSecondOfRoot, newAmountOfNodes);
+            for (int node = amountOfNodes; node < newAmountOfNodes; node++)
+            {
+                parents[node] = node;
+                bestFirstOfRoot[node] = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+                bestSecondOfRoot[node] = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+            }
+            amountOfNodes = newAmountOfNodes;
+        }
+
+        // One trait may have more codes than the other, so the codes of each trait are initialized on their own
+        for (int code = amountOfFirstCodes; code < newAmountOfFirstCodes; code++)
+        {
+            isIgnored[getFirstNode(code)] = isIgnored(firstDictionary.getValue(code));
+        }
+        for (int code = amountOfSecondCodes; code < newAmountOfSecondCodes; code++)
+        {
+            isIgnored[getSecondNode(code)] = isIgnored(secondDictionary.getValue(code));
+        }
+        amountOfFirstCodes = newAmountOfFirstCodes;
+        amountOfSecondCodes = newAmountOfSecondCodes;
+    }
+
+
+    /**
+     * Determines whether a value counts as missing, see {@link ConstantsTreeRestrictions#excludeValues}.
+     * Excluded values are left out of the clusters, since a value like "unbekannt" would link every value of the other
+     * trait into one cluster.
+     *
+     * @param value The value.
+     * @return {@code true} if the value is the default value or excluded.
+     */
+    private static boolean isIgnored (String value)
+    {
+        if (value.equals(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE))) return ConstantsMath.bTrue;
+        for (String excludeValue : ConstantsTreeRestrictions.excludeValues)
+        {
+            if (value.equalsIgnoreCase(excludeValue)) return ConstantsMath.bTrue;
+        }
+        return ConstantsMath.bFalse;
+    }
+
+
+    /**
+     * Retrieves the node of a code of the first trait.
+     *
+     * @param code The code.
+     * @return The node of the code.
+     */
+    private static int getFirstNode (int code)
+    {
+        return code * (int) ConstantsMath.TWO;
+    }
+
+
+    /**
+     * Retrieves the node of a code of the second trait.
+     *
+     * @param code The code.
+     * @return The node of the code.
+     */
+    private static int getSecondNode (int code)
+    {
+        return code * (int) ConstantsMath.TWO + (int) ConstantsMath.ONE;
+    }
+
+
+    /**
+     * Retrieves the code of a node of either trait.
+     *
+     * @param node The node.
+     * @return The code of the node.
+     */
+    private static int getCode (int node)
+    {
+        return node / (int) ConstantsMath.TWO;
+    }
+
+
+    /**
+     * The TranslationIndex class is the read-only view of the clusters used by lookups, built from the forest after
+     * every change. Cluster ids are given in order of the codes.
+     */
+    private class TranslationIndex
+    {
+        private final int[] clusterOfFirstCode; // NUMBER_DEFAULT_VALUE for values that are not clustered
+        private final int[] clusterOfSecondCode;
+        private final String[] canonicalFirstOfCluster; // null if no tree of the cluster has a value of the trait
+        private final String[] canonicalSecondOfCluster;
+
+
+        private TranslationIndex ()
+        {
+            int[] clusterOfRoot = new int[amountOfNodes];
+            Arrays.fill(clusterOfRoot, ConstantsCSV.NUMBER_DEFAULT_VALUE);
+            clusterOfFirstCode = new int[amountOfFirstCodes];
+            clusterOfSecondCode = new int[amountOfSecondCodes];
+
+            int amountOfClusters = (int) ConstantsMath.ZERO;
+            for (int node = (int) ConstantsMath.ZERO; node < amountOfNodes; node++)
+            {
+                int code = getCode(node);
+                boolean isFirst = node == getFirstNode(code);
+                if (code >= (isFirst ? amountOfFirstCodes : amountOfSecondCodes)) continue; // No value yet
+
+                int cluster = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+                if (occurrences[node] > ConstantsMath.ZERO) // Clustered value
+                {
+                    int root = find(node);
+                    if (clusterOfRoot[root] == ConstantsCSV.NUMBER_DEFAULT_VALUE) clusterOfRoot[root] = amountOfClusters++; // New cluster
+                    cluster = clusterOfRoot[root];
+                }
+                if (isFirst) clusterOfFirstCode[code] = cluster;
+                else clusterOfSecondCode[code] = cluster;
+            }
+
+            canonicalFirstOfCluster = new String[amountOfClusters];
+            canonicalSecondOfCluster = new String[amountOfClusters];
+            for (int root = (int) ConstantsMath.ZERO; root < amountOfNodes; root++)
+            {
+                if (clusterOfRoot[root] == ConstantsCSV.NUMBER_DEFAULT_VALUE) continue; // Not the root of a cluster
+                canonicalFirstOfCluster[clusterOfRoot[root]] = firstDictionary.getValue(bestFirstOfRoot[root]);
+                canonicalSecondOfCluster[clusterOfRoot[root]] = secondDictionary.getValue(bestSecondOfRoot[root]);
+            }
+        }
+    }
+}
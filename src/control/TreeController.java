@@ -1,8 +1,16 @@
 package control;
 
 
+import model.Age;
+import model.MeasurementIndex;
 import model.Tree;
+import model.Trait;
+import model.TraitDictionary;
+import model.TreeTable;
+import model.TreeTraits;
+import utility.constants.ConstantsCO2;
 import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
 import utility.constants.ConstantsMath;
 import utility.constants.ConstantsTreeRestrictions;
 import utility.constants.ConstantsTreeType;
@@ -19,86 +27,54 @@ import java.util.*;
 public class TreeController
 {
     /**
-     * Finds a correlating variable at specific trait index based on the variable from another map at specific trait index.
+     * Finds a correlating variable at specific trait index based on the variable at another trait index.
      *
-     * @param mapsList       The list of maps containing keys, which correlate to each other through their equal value.
-     *                       ({@code mapsList} != {@code null})
+     * @param traitClusters  The clusters of the two traits.
+     *                       ({@code traitClusters} != {@code null})
      * @param originKey      Available key.
-     * @param originMapIndex List index at which the key is located.
-     * @param goalMapIndex   List index at which the key is looked for.
-     * @return Returns the correlating variable found in the goal map based on the value from the origin map.
+     * @param originMapIndex Trait index at which the key is located.
+     * @param goalMapIndex   Trait index at which the key is looked for.
+     * @return Returns the correlating variable of the goal trait, or the default value if there is none.
+     * @throws IllegalArgumentException if the traits are not the two traits of the clusters.
      */
-    public String findCorrelatingVariable (List<Map<String, Integer>> mapsList, String originKey, int originMapIndex, int goalMapIndex)
+    public String findCorrelatingVariable (TraitClusters traitClusters, String originKey, int originMapIndex, int goalMapIndex)
     {
-        MapOperations mapOperations = new MapOperations();
-        // Looks for value at origin map at specific key
-        int value = mapsList.get(originMapIndex).get(originKey);
-        // Returns the key at correlating value in goal map
-        return mapOperations.getStringKey(mapsList.get(goalMapIndex), value);
+        // The clusters only translate to their other trait
+        if (traitClusters.getOtherIndex(originMapIndex) != goalMapIndex) throw new IllegalArgumentException(String.valueOf(goalMapIndex));
+        return traitClusters.getCorrelatingValue(originKey, originMapIndex);
     }
 
 
     /**
-     * Clusters correlating variables from a list of trees into maps based on specified indices.
+     * Clusters correlating variables of two traits from a list of trees.
+     * Values are in the same cluster if they occur together in a tree, directly or through other trees.
      *
      * @param treeList The list of trees from which to cluster variables.
      *                 ({@code treeList} != {@code null})
-     * @param a        The starting index of the traits to be considered.
-     * @param b        The ending index of the traits to be considered.
-     * @return Returns an array list of maps containing clustered correlating variables.
+     * @param a        The index of the first trait.
+     * @param b        The index of the second trait.
+     * @return Returns the clusters of the values of both traits.
      */
-    public ArrayList<Map<String, Integer>> clusterCorrelatingVariables (List<Tree> treeList, int a, int b)
+    public TraitClusters clusterCorrelatingVariables (List<Tree> treeList, int a, int b)
     {
-        ArrayList<Map<String, Integer>> clusteredList = new ArrayList<>();
-
-        for (int i = (int) ConstantsMath.ZERO; i <= b; i++)
-        {
-            clusteredList.add(new HashMap<>()); // Declares maps from 0 to b (although maps from 0 to a will be ignored)
-        }
-
-        int lastFreeIndex = (int) ConstantsMath.ZERO;
-        for (Tree tree : treeList) // Iterates through treeList
-        {
-            int mapValueOfOldTraits = (int) ConstantsMath.ZERO;
-
-            // Checks whether traits new or align with older traits
-            boolean isNew = ConstantsMath.bTrue;
-            for (int i = a; i <= b; i++) // Iterates through tree traits from a to b
-            {
-                String currentTrait = tree.getTrait(i);
-                Map<String, Integer> currentMap = clusteredList.get(i);
-
-                if (currentTrait.equals(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE)))
-                    continue; // Default values will be ignored
-                if (currentMap.containsKey(currentTrait)) // Current trait in the list
-                {
-                    isNew = ConstantsMath.bFalse; // Tree contains values that are already in the list
-                    mapValueOfOldTraits = currentMap.get(currentTrait); // Notes value for later use
-                    break; // As we already defined that the values in current instance are old, there is no need to keep iterating
-                }
-            }
-
-            // Assigns tree traits to map at noted value (if not empty)
-            for (int i = a; i <= b; i++) // Iterates through tree traits from a to b
-            {
-                String currentTrait = tree.getTrait(i);
-                Map<String, Integer> currentMap = clusteredList.get(i);
+        return new TraitClusters(treeList, a, b);
+    }
 
-                if (currentTrait.equals(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE)))
-                    continue; // Default values will be ignored
-                if (currentMap.containsKey(currentTrait)) continue; // Current key already in the list
 
-                if (isNew)
-                {
-                    currentMap.put(currentTrait, lastFreeIndex); // Adds new values
-                } else
-                {
-                    currentMap.putIfAbsent(currentTrait, mapValueOfOldTraits); // Assigning to other values if empty
-                }
-            }
-            if (isNew) lastFreeIndex++;
-        }
-        return clusteredList;
+    /**
+     * Clusters correlating variables of two traits from a list of parsed datasets, before any tree is created.
+     *
+     * @param traitsList The list of parsed datasets from which to cluster variables.
+     *                   ({@code traitsList} != {@code null})
+     * @param a          The index of the first trait.
+     * @param b          The index of the second trait.
+     * @return Returns the clusters of the values of both traits.
+     */
+    public TraitClusters clusterCorrelatingTraits (List<TreeTraits> traitsList, int a, int b)
+    {
+        TraitClusters traitClusters = new TraitClusters(a, b);
+        traitClusters.addAllTraits(traitsList);
+        return traitClusters;
     }
 
 
@@ -114,6 +90,36 @@ public class TreeController
     {
         Map<String, List<Tree>> treeMap = new HashMap<>();
 
+        if (TraitDictionary.isEncoded(traitIndex)) // Groups by code, strings are only looked up once per type
+        {
+            TraitDictionary dictionary = TraitDictionary.getDictionary(traitIndex);
+            List<List<Tree>> treesPerCode = new ArrayList<>(Collections.nCopies(dictionary.size(), null));
+            int[] codesInOrder = new int[dictionary.size()]; // Codes in order of their first occurrence
+            int amountOfCodes = (int) ConstantsMath.ZERO;
+
+            for (Tree tree : treeList) // Iterates through treeList
+            {
+                int code = tree.getCode(traitIndex);
+                while (code >= treesPerCode.size()) treesPerCode.add(null); // Code added to the dictionary in the meantime
+                List<Tree> valueList = treesPerCode.get(code);
+                if (valueList == null) // If current trait not grouped yet
+                {
+                    valueList = new ArrayList<>();
+                    treesPerCode.set(code, valueList);
+                    codesInOrder = ensureCapacity(codesInOrder, amountOfCodes);
+                    codesInOrder[amountOfCodes++] = code;
+                }
+                valueList.add(tree); // Adds tree with current trait to list of its code
+            }
+
+            // Inserted in the same order as the string keys would be
+            for (int i = (int) ConstantsMath.ZERO; i < amountOfCodes; i++)
+            {
+                treeMap.put(dictionary.getValue(codesInOrder[i]), treesPerCode.get(codesInOrder[i]));
+            }
+            return treeMap;
+        }
+
         for (Tree tree : treeList) // Iterates through treeList
         {
             String currentTrait = tree.getTrait(traitIndex);
@@ -138,11 +144,12 @@ public class TreeController
      */
     public Double getAverageNumberFromTreeList (List<Tree> treeList, int traitIndex)
     {
+        Trait trait = Trait.of(traitIndex);
         double value = (int) ConstantsMath.ZERO;
         double counter = (int) ConstantsMath.ZERO;
         for (Tree tree : treeList) // Iterates through treeList
         {
-            double currentValue = Double.parseDouble(tree.getTrait(traitIndex));
+            double currentValue = trait.getDouble(tree); // Reads the number without converting it to text
             if (currentValue == ConstantsCSV.NUMBER_DEFAULT_VALUE) continue; // Ignores default values
             value += currentValue; // Adds currentValue to previous values
             counter++;
@@ -163,6 +170,23 @@ public class TreeController
     {
         List<String> traitList = new LinkedList<>();
 
+        if (TraitDictionary.isEncoded(traitIndex)) // Checks codes instead of searching the list of strings
+        {
+            TraitDictionary dictionary = TraitDictionary.getDictionary(traitIndex);
+            BitSet foundCodes = new BitSet(dictionary.size());
+            for (Tree tree : treeList) // Iterates through treeList
+            {
+                int code = tree.getCode(traitIndex);
+                if (!foundCodes.get(code))
+                {
+                    // Adds trait to list, if trait not in the list
+                    foundCodes.set(code);
+                    traitList.add(dictionary.getValue(code));
+                }
+            }
+            return traitList;
+        }
+
         for (Tree tree : treeList) // Iterates through treeList
         {
             String element = tree.getTrait(traitIndex);
@@ -189,6 +213,32 @@ public class TreeController
     {
         HashMap<String, Integer> occurrenceMap = new HashMap<>();
 
+        if (TraitDictionary.isEncoded(traitIndex)) // Counts on codes, strings are only looked up once per type
+        {
+            TraitDictionary dictionary = TraitDictionary.getDictionary(traitIndex);
+            int[] occurrencePerCode = new int[dictionary.size()];
+            int[] codesInOrder = new int[dictionary.size()]; // Codes in order of their first occurrence
+            int amountOfCodes = (int) ConstantsMath.ZERO;
+
+            for (Tree tree : treeList) // Iterates through treeList
+            {
+                int code = tree.getCode(traitIndex);
+                occurrencePerCode = ensureCapacity(occurrencePerCode, code); // Code added to the dictionary in the meantime
+                if (occurrencePerCode[code]++ == ConstantsMath.ZERO) // First occurrence
+                {
+                    codesInOrder = ensureCapacity(codesInOrder, amountOfCodes);
+                    codesInOrder[amountOfCodes++] = code;
+                }
+            }
+
+            // Inserted in the same order as the string keys would be
+            for (int i = (int) ConstantsMath.ZERO; i < amountOfCodes; i++)
+            {
+                occurrenceMap.put(dictionary.getValue(codesInOrder[i]), occurrencePerCode[codesInOrder[i]]);
+            }
+            return occurrenceMap;
+        }
+
         for (Tree tree : treeList) // Iterates through treeList
         {
             String element = tree.getTrait(traitIndex);
@@ -208,6 +258,7 @@ public class TreeController
 
     /**
      * Retrieves the tree with the maximum value of a specified trait from the provided list of trees.
+     * Numeric traits are compared by their number, text traits alphabetically. On equal values the first tree wins.
      *
      * @param treeList The list of trees from which to find the tree with the maximum value.
      *                 ({@code treeList} != {@code null})
@@ -221,12 +272,28 @@ public class TreeController
             return null; // Handle empty list case
         }
 
+        Trait trait = Trait.of(index);
         Tree treeWithMaximumValue = null;
-        Comparable maxValue = null;
 
+        if (trait.isNumeric()) // Compares numbers instead of their text ("9.5" is not bigger than "43.0")
+        {
+            double maxValue = (int) ConstantsMath.ZERO;
+            for (Tree tree : treeList) // Iterates through treeList
+            {
+                double value = trait.getDouble(tree);
+                if (treeWithMaximumValue == null || value > maxValue) // If variable empty, or value bigger than variable
+                {
+                    maxValue = value; // Updates variable
+                    treeWithMaximumValue = tree; // Tree reference saved
+                }
+            }
+            return treeWithMaximumValue;
+        }
+
+        String maxValue = null;
         for (Tree tree : treeList) // Iterates through treeList
         {
-            Comparable value = tree.getTrait(index);
+            String value = tree.getTrait(index);
             if (maxValue == null || value.compareTo(maxValue) > 0) // If variable empty, or value bigger than variable
             {
                 maxValue = value; // Updates variable
@@ -237,6 +304,161 @@ public class TreeController
     }
 
 
+    /**
+     * Retrieves the trees with the highest values of a numeric trait, the highest first.
+     * Trees with equal values keep their order in the list.
+     *
+     * @param treeList The list of trees from which to find the trees.
+     *                 ({@code treeList} != {@code null})
+     * @param index    The index of the numeric trait.
+     * @param amount   The amount of trees.
+     * @return Returns the trees with the highest values, fewer if the list has less trees.
+     * @throws UnsupportedOperationException if the trait is not numeric.
+     */
+    public List<Tree> getTreesWithMaximumValues (List<Tree> treeList, int index, int amount)
+    {
+        Trait trait = Trait.of(index);
+        List<Tree> sortedList = new ArrayList<>(treeList);
+        sortedList.sort(Comparator.comparingDouble((Tree tree) -> trait.getDouble(tree)).reversed()); // Stable, ties keep their order
+        return new ArrayList<>(sortedList.subList((int) ConstantsMath.ZERO, Math.max((int) ConstantsMath.ZERO, Math.min(amount, sortedList.size()))));
+    }
+
+
+    /**
+     * Generates a map associating types of traits with the count of occurrences of each trait in the provided table.
+     * The types are inserted in the order they first occur, like in {@link #getTypesOfTraitsAndTheAmountOfOccurrences(List, int)}.
+     *
+     * @param treeTable  The table of trees to be analyzed.
+     *                   ({@code treeTable} != {@code null})
+     * @param traitIndex The index indicating the string trait to be considered.
+     * @return Returns a map where each key represents a type of trait and its corresponding value is the count of occurrences
+     * of that trait in the table.
+     */
+    public HashMap<String, Integer> getTypesOfTraitsAndTheAmountOfOccurrences (TreeTable treeTable, int traitIndex)
+    {
+        int[] occurrencePerCode = new int[treeTable.getAmountOfCodes(traitIndex)];
+        for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++)
+        {
+            occurrencePerCode[treeTable.getCode(row, traitIndex)]++; // Counts on the code instead of the string
+        }
+
+        HashMap<String, Integer> occurrenceMap = new HashMap<>();
+        for (int code = (int) ConstantsMath.ZERO; code < occurrencePerCode.length; code++) // Codes are in order of first occurrence
+        {
+            occurrenceMap.put(treeTable.getValue(traitIndex, code), occurrencePerCode[code]);
+        }
+        return occurrenceMap;
+    }
+
+
+    /**
+     * Generates a map associating types of a trait with the amount of different values of another trait among their trees.
+     *
+     * @param treeTable  The table of trees to be analyzed.
+     *                   ({@code treeTable} != {@code null})
+     * @param groupIndex The index of the string trait the trees are grouped by.
+     * @param traitIndex The index of the string trait whose different values are counted.
+     * @return Returns a map where each key represents a type of the group trait and its value the amount of different
+     * values of the other trait.
+     */
+    public Map<String, Integer> getAmountOfTypesOfTraitsPerType (TreeTable treeTable, int groupIndex, int traitIndex)
+    {
+        BitSet[] typesPerCode = new BitSet[treeTable.getAmountOfCodes(groupIndex)];
+        for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++)
+        {
+            int groupCode = treeTable.getCode(row, groupIndex);
+            if (typesPerCode[groupCode] == null) typesPerCode[groupCode] = new BitSet();
+            typesPerCode[groupCode].set(treeTable.getCode(row, traitIndex)); // Marks the value as present in the group
+        }
+
+        Map<String, Integer> amountPerType = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : treeTable.getCodes(groupIndex).entrySet())
+        {
+            amountPerType.put(entry.getKey(), typesPerCode[entry.getValue()].cardinality());
+        }
+        return amountPerType;
+    }
+
+
+    /**
+     * Computes the average value of a numeric trait for each type of a string trait in one pass over the table.
+     *
+     * @param treeTable  The table of trees from which the averages are computed.
+     *                   ({@code treeTable} != {@code null})
+     * @param groupIndex The index of the string trait the trees are grouped by.
+     * @param traitIndex The index of the numeric trait for which the averages are computed.
+     * @return Returns a map where each key represents a type of the group trait and its value the average of the numeric trait.
+     */
+    public Map<String, Double> getAverageNumberPerType (TreeTable treeTable, int groupIndex, int traitIndex)
+    {
+        Trait trait = Trait.of(traitIndex);
+        double[] valuePerCode = new double[treeTable.getAmountOfCodes(groupIndex)];
+        double[] counterPerCode = new double[valuePerCode.length];
+        for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++)
+        {
+            double currentValue = trait.getDouble(treeTable, row);
+            if (currentValue == ConstantsCSV.NUMBER_DEFAULT_VALUE) continue; // Ignores default values
+            int groupCode = treeTable.getCode(row, groupIndex);
+            valuePerCode[groupCode] += currentValue; // Adds currentValue to previous values of the group
+            counterPerCode[groupCode]++;
+        }
+
+        Map<String, Double> averagePerType = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : treeTable.getCodes(groupIndex).entrySet())
+        {
+            averagePerType.put(entry.getKey(), Mathematics.division(valuePerCode[entry.getValue()], counterPerCode[entry.getValue()]));
+        }
+        return averagePerType;
+    }
+
+
+    /**
+     * Retrieves the row with the maximum value of a specified trait from the provided table.
+     * Values are compared like in {@link #getTreeWithMaximumValue(List, int)}. Numeric traits are looked up in the
+     * {@link MeasurementIndex} of the table instead of scanning all rows.
+     *
+     * @param treeTable The table in which to find the row with the maximum value.
+     *                  ({@code treeTable} != {@code null})
+     * @param index     The index of the trait for which to find the maximum value.
+     * @return Returns the row with the maximum value of the specified trait, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the table is empty.
+     */
+    public int getRowWithMaximumValue (TreeTable treeTable, int index)
+    {
+        Trait trait = Trait.of(index);
+        if (trait.isNumeric()) return treeTable.getIndex(trait).getRowWithMaximumValue();
+
+        int rowWithMaximumValue = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        String maxValue = null;
+
+        for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++) // Iterates through treeTable
+        {
+            String value = treeTable.getTrait(row, index);
+            if (maxValue == null || value.compareTo(maxValue) > 0) // If variable empty, or value bigger than variable
+            {
+                maxValue = value; // Updates variable
+                rowWithMaximumValue = row; // Row saved
+            }
+        }
+        return rowWithMaximumValue;
+    }
+
+
+    /**
+     * Retrieves the rows with the highest values of a numeric trait from the index of the table, the highest first.
+     *
+     * @param treeTable The table in which to find the rows.
+     *                  ({@code treeTable} != {@code null})
+     * @param index     The index of the numeric trait.
+     * @param amount    The amount of rows.
+     * @return Returns the rows with the highest values, fewer if the table has less rows.
+     * @throws UnsupportedOperationException if the trait is not numeric.
+     */
+    public int[] getRowsWithMaximumValues (TreeTable treeTable, int index, int amount)
+    {
+        return treeTable.getIndex(Trait.of(index)).getRowsWithMaximumValues(amount);
+    }
+
+
     /**
      * Computes the average tree based on several traits from the provided list of trees.
      *
@@ -246,47 +468,69 @@ public class TreeController
      */
     public Tree getAverageTree (List<Tree> treeList)
     {
-        int age = (int) ConstantsMath.ZERO;
-        double croneDiameterM = (int) ConstantsMath.ZERO;
-        int girthCM = (int) ConstantsMath.ZERO;
-        float heightM = (int) ConstantsMath.ZERO;
-
-        int ageCounter = (int) ConstantsMath.ZERO;
-        int croneDiameterCounter = (int) ConstantsMath.ZERO;
-        int girthCounter = (int) ConstantsMath.ZERO;
-        int heightCounter = (int) ConstantsMath.ZERO;
+        AverageTree averageTree = new AverageTree();
+        for (Tree tree : treeList) // Iterates through treeList
+        {
+            averageTree.add(tree.getAge(), tree.getCroneDiameterM(), tree.getCircumferenceCM(), tree.getHeightM());
+        }
+        return averageTree.getTree();
+    }
 
 
+    /**
+     * Gathers the statistics missing measurements are filled with in one pass over the provided list of trees.
+     *
+     * @param treeList The list of trees from which to gather the statistics.
+     *                 ({@code treeList} != {@code null})
+     * @return Returns the means and medians per species, per genus and of all trees.
+     */
+    public ImputationStatistics getImputationStatistics (List<Tree> treeList)
+    {
+        ImputationStatistics imputationStatistics = new ImputationStatistics();
         for (Tree tree : treeList) // Iterates through treeList
         {
-            if (tree.getAge() != ConstantsCSV.NUMBER_DEFAULT_VALUE) // Not default
-            {
-                age += tree.getAge(); // Adds up value to previous values
-                ageCounter++;
-            }
-            if (tree.getCroneDiameterM() != ConstantsCSV.NUMBER_DEFAULT_VALUE) // Not default
-            {
-                croneDiameterM += tree.getCroneDiameterM(); // Adds up value to previous values
-                croneDiameterCounter++;
-            }
-            if (tree.getCircumferenceCM() != ConstantsCSV.NUMBER_DEFAULT_VALUE) // Not default
-            {
-                girthCM += tree.getCircumferenceCM(); // Adds up value to previous values
-                girthCounter++;
-            }
-            if (tree.getHeightM() != ConstantsCSV.NUMBER_DEFAULT_VALUE) // Not default
-            {
-                heightM += tree.getHeightM(); // Adds up value to previous values
-                heightCounter++;
-            }
+            imputationStatistics.add(tree.getCode(ConstantsDatasets.INDEX_SpeciesBotanical), tree.getAge(),
+                    tree.getCroneDiameterM(), tree.getCircumferenceCM(), tree.getHeightM());
+        }
+        imputationStatistics.resolve();
+        return imputationStatistics;
+    }
+
+
+    /**
+     * Gathers the statistics missing measurements are filled with in one pass over the provided list of parsed datasets.
+     * The age is reconciled with the year of plantation first, as a tree created from the dataset would do.
+     *
+     * @param traitsList The list of parsed datasets from which to gather the statistics.
+     *                   ({@code traitsList} != {@code null})
+     * @return Returns the means and medians per species, per genus and of all trees.
+     */
+    public ImputationStatistics getImputationStatisticsFromTraits (List<TreeTraits> traitsList)
+    {
+        TraitDictionary speciesDictionary = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_SpeciesBotanical);
+        ImputationStatistics imputationStatistics = new ImputationStatistics();
+        for (TreeTraits treeTraits : traitsList) // Iterates through traitsList
+        {
+            imputationStatistics.add(speciesDictionary.getCode(treeTraits.getTrait(ConstantsDatasets.INDEX_SpeciesBotanical)),
+                    Age.getReconciledAge(treeTraits.getYearOfPlantation(), treeTraits.getAge()),
+                    treeTraits.getCroneDiameterM(), treeTraits.getCircumferenceCM(), treeTraits.getHeightM());
         }
-        // Gets average by dividing sums with their individual counter
-        age /= ageCounter;
-        croneDiameterM /= croneDiameterCounter;
-        girthCM /= girthCounter;
-        heightM /= heightCounter;
+        imputationStatistics.resolve();
+        return imputationStatistics;
+    }
 
-        return new Tree(age, croneDiameterM, girthCM, heightM);
+
+    /**
+     * Retrieves the genus of a botanical species, the part of the name before {@link ConstantsCO2#genusSeparator}.
+     *
+     * @param speciesBotanical The botanical species.
+     *                         ({@code speciesBotanical} != {@code null})
+     * @return The genus, or the whole name if it has no separator.
+     */
+    public String getGenus (String speciesBotanical)
+    {
+        int endOfGenus = speciesBotanical.indexOf(ConstantsCO2.genusSeparator);
+        return endOfGenus < ConstantsMath.ZERO ? speciesBotanical : speciesBotanical.substring((int) ConstantsMath.ZERO, endOfGenus);
     }
 
 
@@ -298,9 +542,25 @@ public class TreeController
      * @return Returns {@code true} if the confidence value of the tree is greater than or equal to {@link ConstantsTreeType#CONFIDENCE_VALUE_SPLITTER}.
      */
     public boolean isDeciduous (Tree tree)
+    {
+        return isDeciduous(tree.getSpeciesBotanical(), tree.getHeightM(), tree.getCroneDiameterM(), tree.getCircumferenceCM());
+    }
+
+
+    /**
+     * Determines if a tree with the given traits is deciduous based on confidence values.
+     *
+     * @param speciesBotanical The botanical species of the tree.
+     *                         ({@code speciesBotanical} != {@code null})
+     * @param heightM          The height of the tree in meters.
+     * @param croneDiameterM   The diameter of the tree's crone in meters.
+     * @param circumferenceCM  The circumference of the tree in centimeters.
+     * @return Returns {@code true} if the confidence value of the traits is greater than or equal to {@link ConstantsTreeType#CONFIDENCE_VALUE_SPLITTER}.
+     */
+    public boolean isDeciduous (String speciesBotanical, float heightM, double croneDiameterM, int circumferenceCM)
     {
         // Using confidence values (high = deciduous...)
-        double treeSpecificConfidenceValue = getConfidenceValueFromTree(tree);
+        double treeSpecificConfidenceValue = getConfidenceValueFromTraits(speciesBotanical, heightM, croneDiameterM, circumferenceCM);
         // If exceeds certain value, tree is considered deciduous
         if (treeSpecificConfidenceValue >= ConstantsTreeType.CONFIDENCE_VALUE_SPLITTER)
         {
@@ -320,21 +580,38 @@ public class TreeController
      * @return Returns the confidence value of the tree based on its species, height, crone diameter, and circumference.
      */
     public double getConfidenceValueFromTree (Tree tree)
+    {
+        return getConfidenceValueFromTraits(tree.getSpeciesBotanical(), tree.getHeightM(), tree.getCroneDiameterM(), tree.getCircumferenceCM());
+    }
+
+
+    /**
+     * Retrieves the confidence value of a tree from its botanical species and measurements, see
+     * {@link #getConfidenceValueFromTree(Tree)}.
+     *
+     * @param speciesBotanical The botanical species of the tree.
+     *                         ({@code speciesBotanical} != {@code null})
+     * @param heightM          The height of the tree in meters.
+     * @param croneDiameterM   The diameter of the tree's crone in meters.
+     * @param circumferenceCM  The circumference of the tree in centimeters.
+     * @return Returns the confidence value of the tree based on its species, height, crone diameter, and circumference.
+     */
+    public double getConfidenceValueFromTraits (String speciesBotanical, float heightM, double croneDiameterM, int circumferenceCM)
     {
         // Using array of popular trees (highly effective)
         for (int i = (int) ConstantsMath.ZERO; i < ConstantsTreeType.popularConiferousTrees.length; i++)
         {
-            if (tree.getSpeciesBotanical().equalsIgnoreCase(ConstantsTreeType.popularConiferousTrees[i]))
+            if (speciesBotanical.equalsIgnoreCase(ConstantsTreeType.popularConiferousTrees[i]))
                 return (int) ConstantsMath.ZERO;
         }
         for (int i = (int) ConstantsMath.ZERO; i < ConstantsTreeType.popularDeciduousTrees.length; i++)
         {
-            if (tree.getSpeciesBotanical().equalsIgnoreCase(ConstantsTreeType.popularDeciduousTrees[i]))
+            if (speciesBotanical.equalsIgnoreCase(ConstantsTreeType.popularDeciduousTrees[i]))
                 return (int) ConstantsMath.ONE;
         }
 
         // Otherwise value determined mathematically
-        return (float) Mathematics.sum(getConfidenceValueFromHeight(tree.getHeightM()), getConfidenceValueFromCroneDiameter(tree.getCroneDiameterM()), getConfidenceValueFromCircumference(tree.getCircumferenceCM()));
+        return (float) Mathematics.sum(getConfidenceValueFromHeight(heightM), getConfidenceValueFromCroneDiameter(croneDiameterM), getConfidenceValueFromCircumference(circumferenceCM));
     }
 
 
@@ -500,6 +777,21 @@ public class TreeController
     }
 
 
+    /**
+     * Makes sure an array can hold a value at the given index, doubling its length if necessary.
+     *
+     * @param array The array.
+     *              ({@code array} != {@code null})
+     * @param index The index that has to be valid.
+     * @return The array itself, or a larger copy of it.
+     */
+    private static int[] ensureCapacity (int[] array, int index)
+    {
+        if (index < array.length) return array;
+        return Arrays.copyOf(array, Math.max(index + (int) ConstantsMath.ONE, array.length * (int) ConstantsMath.TWO));
+    }
+
+
     /**
      * Calculates the confidence value based on the provided parameters.
      *
@@ -525,4 +817,66 @@ public class TreeController
         }
         return confidenceValue;
     }
-}
\ No newline at end of file
+
+
+    /**
+     * The AverageTree class sums up the traits of trees that are not default, to compute the average tree.
+     */
+    private static class AverageTree
+    {
+        private int age = (int) ConstantsMath.ZERO;
+        private double croneDiameterM = (int) ConstantsMath.ZERO;
+        private int girthCM = (int) ConstantsMath.ZERO;
+        private float heightM = (int) ConstantsMath.ZERO;
+
+        private int ageCounter = (int) ConstantsMath.ZERO;
+        private int croneDiameterCounter = (int) ConstantsMath.ZERO;
+        private int girthCounter = (int) ConstantsMath.ZERO;
+        private int heightCounter = (int) ConstantsMath.ZERO;
+
+
+        /**
+         * Adds up the traits of one tree that are not default.
+         *
+         * @param age             The age of the tree.
+         * @param croneDiameterM  The diameter of the tree's crone in meters.
+         * @param circumferenceCM The circumference of the tree in centimeters.
+         * @param heightM         The height of the tree in meters.
+         */
+        private void add (int age, double croneDiameterM, int circumferenceCM, float heightM)
+        {
+            if (age != ConstantsCSV.NUMBER_DEFAULT_VALUE) // Not default
+            {
+                this.age += age; // Adds up value to previous values
+                ageCounter++;
+            }
+            if (croneDiameterM != ConstantsCSV.NUMBER_DEFAULT_VALUE) // Not default
+            {
+                this.croneDiameterM += croneDiameterM; // Adds up value to previous values
+                croneDiameterCounter++;
+            }
+            if (circumferenceCM != ConstantsCSV.NUMBER_DEFAULT_VALUE) // Not default
+            {
+                girthCM += circumferenceCM; // Adds up value to previous values
+                girthCounter++;
+            }
+            if (heightM != ConstantsCSV.NUMBER_DEFAULT_VALUE) // Not default
+            {
+                this.heightM += heightM; // Adds up value to previous values
+                heightCounter++;
+            }
+        }
+
+
+        /**
+         * Creates the average tree by dividing the sums with their individual counter.
+         *
+         * @return The average tree.
+         */
+        private Tree getTree ()
+        {
+            return new Tree(age / ageCounter, croneDiameterM / croneDiameterCounter, girthCM / girthCounter,
+                    heightM / heightCounter);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package control;
+
+
+import model.CarbonEstimate;
+import model.CarbonUncertainty;
+import model.TreeTable;
+import utility.constants.ConstantsCO2;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+
+/**
+ * The UncertaintyEngine class estimates how much the stored carbon dioxide depends on the measurements that were
+ * filled in by the {@link DataRepair}.
+ * Every sample draws plausible values for the repaired heights and circumferences around their repaired values and
+ * looks up the carbon of those trees again, trees with measured values always keep the carbon of the table.
+ * The samples are split into tasks of a fixed size, each with its own generator split off one seeded generator, so the
+ * tasks share no mutable state and every parallelism draws the same samples.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class UncertaintyEngine
+{
+    private static final int HEIGHT_REPAIRED = (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_HeightM;
+    private static final int CIRCUMFERENCE_REPAIRED = (int) ConstantsMath.ONE << ConstantsDatasets.INDEX_CircumferenceCM;
+
+    private final int parallelism;
+
+
+    /**
+     * Constructs an UncertaintyEngine using {@link ConstantsDatasets#AGGREGATION_PARALLELISM} threads.
+     */
+    public UncertaintyEngine ()
+    {
+        this(ConstantsDatasets.AGGREGATION_PARALLELISM);
+    }
+
+
+    /**
+     * Constructs an UncertaintyEngine using a given amount of threads.
+     *
+     * @param parallelism The amount of threads, 1 draws all samples on the calling thread.
+     *                    ({@code parallelism} > 0)
+     */
+    public UncertaintyEngine (int parallelism)
+    {
+        this.parallelism = parallelism;
+    }
+
+
+    /**
+     * Estimates the stored carbon of a table with {@link ConstantsCO2#monteCarloSamples} samples.
+     *
+     * @param treeTable The table of trees.
+     *                  ({@code treeTable} != {@code null})
+     * @return The estimates of all trees and of each district.
+     */
+    public CarbonUncertainty getCarbonUncertainty (TreeTable treeTable)
+    {
+        return getCarbonUncertainty(treeTable, ConstantsCO2.monteCarloSamples, ConstantsCO2.monteCarloSeed);
+    }
+
+
+    /**
+     * Estimates the stored carbon of a table by sampling the repaired measurements.
+     *
+     * @param treeTable       The table of trees.
+     *                        ({@code treeTable} != {@code null})
+     * @param amountOfSamples The amount of sampled carbon totals.
+     *                        ({@code amountOfSamples} > 0)
+     * @param seed            The seed of the random generators.
+     * @return The estimates of all trees and of each district.
+     * @throws IllegalArgumentException if the amount of samples is not positive.
+     */
+    public CarbonUncertainty getCarbonUncertainty (TreeTable treeTable, int amountOfSamples, long seed)
+    {
+        if (amountOfSamples <= ConstantsMath.ZERO) throw new IllegalArgumentException(String.valueOf(amountOfSamples));
+
+        RepairedRows repairedRows = new RepairedRows(treeTable);
+
+        // Splits the samples into tasks, each generator is split off in the same order for every parallelism
+        SplittableRandom random = new SplittableRandom(seed);
+        List<SampleTask> sampleTasks = new ArrayList<>();
+        for (int firstSample = (int) ConstantsMath.ZERO; firstSample < amountOfSamples; firstSample += ConstantsDatasets.MONTE_CARLO_SAMPLES_PER_TASK)
+        {
+            int amountOfTaskSamples = Math.min(ConstantsDatasets.MONTE_CARLO_SAMPLES_PER_TASK, amountOfSamples - firstSample);
+            sampleTasks.add(new SampleTask(repairedRows, random.split(), amountOfTaskSamples));
+        }
+
+        if (parallelism <= ConstantsMath.ONE || sampleTasks.size() == ConstantsMath.ONE)
+        {
+            for (SampleTask sampleTask : sampleTasks) sampleTask.invoke(); // Runs on the calling thread
+        } else
+        {
+            ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+            try
+            {
+                forkJoinPool.submit(() -> ForkJoinTask.invokeAll(sampleTasks)).join();
+            } finally
+            {
+                forkJoinPool.shutdown();
+            }
+        }
+
+        // Collects the samples per district and the totals
+        int amountOfDistricts = treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_District);
+        double[][] samplesPerDistrict = new double[amountOfDistricts][amountOfSamples];
+        double[] totalSamples = new double[amountOfSamples];
+        int sample = (int) ConstantsMath.ZERO;
+        for (SampleTask sampleTask : sampleTasks)
+        {
+            for (double[] co2PerDistrict : sampleTask.join())
+            {
+                for (int district = (int) ConstantsMath.ZERO; district < amountOfDistricts; district++)
+                {
+                    samplesPerDistrict[district][sample] = co2PerDistrict[district];
+                    totalSamples[sample] += co2PerDistrict[district];
+                }
+                sample++;
+            }
+        }
+
+        Map<String, CarbonEstimate> estimatePerDistrict = new HashMap<>();
+        for (int district = (int) ConstantsMath.ZERO; district < amountOfDistricts; district++)
+        {
+            estimatePerDistrict.put(treeTable.getValue(ConstantsDatasets.INDEX_District, district), getEstimate(samplesPerDistrict[district]));
+        }
+        return new CarbonUncertainty(amountOfSamples, ConstantsCO2.monteCarloConfidenceLevel, getEstimate(totalSamples), estimatePerDistrict);
+    }
+
+
+    /**
+     * Computes the mean and the confidence interval of samples.
+     *
+     * @param samples The samples, sorted afterwards.
+     * @return The estimate of the samples.
+     */
+    private static CarbonEstimate getEstimate (double[] samples)
+    {
+        double mean = Mathematics.average(samples);
+        Arrays.sort(samples);
+        double tail = Mathematics.division(ConstantsMath.ONE - ConstantsCO2.monteCarloConfidenceLevel, ConstantsMath.TWO);
+        return new CarbonEstimate(mean, getQuantile(samples, tail), getQuantile(samples, ConstantsMath.ONE - tail));
+    }
+
+
+    /**
+     * Retrieves the sample at a share of sorted samples, the nearest one to that position.
+     *
+     * @param sortedSamples The sorted samples.
+     * @param share         The share of samples below the quantile.
+     * @return The quantile.
+     */
+    private static double getQuantile (double[] sortedSamples, double share)
+    {
+        return sortedSamples[(int) Math.round(share * (sortedSamples.length - (int) ConstantsMath.ONE))];
+    }
+
+
+    /**
+     * The RepairedRows class holds the rows with a repaired height or circumference as columns, together with the
+     * carbon of all other trees per district, which is the same in every sample.
+     */
+    private static class RepairedRows
+    {
+        private final double[] fixedCO2PerDistrict;
+
+        private int size;
+        private final int[] districts;
+        private final float[] heightsM;
+        private final int[] circumferencesCM;
+        private final BitSet isHeightRepaired = new BitSet();
+        private final BitSet isCircumferenceRepaired = new BitSet();
+        private final BitSet isDeciduous = new BitSet();
+        private final int[] models;
+
+
+        private RepairedRows (TreeTable treeTable)
+        {
+            fixedCO2PerDistrict = new double[treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_District)];
+
+            int[] modelOfSpecies = new int[treeTable.getAmountOfCodes(ConstantsDatasets.INDEX_SpeciesBotanical)];
+            for (int code = (int) ConstantsMath.ZERO; code < modelOfSpecies.length; code++)
+            {
+                modelOfSpecies[code] = CarbonModelRegistry.getModel(treeTable.getValue(ConstantsDatasets.INDEX_SpeciesBotanical, code));
+            }
+
+            int amountOfRepairedRows = (int) ConstantsMath.ZERO;
+            for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++)
+            {
+                if (isRepaired(treeTable, row)) amountOfRepairedRows++;
+            }
+            districts = new int[amountOfRepairedRows];
+            heightsM = new float[amountOfRepairedRows];
+            circumferencesCM = new int[amountOfRepairedRows];
+            models = new int[amountOfRepairedRows];
+
+            for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++)
+            {
+                int district = treeTable.getCode(row, ConstantsDatasets.INDEX_District);
+                if (!isRepaired(treeTable, row))
+                {
+                    // Measured trees, trees outside the look-up table are not counted in
+                    int co2 = treeTable.getCO2(row);
+                    if (co2 != ConstantsCSV.NUMBER_DEFAULT_VALUE) fixedCO2PerDistrict[district] += co2;
+                    continue;
+                }
+                int repairedTraits = treeTable.getRepairedTraits(row);
+                districts[size] = district;
+                heightsM[size] = treeTable.getHeightM(row);
+                circumferencesCM[size] = treeTable.getCircumferenceCM(row);
+                if ((repairedTraits & HEIGHT_REPAIRED) != ConstantsMath.ZERO) isHeightRepaired.set(size);
+                if ((repairedTraits & CIRCUMFERENCE_REPAIRED) != ConstantsMath.ZERO) isCircumferenceRepaired.set(size);
+                if (treeTable.getIsDeciduous(row)) isDeciduous.set(size);
+                models[size] = modelOfSpecies[treeTable.getCode(row, ConstantsDatasets.INDEX_SpeciesBotanical)];
+                size++;
+            }
+        }
+
+
+        /**
+         * Determines whether the height or circumference of a row was repaired.
+         *
+         * @param treeTable The table of trees.
+         * @param row       The row of the tree.
+         * @return {@code true} if one of the measurements the carbon depends on was repaired.
+         */
+        private static boolean isRepaired (TreeTable treeTable, int row)
+        {
+            return (treeTable.getRepairedTraits(row) & (HEIGHT_REPAIRED | CIRCUMFERENCE_REPAIRED)) != ConstantsMath.ZERO;
+        }
+    }
+
+
+    /**
+     * The SampleTask class draws a fixed amount of samples on the fork-join pool with its own random generator.
+     */
+    private static class SampleTask extends RecursiveTask<double[][]>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final RepairedRows repairedRows;
+        private final SplittableRandom random;
+        private final int amountOfSamples;
+
+
+        /**
+         * Constructs a SampleTask.
+         *
+         * @param repairedRows    The repaired rows, only read.
+         * @param random          The random generator of this task.
+         * @param amountOfSamples The amount of samples to draw.
+         */
+        SampleTask (RepairedRows repairedRows, SplittableRandom random, int amountOfSamples)
+        {
+            this.repairedRows = repairedRows;
+            this.random = random;
+            this.amountOfSamples = amountOfSamples;
+        }
+
+
+        @Override
+        protected double[][] compute ()
+        {
+            RepairedRows rows = repairedRows;
+            double deviation = ConstantsCO2.monteCarloRelativeDeviation;
+            double[][] co2PerDistrictPerSample = new double[amountOfSamples][];
+
+            // Scratch buffers, overwritten every sample
+            float[] heightsM = rows.heightsM.clone();
+            int[] circumferencesCM = rows.circumferencesCM.clone();
+            int[] co2 = new int[rows.size];
+
+            for (int sample = (int) ConstantsMath.ZERO; sample < amountOfSamples; sample++)
+            {
+                for (int i = rows.isHeightRepaired.nextSetBit((int) ConstantsMath.ZERO); i >= ConstantsMath.ZERO; i = rows.isHeightRepaired.nextSetBit(i + (int) ConstantsMath.ONE))
+                {
+                    heightsM[i] = (float) Math.max(ConstantsMath.ZERO, rows.heightsM[i] * (ConstantsMath.ONE + deviation * random.nextGaussian()));
+                }
+                for (int i = rows.isCircumferenceRepaired.nextSetBit((int) ConstantsMath.ZERO); i >= ConstantsMath.ZERO; i = rows.isCircumferenceRepaired.nextSetBit(i + (int) ConstantsMath.ONE))
+                {
+                    circumferencesCM[i] = (int) Math.max(ConstantsMath.ZERO, Math.round(rows.circumferencesCM[i] * (ConstantsMath.ONE + deviation * random.nextGaussian())));
+                }
+                CO2Kernel.getCO2(heightsM, circumferencesCM, rows.isDeciduous, rows.models, co2, (int) ConstantsMath.ZERO, rows.size);
+
+                double[] co2PerDistrict = rows.fixedCO2PerDistrict.clone();
+                for (int i = (int) ConstantsMath.ZERO; i < rows.size; i++)
+                {
+                    if (co2[i] != ConstantsCSV.NUMBER_DEFAULT_VALUE) co2PerDistrict[rows.districts[i]] += co2[i]; // Left out if not in the look-up table
+                }
+                co2PerDistrictPerSample[sample] = co2PerDistrict;
+            }
+            return co2PerDistrictPerSample;
+        }
+    }
+}
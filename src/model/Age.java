@@ -60,24 +60,50 @@ public class Age
      */
     private void init (int year, int age)
     {
-        if (!ageCheckCorrect(year, age)) // Checks whether age and year add up rightfully
+        this.year = getReconciledYearOfPlantation(year, age);
+        this.age = getReconciledAge(year, age);
+    }
+
+
+    /**
+     * Reconciles the year of plantation with the age the way the Age class stores it, without creating an object.
+     *
+     * @param year The year of plantation.
+     * @param age  The age of the tree.
+     * @return The year of plantation that is stored for the given year and age.
+     */
+    public static int getReconciledYearOfPlantation (int year, int age)
+    {
+        if (isConsistent(year, age) || year == ConstantsCSV.NUMBER_DEFAULT_VALUE && age == ConstantsCSV.NUMBER_DEFAULT_VALUE)
+            return year;
+        if (year == ConstantsCSV.NUMBER_DEFAULT_VALUE)
         {
-            if (year != ConstantsCSV.NUMBER_DEFAULT_VALUE && age == ConstantsCSV.NUMBER_DEFAULT_VALUE)
-            {
-                // Age is default, but year is not
-                age = (int) (Mathematics.subtraction(ConstantsCSV.DATASET_YEAR, year));
-            } else if (year == ConstantsCSV.NUMBER_DEFAULT_VALUE && age != ConstantsCSV.NUMBER_DEFAULT_VALUE)
-            {
-                // Year is default, but age is not
-                year = (int) (Mathematics.subtraction(ConstantsCSV.DATASET_YEAR, age));
-            } else if (year != ConstantsCSV.NUMBER_DEFAULT_VALUE && age != ConstantsCSV.NUMBER_DEFAULT_VALUE)
-            {
-                // Year and age are not default -> gets year from age
-                year = (int) (Mathematics.subtraction(ConstantsTreeRestrictions.MAX_yearOfPlanting, age));
-            }
+            // Year is default, but age is not
+            return (int) (Mathematics.subtraction(ConstantsCSV.DATASET_YEAR, age));
+        } else if (age != ConstantsCSV.NUMBER_DEFAULT_VALUE)
+        {
+            // Year and age are not default -> gets year from age
+            return (int) (Mathematics.subtraction(ConstantsTreeRestrictions.MAX_yearOfPlanting, age));
         }
-        this.year = year;
-        this.age = age;
+        return year;
+    }
+
+
+    /**
+     * Reconciles the age with the year of plantation the way the Age class stores it, without creating an object.
+     *
+     * @param year The year of plantation.
+     * @param age  The age of the tree.
+     * @return The age that is stored for the given year and age.
+     */
+    public static int getReconciledAge (int year, int age)
+    {
+        if (!isConsistent(year, age) && year != ConstantsCSV.NUMBER_DEFAULT_VALUE && age == ConstantsCSV.NUMBER_DEFAULT_VALUE)
+        {
+            // Age is default, but year is not
+            return (int) (Mathematics.subtraction(ConstantsCSV.DATASET_YEAR, year));
+        }
+        return age;
     }
 
 
@@ -88,12 +114,25 @@ public class Age
      * @param age  The age of the tree.
      * @return {@code true} if the sum of the year and age equals the dataset year; {@code false} otherwise.
      */
-    public boolean ageCheckCorrect (int year, int age)
+    private static boolean isConsistent (int year, int age)
     {
         return ((Mathematics.sum(year, age)) == ConstantsCSV.DATASET_YEAR);
     }
 
 
+    /**
+     * Checks if the given year and age add up to the dataset year.
+     *
+     * @param year The year of the tree's plantation.
+     * @param age  The age of the tree.
+     * @return {@code true} if the sum of the year and age equals the dataset year; {@code false} otherwise.
+     */
+    public boolean ageCheckCorrect (int year, int age)
+    {
+        return isConsistent(year, age);
+    }
+
+
     /**
      * Gets the year of the tree's plantation.
      *
@@ -0,0 +1,65 @@
+package model;
+
+
+import utility.constants.ConstantsMath;
+
+
+/**
+ * The BitmapIndex class keeps one {@link RowBitmap} per value of a string trait of a TreeTable, like the district or the
+ * species. The bitmaps of several values and traits can be combined with AND, OR and NOT to filter the table, without
+ * scanning the rows or copying the trees.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class BitmapIndex
+{
+    private final int traitIndex;
+    private final RowBitmap[] rowsPerCode;
+
+
+    /**
+     * Constructs a BitmapIndex by collecting the rows of each code of a string trait.
+     *
+     * @param treeTable  The table of trees.
+     *                   ({@code treeTable} != {@code null})
+     * @param traitIndex The index of a string trait.
+     * @throws IllegalArgumentException if the trait is not a string.
+     */
+    public BitmapIndex (TreeTable treeTable, int traitIndex)
+    {
+        this.traitIndex = traitIndex;
+        int amountOfCodes = treeTable.getAmountOfCodes(traitIndex);
+
+        // Rows are visited in ascending order, so every builder only appends
+        RowBitmap.Builder[] builders = new RowBitmap.Builder[amountOfCodes];
+        for (int code = (int) ConstantsMath.ZERO; code < amountOfCodes; code++) builders[code] = new RowBitmap.Builder();
+        for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++) builders[treeTable.getCode(row, traitIndex)].add(row);
+
+        rowsPerCode = new RowBitmap[amountOfCodes];
+        for (int code = (int) ConstantsMath.ZERO; code < amountOfCodes; code++) rowsPerCode[code] = builders[code].build();
+    }
+
+
+    /**
+     * Retrieves the index of the trait the bitmaps belong to.
+     *
+     * @return The index of the trait.
+     */
+    public int getTraitIndex ()
+    {
+        return traitIndex;
+    }
+
+
+    /**
+     * Retrieves the rows with a value of the trait.
+     *
+     * @param code The code of the value in the table.
+     * @return The rows with the value, empty if the code does not exist.
+     */
+    public RowBitmap getRows (int code)
+    {
+        return code >= ConstantsMath.ZERO && code < rowsPerCode.length ? rowsPerCode[code] : RowBitmap.getEmpty();
+    }
+}
@@ -0,0 +1,63 @@
+package model;
+
+
+/**
+ * The CarbonEstimate class holds an estimate of stored carbon dioxide together with its confidence interval.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class CarbonEstimate
+{
+    private final double mean;
+    private final double lowerBound;
+    private final double upperBound;
+
+
+    /**
+     * Constructs a CarbonEstimate.
+     *
+     * @param mean       The mean of all samples.
+     * @param lowerBound The lower bound of the confidence interval.
+     * @param upperBound The upper bound of the confidence interval.
+     */
+    public CarbonEstimate (double mean, double lowerBound, double upperBound)
+    {
+        this.mean = mean;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+
+    /**
+     * Getter for the mean of all samples.
+     *
+     * @return The mean stored carbon.
+     */
+    public double getMean ()
+    {
+        return mean;
+    }
+
+
+    /**
+     * Getter for the lower bound of the confidence interval.
+     *
+     * @return The lower bound of the stored carbon.
+     */
+    public double getLowerBound ()
+    {
+        return lowerBound;
+    }
+
+
+    /**
+     * Getter for the upper bound of the confidence interval.
+     *
+     * @return The upper bound of the stored carbon.
+     */
+    public double getUpperBound ()
+    {
+        return upperBound;
+    }
+}
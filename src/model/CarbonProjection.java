@@ -0,0 +1,116 @@
+package model;
+
+
+import utility.constants.ConstantsMath;
+
+import java.util.Collections;
+import java.util.Map;
+
+
+/**
+ * The CarbonProjection class holds the carbon dioxide stored by the trees in each year of a projection.
+ * Every curve has one value per year, starting with the current year at position 0.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class CarbonProjection
+{
+    private final int amountOfYears;
+    private final double[] totalCO2PerYear;
+    private final Map<String, double[]> co2PerYearPerDistrict;
+    private final Map<String, double[]> co2PerYearPerSpecies;
+
+
+    /**
+     * Constructs a CarbonProjection holding the given curves.
+     *
+     * @param amountOfYears         The amount of years projected beyond the current year.
+     * @param totalCO2PerYear       The carbon stored by all trees per year.
+     *                              ({@code totalCO2PerYear} != {@code null})
+     * @param co2PerYearPerDistrict The carbon stored by the trees of each district per year.
+     *                              ({@code co2PerYearPerDistrict} != {@code null})
+     * @param co2PerYearPerSpecies  The carbon stored by the trees of each botanical species per year.
+     *                              ({@code co2PerYearPerSpecies} != {@code null})
+     */
+    public CarbonProjection (int amountOfYears, double[] totalCO2PerYear, Map<String, double[]> co2PerYearPerDistrict,
+                             Map<String, double[]> co2PerYearPerSpecies)
+    {
+        this.amountOfYears = amountOfYears;
+        this.totalCO2PerYear = totalCO2PerYear;
+        this.co2PerYearPerDistrict = Collections.unmodifiableMap(co2PerYearPerDistrict);
+        this.co2PerYearPerSpecies = Collections.unmodifiableMap(co2PerYearPerSpecies);
+    }
+
+
+    /**
+     * Getter for the amount of years projected beyond the current year.
+     *
+     * @return The amount of years, every curve has one more value.
+     */
+    public int getAmountOfYears ()
+    {
+        return amountOfYears;
+    }
+
+
+    /**
+     * Getter for the carbon stored by all trees per year.
+     *
+     * @return A copy of the curve.
+     */
+    public double[] getTotalCO2PerYear ()
+    {
+        return totalCO2PerYear.clone();
+    }
+
+
+    /**
+     * Getter for the carbon stored by the trees of a district in a year.
+     *
+     * @param district The district.
+     * @param year     The year, 0 is the current year.
+     * @return The stored carbon, 0 if the district does not exist.
+     */
+    public double getCO2OfDistrict (String district, int year)
+    {
+        double[] curve = co2PerYearPerDistrict.get(district);
+        return curve == null ? ConstantsMath.ZERO : curve[year];
+    }
+
+
+    /**
+     * Getter for the carbon stored by the trees of a botanical species in a year.
+     *
+     * @param species The botanical species.
+     * @param year    The year, 0 is the current year.
+     * @return The stored carbon, 0 if the species does not exist.
+     */
+    public double getCO2OfSpecies (String species, int year)
+    {
+        double[] curve = co2PerYearPerSpecies.get(species);
+        return curve == null ? ConstantsMath.ZERO : curve[year];
+    }
+
+
+    /**
+     * Getter for the curves of all districts.
+     *
+     * @return An unmodifiable map from the districts to their carbon per year.
+     */
+    public Map<String, double[]> getCO2PerYearPerDistrict ()
+    {
+        return co2PerYearPerDistrict;
+    }
+
+
+    /**
+     * Getter for the curves of all botanical species.
+     *
+     * @return An unmodifiable map from the botanical species to their carbon per year.
+     */
+    public Map<String, double[]> getCO2PerYearPerSpecies ()
+    {
+        return co2PerYearPerSpecies;
+    }
+}
@@ -0,0 +1,97 @@
+package model;
+
+
+import java.util.Collections;
+import java.util.Map;
+
+
+/**
+ * The CarbonUncertainty class holds the estimates of the stored carbon dioxide of all trees and of each district,
+ * sampled over plausible values of the repaired measurements.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class CarbonUncertainty
+{
+    private final int amountOfSamples;
+    private final double confidenceLevel;
+    private final CarbonEstimate total;
+    private final Map<String, CarbonEstimate> estimatePerDistrict;
+
+
+    /**
+     * Constructs a CarbonUncertainty holding the given estimates.
+     *
+     * @param amountOfSamples     The amount of samples the estimates are computed from.
+     * @param confidenceLevel     The share of samples inside each confidence interval.
+     * @param total               The estimate of all trees.
+     *                            ({@code total} != {@code null})
+     * @param estimatePerDistrict The estimate of each district.
+     *                            ({@code estimatePerDistrict} != {@code null})
+     */
+    public CarbonUncertainty (int amountOfSamples, double confidenceLevel, CarbonEstimate total,
+                              Map<String, CarbonEstimate> estimatePerDistrict)
+    {
+        this.amountOfSamples = amountOfSamples;
+        this.confidenceLevel = confidenceLevel;
+        this.total = total;
+        this.estimatePerDistrict = Collections.unmodifiableMap(estimatePerDistrict);
+    }
+
+
+    /**
+     * Getter for the amount of samples.
+     *
+     * @return The amount of samples the estimates are computed from.
+     */
+    public int getAmountOfSamples ()
+    {
+        return amountOfSamples;
+    }
+
+
+    /**
+     * Getter for the confidence level.
+     *
+     * @return The share of samples inside each confidence interval.
+     */
+    public double getConfidenceLevel ()
+    {
+        return confidenceLevel;
+    }
+
+
+    /**
+     * Getter for the estimate of all trees.
+     *
+     * @return The estimate of the total stored carbon.
+     */
+    public CarbonEstimate getTotal ()
+    {
+        return total;
+    }
+
+
+    /**
+     * Getter for the estimate of a district.
+     *
+     * @param district The district.
+     * @return The estimate of the district, or {@code null} if the district does not exist.
+     */
+    public CarbonEstimate getEstimate (String district)
+    {
+        return estimatePerDistrict.get(district);
+    }
+
+
+    /**
+     * Getter for the estimates of all districts.
+     *
+     * @return An unmodifiable map from the districts to their estimates.
+     */
+    public Map<String, CarbonEstimate> getEstimatePerDistrict ()
+    {
+        return estimatePerDistrict;
+    }
+}
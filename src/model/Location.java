@@ -2,17 +2,21 @@ package model;
 
 
 import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
 
 
 /**
  * The Location class represents the geographical location information, specifically the district.
+ * The district is stored as code of the shared {@link TraitDictionary} of districts.
  *
  * @author Michael Markov
  * @version v1
  */
 public class Location
 {
-    private String district = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
+    private static final TraitDictionary DISTRICTS = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_District);
+
+    private int district = DISTRICTS.getCode(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE));
 
 
     /**
@@ -22,7 +26,7 @@ public class Location
      */
     public Location (String district)
     {
-        this.district = district;
+        this.district = DISTRICTS.getCode(district);
     }
 
 
@@ -42,6 +46,17 @@ public class Location
      * @return Returns the name of the district.
      */
     public String getDistrict ()
+    {
+        return DISTRICTS.getValue(district);
+    }
+
+
+    /**
+     * Gets the code of the district for this location.
+     *
+     * @return Returns the code of the district in its dictionary.
+     */
+    public int getDistrictCode ()
     {
         return district;
     }
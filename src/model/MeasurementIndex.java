@@ -0,0 +1,116 @@
+package model;
+
+
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsMath;
+
+import java.util.Arrays;
+
+
+/**
+ * The MeasurementIndex class keeps the rows of a TreeTable sorted by a numeric trait, like the height or the age.
+ * The rows are sorted once, in descending order of their numeric value. Rows with equal values keep the order of the
+ * table, so the tree that comes first in the datasets always wins a tie.
+ * Afterwards the maximum is found in constant time and the top N rows in O(N).
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class MeasurementIndex
+{
+    private final Trait trait;
+    private final int[] sortedRows;
+
+
+    /**
+     * Constructs a MeasurementIndex by sorting the rows of a table by a numeric trait.
+     *
+     * @param treeTable The table of trees.
+     *                  ({@code treeTable} != {@code null})
+     * @param trait     The numeric trait the rows are sorted by.
+     *                  ({@code trait} != {@code null} && {@code trait.isNumeric()})
+     * @throws UnsupportedOperationException if the trait is not numeric.
+     */
+    public MeasurementIndex (TreeTable treeTable, Trait trait)
+    {
+        this.trait = trait;
+        int size = treeTable.size();
+        double[] values = new double[size];
+        sortedRows = new int[size];
+        for (int row = (int) ConstantsMath.ZERO; row < size; row++)
+        {
+            values[row] = trait.getDouble(treeTable, row);
+            sortedRows[row] = row;
+        }
+        sort(sortedRows, Arrays.copyOf(sortedRows, size), (int) ConstantsMath.ZERO, size, values);
+    }
+
+
+    /**
+     * Retrieves the trait the index is sorted by.
+     *
+     * @return The trait of the index.
+     */
+    public Trait getTrait ()
+    {
+        return trait;
+    }
+
+
+    /**
+     * Retrieves the row with the highest value.
+     *
+     * @return The row with the highest value, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the table is empty.
+     */
+    public int getRowWithMaximumValue ()
+    {
+        return sortedRows.length == ConstantsMath.ZERO ? ConstantsCSV.NUMBER_DEFAULT_VALUE : sortedRows[(int) ConstantsMath.ZERO];
+    }
+
+
+    /**
+     * Retrieves the rows with the highest values, the highest first.
+     *
+     * @param amount The amount of rows.
+     * @return The rows with the highest values, fewer if the table has less rows.
+     */
+    public int[] getRowsWithMaximumValues (int amount)
+    {
+        return Arrays.copyOf(sortedRows, Math.max((int) ConstantsMath.ZERO, Math.min(amount, sortedRows.length)));
+    }
+
+
+    /**
+     * Sorts a range of rows by their values in descending order with a stable merge sort.
+     * Boxing the rows for a comparator is avoided, so the index can be built for millions of rows.
+     *
+     * @param rows   The rows to sort, holds the result afterwards.
+     * @param buffer A copy of the rows of the same length.
+     * @param start  The first position of the range.
+     * @param end    The position after the range.
+     * @param values The value of each row.
+     */
+    private static void sort (int[] rows, int[] buffer, int start, int end, double[] values)
+    {
+        if (end - start < (int) ConstantsMath.TWO) return;
+        int middle = (start + end) >>> (int) ConstantsMath.ONE;
+
+        // Sorts both halves into the buffer, then merges them back into the rows
+        sort(buffer, rows, start, middle, values);
+        sort(buffer, rows, middle, end, values);
+
+        int left = start;
+        int right = middle;
+        for (int i = start; i < end; i++)
+        {
+            // Takes from the left half on equal values, which keeps the rows of a tie in their order
+            if (right >= end || (left < middle && values[buffer[left]] >= values[buffer[right]]))
+            {
+                rows[i] = buffer[left++];
+            } else
+            {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+}
@@ -2,22 +2,30 @@ package model;
 
 
 import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
 
 
 /**
  * The PlantInformation class offers a way to structurise the information about a plant.
  * It includes traits like name, type (German/Botanical) and species (German/Botanical).
+ * The traits are stored as codes of the shared {@link TraitDictionary} of each trait.
  *
  * @author Michael Markov
  * @version v1
  */
 public class PlantInformation
 {
-    private String name = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-    private String typeGerman = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-    private String typeBotanical = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-    private String speciesGerman = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-    private String speciesBotanical = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
+    private static final TraitDictionary NAMES = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_Name);
+    private static final TraitDictionary TYPES_GERMAN = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_TypeGerman);
+    private static final TraitDictionary TYPES_BOTANICAL = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_TypeBotanical);
+    private static final TraitDictionary SPECIES_GERMAN = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_SpeciesGerman);
+    private static final TraitDictionary SPECIES_BOTANICAL = TraitDictionary.getDictionary(ConstantsDatasets.INDEX_SpeciesBotanical);
+
+    private int name = NAMES.getCode(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE));
+    private int typeGerman = TYPES_GERMAN.getCode(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE));
+    private int typeBotanical = TYPES_BOTANICAL.getCode(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE));
+    private int speciesGerman = SPECIES_GERMAN.getCode(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE));
+    private int speciesBotanical = SPECIES_BOTANICAL.getCode(String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE));
 
 
     /**
@@ -32,11 +40,11 @@ public class PlantInformation
     public PlantInformation (String name, String typeGerman, String typeBotanical, String speciesGerman,
                              String speciesBotanical)
     {
-        this.name = name;
-        this.speciesGerman = speciesGerman;
-        this.speciesBotanical = speciesBotanical;
-        this.typeGerman = typeGerman;
-        this.typeBotanical = typeBotanical;
+        this.name = NAMES.getCode(name);
+        this.speciesGerman = SPECIES_GERMAN.getCode(speciesGerman);
+        this.speciesBotanical = SPECIES_BOTANICAL.getCode(speciesBotanical);
+        this.typeGerman = TYPES_GERMAN.getCode(typeGerman);
+        this.typeBotanical = TYPES_BOTANICAL.getCode(typeBotanical);
     }
 
 
@@ -53,7 +61,7 @@ public class PlantInformation
      */
     public String getName ()
     {
-        return name;
+        return NAMES.getValue(name);
     }
 
 
@@ -64,7 +72,7 @@ public class PlantInformation
      */
     public String getTypeGerman ()
     {
-        return typeGerman;
+        return TYPES_GERMAN.getValue(typeGerman);
     }
 
 
@@ -75,7 +83,7 @@ public class PlantInformation
      */
     public String getTypeBotanical ()
     {
-        return typeBotanical;
+        return TYPES_BOTANICAL.getValue(typeBotanical);
     }
 
 
@@ -86,7 +94,7 @@ public class PlantInformation
      */
     public String getSpeciesGerman ()
     {
-        return speciesGerman;
+        return SPECIES_GERMAN.getValue(speciesGerman);
     }
 
 
@@ -96,6 +104,61 @@ public class PlantInformation
      * @return The botanical species of the tree.
      */
     public String getSpeciesBotanical ()
+    {
+        return SPECIES_BOTANICAL.getValue(speciesBotanical);
+    }
+
+
+    /**
+     * Gets the code of the name of the tree.
+     *
+     * @return The code of the name in its dictionary.
+     */
+    public int getNameCode ()
+    {
+        return name;
+    }
+
+
+    /**
+     * Gets the code of the German type of the tree.
+     *
+     * @return The code of the German type in its dictionary.
+     */
+    public int getTypeGermanCode ()
+    {
+        return typeGerman;
+    }
+
+
+    /**
+     * Gets the code of the botanical type of the tree.
+     *
+     * @return The code of the botanical type in its dictionary.
+     */
+    public int getTypeBotanicalCode ()
+    {
+        return typeBotanical;
+    }
+
+
+    /**
+     * Gets the code of the German species of the tree.
+     *
+     * @return The code of the German species in its dictionary.
+     */
+    public int getSpeciesGermanCode ()
+    {
+        return speciesGerman;
+    }
+
+
+    /**
+     * Gets the code of the botanical species of the tree.
+     *
+     * @return The code of the botanical species in its dictionary.
+     */
+    public int getSpeciesBotanicalCode ()
     {
         return speciesBotanical;
     }
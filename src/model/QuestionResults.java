@@ -0,0 +1,241 @@
+package model;
+
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * The QuestionResults class holds the answers to all questions of the menu, computed beforehand in one pass over the
+ * datasets. Answering a question afterwards only reads a field.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class QuestionResults
+{
+    private final String districtWithMostTrees;
+    private final String districtWithTallestTree;
+    private final Tree treeWithHighestCircumference;
+    private final Tree treeWithBiggestCrone;
+    private final Tree treeWithMostAge;
+    private final int amountOfTypesOfTrees;
+    private final int amountOfSpeciesOfTrees;
+    private final String mostOccurringSpeciesOfTrees;
+    private final String mostSpeciesDiverseDistrict;
+    private final String averageTallestSpecies;
+    private final String averageHighestCircumferenceSpecies;
+    private final int totalCarbonSaved;
+    private final String districtWithMostCarbonSaved;
+    private final String speciesWithMostCarbonSaved;
+    private final List<Tree> tallestTrees;
+
+
+    /**
+     * Constructs a QuestionResults object holding the given answers.
+     *
+     * @param districtWithMostTrees              The district with the most trees.
+     * @param districtWithTallestTree            The district with the tallest tree.
+     * @param treeWithHighestCircumference       The tree with the highest circumference.
+     * @param treeWithBiggestCrone               The tree with the biggest crone diameter.
+     * @param treeWithMostAge                    The tree with the highest age.
+     * @param amountOfTypesOfTrees               The amount of botanical types.
+     * @param amountOfSpeciesOfTrees             The amount of botanical species.
+     * @param mostOccurringSpeciesOfTrees        The botanical species that occurs most.
+     * @param mostSpeciesDiverseDistrict         The district with the most different species.
+     * @param averageTallestSpecies              The species with the highest average height.
+     * @param averageHighestCircumferenceSpecies The species with the highest average circumference.
+     * @param totalCarbonSaved                   The carbon saved by all trees.
+     * @param districtWithMostCarbonSaved        The district that saved the most carbon.
+     * @param speciesWithMostCarbonSaved         The species that saved the most carbon.
+     * @param tallestTrees                       The tallest trees, the tallest first.
+     *                                           ({@code tallestTrees} != {@code null})
+     */
+    public QuestionResults (String districtWithMostTrees, String districtWithTallestTree, Tree treeWithHighestCircumference,
+                            Tree treeWithBiggestCrone, Tree treeWithMostAge, int amountOfTypesOfTrees, int amountOfSpeciesOfTrees,
+                            String mostOccurringSpeciesOfTrees, String mostSpeciesDiverseDistrict, String averageTallestSpecies,
+                            String averageHighestCircumferenceSpecies, int totalCarbonSaved, String districtWithMostCarbonSaved,
+                            String speciesWithMostCarbonSaved, List<Tree> tallestTrees)
+    {
+        this.districtWithMostTrees = districtWithMostTrees;
+        this.districtWithTallestTree = districtWithTallestTree;
+        this.treeWithHighestCircumference = treeWithHighestCircumference;
+        this.treeWithBiggestCrone = treeWithBiggestCrone;
+        this.treeWithMostAge = treeWithMostAge;
+        this.amountOfTypesOfTrees = amountOfTypesOfTrees;
+        this.amountOfSpeciesOfTrees = amountOfSpeciesOfTrees;
+        this.mostOccurringSpeciesOfTrees = mostOccurringSpeciesOfTrees;
+        this.mostSpeciesDiverseDistrict = mostSpeciesDiverseDistrict;
+        this.averageTallestSpecies = averageTallestSpecies;
+        this.averageHighestCircumferenceSpecies = averageHighestCircumferenceSpecies;
+        this.totalCarbonSaved = totalCarbonSaved;
+        this.districtWithMostCarbonSaved = districtWithMostCarbonSaved;
+        this.speciesWithMostCarbonSaved = speciesWithMostCarbonSaved;
+        this.tallestTrees = Collections.unmodifiableList(tallestTrees);
+    }
+
+
+    /**
+     * Getter for the district with the most trees.
+     *
+     * @return The district with the most trees.
+     */
+    public String getDistrictWithMostTrees ()
+    {
+        return districtWithMostTrees;
+    }
+
+
+    /**
+     * Getter for the district with the tallest tree.
+     *
+     * @return The district with the tallest tree.
+     */
+    public String getDistrictWithTallestTree ()
+    {
+        return districtWithTallestTree;
+    }
+
+
+    /**
+     * Getter for the tree with the highest circumference.
+     *
+     * @return The tree with the highest circumference.
+     */
+    public Tree getTreeWithHighestCircumference ()
+    {
+        return treeWithHighestCircumference;
+    }
+
+
+    /**
+     * Getter for the tree with the biggest crone diameter.
+     *
+     * @return The tree with the biggest crone.
+     */
+    public Tree getTreeWithBiggestCrone ()
+    {
+        return treeWithBiggestCrone;
+    }
+
+
+    /**
+     * Getter for the tree with the highest age.
+     *
+     * @return The tree with the most age.
+     */
+    public Tree getTreeWithMostAge ()
+    {
+        return treeWithMostAge;
+    }
+
+
+    /**
+     * Getter for the amount of botanical types.
+     *
+     * @return The amount of types of trees.
+     */
+    public int getAmountOfTypesOfTrees ()
+    {
+        return amountOfTypesOfTrees;
+    }
+
+
+    /**
+     * Getter for the amount of botanical species.
+     *
+     * @return The amount of species of trees.
+     */
+    public int getAmountOfSpeciesOfTrees ()
+    {
+        return amountOfSpeciesOfTrees;
+    }
+
+
+    /**
+     * Getter for the botanical species that occurs most.
+     *
+     * @return The most occurring species of trees.
+     */
+    public String getMostOccurringSpeciesOfTrees ()
+    {
+        return mostOccurringSpeciesOfTrees;
+    }
+
+
+    /**
+     * Getter for the district with the most different species.
+     *
+     * @return The most species diverse district.
+     */
+    public String getMostSpeciesDiverseDistrict ()
+    {
+        return mostSpeciesDiverseDistrict;
+    }
+
+
+    /**
+     * Getter for the species with the highest average height.
+     *
+     * @return The average tallest species.
+     */
+    public String getAverageTallestSpecies ()
+    {
+        return averageTallestSpecies;
+    }
+
+
+    /**
+     * Getter for the species with the highest average circumference.
+     *
+     * @return The average highest circumference species.
+     */
+    public String getAverageHighestCircumferenceSpecies ()
+    {
+        return averageHighestCircumferenceSpecies;
+    }
+
+
+    /**
+     * Getter for the carbon saved by all trees.
+     *
+     * @return The total carbon saved.
+     */
+    public int getTotalCarbonSaved ()
+    {
+        return totalCarbonSaved;
+    }
+
+
+    /**
+     * Getter for the district that saved the most carbon.
+     *
+     * @return The district with the most carbon saved.
+     */
+    public String getDistrictWithMostCarbonSaved ()
+    {
+        return districtWithMostCarbonSaved;
+    }
+
+
+    /**
+     * Getter for the species that saved the most carbon.
+     *
+     * @return The species with the most carbon saved.
+     */
+    public String getSpeciesWithMostCarbonSaved ()
+    {
+        return speciesWithMostCarbonSaved;
+    }
+
+
+    /**
+     * Getter for the tallest trees.
+     *
+     * @return An unmodifiable list of the tallest trees, the tallest first.
+     */
+    public List<Tree> getTallestTrees ()
+    {
+        return tallestTrees;
+    }
+}
@@ -0,0 +1,83 @@
+package model;
+
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * The RepairReport class holds the outcome of one run of the data repair: the trees that are left in their input order
+ * and how many trees were corrupt, repaired and deleted in that run.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class RepairReport
+{
+    private final List<Tree> trees;
+    private final int corruptCounter;
+    private final int repairedCounter;
+    private final int deletedCounter;
+
+
+    /**
+     * Constructs a RepairReport.
+     *
+     * @param trees           The trees that are left, in their input order.
+     *                        ({@code trees} != {@code null})
+     * @param corruptCounter  The amount of corrupt trees.
+     * @param repairedCounter The amount of repaired trees.
+     * @param deletedCounter  The amount of deleted trees.
+     */
+    public RepairReport (List<Tree> trees, int corruptCounter, int repairedCounter, int deletedCounter)
+    {
+        this.trees = Collections.unmodifiableList(trees);
+        this.corruptCounter = corruptCounter;
+        this.repairedCounter = repairedCounter;
+        this.deletedCounter = deletedCounter;
+    }
+
+
+    /**
+     * Getter for the trees that are left.
+     *
+     * @return An unmodifiable list of the repaired and the intact trees, in their input order.
+     */
+    public List<Tree> getTrees ()
+    {
+        return trees;
+    }
+
+
+    /**
+     * Getter for the amount of corrupt trees.
+     *
+     * @return The amount of trees that had missing or excluded values.
+     */
+    public int getCorruptCounter ()
+    {
+        return corruptCounter;
+    }
+
+
+    /**
+     * Getter for the amount of repaired trees.
+     *
+     * @return The amount of corrupt trees that were repaired.
+     */
+    public int getRepairedCounter ()
+    {
+        return repairedCounter;
+    }
+
+
+    /**
+     * Getter for the amount of deleted trees.
+     *
+     * @return The amount of corrupt trees that could not be repaired.
+     */
+    public int getDeletedCounter ()
+    {
+        return deletedCounter;
+    }
+}
@@ -0,0 +1,851 @@
+package model;
+
+
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+
+/**
+ * The RowBitmap class is a compressed set of rows of a TreeTable, used to filter the questions.
+ * Like a roaring bitmap, the rows are split by their upper bits into containers of 2^{@link ConstantsDatasets#BITMAP_CONTAINER_BITS}
+ * rows. Each container keeps the lower bits of its rows in the smallest of three forms: a sorted array for few rows,
+ * a list of runs for long stretches of consecutive rows, or a plain bitmap otherwise. Containers without rows are not
+ * stored at all.
+ * Bitmaps cannot be changed after they were created, so AND, OR and NOT create new bitmaps and share the containers
+ * that stay the same.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class RowBitmap
+{
+    private static final int CONTAINER_ROWS = (int) ConstantsMath.ONE << ConstantsDatasets.BITMAP_CONTAINER_BITS;
+    private static final int LOW_MASK = CONTAINER_ROWS - (int) ConstantsMath.ONE; // Lower bits of a row
+    private static final int WORDS = CONTAINER_ROWS / Long.SIZE; // Words of a bitmap container
+    private static final int WORD_BITS = Integer.numberOfTrailingZeros(Long.SIZE); // Shift from a bit to its word
+    private static final RowBitmap EMPTY = new RowBitmap(new int[(int) ConstantsMath.ZERO], new Container[(int) ConstantsMath.ZERO], (int) ConstantsMath.ZERO);
+
+    private final int[] keys; // Upper bits of the rows of each container, ascending
+    private final Container[] containers;
+    private final int cardinality;
+
+
+    private RowBitmap (int[] keys, Container[] containers, int amountOfContainers)
+    {
+        this.keys = amountOfContainers == keys.length ? keys : Arrays.copyOf(keys, amountOfContainers);
+        this.containers = amountOfContainers == containers.length ? containers : Arrays.copyOf(containers, amountOfContainers);
+        int cardinality = (int) ConstantsMath.ZERO;
+        for (Container container : this.containers) cardinality += container.getCardinality();
+        this.cardinality = cardinality;
+    }
+
+
+    /**
+     * Retrieves a bitmap without rows.
+     *
+     * @return The empty bitmap.
+     */
+    public static RowBitmap getEmpty ()
+    {
+        return EMPTY;
+    }
+
+
+    /**
+     * Creates a bitmap of a range of rows, stored as one run per container.
+     *
+     * @param start The first row of the range.
+     *              ({@code start} >= 0)
+     * @param end   The row after the range.
+     * @return A bitmap of all rows from start to end.
+     */
+    public static RowBitmap getRange (int start, int end)
+    {
+        if (end <= start) return EMPTY;
+
+        int firstKey = start >>> ConstantsDatasets.BITMAP_CONTAINER_BITS;
+        int lastKey = (end - (int) ConstantsMath.ONE) >>> ConstantsDatasets.BITMAP_CONTAINER_BITS;
+        int[] keys = new int[lastKey - firstKey + (int) ConstantsMath.ONE];
+        Container[] containers = new Container[keys.length];
+        for (int key = firstKey; key <= lastKey; key++)
+        {
+            int first = key == firstKey ? start & LOW_MASK : (int) ConstantsMath.ZERO;
+            int last = key == lastKey ? (end - (int) ConstantsMath.ONE) & LOW_MASK : LOW_MASK;
+            keys[key - firstKey] = key;
+            containers[key - firstKey] = new RunContainer(new char[]{(char) first}, new char[]{(char) last},
+                    last - first + (int) ConstantsMath.ONE);
+        }
+        return new RowBitmap(keys, containers, keys.length);
+    }
+
+
+    /**
+     * Retrieves the amount of rows in the bitmap.
+     *
+     * @return The amount of rows.
+     */
+    public int getCardinality ()
+    {
+        return cardinality;
+    }
+
+
+    /**
+     * Checks whether the bitmap has no rows.
+     *
+     * @return {@code true} if the bitmap is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty ()
+    {
+        return cardinality == ConstantsMath.ZERO;
+    }
+
+
+    /**
+     * Checks whether a row is in the bitmap.
+     *
+     * @param row The row.
+     * @return {@code true} if the row is in the bitmap, {@code false} otherwise.
+     */
+    public boolean contains (int row)
+    {
+        if (row < ConstantsMath.ZERO) return ConstantsMath.bFalse;
+        int position = Arrays.binarySearch(keys, row >>> ConstantsDatasets.BITMAP_CONTAINER_BITS);
+        return position >= ConstantsMath.ZERO && containers[position].contains(row & LOW_MASK);
+    }
+
+
+    /**
+     * Retrieves the first row of the bitmap that is not before a given row, like {@link java.util.BitSet#nextSetBit(int)}.
+     *
+     * @param row The row to start from.
+     * @return The next row in the bitmap, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if there is none.
+     */
+    public int getNextRow (int row)
+    {
+        row = Math.max((int) ConstantsMath.ZERO, row);
+        int key = row >>> ConstantsDatasets.BITMAP_CONTAINER_BITS;
+        int position = Arrays.binarySearch(keys, key);
+        if (position >= ConstantsMath.ZERO)
+        {
+            int low = containers[position].getNextValue(row & LOW_MASK);
+            if (low != ConstantsCSV.NUMBER_DEFAULT_VALUE) return key << ConstantsDatasets.BITMAP_CONTAINER_BITS | low;
+            position++;
+        } else
+        {
+            position = -position - (int) ConstantsMath.ONE;
+        }
+
+        // Containers are never empty, so the first value of the following container is the next row
+        if (position >= keys.length) return ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        return keys[position] << ConstantsDatasets.BITMAP_CONTAINER_BITS | containers[position].getNextValue((int) ConstantsMath.ZERO);
+    }
+
+
+    /**
+     * Retrieves an iterator over the rows of the bitmap in ascending order.
+     *
+     * @return An iterator over the rows.
+     */
+    public PrimitiveIterator.OfInt iterator ()
+    {
+        return new PrimitiveIterator.OfInt()
+        {
+            private int nextRow = getNextRow((int) ConstantsMath.ZERO);
+
+
+            @Override
+            public boolean hasNext ()
+            {
+                return nextRow != ConstantsCSV.NUMBER_DEFAULT_VALUE;
+            }
+
+
+            @Override
+            public int nextInt ()
+            {
+                if (nextRow == ConstantsCSV.NUMBER_DEFAULT_VALUE) throw new NoSuchElementException();
+                int row = nextRow;
+                nextRow = row == Integer.MAX_VALUE ? ConstantsCSV.NUMBER_DEFAULT_VALUE : getNextRow(row + (int) ConstantsMath.ONE);
+                return row;
+            }
+        };
+    }
+
+
+    /**
+     * Creates the bitmap of the rows that are in both bitmaps.
+     *
+     * @param rowBitmap The other bitmap.
+     *                  ({@code rowBitmap} != {@code null})
+     * @return A new bitmap with the intersection.
+     */
+    public RowBitmap and (RowBitmap rowBitmap)
+    {
+        int amount = Math.min(keys.length, rowBitmap.keys.length);
+        int[] resultKeys = new int[amount];
+        Container[] resultContainers = new Container[amount];
+        int amountOfContainers = (int) ConstantsMath.ZERO;
+
+        int i = (int) ConstantsMath.ZERO;
+        int j = (int) ConstantsMath.ZERO;
+        while (i < keys.length && j < rowBitmap.keys.length)
+        {
+            if (keys[i] < rowBitmap.keys[j])
+            {
+                i++;
+            } else if (keys[i] > rowBitmap.keys[j])
+            {
+                j++;
+            } else
+            {
+                Container container = and(containers[i], rowBitmap.containers[j]);
+                if (container != null)
+                {
+                    resultKeys[amountOfContainers] = keys[i];
+                    resultContainers[amountOfContainers++] = container;
+                }
+                i++;
+                j++;
+            }
+        }
+        return new RowBitmap(resultKeys, resultContainers, amountOfContainers);
+    }
+
+
+    /**
+     * Creates the bitmap of the rows that are in at least one of the bitmaps.
+     *
+     * @param rowBitmap The other bitmap.
+     *                  ({@code rowBitmap} != {@code null})
+     * @return A new bitmap with the union.
+     */
+    public RowBitmap or (RowBitmap rowBitmap)
+    {
+        int amount = keys.length + rowBitmap.keys.length;
+        int[] resultKeys = new int[amount];
+        Container[] resultContainers = new Container[amount];
+        int amountOfContainers = (int) ConstantsMath.ZERO;
+
+        int i = (int) ConstantsMath.ZERO;
+        int j = (int) ConstantsMath.ZERO;
+        while (i < keys.length || j < rowBitmap.keys.length)
+        {
+            if (j >= rowBitmap.keys.length || (i < keys.length && keys[i] < rowBitmap.keys[j]))
+            {
+                resultKeys[amountOfContainers] = keys[i];
+                resultContainers[amountOfContainers++] = containers[i++];
+            } else if (i >= keys.length || keys[i] > rowBitmap.keys[j])
+            {
+                resultKeys[amountOfContainers] = rowBitmap.keys[j];
+                resultContainers[amountOfContainers++] = rowBitmap.containers[j++];
+            } else
+            {
+                long[] words = new long[WORDS];
+                containers[i].addTo(words);
+                rowBitmap.containers[j].addTo(words);
+                resultKeys[amountOfContainers] = keys[i];
+                resultContainers[amountOfContainers++] = getContainer(words);
+                i++;
+                j++;
+            }
+        }
+        return new RowBitmap(resultKeys, resultContainers, amountOfContainers);
+    }
+
+
+    /**
+     * Creates the bitmap of the rows that are in this bitmap but not in the other one.
+     *
+     * @param rowBitmap The other bitmap.
+     *                  ({@code rowBitmap} != {@code null})
+     * @return A new bitmap with the difference.
+     */
+    public RowBitmap andNot (RowBitmap rowBitmap)
+    {
+        int[] resultKeys = new int[keys.length];
+        Container[] resultContainers = new Container[keys.length];
+        int amountOfContainers = (int) ConstantsMath.ZERO;
+
+        int j = (int) ConstantsMath.ZERO;
+        for (int i = (int) ConstantsMath.ZERO; i < keys.length; i++)
+        {
+            while (j < rowBitmap.keys.length && rowBitmap.keys[j] < keys[i]) j++;
+            Container container = j < rowBitmap.keys.length && rowBitmap.keys[j] == keys[i]
+                    ? andNot(containers[i], rowBitmap.containers[j]) : containers[i];
+            if (container != null)
+            {
+                resultKeys[amountOfContainers] = keys[i];
+                resultContainers[amountOfContainers++] = container;
+            }
+        }
+        return new RowBitmap(resultKeys, resultContainers, amountOfContainers);
+    }
+
+
+    /**
+     * Creates the bitmap of the rows of a table that are not in this bitmap.
+     *
+     * @param size The amount of rows of the table.
+     * @return A new bitmap with the complement.
+     */
+    public RowBitmap not (int size)
+    {
+        return getRange((int) ConstantsMath.ZERO, size).andNot(this);
+    }
+
+
+    /**
+     * Intersects two containers of the same key.
+     *
+     * @param first  The first container.
+     * @param second The second container.
+     * @return The intersection, or {@code null} if it is empty.
+     */
+    private static Container and (Container first, Container second)
+    {
+        // Arrays are only probed, which is cheaper than building a bitmap for few rows
+        if (first instanceof ArrayContainer) return ((ArrayContainer) first).filter(second, ConstantsMath.bTrue);
+        if (second instanceof ArrayContainer) return ((ArrayContainer) second).filter(first, ConstantsMath.bTrue);
+
+        long[] words = new long[WORDS];
+        long[] secondWords = new long[WORDS];
+        first.addTo(words);
+        second.addTo(secondWords);
+        for (int i = (int) ConstantsMath.ZERO; i < WORDS; i++) words[i] &= secondWords[i];
+        return getContainer(words);
+    }
+
+
+    /**
+     * Removes the values of the second container from the first one of the same key.
+     *
+     * @param first  The container to remove from.
+     * @param second The container with the values to remove.
+     * @return The difference, or {@code null} if it is empty.
+     */
+    private static Container andNot (Container first, Container second)
+    {
+        if (first instanceof ArrayContainer) return ((ArrayContainer) first).filter(second, ConstantsMath.bFalse);
+
+        long[] words = new long[WORDS];
+        long[] secondWords = new long[WORDS];
+        first.addTo(words);
+        second.addTo(secondWords);
+        for (int i = (int) ConstantsMath.ZERO; i < WORDS; i++) words[i] &= ~secondWords[i];
+        return getContainer(words);
+    }
+
+
+    /**
+     * Creates the smallest container for the values of a bitmap.
+     *
+     * @param words The bitmap of the values, may be kept by the container.
+     * @return The container, or {@code null} if no bit is set.
+     */
+    private static Container getContainer (long[] words)
+    {
+        int cardinality = (int) ConstantsMath.ZERO;
+        int amountOfRuns = (int) ConstantsMath.ZERO;
+        long previousWord = (long) ConstantsMath.ZERO;
+        for (long word : words)
+        {
+            cardinality += Long.bitCount(word);
+            // A run starts at every set bit whose lower neighbour is not set
+            amountOfRuns += Long.bitCount(word & ~(word << (int) ConstantsMath.ONE | previousWord >>> (Long.SIZE - (int) ConstantsMath.ONE)));
+            previousWord = word;
+        }
+        if (cardinality == ConstantsMath.ZERO) return null;
+
+        int type = getContainerType(cardinality, amountOfRuns);
+        if (type == BitmapContainer.TYPE) return new BitmapContainer(words, cardinality);
+
+        char[] values = new char[type == ArrayContainer.TYPE ? cardinality : amountOfRuns];
+        char[] lasts = type == RunContainer.TYPE ? new char[amountOfRuns] : null;
+        int amount = (int) ConstantsMath.ZERO;
+        for (int value = nextSetBit(words, (int) ConstantsMath.ZERO); value != ConstantsCSV.NUMBER_DEFAULT_VALUE; value = nextSetBit(words, value + (int) ConstantsMath.ONE))
+        {
+            values[amount] = (char) value;
+            if (type == RunContainer.TYPE)
+            {
+                value = nextClearBit(words, value) - (int) ConstantsMath.ONE;
+                lasts[amount] = (char) value;
+            }
+            amount++;
+        }
+        return type == RunContainer.TYPE ? new RunContainer(values, lasts, cardinality) : new ArrayContainer(values);
+    }
+
+
+    /**
+     * Creates the smallest container for sorted values.
+     *
+     * @param values The values in ascending order, may be kept by the container if it is filled exactly.
+     * @param amount The amount of values.
+     * @return The container, or {@code null} if there are no values.
+     */
+    private static Container getContainer (char[] values, int amount)
+    {
+        if (amount == ConstantsMath.ZERO) return null;
+
+        int amountOfRuns = (int) ConstantsMath.ONE;
+        for (int i = (int) ConstantsMath.ONE; i < amount; i++) if (values[i] != values[i - (int) ConstantsMath.ONE] + (int) ConstantsMath.ONE) amountOfRuns++;
+
+        int type = getContainerType(amount, amountOfRuns);
+        if (type == ArrayContainer.TYPE) return new ArrayContainer(amount == values.length ? values : Arrays.copyOf(values, amount));
+        if (type == BitmapContainer.TYPE)
+        {
+            long[] words = new long[WORDS];
+            for (int i = (int) ConstantsMath.ZERO; i < amount; i++) words[values[i] >>> WORD_BITS] |= (long) ConstantsMath.ONE << values[i];
+            return new BitmapContainer(words, amount);
+        }
+
+        char[] starts = new char[amountOfRuns];
+        char[] lasts = new char[amountOfRuns];
+        int run = (int) ConstantsMath.ZERO;
+        starts[run] = values[(int) ConstantsMath.ZERO];
+        for (int i = (int) ConstantsMath.ONE; i < amount; i++)
+        {
+            if (values[i] != values[i - (int) ConstantsMath.ONE] + (int) ConstantsMath.ONE)
+            {
+                lasts[run++] = values[i - (int) ConstantsMath.ONE];
+                starts[run] = values[i];
+            }
+        }
+        lasts[run] = values[amount - (int) ConstantsMath.ONE];
+        return new RunContainer(starts, lasts, amount);
+    }
+
+
+    /**
+     * Chooses the form of a container that needs the fewest bytes.
+     *
+     * @param cardinality  The amount of values.
+     * @param amountOfRuns The amount of runs of consecutive values.
+     * @return The type of the container.
+     */
+    private static int getContainerType (int cardinality, int amountOfRuns)
+    {
+        long arrayBytes = (long) Character.BYTES * cardinality;
+        long runBytes = (long) ConstantsMath.TWO * Character.BYTES * amountOfRuns;
+        long bitmapBytes = (long) Long.BYTES * WORDS;
+        if (runBytes < Math.min(arrayBytes, bitmapBytes)) return RunContainer.TYPE;
+        return cardinality <= ConstantsDatasets.BITMAP_ARRAY_CONTAINER_MAXIMUM ? ArrayContainer.TYPE : BitmapContainer.TYPE;
+    }
+
+
+    /**
+     * Retrieves the first set bit of a bitmap that is not before a given bit.
+     *
+     * @param words The bitmap.
+     * @param bit   The bit to start from.
+     * @return The next set bit, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if there is none.
+     */
+    private static int nextSetBit (long[] words, int bit)
+    {
+        int index = bit >>> WORD_BITS;
+        if (index >= words.length) return ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        long word = words[index] & (-(long) ConstantsMath.ONE << bit);
+        while (word == ConstantsMath.ZERO)
+        {
+            if (++index == words.length) return ConstantsCSV.NUMBER_DEFAULT_VALUE;
+            word = words[index];
+        }
+        return (index << WORD_BITS) + Long.numberOfTrailingZeros(word);
+    }
+
+
+    /**
+     * Retrieves the first clear bit of a bitmap that is not before a given bit.
+     *
+     * @param words The bitmap.
+     * @param bit   The bit to start from.
+     * @return The next clear bit, which is the length of the bitmap in bits if all following bits are set.
+     */
+    private static int nextClearBit (long[] words, int bit)
+    {
+        int index = bit >>> WORD_BITS;
+        if (index >= words.length) return bit;
+        long word = ~words[index] & (-(long) ConstantsMath.ONE << bit);
+        while (word == ConstantsMath.ZERO)
+        {
+            if (++index == words.length) return words.length << WORD_BITS;
+            word = ~words[index];
+        }
+        return (index << WORD_BITS) + Long.numberOfTrailingZeros(word);
+    }
+
+
+    /**
+     * The Builder class creates a RowBitmap from rows that are added in ascending order, one container at a time.
+     * The rows of the open container are buffered as runs, so a range of rows is appended in one step per container.
+     */
+    public static class Builder
+    {
+        private int[] builtKeys = new int[(int) ConstantsMath.ZERO];
+        private Container[] builtContainers = new Container[(int) ConstantsMath.ZERO];
+        private int amountOfContainers;
+        private int key = ConstantsCSV.NUMBER_DEFAULT_VALUE; // Upper bits of the rows in the buffer
+        private char[] starts = new char[(int) ConstantsMath.TWO]; // First value of each buffered run
+        private char[] lasts = new char[(int) ConstantsMath.TWO]; // Last value of each buffered run
+        private int amountOfRuns;
+        private int amountOfValues;
+        private int lastRow = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+
+
+        /**
+         * Adds a row behind all rows added before.
+         *
+         * @param row The row.
+         * @throws IllegalArgumentException if the row is not greater than the row added before.
+         */
+        public void add (int row)
+        {
+            addRange(row, row + (int) ConstantsMath.ONE);
+        }
+
+
+        /**
+         * Adds a range of rows behind all rows added before, as one run per container it touches.
+         *
+         * @param start The first row of the range.
+         * @param end   The row after the range.
+         * @throws IllegalArgumentException if the range does not start after the row added before.
+         */
+        public void addRange (int start, int end)
+        {
+            if (end <= start) return;
+            if (start <= lastRow || start < ConstantsMath.ZERO) throw new IllegalArgumentException(String.valueOf(start));
+            lastRow = end - (int) ConstantsMath.ONE;
+
+            for (int first = start; first < end; )
+            {
+                int last = Math.min(end - (int) ConstantsMath.ONE, first | LOW_MASK); // Last row of the range in this container
+                int rowKey = first >>> ConstantsDatasets.BITMAP_CONTAINER_BITS;
+                if (rowKey != key)
+                {
+                    flush();
+                    key = rowKey;
+                }
+                addRun(first & LOW_MASK, last & LOW_MASK);
+                first = last + (int) ConstantsMath.ONE;
+            }
+        }
+
+
+        /**
+         * Creates the bitmap of all rows added so far.
+         *
+         * @return A new bitmap.
+         */
+        public RowBitmap build ()
+        {
+            flush();
+            key = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+            return amountOfContainers == ConstantsMath.ZERO ? EMPTY : new RowBitmap(builtKeys, builtContainers, amountOfContainers);
+        }
+
+
+        /**
+         * Appends values to the open container, extending the last run if they follow it directly.
+         *
+         * @param first The first value.
+         * @param last  The last value.
+         */
+        private void addRun (int first, int last)
+        {
+            if (amountOfRuns > ConstantsMath.ZERO && lasts[amountOfRuns - (int) ConstantsMath.ONE] + (int) ConstantsMath.ONE == first)
+            {
+                lasts[amountOfRuns - (int) ConstantsMath.ONE] = (char) last;
+            } else
+            {
+                if (amountOfRuns == starts.length)
+                {
+                    int capacity = Math.min(CONTAINER_ROWS, starts.length << (int) ConstantsMath.ONE);
+                    starts = Arrays.copyOf(starts, capacity);
+                    lasts = Arrays.copyOf(lasts, capacity);
+                }
+                starts[amountOfRuns] = (char) first;
+                lasts[amountOfRuns++] = (char) last;
+            }
+            amountOfValues += last - first + (int) ConstantsMath.ONE;
+        }
+
+
+        /**
+         * Turns the buffered runs into the smallest container.
+         */
+        private void flush ()
+        {
+            if (amountOfRuns == ConstantsMath.ZERO) return;
+
+            Container container;
+            int type = getContainerType(amountOfValues, amountOfRuns);
+            if (type == ArrayContainer.TYPE)
+            {
+                char[] values = new char[amountOfValues];
+                int amount = (int) ConstantsMath.ZERO;
+                for (int run = (int) ConstantsMath.ZERO; run < amountOfRuns; run++)
+                {
+                    for (int value = starts[run]; value <= lasts[run]; value++) values[amount++] = (char) value;
+                }
+                container = new ArrayContainer(values);
+            } else
+            {
+                container = new RunContainer(Arrays.copyOf(starts, amountOfRuns), Arrays.copyOf(lasts, amountOfRuns), amountOfValues);
+                if (type == BitmapContainer.TYPE)
+                {
+                    long[] words = new long[WORDS];
+                    container.addTo(words); // Fills whole words per run
+                    container = new BitmapContainer(words, amountOfValues);
+                }
+            }
+
+            if (amountOfContainers == builtKeys.length)
+            {
+                int capacity = Math.max((int) ConstantsMath.ONE, builtKeys.length << (int) ConstantsMath.ONE);
+                builtKeys = Arrays.copyOf(builtKeys, capacity);
+                builtContainers = Arrays.copyOf(builtContainers, capacity);
+            }
+            builtKeys[amountOfContainers] = key;
+            builtContainers[amountOfContainers++] = container;
+            amountOfRuns = (int) ConstantsMath.ZERO;
+            amountOfValues = (int) ConstantsMath.ZERO;
+        }
+    }
+
+
+    /**
+     * The Container class holds the lower bits of the rows that share the same upper bits.
+     * A container always holds at least one value.
+     */
+    private abstract static class Container
+    {
+        /**
+         * Retrieves the amount of values in the container.
+         *
+         * @return The amount of values.
+         */
+        abstract int getCardinality ();
+
+
+        /**
+         * Checks whether a value is in the container.
+         *
+         * @param value The lower bits of a row.
+         * @return {@code true} if the value is in the container, {@code false} otherwise.
+         */
+        abstract boolean contains (int value);
+
+
+        /**
+         * Retrieves the first value of the container that is not below a given value.
+         *
+         * @param value The value to start from.
+         * @return The next value, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if there is none.
+         */
+        abstract int getNextValue (int value);
+
+
+        /**
+         * Sets the bits of all values of the container.
+         *
+         * @param words The bitmap to add the values to.
+         */
+        abstract void addTo (long[] words);
+    }
+
+
+    /**
+     * The ArrayContainer class holds up to {@link ConstantsDatasets#BITMAP_ARRAY_CONTAINER_MAXIMUM} values in a sorted array.
+     */
+    private static class ArrayContainer extends Container
+    {
+        private static final int TYPE = (int) ConstantsMath.ZERO;
+        private final char[] values;
+
+
+        private ArrayContainer (char[] values)
+        {
+            this.values = values;
+        }
+
+
+        /**
+         * Keeps the values that are, or are not, in another container.
+         *
+         * @param container The other container.
+         * @param keep      {@code true} to keep the values in the other container, {@code false} to keep the others.
+         * @return The remaining values, or {@code null} if none is left.
+         */
+        private Container filter (Container container, boolean keep)
+        {
+            char[] remaining = new char[values.length];
+            int amount = (int) ConstantsMath.ZERO;
+            for (char value : values) if (container.contains(value) == keep) remaining[amount++] = value;
+            return amount == values.length ? this : getContainer(remaining, amount);
+        }
+
+
+        @Override
+        int getCardinality ()
+        {
+            return values.length;
+        }
+
+
+        @Override
+        boolean contains (int value)
+        {
+            return Arrays.binarySearch(values, (char) value) >= ConstantsMath.ZERO;
+        }
+
+
+        @Override
+        int getNextValue (int value)
+        {
+            int position = Arrays.binarySearch(values, (char) value);
+            if (position < ConstantsMath.ZERO) position = -position - (int) ConstantsMath.ONE;
+            return position < values.length ? values[position] : ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        }
+
+
+        @Override
+        void addTo (long[] words)
+        {
+            for (char value : values) words[value >>> WORD_BITS] |= (long) ConstantsMath.ONE << value;
+        }
+    }
+
+
+    /**
+     * The BitmapContainer class holds the values as one bit each.
+     */
+    private static class BitmapContainer extends Container
+    {
+        private static final int TYPE = (int) ConstantsMath.ONE;
+        private final long[] words;
+        private final int cardinality;
+
+
+        private BitmapContainer (long[] words, int cardinality)
+        {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+
+        @Override
+        int getCardinality ()
+        {
+            return cardinality;
+        }
+
+
+        @Override
+        boolean contains (int value)
+        {
+            return (words[value >>> WORD_BITS] & (long) ConstantsMath.ONE << value) != ConstantsMath.ZERO;
+        }
+
+
+        @Override
+        int getNextValue (int value)
+        {
+            return nextSetBit(words, value);
+        }
+
+
+        @Override
+        void addTo (long[] words)
+        {
+            for (int i = (int) ConstantsMath.ZERO; i < WORDS; i++) words[i] |= this.words[i];
+        }
+    }
+
+
+    /**
+     * The RunContainer class holds the values as runs of consecutive values, each stored by its first and last value.
+     */
+    private static class RunContainer extends Container
+    {
+        private static final int TYPE = (int) ConstantsMath.TWO;
+        private final char[] starts;
+        private final char[] lasts;
+        private final int cardinality;
+
+
+        private RunContainer (char[] starts, char[] lasts, int cardinality)
+        {
+            this.starts = starts;
+            this.lasts = lasts;
+            this.cardinality = cardinality;
+        }
+
+
+        /**
+         * Retrieves the run that starts at or before a value.
+         *
+         * @param value The value.
+         * @return The position of the run, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if all runs start after the value.
+         */
+        private int getRun (int value)
+        {
+            int position = Arrays.binarySearch(starts, (char) value);
+            return position >= ConstantsMath.ZERO ? position : -position - (int) ConstantsMath.TWO;
+        }
+
+
+        @Override
+        int getCardinality ()
+        {
+            return cardinality;
+        }
+
+
+        @Override
+        boolean contains (int value)
+        {
+            int run = getRun(value);
+            return run != ConstantsCSV.NUMBER_DEFAULT_VALUE && value <= lasts[run];
+        }
+
+
+        @Override
+        int getNextValue (int value)
+        {
+            int run = getRun(value);
+            if (run != ConstantsCSV.NUMBER_DEFAULT_VALUE && value <= lasts[run]) return value;
+            return run + (int) ConstantsMath.ONE < starts.length ? starts[run + (int) ConstantsMath.ONE] : ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        }
+
+
+        @Override
+        void addTo (long[] words)
+        {
+            for (int run = (int) ConstantsMath.ZERO; run < starts.length; run++)
+            {
+                int first = starts[run];
+                int end = lasts[run] + (int) ConstantsMath.ONE;
+                int firstWord = first >>> WORD_BITS;
+                int lastWord = (end - (int) ConstantsMath.ONE) >>> WORD_BITS;
+                long firstMask = -(long) ConstantsMath.ONE << first;
+                long lastMask = -(long) ConstantsMath.ONE >>> -end;
+                if (firstWord == lastWord)
+                {
+                    words[firstWord] |= firstMask & lastMask;
+                } else
+                {
+                    words[firstWord] |= firstMask;
+                    for (int i = firstWord + (int) ConstantsMath.ONE; i < lastWord; i++) words[i] = -(long) ConstantsMath.ONE;
+                    words[lastWord] |= lastMask;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package model;
+
+
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+
+/**
+ * The Trait enum names the traits of a tree in the order of their indices in the CSV file.
+ * It offers typed accessors that read a trait directly as primitive or dictionary code, so no text has to be created
+ * and parsed back on every access.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public enum Trait
+{
+    ID(ConstantsDatasets.INDEX_ID),
+    NAME(ConstantsDatasets.INDEX_Name),
+    TYPE_GERMAN(ConstantsDatasets.INDEX_TypeGerman),
+    TYPE_BOTANICAL(ConstantsDatasets.INDEX_TypeBotanical),
+    SPECIES_GERMAN(ConstantsDatasets.INDEX_SpeciesGerman),
+    SPECIES_BOTANICAL(ConstantsDatasets.INDEX_SpeciesBotanical),
+    YEAR_OF_PLANTATION(ConstantsDatasets.INDEX_YearOfPlantation),
+    AGE(ConstantsDatasets.INDEX_Age),
+    CRONE_DIAMETER_M(ConstantsDatasets.INDEX_CroneDiameterM),
+    CIRCUMFERENCE_CM(ConstantsDatasets.INDEX_CircumferenceCM),
+    HEIGHT_M(ConstantsDatasets.INDEX_HeightM),
+    DISTRICT(ConstantsDatasets.INDEX_District);
+
+    private static final Trait[] TRAITS = new Trait[ConstantsDatasets.AMOUNT_OF_ATTRIBUTES];
+
+    static
+    {
+        for (Trait trait : values()) TRAITS[trait.index] = trait;
+    }
+
+    private final int index;
+
+
+    Trait (int index)
+    {
+        this.index = index;
+    }
+
+
+    /**
+     * Retrieves the trait at an index of the CSV file.
+     *
+     * @param index The index of the trait.
+     * @return The trait at the index.
+     * @throws IllegalArgumentException if there is no trait at the index.
+     */
+    public static Trait of (int index)
+    {
+        if (index < ConstantsMath.ZERO || index >= TRAITS.length) throw new IllegalArgumentException(String.valueOf(index));
+        return TRAITS[index];
+    }
+
+
+    /**
+     * Retrieves the index of the trait in the CSV file.
+     *
+     * @return The index of the trait.
+     */
+    public int getIndex ()
+    {
+        return index;
+    }
+
+
+    /**
+     * Indicates whether the trait is a number.
+     *
+     * @return {@code true} if the trait is numeric; {@code false} if it is a dictionary-coded string.
+     */
+    public boolean isNumeric ()
+    {
+        return !TraitDictionary.isEncoded(index);
+    }
+
+
+    /**
+     * Reads a whole-number trait of a tree.
+     *
+     * @param tree The tree.
+     *             ({@code tree} != {@code null})
+     * @return The value of the trait.
+     * @throws UnsupportedOperationException if the trait is not a whole number.
+     */
+    public int getInt (Tree tree)
+    {
+        switch (this)
+        {
+            case ID:
+                return tree.getID();
+            case YEAR_OF_PLANTATION:
+                return tree.getYearOfPlantation();
+            case AGE:
+                return tree.getAge();
+            case CIRCUMFERENCE_CM:
+                return tree.getCircumferenceCM();
+            default:
+                throw new UnsupportedOperationException(name());
+        }
+    }
+
+
+    /**
+     * Reads a numeric trait of a tree.
+     *
+     * @param tree The tree.
+     *             ({@code tree} != {@code null})
+     * @return The value of the trait.
+     * @throws UnsupportedOperationException if the trait is not numeric.
+     */
+    public double getDouble (Tree tree)
+    {
+        switch (this)
+        {
+            case CRONE_DIAMETER_M:
+                return tree.getCroneDiameterM();
+            case HEIGHT_M:
+                return tree.getHeightM();
+            default:
+                return getInt(tree);
+        }
+    }
+
+
+    /**
+     * Reads the dictionary code of a string trait of a tree.
+     *
+     * @param tree The tree.
+     *             ({@code tree} != {@code null})
+     * @return The code of the value in the {@link TraitDictionary} of the trait.
+     * @throws UnsupportedOperationException if the trait is numeric.
+     */
+    public int getCode (Tree tree)
+    {
+        if (isNumeric()) throw new UnsupportedOperationException(name());
+        return tree.getCode(index);
+    }
+
+
+    /**
+     * Reads a numeric trait of a row of a table.
+     *
+     * @param treeTable The table.
+     *                  ({@code treeTable} != {@code null})
+     * @param row       The row of the tree.
+     * @return The value of the trait.
+     * @throws UnsupportedOperationException if the trait is not numeric.
+     */
+    public double getDouble (TreeTable treeTable, int row)
+    {
+        if (!isNumeric()) throw new UnsupportedOperationException(name());
+        return treeTable.getNumber(row, index);
+    }
+}
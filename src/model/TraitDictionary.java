@@ -0,0 +1,134 @@
+package model;
+
+
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * The TraitDictionary class assigns dense int codes to the values of a string trait, like the district or the species.
+ * There is one shared dictionary per string trait, so every tree stores a code instead of its own string instance,
+ * and equal values can be compared and hashed as ints.
+ * Dictionaries can be used by several threads at once, looking up a code or a value never blocks.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class TraitDictionary
+{
+    private static final int INITIAL_CAPACITY = 256;
+    private static final TraitDictionary[] DICTIONARIES = new TraitDictionary[ConstantsDatasets.AMOUNT_OF_ATTRIBUTES];
+
+    static
+    {
+        DICTIONARIES[ConstantsDatasets.INDEX_Name] = new TraitDictionary();
+        DICTIONARIES[ConstantsDatasets.INDEX_TypeGerman] = new TraitDictionary();
+        DICTIONARIES[ConstantsDatasets.INDEX_TypeBotanical] = new TraitDictionary();
+        DICTIONARIES[ConstantsDatasets.INDEX_SpeciesGerman] = new TraitDictionary();
+        DICTIONARIES[ConstantsDatasets.INDEX_SpeciesBotanical] = new TraitDictionary();
+        DICTIONARIES[ConstantsDatasets.INDEX_District] = new TraitDictionary();
+    }
+
+    private final ConcurrentHashMap<String, Integer> valueToCode = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[INITIAL_CAPACITY];
+    private int size; // Only changed while holding the lock
+
+
+    /**
+     * Retrieves the shared dictionary of a string trait.
+     *
+     * @param traitIndex The index of the trait.
+     * @return The dictionary of the trait.
+     * @throws IllegalArgumentException if the trait is not a string trait.
+     */
+    public static TraitDictionary getDictionary (int traitIndex)
+    {
+        if (!isEncoded(traitIndex)) throw new IllegalArgumentException(String.valueOf(traitIndex));
+        return DICTIONARIES[traitIndex];
+    }
+
+
+    /**
+     * Indicates whether the values of a trait are dictionary-coded.
+     *
+     * @param traitIndex The index of the trait.
+     * @return {@code true} if the trait is a string trait with a dictionary; {@code false} otherwise.
+     */
+    public static boolean isEncoded (int traitIndex)
+    {
+        return traitIndex >= ConstantsMath.ZERO && traitIndex < DICTIONARIES.length && DICTIONARIES[traitIndex] != null;
+    }
+
+
+    /**
+     * Retrieves the code of a value, assigning the next free code if the value is new.
+     *
+     * @param value The value of the trait.
+     * @return The code of the value, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the value is {@code null}.
+     */
+    public int getCode (String value)
+    {
+        if (value == null) return ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        Integer code = valueToCode.get(value);
+        return code != null ? code : addValue(value);
+    }
+
+
+    /**
+     * Retrieves the code of a value without assigning a new one.
+     *
+     * @param value The value of the trait.
+     * @return The code of the value, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the value has no code.
+     */
+    public int findCode (String value)
+    {
+        Integer code = value == null ? null : valueToCode.get(value);
+        return code != null ? code : ConstantsCSV.NUMBER_DEFAULT_VALUE;
+    }
+
+
+    /**
+     * Retrieves the value a code stands for.
+     *
+     * @param code The code of the value.
+     * @return The value of the code, or {@code null} if the code is {@link ConstantsCSV#NUMBER_DEFAULT_VALUE}.
+     */
+    public String getValue (int code)
+    {
+        return code == ConstantsCSV.NUMBER_DEFAULT_VALUE ? null : values[code];
+    }
+
+
+    /**
+     * Retrieves the amount of codes assigned so far. Codes are always below this amount.
+     *
+     * @return The amount of values in the dictionary.
+     */
+    public synchronized int size ()
+    {
+        return size;
+    }
+
+
+    /**
+     * Adds a value to the dictionary, unless another thread has added it in the meantime.
+     * The value is stored before its code is published, so every thread that sees the code can also look up the value.
+     *
+     * @param value The new value.
+     * @return The code of the value.
+     */
+    private synchronized int addValue (String value)
+    {
+        Integer code = valueToCode.get(value);
+        if (code != null) return code; // Added by another thread
+
+        if (size == values.length) values = Arrays.copyOf(values, size * (int) ConstantsMath.TWO);
+        values[size] = value;
+        valueToCode.put(value, size);
+        return size++;
+    }
+}
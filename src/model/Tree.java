@@ -2,10 +2,8 @@ package model;
 
 
 import model.exceptions.InvalidTraitException;
-import utility.constants.ConstantsCSV;
 import utility.constants.ConstantsDatasets;
 import utility.constants.ConstantsMath;
-import utility.constants.ConstantsTreeRestrictions;
 
 
 /**
@@ -22,7 +20,8 @@ public class Tree
     private Age age;
     private PlantMeasurements plantMeasurements;
     private Location location;
-    boolean isDeciduous;
+    private boolean isDeciduous;
+    private int repairedTraits; // Bit per trait index whose value was filled in by the data repair
 
 
     /**
@@ -70,6 +69,93 @@ public class Tree
     }
 
 
+    /**
+     * Constructor for creating a Tree object from an array of repaired traits.
+     * The array must contain valid traits for the tree.
+     *
+     * @param traits         An array containing traits of the tree.
+     * @param isDeciduous    A boolean indicating whether the tree is deciduous.
+     * @param repairedTraits The traits that were filled in by the data repair, bit {@code 1 << index} per trait.
+     * @throws InvalidTraitException if the traits array contains invalid or null values.
+     */
+    public Tree (String[] traits, boolean isDeciduous, int repairedTraits) throws InvalidTraitException
+    {
+        this(traits, isDeciduous);
+        this.repairedTraits = repairedTraits;
+    }
+
+
+    /**
+     * Constructor for creating a Tree object from already validated values, for example from a snapshot.
+     *
+     * @param id               The number of the tree.
+     * @param name             The name of the tree.
+     * @param typeGerman       The German type of the tree.
+     * @param typeBotanical    The botanical type of the tree.
+     * @param speciesGerman    The German species of the tree.
+     * @param speciesBotanical The botanical species of the tree.
+     * @param yearOfPlantation The year of the tree's plantation.
+     * @param age              The age of the tree.
+     * @param croneDiameterM   The diameter of the tree's crone in meters.
+     * @param circumferenceCM  The circumference of the tree in centimeters.
+     * @param heightM          The height of the tree in meters.
+     * @param district         The district the tree is located in.
+     * @param isDeciduous      A boolean indicating whether the tree is deciduous.
+     */
+    public Tree (int id, String name, String typeGerman, String typeBotanical, String speciesGerman,
+                 String speciesBotanical, int yearOfPlantation, int age, double croneDiameterM, int circumferenceCM,
+                 float heightM, String district, boolean isDeciduous)
+    {
+        this(id, name, typeGerman, typeBotanical, speciesGerman, speciesBotanical, yearOfPlantation, age, croneDiameterM,
+                circumferenceCM, heightM, district, isDeciduous, (int) ConstantsMath.ZERO);
+    }
+
+
+    /**
+     * Constructor for creating a Tree object from already validated values, including the traits that were repaired.
+     *
+     * @param id               The number of the tree.
+     * @param name             The name of the tree.
+     * @param typeGerman       The German type of the tree.
+     * @param typeBotanical    The botanical type of the tree.
+     * @param speciesGerman    The German species of the tree.
+     * @param speciesBotanical The botanical species of the tree.
+     * @param yearOfPlantation The year of the tree's plantation.
+     * @param age              The age of the tree.
+     * @param croneDiameterM   The diameter of the tree's crone in meters.
+     * @param circumferenceCM  The circumference of the tree in centimeters.
+     * @param heightM          The height of the tree in meters.
+     * @param district         The district the tree is located in.
+     * @param isDeciduous      A boolean indicating whether the tree is deciduous.
+     * @param repairedTraits   The traits that were filled in by the data repair, bit {@code 1 << index} per trait.
+     */
+    public Tree (int id, String name, String typeGerman, String typeBotanical, String speciesGerman,
+                 String speciesBotanical, int yearOfPlantation, int age, double croneDiameterM, int circumferenceCM,
+                 float heightM, String district, boolean isDeciduous, int repairedTraits)
+    {
+        this.id = id;
+        this.plantInformation = new PlantInformation(name, typeGerman, typeBotanical, speciesGerman, speciesBotanical);
+        this.age = new Age(yearOfPlantation, age);
+        this.plantMeasurements = new PlantMeasurements(croneDiameterM, circumferenceCM, heightM);
+        this.location = new Location(district);
+        this.isDeciduous = isDeciduous;
+        this.repairedTraits = repairedTraits;
+    }
+
+
+    /**
+     * Constructor for creating a Tree object from traits that were already parsed and validated once.
+     * Invalid traits have to be set to default beforehand.
+     *
+     * @param treeTraits The parsed traits of the tree.
+     *                   ({@code treeTraits} != {@code null} && {@code treeTraits.getInvalidTraits()} == 0 && {@code treeTraits.hasValidID()})
+     */
+    public Tree (TreeTraits treeTraits)
+    {
+        init(treeTraits);
+    }
+
+
     /**
      * Initializes the Tree object with traits from the provided array.
      * This method validates the traits and sets up the Tree object accordingly.
@@ -79,150 +165,99 @@ public class Tree
      */
     private void init (String[] traits) throws InvalidTraitException
     {
-        for (int i = (int) ConstantsMath.ZERO; i < traits.length; i++) // Iterates through traits
-        {
-            if (traits[i] == null) throw new InvalidTraitException(i); // Throws exception if one of the traits is null
-        }
+        TreeTraits treeTraits = new TreeTraits(traits); // Parses every trait once
 
-        // Checks whether number is not convertible to Integer
-        if (!isParsable(traits[ConstantsDatasets.INDEX_YearOfPlantation], Integer.class))
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_YearOfPlantation);
-        } else if (
-                Integer.parseInt(traits[ConstantsDatasets.INDEX_YearOfPlantation]) > ConstantsTreeRestrictions.MAX_yearOfPlanting ||
-                        (
-                                Integer.parseInt(traits[ConstantsDatasets.INDEX_YearOfPlantation]) < ConstantsTreeRestrictions.MIN_yearOfPlanting &&
-                                        Integer.parseInt(traits[ConstantsDatasets.INDEX_YearOfPlantation]) != ConstantsCSV.NUMBER_DEFAULT_VALUE
-                        )
-        ) // Checks whether number exceeds maximum or is below minimum (excluding default value)
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_YearOfPlantation);
-        }
+        // Reports the first invalid trait: missing traits before numbers that are not convertible or out of range
+        if (treeTraits.getInvalidTraits() != ConstantsMath.ZERO)
+            throw new InvalidTraitException(treeTraits.getFirstInvalidTrait());
+        if (!treeTraits.hasValidID())
+            throw new NumberFormatException(traits[ConstantsDatasets.INDEX_ID]); // ID is not convertible to Integer
 
-        // Checks whether age is not convertible to Integer
-        if (!isParsable(traits[ConstantsDatasets.INDEX_Age], Integer.class))
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_Age);
-        } else if (
-                Integer.parseInt(traits[ConstantsDatasets.INDEX_Age]) > ConstantsTreeRestrictions.MAX_age ||
-                        (
-                                Integer.parseInt(traits[ConstantsDatasets.INDEX_Age]) < ConstantsTreeRestrictions.MIN_age &&
-                                        Integer.parseInt(traits[ConstantsDatasets.INDEX_Age]) != ConstantsCSV.NUMBER_DEFAULT_VALUE
-                        )
-        ) // Checks whether number exceeds maximum or is below minimum (excluding default value)
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_Age);
-        }
-
-        // Checks whether number is not convertible to Double
-        if (!isParsable(traits[ConstantsDatasets.INDEX_CroneDiameterM], Double.class))
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_CroneDiameterM);
-        } else if (
-                Double.parseDouble(traits[ConstantsDatasets.INDEX_CroneDiameterM]) > ConstantsTreeRestrictions.MAX_croneDiameterM ||
-                        (
-                                Double.parseDouble(traits[ConstantsDatasets.INDEX_CroneDiameterM]) < ConstantsTreeRestrictions.MIN_MEASUREMENT_VALUE &&
-                                        Double.parseDouble(traits[ConstantsDatasets.INDEX_CroneDiameterM]) != ConstantsCSV.NUMBER_DEFAULT_VALUE
-                        )
-        ) // Checks whether number exceeds maximum or is below minimum (excluding default value)
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_CroneDiameterM);
-        }
+        // Else accepts values
+        init(treeTraits);
+    }
 
-        // Checks whether number is not convertible to Integer
-        if (!isParsable(traits[ConstantsDatasets.INDEX_CircumferenceCM], Integer.class))
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_CircumferenceCM);
-        } else if (
-                Integer.parseInt(traits[ConstantsDatasets.INDEX_CircumferenceCM]) > ConstantsTreeRestrictions.MAX_circumferenceCM ||
-                        (
-                                Integer.parseInt(traits[ConstantsDatasets.INDEX_CircumferenceCM]) < ConstantsTreeRestrictions.MIN_MEASUREMENT_VALUE &&
-                                        Integer.parseInt(traits[ConstantsDatasets.INDEX_CircumferenceCM]) != ConstantsCSV.NUMBER_DEFAULT_VALUE
-                        )
-        ) // Checks whether number exceeds maximum or is below minimum (excluding default value)
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_CircumferenceCM);
-        }
 
-        // Checks whether number is not convertible to Float
-        if (!isParsable(traits[ConstantsDatasets.INDEX_HeightM], Float.class))
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_HeightM);
-        } else if (
-                Float.parseFloat(traits[ConstantsDatasets.INDEX_HeightM]) > ConstantsTreeRestrictions.MAX_heightM ||
-                        (
-                                Float.parseFloat(traits[ConstantsDatasets.INDEX_HeightM]) < ConstantsTreeRestrictions.MIN_MEASUREMENT_VALUE &&
-                                        Float.parseFloat(traits[ConstantsDatasets.INDEX_HeightM]) != ConstantsCSV.NUMBER_DEFAULT_VALUE
-                        )
-        ) // Checks whether number exceeds maximum or is below minimum (excluding default value)
-        {
-            throw new InvalidTraitException(ConstantsDatasets.INDEX_HeightM);
-        }
-
-        // Else accepts values
-        this.id = Integer.parseInt(traits[ConstantsDatasets.INDEX_ID]);
+    /**
+     * Initializes the Tree object with already parsed and validated traits.
+     *
+     * @param treeTraits The parsed traits of the tree.
+     */
+    private void init (TreeTraits treeTraits)
+    {
+        this.id = treeTraits.getID();
         this.plantInformation = new PlantInformation(
-                traits[ConstantsDatasets.INDEX_Name],
-                traits[ConstantsDatasets.INDEX_TypeGerman],
-                traits[ConstantsDatasets.INDEX_TypeBotanical],
-                traits[ConstantsDatasets.INDEX_SpeciesGerman],
-                traits[ConstantsDatasets.INDEX_SpeciesBotanical]
-        );
-        this.age = new Age(
-                Integer.parseInt(traits[ConstantsDatasets.INDEX_YearOfPlantation]),
-                Integer.parseInt(traits[ConstantsDatasets.INDEX_Age])
+                treeTraits.getTrait(ConstantsDatasets.INDEX_Name),
+                treeTraits.getTrait(ConstantsDatasets.INDEX_TypeGerman),
+                treeTraits.getTrait(ConstantsDatasets.INDEX_TypeBotanical),
+                treeTraits.getTrait(ConstantsDatasets.INDEX_SpeciesGerman),
+                treeTraits.getTrait(ConstantsDatasets.INDEX_SpeciesBotanical)
         );
+        this.age = new Age(treeTraits.getYearOfPlantation(), treeTraits.getAge());
         this.plantMeasurements = new PlantMeasurements(
-                Double.parseDouble(traits[ConstantsDatasets.INDEX_CroneDiameterM]),
-                Integer.parseInt(traits[ConstantsDatasets.INDEX_CircumferenceCM]),
-                Float.parseFloat(traits[ConstantsDatasets.INDEX_HeightM]));
-        this.location = new Location(traits[ConstantsDatasets.INDEX_District]);
+                treeTraits.getCroneDiameterM(),
+                treeTraits.getCircumferenceCM(),
+                treeTraits.getHeightM());
+        this.location = new Location(treeTraits.getTrait(ConstantsDatasets.INDEX_District));
     }
 
 
     /**
-     * Checks if the provided value is parsable to the specified target type.
+     * Retrieves the trait value at the specified index.
+     * Numeric traits are converted to text, prefer the typed accessors of {@link Trait} to read them.
      *
-     * @param value      The value to be parsed.
-     * @param targetType The target type to parse the value into (Integer, Float, Double).
-     * @return true if the value is parsable to the target type, false otherwise.
+     * @param index The index of the trait to retrieve.
+     * @return The trait value at the specified index.
      */
-    private boolean isParsable (String value, Class<?> targetType)
+    public String getTrait (int index)
     {
-        try
-        {
-            if (targetType == Integer.class) // Parsable to Integer?
-            {
-                Integer.parseInt(value);
-            } else if (targetType == Float.class) // Parsable to Float?
-            {
-                Float.parseFloat(value);
-            } else if (targetType == Double.class) // Parsable to Double?
-            {
-                Double.parseDouble(value);
-            }
-
-            return ConstantsMath.bTrue; // Successfully parsed
-        } catch (NumberFormatException e)
+        switch (index)
         {
-            return ConstantsMath.bFalse; // Parsing failed
+            case ConstantsDatasets.INDEX_ID:
+                return String.valueOf(getID());
+            case ConstantsDatasets.INDEX_YearOfPlantation:
+                return String.valueOf(getYearOfPlantation());
+            case ConstantsDatasets.INDEX_Age:
+                return String.valueOf(getAge());
+            case ConstantsDatasets.INDEX_CroneDiameterM:
+                return String.valueOf(getCroneDiameterM());
+            case ConstantsDatasets.INDEX_CircumferenceCM:
+                return String.valueOf(getCircumferenceCM());
+            case ConstantsDatasets.INDEX_HeightM:
+                return String.valueOf(getHeightM());
+            default:
+                // String traits are looked up without creating any text
+                return TraitDictionary.getDictionary(index).getValue(getCode(index));
         }
     }
 
 
     /**
-     * Retrieves the trait value at the specified index.
+     * Retrieves the dictionary code of a string trait without looking up the string.
      *
-     * @param index The index of the trait to retrieve.
-     * @return The trait value at the specified index.
+     * @param index The index of a string trait.
+     * @return The code of the trait value in the {@link TraitDictionary} of the trait.
+     * @throws IllegalArgumentException if the trait is not a string trait.
      */
-    public String getTrait (int index)
+    public int getCode (int index)
     {
-        String[] traits = {String.valueOf(getID()), getName(), getTypeGerman(), getTypeBotanical(),
-                getSpeciesGerman(), getSpeciesBotanical(), String.valueOf(getYearOfPlantation()),
-                String.valueOf(getAge()), String.valueOf(getCroneDiameterM()), String.valueOf(getCircumferenceCM()),
-                String.valueOf(getHeightM()), getDistrict()};
-        return traits[index];
+        switch (index)
+        {
+            case ConstantsDatasets.INDEX_Name:
+                return this.plantInformation.getNameCode();
+            case ConstantsDatasets.INDEX_TypeGerman:
+                return this.plantInformation.getTypeGermanCode();
+            case ConstantsDatasets.INDEX_TypeBotanical:
+                return this.plantInformation.getTypeBotanicalCode();
+            case ConstantsDatasets.INDEX_SpeciesGerman:
+                return this.plantInformation.getSpeciesGermanCode();
+            case ConstantsDatasets.INDEX_SpeciesBotanical:
+                return this.plantInformation.getSpeciesBotanicalCode();
+            case ConstantsDatasets.INDEX_District:
+                return this.location.getDistrictCode();
+            default:
+                throw new IllegalArgumentException(String.valueOf(index));
+        }
     }
 
 
@@ -251,6 +286,29 @@ public class Tree
     }
 
 
+    /**
+     * Getter for the traits that were filled in by the data repair.
+     *
+     * @return Bit {@code 1 << index} is set for every repaired trait, 0 if the tree was not repaired.
+     */
+    public int getRepairedTraits ()
+    {
+        return this.repairedTraits;
+    }
+
+
+    /**
+     * Indicates whether a trait was filled in by the data repair instead of being read from the datasets.
+     *
+     * @param index The index of the trait.
+     * @return true if the trait was repaired, otherwise false.
+     */
+    public boolean isRepaired (int index)
+    {
+        return (repairedTraits & ((int) ConstantsMath.ONE << index)) != ConstantsMath.ZERO;
+    }
+
+
     /**
      * Getter for the ID of the tree.
      *
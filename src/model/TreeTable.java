@@ -0,0 +1,648 @@
+package model;
+
+
+import control.CO2Kernel;
+import control.CarbonModelRegistry;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The TreeTable class stores the tree datasets column by column instead of one object per tree.
+ * Numbers are kept in primitive arrays, strings are replaced by int codes pointing into one dictionary per trait.
+ * A row is the index of a tree in every column.
+ * The carbon dioxide stored by each tree is computed once when the table is built and kept as a column as well. Trees
+ * cannot be changed after they were created, so the column always matches the trees of the table.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class TreeTable
+{
+    private static final int[] STRING_TRAITS = {ConstantsDatasets.INDEX_Name, ConstantsDatasets.INDEX_TypeGerman,
+            ConstantsDatasets.INDEX_TypeBotanical, ConstantsDatasets.INDEX_SpeciesGerman,
+            ConstantsDatasets.INDEX_SpeciesBotanical, ConstantsDatasets.INDEX_District};
+
+    private final int size;
+    private final int[] ids;
+    private final int[] years;
+    private final int[] ages;
+    private final double[] croneDiameters;
+    private final int[] circumferences;
+    private final float[] heights;
+    private final BitSet isDeciduous;
+    private final int[] repairedTraits; // Bit per trait index whose value was filled in by the data repair
+    private final int[] co2; // NUMBER_DEFAULT_VALUE for trees outside the look-up table
+    private final StringColumn[] stringColumns = new StringColumn[ConstantsDatasets.AMOUNT_OF_ATTRIBUTES]; // null for numeric traits
+    private final Map<Trait, MeasurementIndex> measurementIndexes = new EnumMap<>(Trait.class); // Built on first use
+    private final BitmapIndex[] bitmapIndexes = new BitmapIndex[ConstantsDatasets.AMOUNT_OF_ATTRIBUTES]; // Built on first use
+    private final Map<Trait, ZoneMap> zoneMaps = new EnumMap<>(Trait.class); // Built on first use
+
+
+    /**
+     * Constructs a TreeTable containing the given trees in the same order.
+     *
+     * @param treeList The list of trees.
+     *                 ({@code treeList} != {@code null})
+     */
+    public TreeTable (List<Tree> treeList)
+    {
+        size = treeList.size();
+        ids = new int[size];
+        years = new int[size];
+        ages = new int[size];
+        croneDiameters = new double[size];
+        circumferences = new int[size];
+        heights = new float[size];
+        isDeciduous = new BitSet(size);
+        repairedTraits = new int[size];
+        int[] models = new int[size]; // Carbon model of the species of each tree
+
+        for (int traitIndex : STRING_TRAITS) stringColumns[traitIndex] = new StringColumn(size, TraitDictionary.getDictionary(traitIndex));
+
+        int row = (int) ConstantsMath.ZERO;
+        for (Tree tree : treeList) // Iterates through treeList
+        {
+            ids[row] = tree.getID();
+            years[row] = tree.getYearOfPlantation();
+            ages[row] = tree.getAge();
+            croneDiameters[row] = tree.getCroneDiameterM();
+            circumferences[row] = tree.getCircumferenceCM();
+            heights[row] = tree.getHeightM();
+            if (tree.getIsDeciduous()) isDeciduous.set(row);
+            repairedTraits[row] = tree.getRepairedTraits();
+
+            stringColumns[ConstantsDatasets.INDEX_Name].add(row, tree.getCode(ConstantsDatasets.INDEX_Name));
+            stringColumns[ConstantsDatasets.INDEX_TypeGerman].add(row, tree.getCode(ConstantsDatasets.INDEX_TypeGerman));
+            stringColumns[ConstantsDatasets.INDEX_TypeBotanical].add(row, tree.getCode(ConstantsDatasets.INDEX_TypeBotanical));
+            stringColumns[ConstantsDatasets.INDEX_SpeciesGerman].add(row, tree.getCode(ConstantsDatasets.INDEX_SpeciesGerman));
+            stringColumns[ConstantsDatasets.INDEX_SpeciesBotanical].add(row, tree.getCode(ConstantsDatasets.INDEX_SpeciesBotanical));
+            stringColumns[ConstantsDatasets.INDEX_District].add(row, tree.getCode(ConstantsDatasets.INDEX_District));
+            models[row] = CarbonModelRegistry.getModel(tree.getCode(ConstantsDatasets.INDEX_SpeciesBotanical));
+            row++;
+        }
+
+        co2 = new int[size];
+        CO2Kernel.getCO2(heights, circumferences, isDeciduous, models, co2, (int) ConstantsMath.ZERO, size);
+    }
+
+
+    /**
+     * Constructs a TreeTable from columns that were stored before, for example in a snapshot, without creating trees.
+     * The arrays are kept by the table and must not be changed afterwards.
+     * A string column is given as its distinct values and one index into these values per row.
+     *
+     * @param ids            The ID per row.
+     * @param years          The year of plantation per row.
+     * @param ages           The age per row.
+     * @param croneDiameters The crone diameter per row.
+     * @param circumferences The circumference per row.
+     * @param heights        The height per row.
+     * @param isDeciduous    The rows of deciduous trees.
+     * @param repairedTraits The traits filled in by the data repair per row.
+     * @param values         The distinct values per trait index, {@code null} for numeric traits.
+     * @param valueIndices   The index into the values per trait index and row, {@code null} for numeric traits.
+     * @throws IllegalArgumentException if a string trait is missing.
+     */
+    public TreeTable (int[] ids, int[] years, int[] ages, double[] croneDiameters, int[] circumferences, float[] heights,
+                      BitSet isDeciduous, int[] repairedTraits, String[][] values, int[][] valueIndices)
+    {
+        size = ids.length;
+        this.ids = ids;
+        this.years = years;
+        this.ages = ages;
+        this.croneDiameters = croneDiameters;
+        this.circumferences = circumferences;
+        this.heights = heights;
+        this.isDeciduous = isDeciduous;
+        this.repairedTraits = repairedTraits;
+        int[] models = new int[size]; // Carbon model of the species of each tree
+
+        for (int traitIndex : STRING_TRAITS)
+        {
+            if (values[traitIndex] == null || valueIndices[traitIndex] == null) throw new IllegalArgumentException(String.valueOf(traitIndex));
+
+            // Each distinct value is looked up in the shared dictionary once
+            TraitDictionary traitDictionary = TraitDictionary.getDictionary(traitIndex);
+            int[] dictionaryCodes = new int[values[traitIndex].length];
+            for (int i = (int) ConstantsMath.ZERO; i < dictionaryCodes.length; i++) dictionaryCodes[i] = traitDictionary.getCode(values[traitIndex][i]);
+
+            stringColumns[traitIndex] = new StringColumn(size, traitDictionary);
+            for (int row = (int) ConstantsMath.ZERO; row < size; row++)
+            {
+                stringColumns[traitIndex].add(row, dictionaryCodes[valueIndices[traitIndex][row]]);
+            }
+            if (traitIndex == ConstantsDatasets.INDEX_SpeciesBotanical)
+            {
+                for (int row = (int) ConstantsMath.ZERO; row < size; row++)
+                {
+                    models[row] = CarbonModelRegistry.getModel(dictionaryCodes[valueIndices[traitIndex][row]]);
+                }
+            }
+        }
+
+        co2 = new int[size];
+        CO2Kernel.getCO2(heights, circumferences, isDeciduous, models, co2, (int) ConstantsMath.ZERO, size);
+    }
+
+
+    /**
+     * Retrieves the amount of trees in the table.
+     *
+     * @return The amount of rows.
+     */
+    public int size ()
+    {
+        return size;
+    }
+
+
+    /**
+     * Creates a Tree object from the values of a row.
+     *
+     * @param row The row of the tree.
+     * @return A new Tree object with the values of the row.
+     */
+    public Tree getTree (int row)
+    {
+        return new Tree(ids[row], getName(row), getTypeGerman(row), getTypeBotanical(row), getSpeciesGerman(row),
+                getSpeciesBotanical(row), years[row], ages[row], croneDiameters[row], circumferences[row],
+                heights[row], getDistrict(row), isDeciduous.get(row), repairedTraits[row]);
+    }
+
+
+    /**
+     * Creates Tree objects from the values of all rows.
+     *
+     * @return A new list with one tree per row, in the order of the table.
+     */
+    public List<Tree> getTrees ()
+    {
+        List<Tree> treeList = new ArrayList<>(size);
+        for (int row = (int) ConstantsMath.ZERO; row < size; row++) treeList.add(getTree(row));
+        return treeList;
+    }
+
+
+    /**
+     * Retrieves the trait value of a row as text, like {@link Tree#getTrait(int)}.
+     *
+     * @param row   The row of the tree.
+     * @param index The index of the trait to retrieve.
+     * @return The trait value at the specified index.
+     */
+    public String getTrait (int row, int index)
+    {
+        switch (index)
+        {
+            case ConstantsDatasets.INDEX_ID:
+                return String.valueOf(ids[row]);
+            case ConstantsDatasets.INDEX_YearOfPlantation:
+                return String.valueOf(years[row]);
+            case ConstantsDatasets.INDEX_Age:
+                return String.valueOf(ages[row]);
+            case ConstantsDatasets.INDEX_CroneDiameterM:
+                return String.valueOf(croneDiameters[row]);
+            case ConstantsDatasets.INDEX_CircumferenceCM:
+                return String.valueOf(circumferences[row]);
+            case ConstantsDatasets.INDEX_HeightM:
+                return String.valueOf(heights[row]);
+            default:
+                return getValue(index, getCode(row, index));
+        }
+    }
+
+
+    /**
+     * Retrieves a numeric trait value of a row without converting it to text.
+     *
+     * @param row   The row of the tree.
+     * @param index The index of a numeric trait.
+     * @return The trait value at the specified index.
+     * @throws IllegalArgumentException if the trait is not numeric.
+     */
+    public double getNumber (int row, int index)
+    {
+        switch (index)
+        {
+            case ConstantsDatasets.INDEX_ID:
+                return ids[row];
+            case ConstantsDatasets.INDEX_YearOfPlantation:
+                return years[row];
+            case ConstantsDatasets.INDEX_Age:
+                return ages[row];
+            case ConstantsDatasets.INDEX_CroneDiameterM:
+                return croneDiameters[row];
+            case ConstantsDatasets.INDEX_CircumferenceCM:
+                return circumferences[row];
+            case ConstantsDatasets.INDEX_HeightM:
+                return heights[row];
+            default:
+                throw new IllegalArgumentException(String.valueOf(index));
+        }
+    }
+
+
+    /**
+     * Retrieves the code of a string trait of a row.
+     * Codes are dense and assigned in the order the values first occur.
+     *
+     * @param row   The row of the tree.
+     * @param index The index of a string trait.
+     * @return The code of the trait value.
+     * @throws IllegalArgumentException if the trait is not a string.
+     */
+    public int getCode (int row, int index)
+    {
+        return getStringColumn(index).codes[row];
+    }
+
+
+    /**
+     * Retrieves the string value a code of a trait stands for.
+     *
+     * @param index The index of a string trait.
+     * @param code  The code of the value.
+     * @return The value of the code.
+     */
+    public String getValue (int index, int code)
+    {
+        return getStringColumn(index).values.get(code);
+    }
+
+
+    /**
+     * Retrieves the amount of different values of a string trait.
+     *
+     * @param index The index of a string trait.
+     * @return The amount of codes of the trait.
+     */
+    public int getAmountOfCodes (int index)
+    {
+        return getStringColumn(index).values.size();
+    }
+
+
+    /**
+     * Retrieves the map of values to codes of a string trait.
+     * The values were inserted in the order they first occur, so iterating the map visits them in the same order as
+     * a map that was built by iterating through the list of trees.
+     *
+     * @param index The index of a string trait.
+     * @return An unmodifiable map from values to codes.
+     */
+    public Map<String, Integer> getCodes (int index)
+    {
+        return Collections.unmodifiableMap(getStringColumn(index).valueToCode);
+    }
+
+
+    /**
+     * Retrieves the index of the rows sorted by a numeric trait. The index is built once, on its first use.
+     *
+     * @param trait The numeric trait.
+     *              ({@code trait} != {@code null})
+     * @return The index of the trait.
+     * @throws UnsupportedOperationException if the trait is not numeric.
+     */
+    public synchronized MeasurementIndex getIndex (Trait trait)
+    {
+        MeasurementIndex measurementIndex = measurementIndexes.get(trait);
+        if (measurementIndex == null)
+        {
+            measurementIndex = new MeasurementIndex(this, trait);
+            measurementIndexes.put(trait, measurementIndex);
+        }
+        return measurementIndex;
+    }
+
+
+    /**
+     * Retrieves the minima and maxima of a numeric trait per segment of rows. The zone map is built once, on its first use.
+     *
+     * @param trait The numeric trait.
+     *              ({@code trait} != {@code null})
+     * @return The zone map of the trait.
+     * @throws UnsupportedOperationException if the trait is not numeric.
+     */
+    public synchronized ZoneMap getZoneMap (Trait trait)
+    {
+        ZoneMap zoneMap = zoneMaps.get(trait);
+        if (zoneMap == null)
+        {
+            zoneMap = new ZoneMap(this, trait);
+            zoneMaps.put(trait, zoneMap);
+        }
+        return zoneMap;
+    }
+
+
+    /**
+     * Retrieves the rows whose value of a numeric trait lies in a range, for example all trees from 20 to 30 meters.
+     * Segments of rows that cannot match are skipped, see {@link ZoneMap}.
+     *
+     * @param trait   The numeric trait.
+     *                ({@code trait} != {@code null})
+     * @param minimum The smallest value of the range, included.
+     * @param maximum The largest value of the range, included.
+     * @return The rows in the range.
+     * @throws UnsupportedOperationException if the trait is not numeric.
+     */
+    public RowBitmap getRows (Trait trait, double minimum, double maximum)
+    {
+        return getZoneMap(trait).getRows(minimum, maximum);
+    }
+
+
+    /**
+     * Retrieves the bitmaps of the rows per value of a string trait. The index is built once, on its first use.
+     *
+     * @param index The index of a string trait.
+     * @return The bitmap index of the trait.
+     * @throws IllegalArgumentException if the trait is not a string.
+     */
+    public synchronized BitmapIndex getBitmapIndex (int index)
+    {
+        getStringColumn(index);
+        if (bitmapIndexes[index] == null) bitmapIndexes[index] = new BitmapIndex(this, index);
+        return bitmapIndexes[index];
+    }
+
+
+    /**
+     * Retrieves the rows with a value of a string trait, for example all trees of one district.
+     *
+     * @param index The index of a string trait.
+     * @param value The value.
+     *              ({@code value} != {@code null})
+     * @return The rows with the value, empty if no tree has it.
+     * @throws IllegalArgumentException if the trait is not a string.
+     */
+    public RowBitmap getRows (int index, String value)
+    {
+        Integer code = getStringColumn(index).valueToCode.get(value);
+        return code == null ? RowBitmap.getEmpty() : getBitmapIndex(index).getRows(code);
+    }
+
+
+    /**
+     * Retrieves all rows of the table, the starting point to negate a filter.
+     *
+     * @return A bitmap of all rows.
+     */
+    public RowBitmap getAllRows ()
+    {
+        return RowBitmap.getRange((int) ConstantsMath.ZERO, size);
+    }
+
+
+    /**
+     * Retrieves the string column of a trait.
+     *
+     * @param index The index of a string trait.
+     * @return The string column.
+     * @throws IllegalArgumentException if the trait is not a string.
+     */
+    private StringColumn getStringColumn (int index)
+    {
+        StringColumn stringColumn = index >= ConstantsMath.ZERO && index < stringColumns.length ? stringColumns[index] : null;
+        if (stringColumn == null) throw new IllegalArgumentException(String.valueOf(index));
+        return stringColumn;
+    }
+
+
+    /**
+     * Getter for the ID of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The number of the tree.
+     */
+    public int getID (int row)
+    {
+        return ids[row];
+    }
+
+
+    /**
+     * Getter for the name of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The name of the tree.
+     */
+    public String getName (int row)
+    {
+        return getTrait(row, ConstantsDatasets.INDEX_Name);
+    }
+
+
+    /**
+     * Getter for the German type of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The German type of the tree.
+     */
+    public String getTypeGerman (int row)
+    {
+        return getTrait(row, ConstantsDatasets.INDEX_TypeGerman);
+    }
+
+
+    /**
+     * Getter for the botanical type of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The botanical type of the tree.
+     */
+    public String getTypeBotanical (int row)
+    {
+        return getTrait(row, ConstantsDatasets.INDEX_TypeBotanical);
+    }
+
+
+    /**
+     * Getter for the German species of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The German species of the tree.
+     */
+    public String getSpeciesGerman (int row)
+    {
+        return getTrait(row, ConstantsDatasets.INDEX_SpeciesGerman);
+    }
+
+
+    /**
+     * Getter for the botanical species of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The botanical species of the tree.
+     */
+    public String getSpeciesBotanical (int row)
+    {
+        return getTrait(row, ConstantsDatasets.INDEX_SpeciesBotanical);
+    }
+
+
+    /**
+     * Getter for the year of plantation of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The year of the tree's plantation.
+     */
+    public int getYearOfPlantation (int row)
+    {
+        return years[row];
+    }
+
+
+    /**
+     * Getter for the age of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The age of the tree.
+     */
+    public int getAge (int row)
+    {
+        return ages[row];
+    }
+
+
+    /**
+     * Getter for the crone diameter of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The diameter of the tree's crone in meters.
+     */
+    public double getCroneDiameterM (int row)
+    {
+        return croneDiameters[row];
+    }
+
+
+    /**
+     * Getter for the circumference of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The circumference of the tree in centimeters.
+     */
+    public int getCircumferenceCM (int row)
+    {
+        return circumferences[row];
+    }
+
+
+    /**
+     * Getter for the height of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The height of the tree in meters.
+     */
+    public float getHeightM (int row)
+    {
+        return heights[row];
+    }
+
+
+    /**
+     * Getter for the carbon dioxide stored by the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The adjusted carbon dioxide storage of the tree, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if the tree
+     * is not in the look-up table.
+     */
+    public int getCO2 (int row)
+    {
+        return co2[row];
+    }
+
+
+    /**
+     * Getter for the district of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return The district the tree is located in.
+     */
+    public String getDistrict (int row)
+    {
+        return getTrait(row, ConstantsDatasets.INDEX_District);
+    }
+
+
+    /**
+     * Getter for whether the tree is deciduous of the tree in a row.
+     *
+     * @param row The row of the tree.
+     * @return true if the tree is deciduous, otherwise false.
+     */
+    public boolean getIsDeciduous (int row)
+    {
+        return isDeciduous.get(row);
+    }
+
+
+    /**
+     * Getter for the traits of the tree in a row that were filled in by the data repair.
+     *
+     * @param row The row of the tree.
+     * @return Bit {@code 1 << index} is set for every repaired trait, see {@link Tree#getRepairedTraits()}.
+     */
+    public int getRepairedTraits (int row)
+    {
+        return repairedTraits[row];
+    }
+
+
+    /**
+     * The StringColumn class holds the codes of one string trait and the dictionary they point into.
+     * The codes of the shared {@link TraitDictionary} are mapped to codes of the table, which are dense and in order of
+     * first occurrence in the table.
+     */
+    private static class StringColumn
+    {
+        private final int[] codes;
+        private final TraitDictionary traitDictionary;
+        private int[] tableCodes; // Table code + 1 per dictionary code, 0 if the value has not occurred yet
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> valueToCode = new HashMap<>();
+
+
+        private StringColumn (int size, TraitDictionary traitDictionary)
+        {
+            this.codes = new int[size];
+            this.traitDictionary = traitDictionary;
+            this.tableCodes = new int[traitDictionary.size()];
+        }
+
+
+        /**
+         * Stores the table code of a value at a row, adding the value to the table if it is new.
+         *
+         * @param row            The row of the tree.
+         * @param dictionaryCode The code of the value in the shared dictionary.
+         */
+        private void add (int row, int dictionaryCode)
+        {
+            if (dictionaryCode >= tableCodes.length) // Code added to the dictionary in the meantime
+                tableCodes = Arrays.copyOf(tableCodes, Math.max(dictionaryCode + (int) ConstantsMath.ONE, traitDictionary.size()));
+
+            if (tableCodes[dictionaryCode] == ConstantsMath.ZERO) // New distinct value
+            {
+                String value = traitDictionary.getValue(dictionaryCode);
+                valueToCode.put(value, values.size());
+                values.add(value);
+                tableCodes[dictionaryCode] = values.size();
+            }
+            codes[row] = tableCodes[dictionaryCode] - (int) ConstantsMath.ONE;
+        }
+    }
+}
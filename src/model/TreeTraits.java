@@ -0,0 +1,361 @@
+package model;
+
+
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+import utility.constants.ConstantsTreeRestrictions;
+
+
+/**
+ * The TreeTraits class validates the traits of one dataset in a single pass without using exceptions.
+ * Every numeric trait is parsed exactly once into a primitive. All invalid traits are collected in a bitmask,
+ * so a dataset can be fixed in one step instead of trait by trait.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class TreeTraits
+{
+    private static final long NOT_PARSABLE = Long.MIN_VALUE; // Returned if a whole number cannot be parsed
+
+    private final String[] traits;
+    private int invalidTraits; // Bit i is set if trait i is invalid
+    private int nullTraits; // Bit i is set if trait i is missing
+    private boolean hasValidID;
+
+    private int id;
+    private int yearOfPlantation;
+    private int age;
+    private double croneDiameterM;
+    private int circumferenceCM;
+    private float heightM;
+
+
+    /**
+     * Constructs a TreeTraits object by parsing and validating the given traits.
+     *
+     * @param traits An array containing the traits of a tree.
+     *               ({@code traits} != {@code null})
+     */
+    public TreeTraits (String[] traits)
+    {
+        this.traits = traits;
+
+        for (int i = (int) ConstantsMath.ZERO; i < traits.length; i++) // Iterates through traits
+        {
+            if (traits[i] == null) nullTraits |= (int) ConstantsMath.ONE << i; // Missing traits are invalid
+        }
+        invalidTraits = nullTraits;
+
+        // ID is not a trait that can be repaired, it makes the whole dataset invalid
+        long parsedID = isNull(ConstantsDatasets.INDEX_ID) ? ConstantsCSV.NUMBER_DEFAULT_VALUE : parseInteger(traits[ConstantsDatasets.INDEX_ID]);
+        hasValidID = parsedID != NOT_PARSABLE;
+        if (hasValidID) id = (int) parsedID;
+
+        if (!isNull(ConstantsDatasets.INDEX_YearOfPlantation))
+        {
+            long value = parseInteger(traits[ConstantsDatasets.INDEX_YearOfPlantation]);
+            yearOfPlantation = (int) value;
+            // Checks whether number exceeds maximum or is below minimum (excluding default value)
+            if (value == NOT_PARSABLE || value > ConstantsTreeRestrictions.MAX_yearOfPlanting ||
+                    (value < ConstantsTreeRestrictions.MIN_yearOfPlanting && value != ConstantsCSV.NUMBER_DEFAULT_VALUE))
+                setInvalid(ConstantsDatasets.INDEX_YearOfPlantation);
+        }
+
+        if (!isNull(ConstantsDatasets.INDEX_Age))
+        {
+            long value = parseInteger(traits[ConstantsDatasets.INDEX_Age]);
+            age = (int) value;
+            // Checks whether number exceeds maximum or is below minimum (excluding default value)
+            if (value == NOT_PARSABLE || value > ConstantsTreeRestrictions.MAX_age ||
+                    (value < ConstantsTreeRestrictions.MIN_age && value != ConstantsCSV.NUMBER_DEFAULT_VALUE))
+                setInvalid(ConstantsDatasets.INDEX_Age);
+        }
+
+        if (!isNull(ConstantsDatasets.INDEX_CroneDiameterM))
+        {
+            String value = traits[ConstantsDatasets.INDEX_CroneDiameterM];
+            if (isDecimal(value)) croneDiameterM = Double.parseDouble(value); // Only parsed when it cannot fail
+            // Checks whether number exceeds maximum or is below minimum (excluding default value)
+            if (!isDecimal(value) || croneDiameterM > ConstantsTreeRestrictions.MAX_croneDiameterM ||
+                    (croneDiameterM < ConstantsTreeRestrictions.MIN_MEASUREMENT_VALUE && croneDiameterM != ConstantsCSV.NUMBER_DEFAULT_VALUE))
+                setInvalid(ConstantsDatasets.INDEX_CroneDiameterM);
+        }
+
+        if (!isNull(ConstantsDatasets.INDEX_CircumferenceCM))
+        {
+            long value = parseInteger(traits[ConstantsDatasets.INDEX_CircumferenceCM]);
+            circumferenceCM = (int) value;
+            // Checks whether number exceeds maximum or is below minimum (excluding default value)
+            if (value == NOT_PARSABLE || value > ConstantsTreeRestrictions.MAX_circumferenceCM ||
+                    (value < ConstantsTreeRestrictions.MIN_MEASUREMENT_VALUE && value != ConstantsCSV.NUMBER_DEFAULT_VALUE))
+                setInvalid(ConstantsDatasets.INDEX_CircumferenceCM);
+        }
+
+        if (!isNull(ConstantsDatasets.INDEX_HeightM))
+        {
+            String value = traits[ConstantsDatasets.INDEX_HeightM];
+            if (isDecimal(value)) heightM = Float.parseFloat(value); // Only parsed when it cannot fail
+            // Checks whether number exceeds maximum or is below minimum (excluding default value)
+            if (!isDecimal(value) || heightM > ConstantsTreeRestrictions.MAX_heightM ||
+                    (heightM < ConstantsTreeRestrictions.MIN_MEASUREMENT_VALUE && heightM != ConstantsCSV.NUMBER_DEFAULT_VALUE))
+                setInvalid(ConstantsDatasets.INDEX_HeightM);
+        }
+    }
+
+
+    /**
+     * Sets all invalid traits to the default value in one step.
+     */
+    public void setInvalidTraitsToDefault ()
+    {
+        for (int i = (int) ConstantsMath.ZERO; i < traits.length; i++)
+        {
+            if (isInvalid(i)) traits[i] = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
+        }
+        if (isInvalid(ConstantsDatasets.INDEX_ID)) id = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        if (isInvalid(ConstantsDatasets.INDEX_YearOfPlantation)) yearOfPlantation = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        if (isInvalid(ConstantsDatasets.INDEX_Age)) age = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        if (isInvalid(ConstantsDatasets.INDEX_CroneDiameterM)) croneDiameterM = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        if (isInvalid(ConstantsDatasets.INDEX_CircumferenceCM)) circumferenceCM = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        if (isInvalid(ConstantsDatasets.INDEX_HeightM)) heightM = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+        invalidTraits = nullTraits = (int) ConstantsMath.ZERO;
+    }
+
+
+    /**
+     * Retrieves the bitmask of invalid traits. Bit i is set if the trait at index i is invalid.
+     *
+     * @return The bitmask of invalid traits.
+     */
+    public int getInvalidTraits ()
+    {
+        return invalidTraits;
+    }
+
+
+    /**
+     * Retrieves the amount of invalid traits.
+     *
+     * @return The amount of invalid traits.
+     */
+    public int getAmountOfInvalidTraits ()
+    {
+        return Integer.bitCount(invalidTraits);
+    }
+
+
+    /**
+     * Retrieves the index of the invalid trait that is checked first: missing traits before numbers out of range.
+     *
+     * @return The index of the first invalid trait, or {@link ConstantsCSV#NUMBER_DEFAULT_VALUE} if all traits are valid.
+     */
+    public int getFirstInvalidTrait ()
+    {
+        if (nullTraits != ConstantsMath.ZERO) return Integer.numberOfTrailingZeros(nullTraits);
+        if (invalidTraits != ConstantsMath.ZERO) return Integer.numberOfTrailingZeros(invalidTraits);
+        return ConstantsCSV.NUMBER_DEFAULT_VALUE;
+    }
+
+
+    /**
+     * Checks whether the trait at the given index is invalid.
+     *
+     * @param index The index of the trait.
+     * @return {@code true} if the trait is invalid; {@code false} otherwise.
+     */
+    public boolean isInvalid (int index)
+    {
+        return (invalidTraits & ((int) ConstantsMath.ONE << index)) != ConstantsMath.ZERO;
+    }
+
+
+    /**
+     * Indicates whether the ID can be parsed. A dataset without a parsable ID cannot become a tree.
+     *
+     * @return {@code true} if the ID is valid; {@code false} otherwise.
+     */
+    public boolean hasValidID ()
+    {
+        return hasValidID;
+    }
+
+
+    /**
+     * Retrieves the trait at the specified index as text.
+     *
+     * @param index The index of the trait.
+     * @return The trait at the specified index.
+     */
+    public String getTrait (int index)
+    {
+        return traits[index];
+    }
+
+
+    /**
+     * Getter for the ID of the tree.
+     *
+     * @return The number of the tree.
+     */
+    public int getID ()
+    {
+        return id;
+    }
+
+
+    /**
+     * Getter for the year of plantation of the tree.
+     *
+     * @return The year of the tree's plantation.
+     */
+    public int getYearOfPlantation ()
+    {
+        return yearOfPlantation;
+    }
+
+
+    /**
+     * Getter for the age of the tree.
+     *
+     * @return The age of the tree.
+     */
+    public int getAge ()
+    {
+        return age;
+    }
+
+
+    /**
+     * Getter for the crone diameter of the tree.
+     *
+     * @return The diameter of the tree's crone in meters.
+     */
+    public double getCroneDiameterM ()
+    {
+        return croneDiameterM;
+    }
+
+
+    /**
+     * Getter for the circumference of the tree.
+     *
+     * @return The circumference of the tree in centimeters.
+     */
+    public int getCircumferenceCM ()
+    {
+        return circumferenceCM;
+    }
+
+
+    /**
+     * Getter for the height of the tree.
+     *
+     * @return The height of the tree in meters.
+     */
+    public float getHeightM ()
+    {
+        return heightM;
+    }
+
+
+    /**
+     * Checks whether the trait at the given index is missing.
+     *
+     * @param index The index of the trait.
+     * @return {@code true} if the trait is {@code null}; {@code false} otherwise.
+     */
+    private boolean isNull (int index)
+    {
+        return (nullTraits & ((int) ConstantsMath.ONE << index)) != ConstantsMath.ZERO;
+    }
+
+
+    /**
+     * Marks the trait at the given index as invalid.
+     *
+     * @param index The index of the trait.
+     */
+    private void setInvalid (int index)
+    {
+        invalidTraits |= (int) ConstantsMath.ONE << index;
+    }
+
+
+    /**
+     * Parses a whole number the way {@link Integer#parseInt(String)} does, but without throwing an exception.
+     *
+     * @param value The text to be parsed.
+     *              ({@code value} != {@code null})
+     * @return The parsed number, or {@link #NOT_PARSABLE} if the text is no valid integer.
+     */
+    private static long parseInteger (String value)
+    {
+        int length = value.length();
+        if (length == ConstantsMath.ZERO) return NOT_PARSABLE;
+
+        int i = (int) ConstantsMath.ZERO;
+        boolean isNegative = value.charAt(i) == '-';
+        if (isNegative || value.charAt(i) == '+') i++;
+        if (i == length) return NOT_PARSABLE; // Sign without digits
+
+        long number = (long) ConstantsMath.ZERO;
+        for (; i < length; i++)
+        {
+            char character = value.charAt(i);
+            if (character < '0' || character > '9') return NOT_PARSABLE;
+            number = number * 10 + (character - '0');
+            if (number > (long) Integer.MAX_VALUE + (isNegative ? (int) ConstantsMath.ONE : (int) ConstantsMath.ZERO))
+                return NOT_PARSABLE; // Does not fit into an int
+        }
+        return isNegative ? -number : number;
+    }
+
+
+    /**
+     * Checks whether a text is a decimal number that {@link Double#parseDouble(String)} and
+     * {@link Float#parseFloat(String)} accept, for example "12", "-1.0", ".5" or "1e3".
+     *
+     * @param value The text to be checked.
+     *              ({@code value} != {@code null})
+     * @return {@code true} if the text can be parsed without an exception; {@code false} otherwise.
+     */
+    private static boolean isDecimal (String value)
+    {
+        // Surrounding whitespaces are ignored by the parser
+        int start = (int) ConstantsMath.ZERO;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - (int) ConstantsMath.ONE) <= ' ') end--;
+
+        int i = start;
+        if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) i++;
+
+        // Digits with an optional decimal point, at least one digit
+        int digits = (int) ConstantsMath.ZERO;
+        boolean hasPoint = ConstantsMath.bFalse;
+        for (; i < end; i++)
+        {
+            char character = value.charAt(i);
+            if (character >= '0' && character <= '9') digits++;
+            else if (character == '.' && !hasPoint) hasPoint = ConstantsMath.bTrue;
+            else break;
+        }
+        if (digits == ConstantsMath.ZERO) return ConstantsMath.bFalse;
+
+        // Optional exponent
+        if (i < end && (value.charAt(i) == 'e' || value.charAt(i) == 'E'))
+        {
+            i++;
+            if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) i++;
+            int exponentDigits = (int) ConstantsMath.ZERO;
+            for (; i < end && value.charAt(i) >= '0' && value.charAt(i) <= '9'; i++) exponentDigits++;
+            if (exponentDigits == ConstantsMath.ZERO) return ConstantsMath.bFalse;
+        }
+
+        // Optional type suffix
+        if (i < end && "fFdD".indexOf(value.charAt(i)) >= ConstantsMath.ZERO) i++;
+        return i == end;
+    }
+}
@@ -0,0 +1,168 @@
+package model;
+
+
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+
+/**
+ * The ZoneMap class splits the rows of a TreeTable into segments of {@link ConstantsDatasets#ZONE_MAP_SEGMENT_ROWS}
+ * rows and keeps the minimum and the maximum of a numeric trait per segment, like the height or the year of plantation.
+ * A range filter skips every segment whose values cannot be in the range and takes segments that lie completely in the
+ * range without looking at their rows. Only the remaining segments are scanned row by row.
+ * Default values stand for missing measurements, so they never match a range and are left out of the minima and maxima.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class ZoneMap
+{
+    private final TreeTable treeTable;
+    private final Trait trait;
+    private final double[] minima;
+    private final double[] maxima;
+    private final BitSet hasDefaultValues; // Segments with at least one default value, never taken without a scan
+
+
+    /**
+     * Constructs a ZoneMap by computing the minimum and the maximum of a numeric trait per segment.
+     *
+     * @param treeTable The table of trees.
+     *                  ({@code treeTable} != {@code null})
+     * @param trait     The numeric trait.
+     *                  ({@code trait} != {@code null} && {@code trait.isNumeric()})
+     * @throws UnsupportedOperationException if the trait is not numeric.
+     */
+    public ZoneMap (TreeTable treeTable, Trait trait)
+    {
+        this.treeTable = treeTable;
+        this.trait = trait;
+        int segmentRows = ConstantsDatasets.ZONE_MAP_SEGMENT_ROWS;
+        int amountOfSegments = (treeTable.size() + segmentRows - (int) ConstantsMath.ONE) / segmentRows;
+        minima = new double[amountOfSegments];
+        maxima = new double[amountOfSegments];
+        hasDefaultValues = new BitSet(amountOfSegments);
+
+        // Segments without a value keep an empty range, which no filter overlaps
+        Arrays.fill(minima, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxima, Double.NEGATIVE_INFINITY);
+        for (int row = (int) ConstantsMath.ZERO; row < treeTable.size(); row++)
+        {
+            int segment = row / segmentRows;
+            double value = trait.getDouble(treeTable, row);
+            if (value == ConstantsCSV.NUMBER_DEFAULT_VALUE)
+            {
+                hasDefaultValues.set(segment);
+                continue;
+            }
+            minima[segment] = Math.min(minima[segment], value);
+            maxima[segment] = Math.max(maxima[segment], value);
+        }
+    }
+
+
+    /**
+     * Retrieves the trait of the zone map.
+     *
+     * @return The numeric trait.
+     */
+    public Trait getTrait ()
+    {
+        return trait;
+    }
+
+
+    /**
+     * Retrieves the amount of segments of the table.
+     *
+     * @return The amount of segments.
+     */
+    public int getAmountOfSegments ()
+    {
+        return minima.length;
+    }
+
+
+    /**
+     * Getter for the minimum of a segment.
+     *
+     * @param segment The segment.
+     * @return The smallest value of the segment, positive infinity if the segment holds only default values.
+     */
+    public double getMinimum (int segment)
+    {
+        return minima[segment];
+    }
+
+
+    /**
+     * Getter for the maximum of a segment.
+     *
+     * @param segment The segment.
+     * @return The largest value of the segment, negative infinity if the segment holds only default values.
+     */
+    public double getMaximum (int segment)
+    {
+        return maxima[segment];
+    }
+
+
+    /**
+     * Retrieves the rows whose value lies in a range, both bounds included.
+     *
+     * @param minimum The smallest value of the range.
+     * @param maximum The largest value of the range.
+     * @return The rows in the range, which can be combined with other filters.
+     */
+    public RowBitmap getRows (double minimum, double maximum)
+    {
+        int segmentRows = ConstantsDatasets.ZONE_MAP_SEGMENT_ROWS;
+        RowBitmap.Builder builder = new RowBitmap.Builder();
+        for (int segment = (int) ConstantsMath.ZERO; segment < minima.length; segment++)
+        {
+            if (maxima[segment] < minimum || minima[segment] > maximum) continue; // No value of the segment can match
+
+            int start = segment * segmentRows;
+            int end = Math.min(treeTable.size(), start + segmentRows);
+            if (minima[segment] >= minimum && maxima[segment] <= maximum && !hasDefaultValues.get(segment))
+            {
+                builder.addRange(start, end); // Every value of the segment matches
+                continue;
+            }
+            for (int row = start; row < end; row++)
+            {
+                double value = trait.getDouble(treeTable, row);
+                if (value != ConstantsCSV.NUMBER_DEFAULT_VALUE && value >= minimum && value <= maximum) builder.add(row);
+            }
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * Retrieves the rows whose value is greater than a given value, for example the trees taller than 30 meters.
+     *
+     * @param value The value, not included.
+     * @return The rows above the value.
+     */
+    public RowBitmap getRowsAbove (double value)
+    {
+        return getRows(Math.nextUp(value), Double.POSITIVE_INFINITY);
+    }
+
+
+    /**
+     * Retrieves the rows whose value is less than a given value, for example the trees planted before 1900.
+     *
+     * @param value The value, not included.
+     * @return The rows below the value.
+     */
+    public RowBitmap getRowsBelow (double value)
+    {
+        return getRows(Double.NEGATIVE_INFINITY, Math.nextDown(value));
+    }
+}
@@ -0,0 +1,13 @@
+package resources;
+
+
+public interface CarbonModelData
+{
+    // Genera with their own carbon model, the genus is the first word of the botanical species
+    String[] genera = {"Quercus"};
+    // Look-up tables of each genus in the layout of TreeCarbonData, the values of all tables of a genus are averaged
+    // Further genera (for example Tilia, Acer or Platanus) are added here once look-up tables for them are available
+    int[][][][] carbonTablesByGenus = {
+            {TreeCarbonData.oakCarbonByHeightAndCircumference}
+    };
+}
@@ -5,7 +5,7 @@ import control.LineController;
 import control.Mathematics;
 import model.Line;
 import model.Tree;
-import model.exceptions.InvalidTraitException;
+import model.TreeTraits;
 import utility.constants.ConstantsCSV;
 import utility.constants.ConstantsDatasets;
 import utility.constants.ConstantsIO;
@@ -14,8 +14,14 @@ import utility.constants.ConstantsMath;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -34,17 +40,52 @@ public class CSVReader
      * @throws RuntimeException if an I/O error occurs.
      */
     public static List<Tree> getListOfTrees (String path)
+    {
+        return getListOfRecords(path, new CSVReader()::getTree);
+    }
+
+
+    /**
+     * Retrieves a list of parsed and validated datasets from a CSV file located at the specified path, without
+     * creating Tree objects. Invalid traits are already set to default.
+     *
+     * @param path The path to the CSV file.
+     * @return A list containing the datasets parsed from the CSV file.
+     * @throws RuntimeException if an I/O error occurs.
+     */
+    public static List<TreeTraits> getListOfTreeTraits (String path)
+    {
+        return getListOfRecords(path, new CSVReader()::getTreeTraits);
+    }
+
+
+    /**
+     * Reads a CSV file line by line, creating one record per dataset.
+     *
+     * @param path         The path to the CSV file.
+     * @param recordParser Creates a record from the cells of one dataset, {@code null} if the dataset is invalid.
+     * @param <T>          The type of the records.
+     * @return A list containing the records parsed from the CSV file.
+     * @throws RuntimeException if an I/O error occurs.
+     */
+    private static <T> List<T> getListOfRecords (String path, Function<String[], T> recordParser)
     {
         try (BufferedReader bufferedReader = new BufferedReader(new FileReader(path)))
         {
-            List<Tree> treeList = new ArrayList<>();
+            List<T> treeList = new ArrayList<>();
             LineController lineController = new LineController();
             CSVReader csvReader = new CSVReader();
             String line;
 
             // Reads next line until the line is empty
-            for (int i = (int) ConstantsMath.ZERO; i <= ConstantsDatasets.HARDLIMIT_LINE_READINGS && (line = bufferedReader.readLine()) != null; i++)
+            for (int i = (int) ConstantsMath.ZERO; (line = bufferedReader.readLine()) != null; i++)
             {
+                if (i > ConstantsDatasets.HARDLIMIT_LINE_READINGS)
+                {
+                    System.out.println(ConstantsIO.lineLimitReached + ConstantsIO.tab + i); // Remaining lines are not read
+                    break;
+                }
+
                 // Adds up next lines until the amount of splitter characters is equal to the amount of attributes -1 ignoring a specific character
                 for (int j = (int) ConstantsMath.ZERO; j <= ConstantsDatasets.LINE_LIMIT_ONE_INSTANCE &&
                         (lineController.countSpecificCharacterIgnoringThoseEnclosedInAnotherCharacter(
@@ -55,15 +96,79 @@ public class CSVReader
                     line += bufferedReader.readLine();
                 }
 
-                try
+                T tree = recordParser.apply(csvReader.getAttributes(
+                        lineController.createLineFromString(line), ConstantsDatasets.SPLITTER_CHARACTER, ConstantsDatasets.IGNORE_IN));
+                if (tree == null)
                 {
-                    treeList.add(
-                            csvReader.getTree(lineController.createLineFromString(line), ConstantsDatasets.SPLITTER_CHARACTER, ConstantsDatasets.IGNORE_IN)
-                    ); // Adds trees from line to list
-                } catch (NumberFormatException | NullPointerException e)
+                    System.out.println(ConstantsIO.invalidDataset + ConstantsIO.tab + i);
+                    continue;
+                }
+                treeList.add(tree); // Adds trees from line to list
+            }
+            return treeList;
+        } catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    /**
+     * Retrieves a list of Tree objects from a CSV file located at the specified path.
+     * The file is memory-mapped and tokenized in one pass over its bytes, producing the same trees as {@link #getListOfTrees(String)}.
+     *
+     * @param path The path to the CSV file.
+     * @return A list containing Tree objects parsed from the CSV file.
+     * @throws RuntimeException if an I/O error occurs.
+     */
+    public static List<Tree> getListOfTreesMemoryMapped (String path)
+    {
+        return getListOfRecordsMemoryMapped(path, new CSVReader()::getTree);
+    }
+
+
+    /**
+     * Retrieves a list of parsed and validated datasets from a memory-mapped CSV file, without creating Tree objects.
+     * Invalid traits are already set to default.
+     *
+     * @param path The path to the CSV file.
+     * @return A list containing the datasets parsed from the CSV file.
+     * @throws RuntimeException if an I/O error occurs.
+     */
+    public static List<TreeTraits> getListOfTreeTraitsMemoryMapped (String path)
+    {
+        return getListOfRecordsMemoryMapped(path, new CSVReader()::getTreeTraits);
+    }
+
+
+    /**
+     * Reads a memory-mapped CSV file in one pass over its bytes, creating one record per dataset.
+     *
+     * @param path         The path to the CSV file.
+     * @param recordParser Creates a record from the cells of one dataset, {@code null} if the dataset is invalid.
+     * @param <T>          The type of the records.
+     * @return A list containing the records parsed from the CSV file.
+     * @throws RuntimeException if an I/O error occurs.
+     */
+    private static <T> List<T> getListOfRecordsMemoryMapped (String path, Function<String[], T> recordParser)
+    {
+        try (FileChannel fileChannel = FileChannel.open(Path.of(path), StandardOpenOption.READ))
+        {
+            List<T> treeList = new ArrayList<>();
+            CSVTokenizer csvTokenizer = new CSVTokenizer(fileChannel);
+            String[] attributes;
+
+            // Reads next record until the end of the file, every record consumes at least one byte
+            for (int i = (int) ConstantsMath.ZERO; (attributes = csvTokenizer.nextRecord()) != null; i++)
+            {
+                // Records with more cells than attributes are invalid
+                T tree = csvTokenizer.hasRecordOverflow() ? null : recordParser.apply(attributes);
+                if (tree == null)
                 {
                     System.out.println(ConstantsIO.invalidDataset + ConstantsIO.tab + i);
+                    continue;
                 }
+                treeList.add(tree); // Adds tree from record to list
             }
             return treeList;
         } catch (IOException e)
@@ -73,6 +178,38 @@ public class CSVReader
     }
 
 
+    /**
+     * Retrieves a lazily parsed stream of Tree objects from a CSV file located at the specified path.
+     * Records are only parsed while the stream is consumed, so there is no limit to the amount of lines.
+     * The stream has to be closed to release the file.
+     *
+     * @param path     The path to the CSV file.
+     * @param parallel Whether the stream should be parallel.
+     * @return A stream of Tree objects parsed from the CSV file.
+     * @throws RuntimeException if an I/O error occurs.
+     */
+    public static Stream<Tree> getStreamOfTrees (String path, boolean parallel)
+    {
+        try
+        {
+            FileChannel fileChannel = FileChannel.open(Path.of(path), StandardOpenOption.READ);
+            return StreamSupport.stream(new TreeSpliterator(fileChannel), parallel).onClose(() ->
+            {
+                try
+                {
+                    fileChannel.close();
+                } catch (IOException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            });
+        } catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+
     /**
      * Parses a line of data into a Tree object using the specified splitter and ignore characters.
      *
@@ -82,6 +219,20 @@ public class CSVReader
      * @return A Tree object created from the parsed attributes.
      */
     public Tree getTree (Line line, char splitter, char ignoreIn)
+    {
+        return getTree(getAttributes(line, splitter, ignoreIn));
+    }
+
+
+    /**
+     * Splits a line of data into the cells of one dataset using the specified splitter and ignore characters.
+     *
+     * @param line     The line of data to split.
+     * @param splitter The character used to split the attributes in the line.
+     * @param ignoreIn The character to ignore when parsing attributes.
+     * @return The cells of the dataset, {@code null} for empty cells.
+     */
+    private String[] getAttributes (Line line, char splitter, char ignoreIn)
     {
         String[] attributes = new String[ConstantsDatasets.AMOUNT_OF_ATTRIBUTES];
         int nextFreeIndex = (int) ConstantsMath.ZERO;
@@ -115,18 +266,41 @@ public class CSVReader
             // Handle last value (no splitter)
             attributes[nextFreeIndex] = line.getLine().substring(startIndex, (int) (Mathematics.sum(i, ConstantsMath.ONE)));
         }
+        return attributes;
+    }
 
-        // Loops until either a tree can be returned or hard limit reached
-        for (int counter = (int) ConstantsMath.ZERO; counter < ConstantsCSV.HARDLIMIT_EXCEPTIONHANDLING_FOR_ONE_DATASET; counter++)
-        {
-            try
-            {
-                return new Tree(attributes);
-            } catch (InvalidTraitException e)
-            {
-                attributes[e.getTraitNumber()] = String.valueOf(ConstantsCSV.NUMBER_DEFAULT_VALUE);
-            }
-        }
-        return null;
+
+    /**
+     * Creates a Tree object from the cells of one dataset, setting invalid traits to default.
+     * Every trait is parsed and validated once, and all invalid traits are set to default in one step.
+     *
+     * @param attributes The cells of the dataset.
+     *                   ({@code attributes} != {@code null})
+     * @return A Tree object created from the attributes, or {@code null} if no valid tree could be created.
+     */
+    public Tree getTree (String[] attributes)
+    {
+        TreeTraits treeTraits = getTreeTraits(attributes);
+        return treeTraits == null ? null : new Tree(treeTraits);
+    }
+
+
+    /**
+     * Parses and validates the cells of one dataset, setting invalid traits to default, without creating a Tree object.
+     *
+     * @param attributes The cells of the dataset.
+     *                   ({@code attributes} != {@code null})
+     * @return The parsed traits, or {@code null} if no valid tree could be created from them.
+     */
+    public TreeTraits getTreeTraits (String[] attributes)
+    {
+        TreeTraits treeTraits = new TreeTraits(attributes);
+
+        // Datasets with too many invalid traits or without a parsable ID are invalid
+        if (treeTraits.getAmountOfInvalidTraits() >= ConstantsCSV.HARDLIMIT_EXCEPTIONHANDLING_FOR_ONE_DATASET ||
+                !treeTraits.hasValidID()) return null;
+
+        treeTraits.setInvalidTraitsToDefault();
+        return treeTraits;
     }
 }
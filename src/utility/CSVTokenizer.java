@@ -0,0 +1,308 @@
+package utility;
+
+
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+
+/**
+ * The CSVTokenizer class splits a memory-mapped dataset file into records in one quote-aware pass over its bytes.
+ * Records that span multiple lines are glued together the same way the line based reader does it,
+ * but without building intermediate strings. Only the cells themselves are decoded into strings.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class CSVTokenizer
+{
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte LINE_FEED = '\n';
+    private static final int WHITESPACE_LIMIT = ' '; // String.trim() removes every character up to this one
+
+    private final FileChannel fileChannel;
+    private final long fileSize;
+    private final Charset charset = Charset.defaultCharset();
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+    private long position;
+
+    private byte[] cellBuffer = new byte[ConstantsDatasets.CELL_BUFFER_BYTES];
+    private boolean recordOverflow;
+
+
+    /**
+     * Constructs a CSVTokenizer reading the whole file behind the given channel.
+     *
+     * @param fileChannel The channel of the dataset file.
+     *                    ({@code fileChannel} != {@code null})
+     * @throws IOException if the size of the file cannot be determined.
+     */
+    public CSVTokenizer (FileChannel fileChannel) throws IOException
+    {
+        this.fileChannel = fileChannel;
+        this.fileSize = fileChannel.size();
+    }
+
+
+    /**
+     * Constructs a CSVTokenizer reading the file behind the given channel from a specific byte position on.
+     *
+     * @param fileChannel The channel of the dataset file.
+     *                    ({@code fileChannel} != {@code null})
+     * @param position    The byte position at which reading starts.
+     *                    ({@code position} >= 0)
+     * @throws IOException if the size of the file cannot be determined.
+     */
+    public CSVTokenizer (FileChannel fileChannel, long position) throws IOException
+    {
+        this(fileChannel);
+        this.position = position;
+    }
+
+
+    /**
+     * Moves the position forward to the start of the next line, unless it already is at the start of a line.
+     * A line start is only a candidate for a record boundary, as records may span multiple lines.
+     *
+     * @throws IOException if a part of the file cannot be mapped.
+     */
+    public void skipToLineStart () throws IOException
+    {
+        if (position == ConstantsMath.ZERO || position >= fileSize) return; // Start of file is always a line start
+
+        // Checks the byte in front of the position
+        position--;
+        byte previous = nextByte();
+        if (previous == LINE_FEED) return;
+        if (previous == CARRIAGE_RETURN && (position >= fileSize || peekByte() != LINE_FEED)) return;
+
+        // Skips until behind the next line break ("\r\n" counts as one)
+        while (position < fileSize)
+        {
+            byte character = nextByte();
+            if (character == LINE_FEED) return;
+            if (character == CARRIAGE_RETURN)
+            {
+                if (position < fileSize && peekByte() == LINE_FEED) position++;
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Retrieves the byte position at which the next record starts.
+     *
+     * @return The current byte position.
+     */
+    public long getPosition ()
+    {
+        return position;
+    }
+
+
+    /**
+     * Retrieves the size of the file in bytes.
+     *
+     * @return The size of the file.
+     */
+    public long getFileSize ()
+    {
+        return fileSize;
+    }
+
+
+    /**
+     * Reads the next record and splits it into its cells.
+     * Cells between two splitter characters that are empty are {@code null}, like in {@link CSVReader#getTree(model.Line, char, char)}.
+     *
+     * @return An array with {@link ConstantsDatasets#AMOUNT_OF_ATTRIBUTES} cells, or {@code null} if the end of the file is reached.
+     * @throws IOException if a part of the file cannot be mapped.
+     */
+    public String[] nextRecord () throws IOException
+    {
+        String[] attributes = new String[ConstantsDatasets.AMOUNT_OF_ATTRIBUTES];
+        return readRecord(attributes) ? attributes : null;
+    }
+
+
+    /**
+     * Moves over whole records without decoding them, until the position reaches a specific byte.
+     * As only the record boundaries are searched, this is a lot cheaper than reading the records.
+     *
+     * @param target The byte position that has to be reached.
+     * @throws IOException if a part of the file cannot be mapped.
+     */
+    public void skipRecordsUntil (long target) throws IOException
+    {
+        while (position < target)
+        {
+            if (!readRecord(null)) return; // End of file
+        }
+    }
+
+
+    /**
+     * Reads the next record and splits it into the given array.
+     *
+     * @param attributes The array the cells are written to, or {@code null} if the cells should not be decoded.
+     * @return {@code true} if a record was read; {@code false} if the end of the file is reached.
+     * @throws IOException if a part of the file cannot be mapped.
+     */
+    private boolean readRecord (String[] attributes) throws IOException
+    {
+        int cellIndex = (int) ConstantsMath.ZERO;
+        int cellLength = (int) ConstantsMath.ZERO;
+        int splitterCounter = (int) ConstantsMath.ZERO;
+        int joinedLines = (int) ConstantsMath.ZERO;
+        boolean isInEnclosure = ConstantsMath.bFalse;
+        boolean hasContent = ConstantsMath.bFalse;
+        boolean hasConsumedBytes = ConstantsMath.bFalse;
+        recordOverflow = ConstantsMath.bFalse;
+
+        while (position < fileSize)
+        {
+            byte character = nextByte();
+            hasConsumedBytes = ConstantsMath.bTrue;
+
+            if (character == LINE_FEED || character == CARRIAGE_RETURN)
+            {
+                // "\r\n" counts as one line break
+                if (character == CARRIAGE_RETURN && position < fileSize && peekByte() == LINE_FEED) position++;
+
+                // Same rule as the line based reader: glue lines until all splitters are found or the limit is reached
+                if (splitterCounter >= ConstantsDatasets.AMOUNT_OF_ATTRIBUTES - (int) ConstantsMath.ONE ||
+                        joinedLines > ConstantsDatasets.LINE_LIMIT_ONE_INSTANCE) break;
+                joinedLines++;
+                continue;
+            }
+
+            // Leading whitespaces are trimmed
+            if (!hasContent && (character & 0xFF) <= WHITESPACE_LIMIT) continue;
+            hasContent = ConstantsMath.bTrue;
+
+            if (character == ConstantsDatasets.IGNORE_IN)
+            {
+                isInEnclosure = !isInEnclosure; // Enclosing characters stay part of the cell
+            } else if (character == ConstantsDatasets.SPLITTER_CHARACTER && !isInEnclosure)
+            {
+                if (attributes == null)
+                {
+                    splitterCounter++; // Only record boundaries needed
+                    continue;
+                } else if (cellIndex < ConstantsDatasets.AMOUNT_OF_ATTRIBUTES)
+                {
+                    attributes[cellIndex] = cellLength == ConstantsMath.ZERO ? null : decode(cellLength);
+                } else
+                {
+                    recordOverflow = ConstantsMath.bTrue; // More cells than attributes
+                }
+                cellIndex++;
+                splitterCounter++;
+                cellLength = (int) ConstantsMath.ZERO;
+                continue;
+            }
+            if (attributes != null) cellLength = append(character, cellLength);
+        }
+
+        if (!hasConsumedBytes) return ConstantsMath.bFalse; // End of file
+        if (attributes == null) return ConstantsMath.bTrue;
+
+        // Trailing whitespaces are trimmed
+        while (cellLength > ConstantsMath.ZERO && (cellBuffer[cellLength - (int) ConstantsMath.ONE] & 0xFF) <= WHITESPACE_LIMIT)
+        {
+            cellLength--;
+        }
+        if (hasContent)
+        {
+            // Handle last value (no splitter)
+            if (cellIndex < ConstantsDatasets.AMOUNT_OF_ATTRIBUTES) attributes[cellIndex] = decode(cellLength);
+            else recordOverflow = ConstantsMath.bTrue;
+        }
+        return ConstantsMath.bTrue;
+    }
+
+
+    /**
+     * Indicates whether the record returned last had more cells than {@link ConstantsDatasets#AMOUNT_OF_ATTRIBUTES}.
+     *
+     * @return {@code true} if the last record overflowed; {@code false} otherwise.
+     */
+    public boolean hasRecordOverflow ()
+    {
+        return recordOverflow;
+    }
+
+
+    /**
+     * Appends a byte to the cell buffer, growing it if necessary.
+     *
+     * @param character  The byte to append.
+     * @param cellLength The amount of bytes already in the buffer.
+     * @return The new amount of bytes in the buffer.
+     */
+    private int append (byte character, int cellLength)
+    {
+        if (cellLength == cellBuffer.length)
+        {
+            byte[] grownBuffer = new byte[cellBuffer.length * (int) ConstantsMath.TWO];
+            System.arraycopy(cellBuffer, (int) ConstantsMath.ZERO, grownBuffer, (int) ConstantsMath.ZERO, cellLength);
+            cellBuffer = grownBuffer;
+        }
+        cellBuffer[cellLength] = character;
+        return cellLength + (int) ConstantsMath.ONE;
+    }
+
+
+    /**
+     * Decodes the bytes in the cell buffer into a string.
+     *
+     * @param cellLength The amount of bytes in the buffer.
+     * @return The decoded cell.
+     */
+    private String decode (int cellLength)
+    {
+        return new String(cellBuffer, (int) ConstantsMath.ZERO, cellLength, charset);
+    }
+
+
+    /**
+     * Reads the byte at the current position and advances the position.
+     *
+     * @return The byte at the current position.
+     * @throws IOException if the next part of the file cannot be mapped.
+     */
+    private byte nextByte () throws IOException
+    {
+        byte character = peekByte();
+        position++;
+        return character;
+    }
+
+
+    /**
+     * Reads the byte at the current position without advancing, mapping the next window of the file when needed.
+     *
+     * @return The byte at the current position.
+     * @throws IOException if the next part of the file cannot be mapped.
+     */
+    private byte peekByte () throws IOException
+    {
+        if (window == null || position >= windowEnd)
+        {
+            // A single mapping is limited to 2GB, so bigger files are read window by window
+            windowStart = position;
+            long windowSize = Math.min(ConstantsDatasets.MAPPED_WINDOW_BYTES, fileSize - position);
+            window = fileChannel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+            windowEnd = windowStart + windowSize;
+        }
+        return window.get((int) (position - windowStart));
+    }
+}
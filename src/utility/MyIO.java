@@ -1,17 +1,23 @@
 package utility;
 
 
+import control.AggregateEngine;
 import control.DataRepair;
 import control.IOController;
+import model.QuestionResults;
+import model.RepairReport;
 import model.Tree;
+import model.TreeTable;
+import model.TreeTraits;
 import model.exceptions.IllegalInputException;
 import utility.constants.ConstantsDatasets;
 import utility.constants.ConstantsIO;
 import view.PrintConsole;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Stream;
 
 
 /**
@@ -41,12 +47,63 @@ public class MyIO
      * @param path The path to the CSV file containing tree datasets.
      * @return A List containing tree datasets read from the CSV file.
      */
-    public static List readTreeDatasets (String path)
+    public static List<Tree> readTreeDatasets (String path)
     {
+        if (ConstantsDatasets.PARALLEL_INGESTION)
+            return ParallelCSVReader.getListOfTrees(path, ConstantsDatasets.INGESTION_PARALLELISM);
+        if (ConstantsDatasets.MEMORY_MAPPED_INGESTION) return CSVReader.getListOfTreesMemoryMapped(path);
         return CSVReader.getListOfTrees(path);
     }
 
 
+    /**
+     * Reads tree datasets from a CSV file located at the specified path without creating trees, to repair them before.
+     *
+     * @param path The path to the CSV file containing tree datasets.
+     * @return A List containing the parsed datasets read from the CSV file, invalid traits already set to default.
+     */
+    public static List<TreeTraits> readParsedTreeDatasets (String path)
+    {
+        if (ConstantsDatasets.PARALLEL_INGESTION)
+            return ParallelCSVReader.getListOfTreeTraits(path, ConstantsDatasets.INGESTION_PARALLELISM);
+        if (ConstantsDatasets.MEMORY_MAPPED_INGESTION) return CSVReader.getListOfTreeTraitsMemoryMapped(path);
+        return CSVReader.getListOfTreeTraits(path);
+    }
+
+
+    /**
+     * Streams tree datasets from a CSV file located at the specified path, parsing them while the stream is consumed.
+     *
+     * @param path     The path to the CSV file containing tree datasets.
+     * @param parallel Whether the stream should be parallel.
+     * @return A Stream of tree datasets that has to be closed after use.
+     */
+    public static Stream<Tree> streamTreeDatasets (String path, boolean parallel)
+    {
+        return CSVReader.getStreamOfTrees(path, parallel);
+    }
+
+
+    /**
+     * Presents questions to the user and provides corresponding answers based on the provided table of trees.
+     * The user's input is processed until the program is terminated.
+     * If all answers are computed in one pass beforehand, the table is not needed afterwards and is not kept.
+     *
+     * @param treeTable A table containing the tree datasets.
+     */
+    public static void questionsAndAnswers (TreeTable treeTable)
+    {
+        if (ConstantsDatasets.SINGLE_PASS_QUERIES)
+        {
+            // All answers are computed in one pass, afterwards answering only looks them up
+            answerQuestions(new AggregateEngine().getQuestionResults(treeTable), treeTable, null);
+        } else
+        {
+            answerQuestions(null, treeTable, null);
+        }
+    }
+
+
     /**
      * Presents questions to the user and provides corresponding answers based on the provided tree list.
      * The user's input is processed until the program is terminated.
@@ -54,6 +111,20 @@ public class MyIO
      * @param treeList A List of Tree objects containing tree datasets.
      */
     public static void questionsAndAnswers (List<Tree> treeList)
+    {
+        answerQuestions(null, null, treeList);
+    }
+
+
+    /**
+     * Answers the questions the user enters from exactly one source of trees, which is the only one kept in memory.
+     * Answers computed beforehand come with the table they were computed from, for the questions answered on demand.
+     *
+     * @param questionResults The answers computed beforehand, or {@code null}.
+     * @param treeTable       The table of trees, or {@code null} if the list is given.
+     * @param treeList        The list of trees, or {@code null}.
+     */
+    private static void answerQuestions (QuestionResults questionResults, TreeTable treeTable, List<Tree> treeList)
     {
         IOController ioController = new IOController();
         PrintConsole printConsole = new PrintConsole();
@@ -64,7 +135,10 @@ public class MyIO
             String value = MyIO.read();
             try
             {
-                System.out.println(ioController.getAnswer(value, treeList)); // Prints answer to selected question
+                // Prints answer to selected question
+                if (questionResults != null) System.out.println(ioController.getAnswer(value, questionResults, treeTable));
+                else if (treeTable != null) System.out.println(ioController.getAnswer(value, treeTable));
+                else System.out.println(ioController.getAnswer(value, treeList));
             } catch (IllegalInputException e)
             {
                 System.out.println(e.getMessage()); // Wrong input coverage
@@ -82,10 +156,48 @@ public class MyIO
     public static void parser ()
     {
         System.out.println(ConstantsIO.readingFileAndCreatingInstances);
+        TreeTable treeTable = getTreeTable();
+        if (ConstantsDatasets.COLUMNAR_QUERIES) questionsAndAnswers(treeTable);
+        else questionsAndAnswers(treeTable.getTrees()); // Answers from the list of trees, for comparison
+    }
+
+
+    /**
+     * Reads and repairs the tree datasets, or loads them from the snapshot if the dataset file has not changed.
+     * The list of repaired trees is only kept until the table is built from it.
+     *
+     * @return The table of the repaired trees.
+     */
+    private static TreeTable getTreeTable ()
+    {
         Timer timer = new Timer(); // Starts timer
-        List<Tree> treeList = new ArrayList<>(MyIO.readTreeDatasets(ConstantsDatasets.FILE_PATH));
+        SnapshotCache snapshotCache = new SnapshotCache(ConstantsDatasets.FILE_PATH);
+        SnapshotCache.Fingerprint fingerprint = ConstantsDatasets.SNAPSHOT_CACHE ? getSourceFingerprint(snapshotCache) : null;
+        TreeTable treeTable = fingerprint != null ? snapshotCache.load(fingerprint) : null;
+        if (treeTable != null) // Dataset file unchanged since the snapshot was saved
+        {
+            System.out.println(ConstantsIO.newLine + ConstantsIO.snapshotLoaded);
+            // Amount of instances created
+            System.out.println(ConstantsIO.amountOfInstancesCreated + ConstantsIO.tab + snapshotCache.getCreatedCounter());
+            // Amount of corrupt instances
+            System.out.println(ConstantsIO.amountOfCorruptInstances + ConstantsIO.tab + snapshotCache.getCorruptCounter());
+            // Amount repaired
+            System.out.println(snapshotCache.getRepairedCounter() + ConstantsIO.tab + ConstantsIO.instancesRepaired);
+            // Amount deleted
+            System.out.println(snapshotCache.getDeletedCounter() + ConstantsIO.tab + ConstantsIO.instancesDeleted);
+            // Amount of instances left
+            System.out.println(ConstantsIO.amountOfInstancesLeft + ConstantsIO.tab + treeTable.size());
+            // Time
+            System.out.println(ConstantsIO.timeTaken + ConstantsIO.tab + timer.timePassed() + ConstantsIO.millisecond);
+            return treeTable;
+        }
+
+        // Datasets are only parsed here, each tree is created once after it was repaired
+        List<TreeTraits> traitsList = ConstantsDatasets.FUSED_REPAIR ? MyIO.readParsedTreeDatasets(ConstantsDatasets.FILE_PATH) : null;
+        List<Tree> treeList = traitsList == null ? MyIO.readTreeDatasets(ConstantsDatasets.FILE_PATH) : null;
+        int createdCounter = traitsList != null ? traitsList.size() : treeList.size();
         // Amount of instances created
-        System.out.println(ConstantsIO.newLine + ConstantsIO.amountOfInstancesCreated + ConstantsIO.tab + treeList.size());
+        System.out.println(ConstantsIO.newLine + ConstantsIO.amountOfInstancesCreated + ConstantsIO.tab + createdCounter);
         // Time
         System.out.println(ConstantsIO.timeTaken + ConstantsIO.tab + timer.timePassed() + ConstantsIO.millisecond);
 
@@ -93,18 +205,51 @@ public class MyIO
         System.out.println(ConstantsIO.newLine + ConstantsIO.repairProcessInitiating);
         timer.reset();
         DataRepair dataRepair = new DataRepair();
-        treeList = dataRepair.fixData(treeList); // Repairs list
+        RepairReport repairReport = traitsList != null ? dataRepair.repairParsedData(traitsList) :
+                dataRepair.repairData(treeList); // Repairs list
+        traitsList = null; // Parsed datasets are not needed anymore
+        treeList = repairReport.getTrees();
         // Amount of corrupt instances
-        System.out.println(ConstantsIO.newLine + ConstantsIO.amountOfCorruptInstances + ConstantsIO.tab + DataRepair.getCorruptCounter());
+        System.out.println(ConstantsIO.newLine + ConstantsIO.amountOfCorruptInstances + ConstantsIO.tab + repairReport.getCorruptCounter());
         // Amount repaired
-        System.out.println(DataRepair.getRepairedCounter() + ConstantsIO.tab + ConstantsIO.instancesRepaired);
+        System.out.println(repairReport.getRepairedCounter() + ConstantsIO.tab + ConstantsIO.instancesRepaired);
         // Amount deleted
-        System.out.println(DataRepair.getDeletedCounter() + ConstantsIO.tab + ConstantsIO.instancesDeleted);
+        System.out.println(repairReport.getDeletedCounter() + ConstantsIO.tab + ConstantsIO.instancesDeleted);
         // Amount of instances left
         System.out.println(ConstantsIO.amountOfInstancesLeft + ConstantsIO.tab + treeList.size());
         // Time
         System.out.println(ConstantsIO.timeTaken + ConstantsIO.tab + timer.timePassed() + ConstantsIO.millisecond);
 
-        questionsAndAnswers(treeList);
+        treeTable = new TreeTable(treeList);
+        if (fingerprint != null)
+        {
+            try
+            {
+                snapshotCache.save(treeTable, fingerprint, createdCounter, repairReport.getCorruptCounter(),
+                        repairReport.getRepairedCounter(), repairReport.getDeletedCounter());
+            } catch (IOException e)
+            {
+                System.out.println(ConstantsIO.snapshotNotSaved + ConstantsIO.tab + e.getMessage()); // Next start parses again
+            }
+        }
+        return treeTable;
+    }
+
+
+    /**
+     * Reads the fingerprint of the dataset file before it is parsed, see {@link SnapshotCache#getSourceFingerprint()}.
+     *
+     * @param snapshotCache The snapshot cache of the dataset file.
+     * @return The fingerprint, or {@code null} if the file cannot be read, in which case no snapshot is loaded or saved.
+     */
+    private static SnapshotCache.Fingerprint getSourceFingerprint (SnapshotCache snapshotCache)
+    {
+        try
+        {
+            return snapshotCache.getSourceFingerprint();
+        } catch (IOException e)
+        {
+            return null; // Reading the datasets reports the problem
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,296 @@
+package utility;
+
+
+import model.Tree;
+import model.TreeTraits;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsIO;
+import utility.constants.ConstantsMath;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+
+
+/**
+ * The ParallelCSVReader class reads the dataset file in byte ranges that are parsed on a fork-join pool.
+ * As a worker cannot know whether a line start within its range is a real record boundary (quoted cells and records
+ * may span multiple lines), it starts at the first line start speculatively. While merging, the records of a range are
+ * only taken from the boundary at which the previous range really ended. If that boundary was never reached by the
+ * worker, the range is parsed again from the right boundary, so the result always equals the sequential reader.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class ParallelCSVReader
+{
+    /**
+     * Retrieves a list of Tree objects from a CSV file, parsing byte ranges of the file in parallel.
+     * Trees are returned in the original row order and rejected rows are reported with their global row index.
+     *
+     * @param path        The path to the CSV file.
+     * @param parallelism The amount of worker threads.
+     *                    ({@code parallelism} > 0)
+     * @return A list containing Tree objects parsed from the CSV file.
+     * @throws RuntimeException if an I/O error occurs.
+     */
+    public static List<Tree> getListOfTrees (String path, int parallelism)
+    {
+        return getListOfRecords(path, parallelism, CSVReader::getTree);
+    }
+
+
+    /**
+     * Retrieves a list of parsed and validated datasets from a CSV file, parsing byte ranges of the file in parallel,
+     * without creating Tree objects. Invalid traits are already set to default.
+     *
+     * @param path        The path to the CSV file.
+     * @param parallelism The amount of worker threads.
+     *                    ({@code parallelism} > 0)
+     * @return A list containing the datasets parsed from the CSV file, in the original row order.
+     * @throws RuntimeException if an I/O error occurs.
+     */
+    public static List<TreeTraits> getListOfTreeTraits (String path, int parallelism)
+    {
+        return getListOfRecords(path, parallelism, CSVReader::getTreeTraits);
+    }
+
+
+    /**
+     * Parses byte ranges of a CSV file in parallel, creating one record per dataset.
+     *
+     * @param path         The path to the CSV file.
+     * @param parallelism  The amount of worker threads.
+     *                     ({@code parallelism} > 0)
+     * @param recordParser Creates a record from the cells of one dataset with the reader of the worker, {@code null}
+     *                     if the dataset is invalid.
+     * @param <T>          The type of the records.
+     * @return A list containing the records parsed from the CSV file, in the original row order.
+     * @throws RuntimeException if an I/O error occurs.
+     */
+    private static <T> List<T> getListOfRecords (String path, int parallelism, BiFunction<CSVReader, String[], T> recordParser)
+    {
+        try (FileChannel fileChannel = FileChannel.open(Path.of(path), StandardOpenOption.READ))
+        {
+            long fileSize = fileChannel.size();
+            int amountOfChunks = (int) Math.max(ConstantsMath.ONE, Math.min(
+                    (long) parallelism * ConstantsDatasets.CHUNKS_PER_WORKER, fileSize / ConstantsDatasets.MIN_CHUNK_BYTES));
+            long chunkSize = Math.max((long) ConstantsMath.ONE, (fileSize + amountOfChunks - (int) ConstantsMath.ONE) / amountOfChunks);
+
+            // Splits the file into byte ranges
+            List<ChunkTask<T>> chunkTasks = new ArrayList<>();
+            for (int i = (int) ConstantsMath.ZERO; i < amountOfChunks; i++)
+            {
+                long start = Math.min(fileSize, i * chunkSize);
+                long end = i == amountOfChunks - (int) ConstantsMath.ONE ? fileSize : Math.min(fileSize, start + chunkSize);
+                chunkTasks.add(new ChunkTask<>(fileChannel, start, end, recordParser));
+            }
+
+            ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+            try
+            {
+                forkJoinPool.submit(() -> ForkJoinTask.invokeAll(chunkTasks)).join();
+            } finally
+            {
+                forkJoinPool.shutdown();
+            }
+            return merge(fileChannel, chunkTasks, recordParser);
+        } catch (IOException | UncheckedIOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    /**
+     * Merges the results of all ranges in row order, starting each range at the boundary the previous one ended at.
+     *
+     * @param fileChannel  The channel of the dataset file.
+     *                     ({@code fileChannel} != {@code null})
+     * @param chunkTasks   The completed tasks in file order.
+     *                     ({@code chunkTasks} != {@code null})
+     * @param recordParser Creates a record from the cells of one dataset.
+     * @param <T>          The type of the records.
+     * @return The merged list of records.
+     * @throws IOException if a range needs to be parsed again and the file cannot be read.
+     */
+    private static <T> List<T> merge (FileChannel fileChannel, List<ChunkTask<T>> chunkTasks,
+                                      BiFunction<CSVReader, String[], T> recordParser) throws IOException
+    {
+        List<T> treeList = new ArrayList<>();
+        long expectedStart = (long) ConstantsMath.ZERO;
+        int rowIndex = (int) ConstantsMath.ZERO;
+
+        for (ChunkTask<T> chunkTask : chunkTasks)
+        {
+            ChunkResult<T> chunkResult = chunkTask.join();
+            int firstRecord = chunkResult.indexOfRecordStart(expectedStart);
+            if (firstRecord < ConstantsMath.ZERO)
+            {
+                if (expectedStart >= chunkResult.endPosition) continue; // Range was completely covered by the previous one
+                // Worker started in the middle of a record: parses range again from the real boundary
+                chunkResult = parseChunk(fileChannel, expectedStart, chunkTask.end, ConstantsMath.bFalse, recordParser);
+                firstRecord = (int) ConstantsMath.ZERO;
+            }
+
+            for (int i = firstRecord; i < chunkResult.size; i++, rowIndex++)
+            {
+                if (chunkResult.invalidRecords.get(i))
+                {
+                    System.out.println(ConstantsIO.invalidDataset + ConstantsIO.tab + rowIndex);
+                } else
+                {
+                    treeList.add(chunkResult.trees.get(i));
+                }
+            }
+            expectedStart = chunkResult.endPosition;
+        }
+        return treeList;
+    }
+
+
+    /**
+     * Parses all records starting in a byte range. The last record may end behind the range.
+     *
+     * @param fileChannel      The channel of the dataset file.
+     *                         ({@code fileChannel} != {@code null})
+     * @param start            The first byte of the range.
+     * @param end              The byte after the range.
+     * @param alignToLineStart Whether the parser should first move to the next line start.
+     * @param recordParser     Creates a record from the cells of one dataset.
+     * @param <T>              The type of the records.
+     * @return The records of the range with their start positions.
+     * @throws IOException if the file cannot be read.
+     */
+    private static <T> ChunkResult<T> parseChunk (FileChannel fileChannel, long start, long end, boolean alignToLineStart,
+                                                  BiFunction<CSVReader, String[], T> recordParser) throws IOException
+    {
+        ChunkResult<T> chunkResult = new ChunkResult<>((end - start) / ConstantsDatasets.ESTIMATED_RECORD_BYTES);
+        CSVTokenizer csvTokenizer = new CSVTokenizer(fileChannel, start);
+        CSVReader csvReader = new CSVReader();
+        if (alignToLineStart) csvTokenizer.skipToLineStart();
+
+        while (csvTokenizer.getPosition() < end)
+        {
+            long recordStart = csvTokenizer.getPosition();
+            String[] attributes = csvTokenizer.nextRecord();
+            if (attributes == null) break; // End of file
+
+            // Records with more cells than attributes are invalid, reported with their global index while merging
+            T tree = csvTokenizer.hasRecordOverflow() ? null : recordParser.apply(csvReader, attributes);
+            chunkResult.add(recordStart, tree, tree == null);
+        }
+        chunkResult.endPosition = csvTokenizer.getPosition();
+        return chunkResult;
+    }
+
+
+    /**
+     * The ChunkTask class parses one byte range of the file on the fork-join pool.
+     */
+    private static class ChunkTask<T> extends RecursiveTask<ChunkResult<T>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel fileChannel;
+        private final long start;
+        private final long end;
+        private final BiFunction<CSVReader, String[], T> recordParser;
+
+
+        /**
+         * Constructs a ChunkTask for a byte range.
+         *
+         * @param fileChannel  The channel of the dataset file.
+         * @param start        The first byte of the range.
+         * @param end          The byte after the range.
+         * @param recordParser Creates a record from the cells of one dataset.
+         */
+        ChunkTask (FileChannel fileChannel, long start, long end, BiFunction<CSVReader, String[], T> recordParser)
+        {
+            this.fileChannel = fileChannel;
+            this.start = start;
+            this.end = end;
+            this.recordParser = recordParser;
+        }
+
+
+        @Override
+        protected ChunkResult<T> compute ()
+        {
+            try
+            {
+                // The first range starts at the beginning of the file, which always is a record boundary
+                return parseChunk(fileChannel, start, end, start > ConstantsMath.ZERO, recordParser);
+            } catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+
+    /**
+     * The ChunkResult class holds the records parsed from one byte range together with their start positions.
+     */
+    private static class ChunkResult<T>
+    {
+        private long[] recordStarts;
+        private final List<T> trees;
+        private final BitSet invalidRecords = new BitSet();
+        private int size;
+        private long endPosition;
+
+
+        /**
+         * Constructs an empty ChunkResult.
+         *
+         * @param expectedRecords The estimated amount of records in the range.
+         */
+        ChunkResult (long expectedRecords)
+        {
+            int capacity = (int) Math.max(ConstantsMath.ONE, Math.min(Integer.MAX_VALUE, expectedRecords));
+            recordStarts = new long[capacity];
+            trees = new ArrayList<>(capacity);
+        }
+
+
+        /**
+         * Adds a parsed record.
+         *
+         * @param recordStart The byte position at which the record starts.
+         * @param tree        The tree created from the record, or {@code null} if the record is invalid.
+         * @param isInvalid   Whether the record is invalid.
+         */
+        void add (long recordStart, T tree, boolean isInvalid)
+        {
+            if (size == recordStarts.length) recordStarts = Arrays.copyOf(recordStarts, size * (int) ConstantsMath.TWO);
+            recordStarts[size] = recordStart;
+            trees.add(tree);
+            if (isInvalid) invalidRecords.set(size);
+            size++;
+        }
+
+
+        /**
+         * Finds the record that starts at a specific byte position.
+         *
+         * @param position The byte position.
+         * @return The index of the record, or a negative value if no record starts at the position.
+         */
+        int indexOfRecordStart (long position)
+        {
+            return Arrays.binarySearch(recordStarts, (int) ConstantsMath.ZERO, size, position);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package utility;
+
+
+import model.TreeTable;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsMath;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+
+/**
+ * The SnapshotCache class stores the repaired datasets as typed binary columns next to the dataset file.
+ * Numbers are stored as ints, doubles and floats, strings are dictionary-coded and loaded into a TreeTable column by column.
+ * A snapshot is keyed by the size, modification time and CRC32 hash of the dataset file, so it is only used as long as
+ * the dataset file has not changed. The settings of the repair are stored as well, a snapshot repaired with other
+ * settings is ignored.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class SnapshotCache
+{
+    private static final int[] STRING_TRAITS = {ConstantsDatasets.INDEX_Name, ConstantsDatasets.INDEX_TypeGerman,
+            ConstantsDatasets.INDEX_TypeBotanical, ConstantsDatasets.INDEX_SpeciesGerman,
+            ConstantsDatasets.INDEX_SpeciesBotanical, ConstantsDatasets.INDEX_District};
+
+    private final Path sourcePath;
+    private final Path snapshotPath;
+
+    private int createdCounter;
+    private int corruptCounter;
+    private int repairedCounter;
+    private int deletedCounter;
+
+
+    /**
+     * Constructs a SnapshotCache for the dataset file at the given path.
+     *
+     * @param sourcePath The path to the CSV file.
+     *                   ({@code sourcePath} != {@code null})
+     */
+    public SnapshotCache (String sourcePath)
+    {
+        this.sourcePath = Path.of(sourcePath);
+        this.snapshotPath = Path.of(sourcePath + ConstantsDatasets.SNAPSHOT_SUFFIX);
+    }
+
+
+    /**
+     * Reads the size, modification time and hash of the dataset file. It is read before the file is parsed, so a
+     * snapshot saved afterwards is keyed to the file its trees came from, even if the file changes in between.
+     *
+     * @return The fingerprint of the dataset file.
+     * @throws IOException if the dataset file cannot be read.
+     */
+    public Fingerprint getSourceFingerprint () throws IOException
+    {
+        return new Fingerprint(sourcePath);
+    }
+
+
+    /**
+     * Loads the repaired trees from the memory-mapped snapshot, copying the columns straight into a table.
+     *
+     * @param fingerprint The fingerprint of the dataset file, see {@link #getSourceFingerprint()}.
+     *                    ({@code fingerprint} != {@code null})
+     * @return The table of repaired trees, or {@code null} if there is no snapshot or the dataset file has changed.
+     */
+    public TreeTable load (Fingerprint fingerprint)
+    {
+        if (!Files.isRegularFile(snapshotPath)) return null;
+
+        try (FileChannel fileChannel = FileChannel.open(snapshotPath, StandardOpenOption.READ))
+        {
+            if (fileChannel.size() > Integer.MAX_VALUE) return null; // Snapshot cannot be mapped at once
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, (long) ConstantsMath.ZERO, fileChannel.size());
+
+            // Header
+            if (buffer.getInt() != ConstantsDatasets.SNAPSHOT_MAGIC) return null;
+            if (buffer.getInt() != ConstantsDatasets.SNAPSHOT_VERSION) return null;
+            if (buffer.getInt() != getRepairFlags() ||
+                    buffer.getInt() != ConstantsDatasets.IMPUTATION_MINIMUM_TREES ||
+                    buffer.getInt() != ConstantsDatasets.QUANTILE_SKETCH_BINS) return null; // Repaired with other settings
+            if (buffer.getLong() != fingerprint.size ||
+                    buffer.getLong() != fingerprint.modificationTime ||
+                    buffer.getLong() != fingerprint.hash) return null; // Dataset file has changed
+
+            createdCounter = buffer.getInt();
+            corruptCounter = buffer.getInt();
+            repairedCounter = buffer.getInt();
+            deletedCounter = buffer.getInt();
+            int amountOfTrees = buffer.getInt();
+
+            // Dictionary-coded columns
+            String[][] values = new String[ConstantsDatasets.AMOUNT_OF_ATTRIBUTES][];
+            int[][] valueIndices = new int[ConstantsDatasets.AMOUNT_OF_ATTRIBUTES][];
+            for (int traitIndex : STRING_TRAITS)
+            {
+                values[traitIndex] = new String[buffer.getInt()];
+                for (int i = (int) ConstantsMath.ZERO; i < values[traitIndex].length; i++)
+                {
+                    byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    values[traitIndex][i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                valueIndices[traitIndex] = new int[amountOfTrees];
+                buffer.asIntBuffer().get(valueIndices[traitIndex]);
+                buffer.position(buffer.position() + amountOfTrees * Integer.BYTES);
+            }
+
+            // Typed columns
+            int[] ids = new int[amountOfTrees];
+            int[] years = new int[amountOfTrees];
+            int[] ages = new int[amountOfTrees];
+            double[] croneDiameters = new double[amountOfTrees];
+            int[] circumferences = new int[amountOfTrees];
+            float[] heights = new float[amountOfTrees];
+            long[] isDeciduous = new long[buffer.getInt()];
+            int[] repairedTraits = new int[amountOfTrees];
+            buffer.asLongBuffer().get(isDeciduous);
+            buffer.position(buffer.position() + isDeciduous.length * Long.BYTES);
+            buffer.asIntBuffer().get(ids);
+            buffer.position(buffer.position() + amountOfTrees * Integer.BYTES);
+            buffer.asIntBuffer().get(years);
+            buffer.position(buffer.position() + amountOfTrees * Integer.BYTES);
+            buffer.asIntBuffer().get(ages);
+            buffer.position(buffer.position() + amountOfTrees * Integer.BYTES);
+            buffer.asDoubleBuffer().get(croneDiameters);
+            buffer.position(buffer.position() + amountOfTrees * Double.BYTES);
+            buffer.asIntBuffer().get(circumferences);
+            buffer.position(buffer.position() + amountOfTrees * Integer.BYTES);
+            buffer.asFloatBuffer().get(heights);
+            buffer.position(buffer.position() + amountOfTrees * Float.BYTES);
+            buffer.asIntBuffer().get(repairedTraits);
+
+            return new TreeTable(ids, years, ages, croneDiameters, circumferences, heights, BitSet.valueOf(isDeciduous),
+                    repairedTraits, values, valueIndices);
+        } catch (IOException | RuntimeException e)
+        {
+            return null; // Unreadable snapshots are treated like missing ones
+        }
+    }
+
+
+    /**
+     * Saves the repaired trees as a snapshot of the dataset file.
+     * The snapshot is written to a temporary file first, so an interrupted save never leaves a broken snapshot.
+     *
+     * @param treeTable       The table of repaired trees.
+     *                        ({@code treeTable} != {@code null})
+     * @param fingerprint     The fingerprint of the dataset file, read before it was parsed.
+     *                        ({@code fingerprint} != {@code null})
+     * @param createdCounter  The amount of instances created from the file.
+     * @param corruptCounter  The amount of corrupt instances.
+     * @param repairedCounter The amount of repaired instances.
+     * @param deletedCounter  The amount of deleted instances.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void save (TreeTable treeTable, Fingerprint fingerprint, int createdCounter, int corruptCounter, int repairedCounter,
+                      int deletedCounter) throws IOException
+    {
+        Path temporaryPath = Path.of(snapshotPath + ConstantsDatasets.SNAPSHOT_TEMPORARY_SUFFIX);
+        int amountOfTrees = treeTable.size();
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath))))
+        {
+            // Header
+            outputStream.writeInt(ConstantsDatasets.SNAPSHOT_MAGIC);
+            outputStream.writeInt(ConstantsDatasets.SNAPSHOT_VERSION);
+            outputStream.writeInt(getRepairFlags());
+            outputStream.writeInt(ConstantsDatasets.IMPUTATION_MINIMUM_TREES);
+            outputStream.writeInt(ConstantsDatasets.QUANTILE_SKETCH_BINS);
+            outputStream.writeLong(fingerprint.size);
+            outputStream.writeLong(fingerprint.modificationTime);
+            outputStream.writeLong(fingerprint.hash);
+            outputStream.writeInt(createdCounter);
+            outputStream.writeInt(corruptCounter);
+            outputStream.writeInt(repairedCounter);
+            outputStream.writeInt(deletedCounter);
+            outputStream.writeInt(amountOfTrees);
+
+            // Dictionary-coded columns, the codes of the table are stored as they are
+            for (int traitIndex : STRING_TRAITS)
+            {
+                outputStream.writeInt(treeTable.getAmountOfCodes(traitIndex));
+                for (int code = (int) ConstantsMath.ZERO; code < treeTable.getAmountOfCodes(traitIndex); code++)
+                {
+                    byte[] bytes = treeTable.getValue(traitIndex, code).getBytes(StandardCharsets.UTF_8);
+                    outputStream.writeInt(bytes.length);
+                    outputStream.write(bytes);
+                }
+                for (int row = (int) ConstantsMath.ZERO; row < amountOfTrees; row++) outputStream.writeInt(treeTable.getCode(row, traitIndex));
+            }
+
+            // Typed columns
+            BitSet isDeciduous = new BitSet(amountOfTrees);
+            for (int row = (int) ConstantsMath.ZERO; row < amountOfTrees; row++) if (treeTable.getIsDeciduous(row)) isDeciduous.set(row);
+            long[] isDeciduousWords = isDeciduous.toLongArray();
+            outputStream.writeInt(isDeciduousWords.length);
+            for (long word : isDeciduousWords) outputStream.writeLong(word);
+            for (int row = (int) ConstantsMath.ZERO; row < amountOfTrees; row++) outputStream.writeInt(treeTable.getID(row));
+            for (int row = (int) ConstantsMath.ZERO; row < amountOfTrees; row++) outputStream.writeInt(treeTable.getYearOfPlantation(row));
+            for (int row = (int) ConstantsMath.ZERO; row < amountOfTrees; row++) outputStream.writeInt(treeTable.getAge(row));
+            for (int row = (int) ConstantsMath.ZERO; row < amountOfTrees; row++) outputStream.writeDouble(treeTable.getCroneDiameterM(row));
+            for (int row = (int) ConstantsMath.ZERO; row < amountOfTrees; row++) outputStream.writeInt(treeTable.getCircumferenceCM(row));
+            for (int row = (int) ConstantsMath.ZERO; row < amountOfTrees; row++) outputStream.writeFloat(treeTable.getHeightM(row));
+            for (int row = (int) ConstantsMath.ZERO; row < amountOfTrees; row++) outputStream.writeInt(treeTable.getRepairedTraits(row));
+        }
+        Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /**
+     * Packs the switches that change the repaired datasets into one int, so a snapshot is only used with the same repair.
+     *
+     * @return The bits of {@link ConstantsDatasets#FUSED_REPAIR} and {@link ConstantsDatasets#IMPUTE_MEDIAN}.
+     */
+    private static int getRepairFlags ()
+    {
+        int repairFlags = (int) ConstantsMath.ZERO;
+        if (ConstantsDatasets.FUSED_REPAIR) repairFlags |= (int) ConstantsMath.ONE;
+        if (ConstantsDatasets.IMPUTE_MEDIAN) repairFlags |= (int) ConstantsMath.TWO;
+        return repairFlags;
+    }
+
+
+    /**
+     * Retrieves the amount of instances that were created from the file when the snapshot was saved.
+     *
+     * @return The amount of created instances.
+     */
+    public int getCreatedCounter ()
+    {
+        return createdCounter;
+    }
+
+
+    /**
+     * Retrieves the amount of corrupt instances found when the snapshot was saved.
+     *
+     * @return The amount of corrupt instances.
+     */
+    public int getCorruptCounter ()
+    {
+        return corruptCounter;
+    }
+
+
+    /**
+     * Retrieves the amount of instances repaired when the snapshot was saved.
+     *
+     * @return The amount of repaired instances.
+     */
+    public int getRepairedCounter ()
+    {
+        return repairedCounter;
+    }
+
+
+    /**
+     * Retrieves the amount of instances deleted when the snapshot was saved.
+     *
+     * @return The amount of deleted instances.
+     */
+    public int getDeletedCounter ()
+    {
+        return deletedCounter;
+    }
+
+
+    /**
+     * The Fingerprint class holds the size, the modification time and the CRC32 hash of a dataset file.
+     * The hash covers the whole file in one pass over memory-mapped windows, so edits that keep the size and the
+     * modification time are detected as well.
+     *
+     * @author Michael Markov
+     * @version v1
+     */
+    public static class Fingerprint
+    {
+        private final long size;
+        private final long modificationTime;
+        private final long hash;
+
+
+        /**
+         * Constructs a Fingerprint by reading the whole file.
+         *
+         * @param path The path to the file.
+         *             ({@code path} != {@code null})
+         * @throws IOException if the file cannot be read.
+         */
+        private Fingerprint (Path path) throws IOException
+        {
+            CRC32 crc32 = new CRC32();
+            modificationTime = Files.getLastModifiedTime(path).toMillis(); // Read first, so a change while hashing is never missed
+            try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ))
+            {
+                size = fileChannel.size();
+                for (long position = (long) ConstantsMath.ZERO; position < size; position += ConstantsDatasets.MAPPED_WINDOW_BYTES)
+                {
+                    crc32.update(fileChannel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(ConstantsDatasets.MAPPED_WINDOW_BYTES, size - position)));
+                }
+            }
+            hash = crc32.getValue();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package utility;
+
+
+import model.Tree;
+import utility.constants.ConstantsCSV;
+import utility.constants.ConstantsDatasets;
+import utility.constants.ConstantsIO;
+import utility.constants.ConstantsMath;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+
+/**
+ * The TreeSpliterator class parses the dataset file lazily, one record at a time, while it is being traversed.
+ * Only the cells of the current record are held in memory, so datasets larger than the heap can be processed.
+ * Splitting synchronizes to a record boundary near the middle of the remaining byte range like the
+ * {@link ParallelCSVReader}, but checks it right away instead of correcting it afterwards: a record spans at most
+ * {@link ConstantsDatasets#LINE_LIMIT_ONE_INSTANCE} + 2 lines, so one of that many consecutive line starts is a real
+ * boundary. If the records read from each of them end at the same position, that position is a real boundary as well.
+ * Only a few records are read for this, and both parts are exact, so they can be traversed by different threads.
+ *
+ * @author Michael Markov
+ * @version v1
+ */
+public class TreeSpliterator implements Spliterator<Tree>
+{
+    private final FileChannel fileChannel;
+    private final CSVReader csvReader = new CSVReader();
+    private final long end;
+    private CSVTokenizer csvTokenizer;
+
+
+    /**
+     * Constructs a TreeSpliterator over the whole file behind the given channel.
+     *
+     * @param fileChannel The channel of the dataset file. It has to stay open while the spliterator is used.
+     *                    ({@code fileChannel} != {@code null})
+     * @throws IOException if the size of the file cannot be determined.
+     */
+    public TreeSpliterator (FileChannel fileChannel) throws IOException
+    {
+        this(fileChannel, new CSVTokenizer(fileChannel), fileChannel.size());
+    }
+
+
+    /**
+     * Constructs a TreeSpliterator over the records starting between the position of the tokenizer and the end.
+     *
+     * @param fileChannel  The channel of the dataset file.
+     * @param csvTokenizer The tokenizer, positioned at a record boundary.
+     * @param end          The byte after the range.
+     */
+    private TreeSpliterator (FileChannel fileChannel, CSVTokenizer csvTokenizer, long end)
+    {
+        this.fileChannel = fileChannel;
+        this.csvTokenizer = csvTokenizer;
+        this.end = end;
+    }
+
+
+    /**
+     * Parses the next valid record and passes the tree to the given action.
+     * Invalid records are skipped and reported with the byte position they start at.
+     *
+     * @param action The action the tree is passed to.
+     * @return {@code true} if a tree was passed; {@code false} if there are no records left.
+     */
+    @Override
+    public boolean tryAdvance (Consumer<? super Tree> action)
+    {
+        try
+        {
+            while (csvTokenizer.getPosition() < end)
+            {
+                long recordStart = csvTokenizer.getPosition();
+                String[] attributes = csvTokenizer.nextRecord();
+                if (attributes == null) return ConstantsMath.bFalse; // End of file
+
+                // Records with more cells than attributes are invalid
+                Tree tree = csvTokenizer.hasRecordOverflow() ? null : csvReader.getTree(attributes);
+                if (tree == null)
+                {
+                    System.out.println(ConstantsIO.invalidDatasetAtByte + ConstantsIO.tab + recordStart);
+                    continue;
+                }
+                action.accept(tree);
+                return ConstantsMath.bTrue;
+            }
+            return ConstantsMath.bFalse;
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Splits off the first half of the remaining records.
+     *
+     * @return A spliterator over the first half, or {@code null} if the remaining range is too small to be split.
+     */
+    @Override
+    public Spliterator<Tree> trySplit ()
+    {
+        long position = csvTokenizer.getPosition();
+        if (end - position < ConstantsDatasets.MIN_CHUNK_BYTES) return null;
+
+        try
+        {
+            long boundary = getRecordBoundary(position, position + (end - position) / (long) ConstantsMath.TWO);
+            if (boundary >= end) return null;
+
+            Spliterator<Tree> prefix = new TreeSpliterator(fileChannel, csvTokenizer, boundary);
+            csvTokenizer = new CSVTokenizer(fileChannel, boundary); // This spliterator continues behind the boundary
+            return prefix;
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Searches a record boundary behind a byte position, reading only the records near that position.
+     *
+     * @param position The position of the tokenizer, which is a record boundary.
+     * @param middle   The byte position the boundary should be close to.
+     *                 ({@code middle} > {@code position})
+     * @return A record boundary behind the middle.
+     * @throws IOException if a part of the file cannot be mapped.
+     */
+    private long getRecordBoundary (long position, long middle) throws IOException
+    {
+        long lineStart = middle;
+        for (int attempt = (int) ConstantsMath.ZERO; attempt < ConstantsDatasets.SPLIT_SYNC_ATTEMPTS && lineStart < end; attempt++)
+        {
+            // Consecutive line starts, a record cannot span more lines than this
+            long[] lineStarts = new long[ConstantsDatasets.LINE_LIMIT_ONE_INSTANCE + (int) ConstantsMath.TWO];
+            for (int i = (int) ConstantsMath.ZERO; i < lineStarts.length; i++)
+            {
+                CSVTokenizer lineTokenizer = new CSVTokenizer(fileChannel, lineStart);
+                lineTokenizer.skipToLineStart();
+                lineStarts[i] = lineTokenizer.getPosition();
+                lineStart = Math.min(lineTokenizer.getFileSize(), lineStarts[i] + (int) ConstantsMath.ONE);
+            }
+
+            // One of the line starts is a real boundary, so if the records read from all of them meet, they meet at a real boundary
+            long target = lineStarts[lineStarts.length - (int) ConstantsMath.ONE];
+            long boundary = ConstantsCSV.NUMBER_DEFAULT_VALUE;
+            for (long candidate : lineStarts)
+            {
+                CSVTokenizer recordTokenizer = new CSVTokenizer(fileChannel, candidate);
+                recordTokenizer.skipRecordsUntil(target);
+                if (boundary != ConstantsCSV.NUMBER_DEFAULT_VALUE && recordTokenizer.getPosition() != boundary)
+                {
+                    boundary = ConstantsCSV.NUMBER_DEFAULT_VALUE; // Records do not meet, tries the following lines
+                    break;
+                }
+                boundary = recordTokenizer.getPosition();
+            }
+            if (boundary != ConstantsCSV.NUMBER_DEFAULT_VALUE) return boundary;
+        }
+
+        // Only reading from a known boundary is exact
+        CSVTokenizer suffixTokenizer = new CSVTokenizer(fileChannel, position);
+        suffixTokenizer.skipRecordsUntil(middle);
+        return suffixTokenizer.getPosition();
+    }
+
+
+    /**
+     * Estimates the amount of remaining trees from the remaining bytes.
+     *
+     * @return The estimated amount of remaining trees.
+     */
+    @Override
+    public long estimateSize ()
+    {
+        return Math.max((long) ConstantsMath.ZERO, end - csvTokenizer.getPosition()) / ConstantsDatasets.ESTIMATED_RECORD_BYTES;
+    }
+
+
+    @Override
+    public int characteristics ()
+    {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
@@ -10,4 +10,15 @@ public interface ConstantsCO2
     double minimumLogDiameterCM = 7;
     double maximumLogDiameterCM = 60;
     double subtrahendLookUpTableLogDiameter = minimumLogDiameterCM + 1;
+
+    boolean speciesCarbonModels = false; // Trees of genera with their own carbon model use it instead of the tables of their class, off until tables of real species data exist
+    String genusSeparator = " "; // Separates the genus from the rest of the botanical species
+
+    int projectionCircumferenceBinCM = 10; // Width of the circumference ranges the height curve of a species is averaged over
+    int projectionMaximumCircumferenceCM = 500; // Larger circumferences share the height of the last range
+
+    int monteCarloSamples = 2000; // Amount of sampled carbon totals the uncertainty is estimated from
+    long monteCarloSeed = 20240101L; // Seed of the random generators, equal seeds give equal estimates
+    double monteCarloRelativeDeviation = 0.2; // Standard deviation of a repaired measurement, relative to its value
+    double monteCarloConfidenceLevel = 0.95; // Share of the samples inside the reported intervals
 }
@@ -8,7 +8,36 @@ public interface ConstantsDatasets
     char IGNORE_IN = '"'; // Ignores splitter character when surrounded by this character
     int AMOUNT_OF_ATTRIBUTES = 12; // Amount of attributes in CSV sheet
     int LINE_LIMIT_ONE_INSTANCE = 2; // Hard limit adding lines to string
-    int HARDLIMIT_LINE_READINGS = 999999; // Hard limit in order to avoid infinite loop
+    int HARDLIMIT_LINE_READINGS = 999999; // Hard limit of the line by line reader, the lines beyond it are reported and skipped
+    boolean MEMORY_MAPPED_INGESTION = true; // Reads the file memory-mapped instead of line by line
+    int MAPPED_WINDOW_BYTES = 1 << 30; // Size of one memory-mapped part of the file
+    int CELL_BUFFER_BYTES = 256; // Initial size of the buffer holding the bytes of one cell
+    boolean PARALLEL_INGESTION = true; // Parses byte ranges of the file on multiple threads
+    int INGESTION_PARALLELISM = Runtime.getRuntime().availableProcessors(); // Amount of threads parsing the file
+    int CHUNKS_PER_WORKER = 4; // Byte ranges per thread, smaller ranges balance the load better
+    int MIN_CHUNK_BYTES = 1 << 20; // Smaller files are not split any further
+    int ESTIMATED_RECORD_BYTES = 128; // Used to estimate the amount of records in a byte range
+    int SPLIT_SYNC_ATTEMPTS = 8; // Groups of lines a split examines for a record boundary before it reads from a known one
+    boolean SNAPSHOT_CACHE = true; // Stores the repaired datasets next to the file and reuses them on the next start
+    String SNAPSHOT_SUFFIX = ".snapshot"; // Appended to the path of the file to get the path of the snapshot
+    String SNAPSHOT_TEMPORARY_SUFFIX = ".tmp"; // Snapshot is written under this name first
+    int SNAPSHOT_MAGIC = 0x4241554D; // First bytes of every snapshot file ("BAUM")
+    int SNAPSHOT_VERSION = 6; // Snapshots of other versions are ignored, bumped whenever the repaired datasets change
+    boolean COLUMNAR_QUERIES = true; // Answers the questions from a TreeTable instead of the list of trees
+    boolean SINGLE_PASS_QUERIES = true; // Computes all answers in one pass over the TreeTable before the menu is shown
+    int AGGREGATION_PARALLELISM = Runtime.getRuntime().availableProcessors(); // Amount of threads aggregating the TreeTable
+    int AGGREGATION_SEGMENT_ROWS = 1 << 16; // Rows per partial aggregate, fixed so the merge order never depends on the threads
+    int BITMAP_CONTAINER_BITS = 16; // Lower bits of a row kept per bitmap container, at most 16 so they fit into a char
+    int BITMAP_ARRAY_CONTAINER_MAXIMUM = 4096; // Containers with more rows are stored as bitmaps, unless runs are smaller
+    int ZONE_MAP_SEGMENT_ROWS = 1 << 12; // Rows per zone map segment, a power of two so segments never span two bitmap containers
+    boolean PARALLEL_REPAIR = true; // Repairs segments of the datasets on multiple threads
+    int REPAIR_PARALLELISM = Runtime.getRuntime().availableProcessors(); // Amount of threads repairing the datasets
+    int REPAIR_SEGMENT_TREES = 1 << 14; // Trees per repaired segment, segments are joined in the order of the datasets
+    boolean FUSED_REPAIR = true; // Repairs the parsed datasets before creating trees, so every tree is created once
+    boolean IMPUTE_MEDIAN = true; // Fills missing measurements with the median of the species instead of the mean
+    int IMPUTATION_MINIMUM_TREES = 10; // Values a species or genus needs for statistics of its own, otherwise the next broader group is used
+    int QUANTILE_SKETCH_BINS = 512; // Bins per quantile sketch, a median is off by at most the range divided by this amount
+    int MONTE_CARLO_SAMPLES_PER_TASK = 64; // Samples drawn by one task, each task has its own random generator
 
 
     // CSV trait indices
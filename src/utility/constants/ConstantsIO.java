@@ -4,6 +4,8 @@ package utility.constants;
 public interface ConstantsIO
 {
     int answerCharactersUntilNewLine = 20; // Number of characters until new line upon putting out an answer
+    int amountOfTopTrees = 10; // Number of trees listed by the top trees question
+    int amountOfProjectedYears = 10; // Number of years projected by the carbon projection question
 
 
     // Console feedback
@@ -14,10 +16,14 @@ public interface ConstantsIO
     String millisecond = "ms";
     String meter = "m";
     String centimeter = "cm";
+    String colon = ":";
+    String percent = "%";
 
     // Exception messages
     String illegalInputMessage = "Following input not allowed: ";
     String invalidDataset = "Invalid dataset. Skipping line:";
+    String invalidDatasetAtByte = "Invalid dataset. Skipping record at byte:";
+    String lineLimitReached = "Line limit reached. Skipping lines from:";
 
     // Process of reading datasets
     String timeTaken = "Time taken:";
@@ -28,7 +34,10 @@ public interface ConstantsIO
     String instancesDeleted = "instances deleted.";
     String instancesRepaired = "instances repaired.";
     String amountOfInstancesLeft = "Amount of instances left:";
-    String pleaseForExpectedInput = "Please enter a number from 0 up to 13.";
+    String snapshotLoaded = "Repaired instances loaded from snapshot.";
+    String snapshotNotSaved = "Snapshot could not be saved:";
+    String pleaseForExpectedInput = "Please enter a number from " + ConstantsIO.questionNumber0 + " up to " +
+            ConstantsIO.questionNumber16 + "."; // Built from the first and the last question number
 
 
     // Output tree format
@@ -100,4 +109,24 @@ public interface ConstantsIO
     String questionNumber13 = "13";
     String question13 = "Welche Gattung hat die größte Menge an Kohlenstoff gespeichert?";
     String answer13 = "Die größte Menge an Kohlenstoff wurde von der Gattung gespeichert:";
+
+    String questionNumber14 = "14";
+    String question14 = "Welches sind die " + amountOfTopTrees + " höchsten Bäume?";
+    String answer14 = "Die höchsten Bäume sind:";
+
+    String questionNumber15 = "15";
+    String question15 = "Wie viel Kohlenstoff werden die Bäume in Berlin in den nächsten " + amountOfProjectedYears + " Jahren gespeichert haben?";
+    String answer15 = "Anzahl an Kohlenstoff in Kilogram, der in den kommenden Jahren in Berlin gespeichert sein wird:";
+    String projectionYear = "Jahr +";
+
+    String questionNumber16 = "16";
+    String question16 = "Wie genau ist die Menge an Kohlenstoff bekannt, wenn reparierte Messwerte abweichen?";
+    String answer16 = "Anzahl an Kohlenstoff in Kilogram als Mittelwert und Konfidenzintervall:";
+    String confidenceLevel = "Konfidenzniveau:";
+    String berlin = "Berlin";
+    String intervalStart = "[";
+    String intervalSeparator = " - ";
+    String intervalEnd = "]";
+
+    String noTreesMatch = "Keine Bäume entsprechen dem Filter.";
 }
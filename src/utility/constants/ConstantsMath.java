@@ -10,6 +10,7 @@ public interface ConstantsMath
     double MITCHELL_FACTOR = 0.6;
     double ONE = 1;
     double TWO = 2;
+    double ONE_HUNDRED = 100;
     boolean bTrue = true;
     boolean bFalse = false;
     String emptyString = "";
@@ -1,7 +1,13 @@
 package view;
 
 
+import model.CarbonEstimate;
+import model.CarbonProjection;
+import model.CarbonUncertainty;
 import utility.constants.ConstantsIO;
+import utility.constants.ConstantsMath;
+
+import java.util.Map;
 
 
 /**
@@ -33,7 +39,10 @@ public class PrintConsole
                 ConstantsIO.questionNumber10 + ConstantsIO.tab + ConstantsIO.question10 + ConstantsIO.newLine +
                 ConstantsIO.questionNumber11 + ConstantsIO.tab + ConstantsIO.question11 + ConstantsIO.newLine +
                 ConstantsIO.questionNumber12 + ConstantsIO.tab + ConstantsIO.question12 + ConstantsIO.newLine +
-                ConstantsIO.questionNumber13 + ConstantsIO.tab + ConstantsIO.question13 + ConstantsIO.newLine);
+                ConstantsIO.questionNumber13 + ConstantsIO.tab + ConstantsIO.question13 + ConstantsIO.newLine +
+                ConstantsIO.questionNumber14 + ConstantsIO.tab + ConstantsIO.question14 + ConstantsIO.newLine +
+                ConstantsIO.questionNumber15 + ConstantsIO.tab + ConstantsIO.question15 + ConstantsIO.newLine +
+                ConstantsIO.questionNumber16 + ConstantsIO.tab + ConstantsIO.question16 + ConstantsIO.newLine);
     }
 
 
@@ -54,6 +63,64 @@ public class PrintConsole
     }
 
 
+    /**
+     * Formats the carbon stored by all trees in each year of a projection, one year per line.
+     *
+     * @param carbonProjection The projection of the stored carbon.
+     *                         ({@code carbonProjection} != {@code null})
+     * @return The formatted projection, rounded to whole kilograms.
+     */
+    public String getCarbonProjection (CarbonProjection carbonProjection)
+    {
+        StringBuilder projection = new StringBuilder();
+        double[] totalCO2PerYear = carbonProjection.getTotalCO2PerYear();
+        for (int year = (int) ConstantsMath.ZERO; year < totalCO2PerYear.length; year++)
+        {
+            if (projection.length() > 0) projection.append(ConstantsIO.newLine);
+            projection.append(ConstantsIO.projectionYear).append(year).append(ConstantsIO.colon).append(ConstantsIO.tab)
+                    .append(Math.round(totalCO2PerYear[year]));
+        }
+        return projection.toString();
+    }
+
+
+    /**
+     * Formats the estimated carbon of all trees and of each district with their confidence intervals, one per line.
+     *
+     * @param carbonUncertainty The estimates of the stored carbon.
+     *                          ({@code carbonUncertainty} != {@code null})
+     * @return The formatted estimates, rounded to whole kilograms.
+     */
+    public String getCarbonUncertainty (CarbonUncertainty carbonUncertainty)
+    {
+        StringBuilder uncertainty = new StringBuilder();
+        uncertainty.append(ConstantsIO.confidenceLevel).append(ConstantsIO.tab)
+                .append(Math.round(carbonUncertainty.getConfidenceLevel() * ConstantsMath.ONE_HUNDRED)).append(ConstantsIO.percent);
+        appendEstimate(uncertainty, ConstantsIO.berlin, carbonUncertainty.getTotal());
+        for (Map.Entry<String, CarbonEstimate> entry : carbonUncertainty.getEstimatePerDistrict().entrySet())
+        {
+            appendEstimate(uncertainty, entry.getKey(), entry.getValue());
+        }
+        return uncertainty.toString();
+    }
+
+
+    /**
+     * Appends one line with the mean and the confidence interval of an estimate.
+     *
+     * @param uncertainty    The text the line is appended to.
+     * @param name           The name of the estimated trees, like a district.
+     * @param carbonEstimate The estimate.
+     */
+    private void appendEstimate (StringBuilder uncertainty, String name, CarbonEstimate carbonEstimate)
+    {
+        uncertainty.append(ConstantsIO.newLine).append(name).append(ConstantsIO.colon).append(ConstantsIO.tab)
+                .append(Math.round(carbonEstimate.getMean())).append(ConstantsIO.tab).append(ConstantsIO.intervalStart)
+                .append(Math.round(carbonEstimate.getLowerBound())).append(ConstantsIO.intervalSeparator)
+                .append(Math.round(carbonEstimate.getUpperBound())).append(ConstantsIO.intervalEnd);
+    }
+
+
     /**
      * Constructs an error message for invalid input, incorporating the incorrect input received.
      *
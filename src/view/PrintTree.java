@@ -4,6 +4,8 @@ package view;
 import model.Tree;
 import utility.constants.ConstantsIO;
 
+import java.util.List;
+
 
 /**
  * The PrintTree class provides a method that returns a formatted String that outputs the tree for the user.
@@ -34,4 +36,23 @@ public class PrintTree
                 ConstantsIO.districtInfo + ConstantsIO.tab + tree.getDistrict()
         );
     }
+
+
+    /**
+     * Formats several trees like {@link #getTree(Tree)}, separated by an empty line.
+     *
+     * @param treeList The trees to be formatted.
+     *                 ({@code treeList} != {@code null})
+     * @return The formatted string containing the information of all trees.
+     */
+    public static String getTrees (List<Tree> treeList)
+    {
+        StringBuilder trees = new StringBuilder();
+        for (Tree tree : treeList)
+        {
+            if (trees.length() > 0) trees.append(ConstantsIO.newLine);
+            trees.append(getTree(tree));
+        }
+        return trees.toString();
+    }
 }